@@ -29,9 +29,7 @@ import boofcv.misc.BoofMiscOps;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.calib.CameraPinholeBrown;
-import boofcv.struct.image.GrayF32;
-import boofcv.struct.image.ImageType;
-import boofcv.struct.image.Planar;
+import boofcv.struct.image.InterleavedU8;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
@@ -139,11 +137,12 @@ public class BatchRemoveLensDistortion {
 
 		System.out.println("Found a total of "+files.size()+" matching files");
 
-		Planar<GrayF32> distoredImg = new Planar<>(GrayF32.class,param.width,param.height,3);
-		Planar<GrayF32> undistoredImg = new Planar<>(GrayF32.class,param.width,param.height,3);
+		InterleavedU8 distoredImg = new InterleavedU8(param.width,param.height,3);
+		InterleavedU8 undistoredImg = new InterleavedU8(param.width,param.height,3);
 
-		ImageDistort distort = LensDistortionOps.changeCameraModel(adjustmentType, BorderType.ZERO, param,
-				new CameraPinhole(param), paramAdj, (ImageType) distoredImg.getImageType());
+		// The same distortion is applied to every image, so use the fixed point implementation
+		ImageDistort<InterleavedU8,InterleavedU8> distort = LensDistortionOps.changeCameraModelU8(adjustmentType,
+				BorderType.ZERO, param, new CameraPinhole(param), paramAdj, distoredImg.getImageType());
 		CalibrationIO.save(paramAdj,new File(pathOutput,"intrinsicUndistorted.yaml").getAbsolutePath());
 
 		BufferedImage out = new BufferedImage(param.width,param.height,BufferedImage.TYPE_INT_RGB);
@@ -166,7 +165,7 @@ public class BatchRemoveLensDistortion {
 			if( listener != null )
 				listener.loadedImage(orig,file.getName());
 
-			ConvertBufferedImage.convertFromPlanar(orig, distoredImg, true, GrayF32.class);
+			ConvertBufferedImage.convertFromInterleaved(orig, distoredImg, true);
 			distort.apply(distoredImg,undistoredImg);
 			ConvertBufferedImage.convertTo(undistoredImg,out,true);
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkPointTrackerKlt {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"false","true"})
+	public boolean forwardsBackwards;
+
+	GrayF32 image0 = new GrayF32(1280,720);
+	GrayF32 image1 = new GrayF32(1280,720);
+
+	PointTracker<GrayF32> tracker;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(image0,rand,0,200);
+		new FDistort(image0,image1).affine(1,0,0,1,1.5,0.5).borderExt().apply();
+
+		ConfigPKlt config = new ConfigPKlt();
+		config.toleranceFB = forwardsBackwards ? 1.0 : -1;
+		tracker = FactoryPointTracker.klt(config, new ConfigGeneralDetector(2000, 3, 1.0f),
+				GrayF32.class, GrayF32.class);
+	}
+
+	@Benchmark
+	public void process() {
+		tracker.reset();
+		tracker.process(image0);
+		tracker.spawnTracks();
+		tracker.process(image1);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPointTrackerKlt.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
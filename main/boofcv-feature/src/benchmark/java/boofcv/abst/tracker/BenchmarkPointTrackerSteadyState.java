@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks point trackers after they have reached a steady state. Run with the GC profiler to see how much
+ * memory is allocated each frame. Single threaded so that memory allocated by worker threads isn't included.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkPointTrackerSteadyState {
+
+	@Param({"KLT","DDA","COMBINED"})
+	public String type;
+
+	GrayF32[] frames = new GrayF32[3];
+	int frame;
+
+	PointTracker<GrayF32> tracker;
+	List<PointTrack> active = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = false;
+
+		Random rand = new Random(234);
+		GrayF32 noise = new GrayF32(640,480);
+		ImageMiscOps.fillUniform(noise,rand,0,255);
+		GrayF32 blurred = noise.createSameShape();
+		BlurImageOps.gaussian(noise,blurred,-1,3,null);
+		for (int i = 0; i < frames.length; i++) {
+			frames[i] = blurred.createSameShape();
+			new FDistort(blurred,frames[i]).affine(1,0,0,1,i*1.0,i*0.5).borderExt().apply();
+		}
+
+		ConfigGeneralDetector configDetector = new ConfigGeneralDetector(600,3,1);
+		switch( type ) {
+			case "KLT": tracker = FactoryPointTracker.klt(new ConfigPKlt(),configDetector,
+					GrayF32.class,GrayF32.class); break;
+			case "DDA": tracker = FactoryPointTracker.dda_ST_BRIEF(200,configDetector,
+					GrayF32.class,GrayF32.class); break;
+			case "COMBINED": tracker = FactoryPointTracker.combined_ST_SURF_KLT(configDetector,new ConfigPKlt(),
+					50,null,null,GrayF32.class,GrayF32.class); break;
+			default: throw new IllegalArgumentException("Unknown type "+type);
+		}
+
+		// let the tracker allocate all the memory it needs
+		for (int i = 0; i < 20; i++) {
+			process();
+		}
+	}
+
+	@Benchmark
+	public int process() {
+		tracker.process(frames[frame]);
+		frame = (frame+1)%frames.length;
+		active.clear();
+		tracker.getActiveTracks(active);
+		tracker.spawnTracks();
+		return active.size();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPointTrackerSteadyState.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
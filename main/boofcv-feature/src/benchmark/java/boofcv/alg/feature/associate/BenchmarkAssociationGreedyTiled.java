@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F32;
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares greedy association which scores one pair at a time against {@link AssociateGreedyTiled} for
+ * SURF (64 x F64), SIFT (128 x F32), and BRIEF (512-bit) sized descriptors.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkAssociationGreedyTiled {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"true","false"})
+	public boolean backwards;
+
+	@Param({"2000"})
+	public int numFeatures;
+
+	FastQueue<TupleDesc_F64> srcSurf, dstSurf;
+	FastQueue<TupleDesc_F32> srcSift, dstSift;
+	FastQueue<TupleDesc_B> srcBrief, dstBrief;
+
+	AssociateGreedyBase<TupleDesc_F64> pairSurf, tiledSurf;
+	AssociateGreedyBase<TupleDesc_F32> pairSift, tiledSift;
+	AssociateGreedyBase<TupleDesc_B> pairBrief, tiledBrief;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		srcSurf = new FastQueue<>(TupleDesc_F64.class, () -> new TupleDesc_F64(64));
+		dstSurf = new FastQueue<>(TupleDesc_F64.class, () -> new TupleDesc_F64(64));
+		srcSift = new FastQueue<>(TupleDesc_F32.class, () -> new TupleDesc_F32(128));
+		dstSift = new FastQueue<>(TupleDesc_F32.class, () -> new TupleDesc_F32(128));
+		srcBrief = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(512));
+		dstBrief = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(512));
+
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_F64 surf = srcSurf.grow();
+			for (int j = 0; j < surf.value.length; j++) {
+				surf.value[j] = rand.nextDouble();
+			}
+			dstSurf.grow().setTo(surf);
+			dstSurf.getTail().value[0] += rand.nextDouble()*0.1;
+
+			TupleDesc_F32 sift = srcSift.grow();
+			for (int j = 0; j < sift.value.length; j++) {
+				sift.value[j] = rand.nextFloat();
+			}
+			dstSift.grow().setTo(sift);
+			dstSift.getTail().value[0] += rand.nextFloat()*0.1f;
+
+			TupleDesc_B brief = srcBrief.grow();
+			for (int j = 0; j < brief.data.length; j++) {
+				brief.data[j] = rand.nextInt();
+			}
+			dstBrief.grow().setTo(brief);
+			dstBrief.getTail().data[0] ^= rand.nextInt();
+		}
+
+		pairSurf = createPairwise(new ScoreAssociateEuclideanSq_F64());
+		tiledSurf = createTiled(new ScoreAssociateEuclideanSq_F64());
+		pairSift = createPairwise(new ScoreAssociateEuclideanSq_F32());
+		tiledSift = createTiled(new ScoreAssociateEuclideanSq_F32());
+		pairBrief = createPairwise(new ScoreAssociateHamming_B());
+		tiledBrief = createTiled(new ScoreAssociateHamming_B());
+	}
+
+	private <D> AssociateGreedyBase<D> createPairwise( ScoreAssociation<D> score ) {
+		return concurrent ? new AssociateGreedy_MT<>(score, backwards) : new AssociateGreedy<>(score, backwards);
+	}
+
+	private <D> AssociateGreedyBase<D> createTiled( ScoreAssociation<D> score ) {
+		return new AssociateGreedyTiled<>(score, AssociateGreedyTiled.createKernel(score), backwards);
+	}
+
+	@Benchmark
+	public void pairwise_SURF() {
+		pairSurf.associate(srcSurf, dstSurf);
+	}
+
+	@Benchmark
+	public void tiled_SURF() {
+		tiledSurf.associate(srcSurf, dstSurf);
+	}
+
+	@Benchmark
+	public void pairwise_SIFT() {
+		pairSift.associate(srcSift, dstSift);
+	}
+
+	@Benchmark
+	public void tiled_SIFT() {
+		tiledSift.associate(srcSift, dstSift);
+	}
+
+	@Benchmark
+	public void pairwise_BRIEF() {
+		pairBrief.associate(srcBrief, dstBrief);
+	}
+
+	@Benchmark
+	public void tiled_BRIEF() {
+		tiledBrief.associate(srcBrief, dstBrief);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationGreedyTiled.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateNearestNeighbor;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares brute force association against approximate nearest-neighbor association for large sets of
+ * binary and float descriptors. The destination set is a noisy copy of the source set.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkAssociationSpeedApproximate {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"1000","5000"})
+	public int numFeatures;
+
+	FastQueue<TupleDesc_B> srcB, dstB;
+	FastQueue<TupleDesc_F32> srcF, dstF;
+
+	AssociateDescription<TupleDesc_B> greedyB;
+	AssociateDescription<TupleDesc_B> lsh;
+	AssociateDescription<TupleDesc_F32> greedyF;
+	AssociateDescription<TupleDesc_F32> forest;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		srcB = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(256));
+		dstB = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(256));
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_B a = srcB.grow();
+			TupleDesc_B b = dstB.grow();
+			for (int j = 0; j < a.data.length; j++) {
+				a.data[j] = rand.nextInt();
+			}
+			b.setTo(a);
+			for (int j = 0; j < 10; j++) {
+				int bit = rand.nextInt(256);
+				b.data[bit/32] ^= 1 << (bit%32);
+			}
+		}
+
+		srcF = new FastQueue<>(TupleDesc_F32.class, () -> new TupleDesc_F32(64));
+		dstF = new FastQueue<>(TupleDesc_F32.class, () -> new TupleDesc_F32(64));
+		for (int i = 0; i < numFeatures; i++) {
+			TupleDesc_F32 a = srcF.grow();
+			TupleDesc_F32 b = dstF.grow();
+			for (int j = 0; j < a.value.length; j++) {
+				a.value[j] = rand.nextFloat();
+				b.value[j] = a.value[j] + (rand.nextFloat()-0.5f)*0.05f;
+			}
+		}
+
+		ConfigAssociateNearestNeighbor configNN = new ConfigAssociateNearestNeighbor();
+
+		greedyB = FactoryAssociation.greedy(FactoryAssociation.scoreHamming(TupleDesc_B.class),Double.MAX_VALUE,false);
+		lsh = FactoryAssociation.lshHamming(configNN,10,16,true,234);
+		greedyF = FactoryAssociation.greedy(FactoryAssociation.scoreEuclidean(TupleDesc_F32.class,true),
+				Double.MAX_VALUE,false);
+		forest = FactoryAssociation.kdRandomForest(configNN,64,500,10,5,234,TupleDesc_F32.class);
+	}
+
+	@Benchmark
+	public void greedy_B() {
+		greedyB.setSource(srcB);
+		greedyB.setDestination(dstB);
+		greedyB.associate();
+	}
+
+	@Benchmark
+	public void lsh_B() {
+		lsh.setSource(srcB);
+		lsh.setDestination(dstB);
+		lsh.associate();
+	}
+
+	@Benchmark
+	public void greedy_F32() {
+		greedyF.setSource(srcF);
+		greedyF.setDestination(dstF);
+		greedyF.associate();
+	}
+
+	@Benchmark
+	public void forest_F32() {
+		forest.setSource(srcF);
+		forest.setDestination(dstF);
+		forest.associate();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkAssociationSpeedApproximate.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.dense.ConfigDenseHoG;
+import boofcv.factory.feature.dense.FactoryDescribeImageDenseAlg;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores every window in an image with a linear classifier using HOG. The sliding window computes each block once
+ * while the dense alternative copies every window's descriptor.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkDenseHogSlidingWindow {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	// pedestrian sized window. 64x128 pixels
+	int windowCellsX = 8, windowCellsY = 16;
+
+	GrayF32 image = new GrayF32(640,480);
+
+	DescribeDenseHogFastAlg<GrayF32> dense;
+	DenseHogSlidingWindow<GrayF32> window;
+
+	// weights of the linear classifier
+	double[] weights;
+
+	GrowQueue_I32 blocks = new GrowQueue_I32();
+	TupleDesc_F64 desc;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(image,rand,0,200);
+
+		ConfigDenseHoG config = new ConfigDenseHoG();
+		config.fastVariant = true;
+		config.cellsPerBlockX = config.cellsPerBlockY = 2;
+		config.orientationBins = 9;
+		config.pixelsPerCell = 8;
+		config.stepBlock = 1;
+
+		dense = FactoryDescribeImageDenseAlg.hogFast(config, ImageType.single(GrayF32.class));
+		window = FactoryDescribeImageDenseAlg.hogSlidingWindow(config,windowCellsX,windowCellsY,
+				ImageType.single(GrayF32.class));
+
+		weights = new double[window.getWindowLength()];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = rand.nextGaussian();
+		}
+		desc = new TupleDesc_F64(window.getWindowLength());
+	}
+
+	@Benchmark
+	public void dense() {
+		dense.setInput(image);
+		dense.process();
+	}
+
+	@Benchmark
+	public double slidingWindow_blocks() {
+		window.process(image);
+		window.computeAllBlocks();
+
+		double best = -Double.MAX_VALUE;
+		double[] data = window.getBlockData();
+		int blockLength = window.getBlockLength();
+		for (int row = 0; row < window.getWindowRows(); row++) {
+			for (int col = 0; col < window.getWindowCols(); col++) {
+				window.getWindowBlocks(row,col,blocks);
+				double score = 0;
+				for (int i = 0, w = 0; i < blocks.size; i++) {
+					int index = blocks.data[i];
+					for (int k = 0; k < blockLength; k++) {
+						score += weights[w++]*data[index+k];
+					}
+				}
+				best = Math.max(best,score);
+			}
+		}
+		return best;
+	}
+
+	@Benchmark
+	public double slidingWindow_copy() {
+		window.process(image);
+
+		double best = -Double.MAX_VALUE;
+		for (int row = 0; row < window.getWindowRows(); row++) {
+			for (int col = 0; col < window.getWindowCols(); col++) {
+				window.getWindowDescriptor(row,col,desc);
+				double score = 0;
+				for (int i = 0; i < weights.length; i++) {
+					score += weights[i]*desc.value[i];
+				}
+				best = Math.max(best,score);
+			}
+		}
+		return best;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDenseHogSlidingWindow.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares describing BRIEF features one at a time against describing all of them at once
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkDescribeBrief {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"5000"})
+	public int numPoints;
+
+	GrayU8 image = new GrayU8(640,480);
+
+	List<Point2D_F64> points = new ArrayList<>();
+	GrowQueue_F64 orientations = new GrowQueue_F64();
+	GrowQueue_F64 radii = new GrowQueue_F64();
+
+	DescribePointBrief<GrayU8> brief;
+	DescribePointBriefSO<GrayU8> briefSO;
+
+	TupleDesc_B desc;
+	PackedTupleArray_B packed;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		ImageMiscOps.fillUniform(image,rand,0,255);
+
+		points.clear();
+		orientations.reset();
+		radii.reset();
+		for (int i = 0; i < numPoints; i++) {
+			points.add(new Point2D_F64(rand.nextDouble()*image.width,rand.nextDouble()*image.height));
+			orientations.add((rand.nextDouble()-0.5)*2.0*Math.PI);
+			radii.add(10+rand.nextDouble()*10);
+		}
+
+		BinaryCompareDefinition_I32 def = FactoryBriefDefinition.gaussian2(rand,16,512);
+		BlurFilter<GrayU8> filterBlur = FactoryBlurFilter.gaussian(ImageType.single(GrayU8.class),-1,2);
+		brief = FactoryDescribePointAlgs.brief(def,filterBlur);
+		briefSO = FactoryDescribePointAlgs.briefso(def,filterBlur);
+		brief.setImage(image);
+		briefSO.setImage(image);
+
+		desc = brief.createFeature();
+		packed = new PackedTupleArray_B(def.getLength());
+	}
+
+	@Benchmark
+	public void brief_single() {
+		for (int i = 0; i < points.size(); i++) {
+			Point2D_F64 p = points.get(i);
+			brief.process(p.x,p.y,desc);
+		}
+	}
+
+	@Benchmark
+	public void brief_batch() {
+		brief.process(points,packed);
+	}
+
+	@Benchmark
+	public void briefSO_single() {
+		for (int i = 0; i < points.size(); i++) {
+			Point2D_F64 p = points.get(i);
+			briefSO.process((float)p.x,(float)p.y,(float)orientations.get(i),(float)radii.get(i),desc);
+		}
+	}
+
+	@Benchmark
+	public void briefSO_batch() {
+		briefSO.process(points,orientations,radii,packed);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDescribeBrief.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
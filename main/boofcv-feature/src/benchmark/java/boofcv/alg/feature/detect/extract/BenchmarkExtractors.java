@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -59,6 +59,10 @@ public class BenchmarkExtractors {
 
 
 	NonMaxSuppression blockStrictMax;
+	NonMaxExtractorNaive naiveStrictMax;
+	ThresholdCornerExtractor thresholdAll;
+	SelectNBestFeatures selectBest;
+	QueueCorner candidates = new QueueCorner();
 
 	@Setup
 	public void setup() {
@@ -77,6 +81,14 @@ public class BenchmarkExtractors {
 		config.threshold = threshold;
 		config.useStrictRule = true;
 		blockStrictMax = FactoryFeatureExtractor.nonmax(config);
+
+		naiveStrictMax = concurrent ? new NonMaxExtractorNaive_MT(true) : new NonMaxExtractorNaive(true);
+		naiveStrictMax.radius = radius;
+		naiveStrictMax.thresh = threshold;
+
+		thresholdAll = concurrent ? new ThresholdCornerExtractor_MT(150) : new ThresholdCornerExtractor(150);
+		selectBest = concurrent ? new SelectNBestFeatures_MT(1000) : new SelectNBestFeatures(1000);
+		thresholdAll.process(intensity,candidates);
 	}
 
 	@Benchmark
@@ -122,10 +134,18 @@ public class BenchmarkExtractors {
 
 	@Benchmark
 	public void naiveStrictMax() {
-		NonMaxExtractorNaive alg = new NonMaxExtractorNaive(true);
-		alg.radius = radius;
-		alg.thresh = threshold;
-		alg.process(intensity,corners);
+		corners.reset();
+		naiveStrictMax.process(intensity,corners);
+	}
+
+	@Benchmark
+	public void thresholdAll() {
+		thresholdAll.process(intensity,corners);
+	}
+
+	@Benchmark
+	public void selectBest() {
+		selectBest.process(intensity,candidates,true);
 	}
 
 	public static void main(String[] args) throws RunnerException {
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the Fast Hessian detector and SURF detect and describe on a full image.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFastHessianFeatureDetector {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"640","1280"})
+	public int width;
+
+	GrayF32 image;
+	GrayF32 integral;
+
+	FastHessianFeatureDetector<GrayF32> detector;
+	DetectDescribePoint<GrayF32, BrightFeature> surf;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		int height = width*3/4;
+		GrayF32 noise = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(noise,rand,0,255);
+		// blur it so that there are blobs of different sizes
+		image = BlurImageOps.gaussian(noise,null,-1,3,null);
+		integral = IntegralImageOps.transform(image,null);
+
+		detector = FactoryInterestPointAlgs.fastHessian(null);
+		surf = FactoryDetectDescribe.surfStable(null,null,null,GrayF32.class);
+	}
+
+	@Benchmark
+	public void detect() {
+		detector.detect(integral);
+	}
+
+	@Benchmark
+	public void surfStable() {
+		surf.detect(image);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastHessianFeatureDetector.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
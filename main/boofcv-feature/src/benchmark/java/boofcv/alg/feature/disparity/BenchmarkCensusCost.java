@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity;
+
+import boofcv.alg.feature.disparity.block.BlockRowScoreCensus;
+import boofcv.alg.feature.disparity.sgm.cost.SgmCostHamming;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayS64;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing the hamming distance between census transformed images, by itself, for SGM and block matching.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCensusCost {
+	@Param({"64","128"})
+	public int disparityRange=64;
+
+	public int width=640,height=480;
+	public int radius=2;
+
+	GrayS64 left = new GrayS64(1,1);
+	GrayS64 right = new GrayS64(1,1);
+
+	SgmCostHamming.S64 sgm = new SgmCostHamming.S64();
+	Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,1,1,1);
+
+	BlockRowScoreCensus.S64 block = new BlockRowScoreCensus.S64(-1);
+	long[] leftRow, rightRow;
+	int[] scores, elementScore;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		left.reshape(width,height);
+		right.reshape(width,height);
+		// census values use all the bits
+		for (int i = 0; i < width*height; i++) {
+			left.data[i] = rand.nextLong();
+			right.data[i] = rand.nextLong();
+		}
+
+		sgm.configure(0,disparityRange);
+
+		block.setBorder(FactoryImageBorder.generic(BorderType.EXTENDED, ImageType.single(GrayS64.class)));
+		block.setInput(left,right);
+		leftRow = new long[width+2*radius];
+		rightRow = new long[width+2*radius];
+		scores = new int[width*disparityRange];
+		elementScore = new int[width+2*radius];
+	}
+
+	@Benchmark
+	public void Sgm() {
+		sgm.process(left,right,costYXD);
+	}
+
+	@Benchmark
+	public void BlockRows() {
+		for (int y = 0; y < height; y++) {
+			System.arraycopy(left.data,y*width,leftRow,radius,width);
+			System.arraycopy(right.data,y*width,rightRow,radius,width);
+			block.scoreRow(y,leftRow,rightRow,scores,0,disparityRange-1,2*radius+1,elementScore);
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkCensusCost.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.disparity.ConfigDisparitySGM;
+import boofcv.factory.feature.disparity.DisparitySgmError;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SGM which declares the full cost tensor against the streaming variant which processes one row
+ * at a time. Run with "-prof gc" to see the difference in memory.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSgmStreaming {
+	@Param({"true","false"})
+	public boolean concurrent=false;
+
+	@Param({"64","128"})
+	public int disparityRange=64;
+
+	// Paths which both approaches can compute and the best which each one can do
+	@Param({"P4","P8"})
+	public String paths="P8";
+
+	public int width=640,height=480;
+
+	GrayU8 left = new GrayU8(1,1);
+	GrayU8 right = new GrayU8(1,1);
+
+	SgmStereoDisparity<GrayU8,?> full;
+	SgmStereoDisparity<GrayU8,?> streaming;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Random rand = new Random(234);
+		left.reshape(width,height);
+		right.reshape(width,height);
+		ImageMiscOps.fillUniform(left,rand,0,200);
+		ImageMiscOps.fillUniform(right,rand,0,200);
+
+		ConfigDisparitySGM config = new ConfigDisparitySGM();
+		config.disparityRange = disparityRange;
+		config.errorType = DisparitySgmError.CENSUS;
+		config.useBlocks = false;
+		config.subpixel = false;
+		config.paths = ConfigDisparitySGM.Paths.valueOf(paths);
+
+		full = FactoryStereoDisparityAlgs.createSgm(config);
+		config.streaming = true;
+		streaming = FactoryStereoDisparityAlgs.createSgm(config);
+	}
+
+	@Benchmark
+	public void Full() {
+		full.process(left,right);
+	}
+
+	@Benchmark
+	public void Streaming() {
+		streaming.process(left,right);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkSgmStreaming.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -82,10 +82,18 @@ public class GenerateImplDescribeBinaryCompare extends CodeGeneratorBase {
 		String sumType = imageType.getSumType();
 
 		out.print("\t@Override\n" +
-				"\tpublic void processInside( int c_x , int c_y , TupleDesc_B feature )\n" +
-				"\t{\n" +
+				"\tpublic void processInside( int c_x , int c_y , TupleDesc_B feature ) {\n" +
 				"\t\tArrays.fill(feature.data, 0);\n" +
-				"\n" +
+				"\t\tprocessInside(c_x,c_y,feature.data,0);\n" +
+				"\t}\n\n" +
+				"\t@Override\n" +
+				"\tpublic void processBorder( int c_x , int c_y , TupleDesc_B feature ) {\n" +
+				"\t\tArrays.fill(feature.data, 0);\n" +
+				"\t\tprocessBorder(c_x,c_y,feature.data,0);\n" +
+				"\t}\n\n" +
+				"\t@Override\n" +
+				"\tpublic void processInside( int c_x , int c_y , int[] data , int offset )\n" +
+				"\t{\n" +
 				"\t\tint index = image.startIndex + image.stride*c_y + c_x;\n" +
 				"\n" +
 				"\t\tfor( int i = 0; i < definition.compare.length; i += 32 ) {\n" +
@@ -98,20 +106,16 @@ public class GenerateImplDescribeBinaryCompare extends CodeGeneratorBase {
 				"\t\t\t\tvalA = image.data[index + offsetsA[j]]"+bitwise+";\n" +
 				"\t\t\t\tvalB = image.data[index + offsetsB[j]]"+bitwise+";\n" +
 				"\n" +
-				"\t\t\t\tdesc *= 2;\n" +
-				"\t\t\t\tif( valA < valB ) {\n" +
-				"\t\t\t\t\tdesc += 1;\n" +
-				"\t\t\t\t}\n" +
+				"\t\t\t\t// branchless since the comparison is unpredictable\n" +
+				"\t\t\t\tdesc = (desc << 1) | (valA < valB ? 1 : 0);\n" +
 				"\t\t\t}\n" +
 				"\n" +
-				"\t\t\tfeature.data[ i/32 ] = desc;\n" +
+				"\t\t\tdata[ offset + i/32 ] = desc;\n" +
 				"\t\t}\n" +
 				"\t}\n\n");
 
 		out.print("\t@Override\n" +
-				"\tpublic void processBorder( int c_x , int c_y , TupleDesc_B feature ) {\n" +
-				"\t\tArrays.fill(feature.data, 0);\n" +
-				"\n" +
+				"\tpublic void processBorder( int c_x , int c_y , int[] data , int offset ) {\n" +
 				"\t\tint index = image.startIndex + image.stride*c_y + c_x;\n" +
 				"\n" +
 				"\t\tfor( int i = 0; i < definition.compare.length; i += 32 ) {\n" +
@@ -134,7 +138,7 @@ public class GenerateImplDescribeBinaryCompare extends CodeGeneratorBase {
 				"\t\t\t\t\t}\n" +
 				"\t\t\t\t}\n" +
 				"\t\t\t}\n" +
-				"\t\t\tfeature.data[ i/32 ] = desc;\n" +
+				"\t\t\tdata[ offset + i/32 ] = desc;\n" +
 				"\t\t}\n" +
 				"\t}\n\n");
 	}
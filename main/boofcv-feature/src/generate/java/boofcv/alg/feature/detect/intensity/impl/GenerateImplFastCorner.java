@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -428,6 +428,10 @@ public class GenerateImplFastCorner extends CodeGeneratorBase {
 						"\n" +
 						"\tpublic "+className+"("+sumType+" pixelTol) {\n" +
 						"\t\tsuper(pixelTol);\n" +
+						"\t}\n\n" +
+						"\t@Override\n" +
+						"\tpublic "+className+" newInstance() {\n" +
+						"\t\treturn new "+className+"(tol);\n" +
 						"\t}\n\n");
 	}
 
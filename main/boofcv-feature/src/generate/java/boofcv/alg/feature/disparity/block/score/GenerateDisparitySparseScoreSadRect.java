@@ -125,6 +125,11 @@ public class GenerateDisparitySparseScoreSadRect extends CodeGeneratorBase {
 				"\t@Override\n" +
 				"\tpublic Class<"+typeInput+"> getImageType() {\n" +
 				"\t\treturn "+typeInput+".class;\n" +
+				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic "+className+" concurrentCopy() {\n" +
+				"\t\treturn copySettings(new "+className+"(radiusX,radiusY));\n" +
 				"\t}\n\n");
 	}
 
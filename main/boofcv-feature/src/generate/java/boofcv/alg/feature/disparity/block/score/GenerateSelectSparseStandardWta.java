@@ -55,6 +55,7 @@ public class GenerateSelectSparseStandardWta extends CodeGeneratorBase {
 		printPreamble();
 		printSetTexture();
 		printSelect();
+		printConcurrentCopy();
 
 		out.println("}");
 	}
@@ -148,6 +149,13 @@ public class GenerateSelectSparseStandardWta extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	private void printConcurrentCopy() {
+		out.print("\t@Override\n" +
+				"\tpublic "+className+" concurrentCopy() {\n" +
+				"\t\treturn new "+className+"(maxError,texture);\n" +
+				"\t}\n\n");
+	}
+
 	public static void main( String args[] ) throws FileNotFoundException {
 		GenerateSelectSparseStandardWta gen = new GenerateSelectSparseStandardWta();
 
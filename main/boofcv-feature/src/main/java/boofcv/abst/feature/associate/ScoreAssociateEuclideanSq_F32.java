@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.abst.feature.associate;
 
 import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray_F32;
 import boofcv.struct.feature.TupleDesc_F32;
 
 
@@ -30,12 +31,17 @@ import boofcv.struct.feature.TupleDesc_F32;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateEuclideanSq_F32 implements ScoreAssociation<TupleDesc_F32> {
+public class ScoreAssociateEuclideanSq_F32 implements ScoreAssociationPacked<TupleDesc_F32,PackedTupleArray_F32> {
 	@Override
 	public double score(TupleDesc_F32 a, TupleDesc_F32 b) {
 		return DescriptorDistance.euclideanSq(a, b);
 	}
 
+	@Override
+	public double score(PackedTupleArray_F32 a, int indexA, PackedTupleArray_F32 b, int indexB) {
+		return DescriptorDistance.euclideanSq(a.data, indexA*a.dof, b.data, indexB*b.dof, a.dof);
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.abst.feature.associate;
 
 import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 
 /**
@@ -28,13 +29,18 @@ import boofcv.struct.feature.TupleDesc_B;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateHamming_B implements ScoreAssociation<TupleDesc_B>{
+public class ScoreAssociateHamming_B implements ScoreAssociationPacked<TupleDesc_B,PackedTupleArray_B> {
 
 	@Override
 	public double score(TupleDesc_B a, TupleDesc_B b) {
 		return DescriptorDistance.hamming(a,b);
 	}
 
+	@Override
+	public double score(PackedTupleArray_B a, int indexA, PackedTupleArray_B b, int indexB) {
+		return DescriptorDistance.hamming(a.data, indexA*a.numInts, b.data, indexB*b.numInts, a.numInts);
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
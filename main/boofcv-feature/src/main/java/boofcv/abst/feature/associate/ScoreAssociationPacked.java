@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.struct.PackedArray;
+
+/**
+ * Extension of {@link ScoreAssociation} which can also score features stored inside of a {@link PackedArray}. The
+ * descriptors are read directly from the packed array's storage, avoiding the need to copy them out first.
+ * Lower scores are better and the score is identical to the one computed by {@link #score(Object, Object)}.
+ *
+ * @param <D> Feature description type.
+ * @param <P> Packed array type.
+ *
+ * @author Peter Abeles
+ */
+public interface ScoreAssociationPacked<D, P extends PackedArray<D>> extends ScoreAssociation<D> {
+
+	/**
+	 * Compute the fit score between the two features.  A better fit score will have a lower value.
+	 *
+	 * @param a Array containing the first feature
+	 * @param indexA Index of the first feature
+	 * @param b Array containing the second feature
+	 * @param indexB Index of the second feature
+	 * @return Quality of fit score.  Lower is better.
+	 */
+	double score( P a , int indexA , P b , int indexB );
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.abst.feature.detdesc;
 
 import boofcv.abst.feature.describe.DescriptorInfo;
 import boofcv.abst.feature.detect.interest.InterestPointDetector;
+import boofcv.struct.PackedArray;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageBase;
 
@@ -43,5 +44,21 @@ public interface DetectDescribePoint<T extends ImageBase<T>, Desc extends TupleD
 	 * @return Feature descriptor
 	 */
 	Desc getDescription(int index);
+
+	/**
+	 * Copies the descriptions of all the detected features into a packed array, which is discarded first.
+	 * Packed arrays can be passed directly to association algorithms such as
+	 * {@link boofcv.alg.feature.associate.AssociateGreedyPacked}.
+	 *
+	 * @param output (Output) Storage for the descriptions
+	 */
+	default void copyDescriptions( PackedArray<Desc> output ) {
+		int N = getNumberOfFeatures();
+		output.reset();
+		output.reserve(N);
+		for (int i = 0; i < N; i++) {
+			output.append(getDescription(i));
+		}
+	}
 }
 
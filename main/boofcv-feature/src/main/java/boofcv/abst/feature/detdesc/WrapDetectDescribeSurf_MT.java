@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,9 +25,11 @@ import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.ScalePoint;
 import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
 
 /**
- * Concurrent implementations of {@link WrapDetectDescribeSurf}.
+ * Concurrent implementations of {@link WrapDetectDescribeSurf}. Each thread has its own copy of the orientation
+ * and description algorithms, which are reused between images.
  *
  * @author Peter Abeles
  */
@@ -40,11 +42,15 @@ public class WrapDetectDescribeSurf_MT<T extends ImageGray<T>, II extends ImageG
 		super(detector, orientation, describe);
 	}
 
+	// Copies of the orientation and description algorithms for each thread
+	private final FastQueue<ThreadWork> workspace = new FastQueue(ThreadWork.class,
+			()->new ThreadWork((OrientationIntegral)orientation.copy(),describe.copy()));
+
 	@Override
 	protected void computeDescriptors() {
-		BoofConcurrency.loopBlocks(0,foundPoints.size(),(i0, i1)->{
-			OrientationIntegral<II> orientation = (OrientationIntegral)this.orientation.copy();
-			DescribePointSurf<II> describe = this.describe.copy();
+		BoofConcurrency.loopBlocks(0,foundPoints.size(),workspace,(work, i0, i1)->{
+			OrientationIntegral<II> orientation = work.orientation;
+			DescribePointSurf<II> describe = work.describe;
 
 			orientation.setImage(ii);
 			describe.setImage(ii);
@@ -60,4 +66,14 @@ public class WrapDetectDescribeSurf_MT<T extends ImageGray<T>, II extends ImageG
 			}
 		});
 	}
+
+	private class ThreadWork {
+		OrientationIntegral<II> orientation;
+		DescribePointSurf<II> describe;
+
+		public ThreadWork(OrientationIntegral<II> orientation, DescribePointSurf<II> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
 }
@@ -19,6 +19,10 @@
 package boofcv.abst.feature.disparity;
 
 import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
 
 /**
  * <p>
@@ -61,6 +65,23 @@ public interface StereoDisparitySparse<Image extends ImageGray> {
 	 */
 	public double getDisparity();
 
+	/**
+	 * Computes the disparity at every pixel in the list. Pixels are independent of each other and implementations
+	 * can process them concurrently, making this much faster than calling {@link #process(int, int)} for each pixel
+	 * when a large number of pixels are requested. Results are identical to processing the pixels one at a time.
+	 *
+	 * @param pixels (Input) Pixels that disparity is computed at
+	 * @param disparity (Output) Disparity at each pixel, in the same order as the input. If no valid correspondence
+	 *                  was found then the value is Double.NaN.
+	 */
+	default void process( List<Point2D_I32> pixels , GrowQueue_F64 disparity ) {
+		disparity.resize(pixels.size());
+		for (int i = 0; i < pixels.size(); i++) {
+			Point2D_I32 p = pixels.get(i);
+			disparity.data[i] = process(p.x,p.y) ? getDisparity() : Double.NaN;
+		}
+	}
+
 	/**
 	 * Border around the image's x-axis which is not processed.
 	 * @return border x-axis
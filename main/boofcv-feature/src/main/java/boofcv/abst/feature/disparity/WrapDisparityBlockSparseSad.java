@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,9 +20,19 @@ package boofcv.abst.feature.disparity;
 
 import boofcv.alg.feature.disparity.block.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.block.DisparitySparseSelect;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.border.ImageBorder;
 import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
 
 /**
+ * Wrapper around {@link DisparitySparseScoreSadRect} and {@link DisparitySparseSelect}. When a batch of pixels
+ * is processed concurrently each thread is given its own copy of the score and select algorithms.
+ *
  * @author Peter Abeles
  */
 public class WrapDisparityBlockSparseSad<ArrayData,T extends ImageGray<T>>
@@ -34,6 +44,12 @@ public class WrapDisparityBlockSparseSad<ArrayData,T extends ImageGray<T>>
 	// for an insignificant speed boost save this constant as a floating point number
 	double minDisparityFloat;
 
+	// reference to input images
+	T left, right;
+
+	// Storage for each thread when processing a batch of pixels
+	FastQueue<WorkSpace> workspace = new FastQueue(WorkSpace.class,WorkSpace::new);
+
 	public WrapDisparityBlockSparseSad(DisparitySparseScoreSadRect<ArrayData,T> computeScore,
 									   DisparitySparseSelect<ArrayData> select ) {
 		this.computeScore = computeScore;
@@ -42,6 +58,8 @@ public class WrapDisparityBlockSparseSad<ArrayData,T extends ImageGray<T>>
 
 	@Override
 	public void setImages(T imageLeft, T imageRight ) {
+		this.left = imageLeft;
+		this.right = imageRight;
 		computeScore.setImages(imageLeft,imageRight);
 		minDisparityFloat = computeScore.getDisparityMin();
 	}
@@ -59,6 +77,38 @@ public class WrapDisparityBlockSparseSad<ArrayData,T extends ImageGray<T>>
 		return false;
 	}
 
+	@Override
+	public void process( List<Point2D_I32> pixels , GrowQueue_F64 disparity ) {
+		disparity.resize(pixels.size());
+
+		if( BoofConcurrency.isUseConcurrent() ) {
+			BoofConcurrency.loopBlocks(0,pixels.size(),workspace,(ws,idx0,idx1)->{
+				ws.initialize();
+				for (int i = idx0; i < idx1; i++) {
+					Point2D_I32 p = pixels.get(i);
+					disparity.data[i] = process(ws.score,ws.select,p.x,p.y);
+				}
+			});
+		} else {
+			for (int i = 0; i < pixels.size(); i++) {
+				Point2D_I32 p = pixels.get(i);
+				disparity.data[i] = process(computeScore,select,p.x,p.y);
+			}
+		}
+	}
+
+	/**
+	 * Computes the disparity at a single pixel using the provided algorithms
+	 *
+	 * @return the disparity or NaN if it failed
+	 */
+	private double process( DisparitySparseScoreSadRect<ArrayData,T> computeScore,
+							DisparitySparseSelect<ArrayData> select, int x , int y ) {
+		if( computeScore.process(x,y) && select.select(computeScore.getScore(), computeScore.getLocalMaxRange()) )
+			return minDisparityFloat+select.getDisparity();
+		return Double.NaN;
+	}
+
 	@Override
 	public int getBorderX() {
 		return computeScore.getRadiusX();
@@ -91,4 +141,33 @@ public class WrapDisparityBlockSparseSad<ArrayData,T extends ImageGray<T>>
 	public DisparitySparseSelect<ArrayData> getSelect() {
 		return select;
 	}
+
+	/**
+	 * Copy of the score and select algorithms for use in a single thread
+	 */
+	class WorkSpace {
+		DisparitySparseScoreSadRect<ArrayData,T> score;
+		DisparitySparseSelect<ArrayData> select;
+		// border the copy of the score algorithm was created with
+		ImageBorder<T> srcBorder;
+
+		/**
+		 * Creates new copies if the configuration of the original score algorithm has changed since it was copied,
+		 * e.g. by calling configure() or setBorder(), then sets the input images
+		 */
+		void initialize() {
+			if( score == null || isStale() ) {
+				score = computeScore.concurrentCopy();
+				select = WrapDisparityBlockSparseSad.this.select.concurrentCopy();
+				srcBorder = computeScore.getBorder();
+			}
+			score.setImages(left,right);
+		}
+
+		boolean isStale() {
+			return score.getDisparityMin() != computeScore.getDisparityMin() ||
+					score.getDisparityRange() != computeScore.getDisparityRange() ||
+					srcBorder != computeScore.getBorder();
+		}
+	}
 }
@@ -29,6 +29,7 @@ import org.ddogleg.struct.GrowQueue_I32;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Consumer;
 
 
 /**
@@ -76,6 +77,8 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 	// maximum number of tracks it will keep track of that were not associated before it starts discarding
 	protected int maxInactiveTracks;
 	protected GrowQueue_I32 unassociatedIdx = new GrowQueue_I32();
+	// storage for tracks which are to be dropped
+	protected List<PointTrack> dropList = new ArrayList<>();
 
 	// Random number generator
 	protected Random rand;
@@ -190,7 +193,7 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 				unassociated.data[i] = unassociated.data[selected];
 				unassociated.data[selected] = a;
 			}
-			List<PointTrack> dropList = new ArrayList<>();
+			dropList.clear();
 			for (int i = 0; i < numDrop; i++) {
 				dropList.add( info.tracks.get(unassociated.get(i)) );
 			}
@@ -343,7 +346,7 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 
 	@Override
 	public void dropAllTracks() {
-		unused.addAll(tracksAll);
+		addToList(tracksAll,unused);
 		tracksActive.clear();
 		tracksInactive.clear();
 		tracksAll.clear();
@@ -382,7 +385,7 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 		if( list == null )
 			list = new ArrayList<>();
 
-		list.addAll(tracksActive);
+		addToList(tracksActive,list);
 		return list;
 	}
 
@@ -391,7 +394,7 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 		if( list == null )
 			list = new ArrayList<>();
 
-		list.addAll(tracksDropped);
+		addToList(tracksDropped,list);
 		return list;
 	}
 
@@ -400,7 +403,7 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 		if( list == null )
 			list = new ArrayList<>();
 
-		list.addAll(tracksNew);
+		addToList(tracksNew,list);
 		return list;
 	}
 
@@ -409,7 +412,7 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 		if( list == null )
 			list = new ArrayList<>();
 
-		list.addAll(tracksAll);
+		addToList(tracksAll,list);
 		return list;
 	}
 
@@ -418,10 +421,26 @@ public class DetectDescribeAssociate<I extends ImageGray<I>, Desc extends TupleD
 		if( list == null )
 			list = new ArrayList<>();
 
-		list.addAll(tracksInactive);
+		addToList(tracksInactive,list);
 		return list;
 	}
 
+	@Override
+	public void forEachActiveTrack( Consumer<PointTrack> visitor ) {
+		for (int i = 0; i < tracksActive.size(); i++) {
+			visitor.accept(tracksActive.get(i));
+		}
+	}
+
+	/**
+	 * Adds the tracks to the list. Uses a loop since {@link List#addAll} creates a copy of the input
+	 */
+	protected static void addToList( List<PointTrack> in , List<PointTrack> out ) {
+		for (int i = 0; i < in.size(); i++) {
+			out.add(in.get(i));
+		}
+	}
+
 	protected static class SetTrackInfo<Desc> {
 		// location of interest points
 		protected FastQueue<Point2D_F64> locDst = new FastQueue<>(10, Point2D_F64.class, false);
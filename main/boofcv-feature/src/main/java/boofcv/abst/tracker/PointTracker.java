@@ -21,6 +21,7 @@ package boofcv.abst.tracker;
 import boofcv.struct.image.ImageBase;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <p>
@@ -117,6 +118,19 @@ public interface PointTracker<T extends ImageBase<T>> {
 	 */
 	List<PointTrack> getActiveTracks(List<PointTrack> list);
 
+	/**
+	 * Passes each active track to the visitor. Unlike {@link #getActiveTracks} the tracks are not copied into
+	 * a list, which avoids creating garbage each frame. Tracks must not be added or dropped while being visited.
+	 *
+	 * @param visitor Called once for each active track
+	 */
+	default void forEachActiveTrack( Consumer<PointTrack> visitor ) {
+		List<PointTrack> list = getActiveTracks(null);
+		for (int i = 0; i < list.size(); i++) {
+			visitor.accept(list.get(i));
+		}
+	}
+
 	/**
 	 * Returns a list of inactive tracks.  A track is inactive if it is not
 	 * associated with any features in the current image.
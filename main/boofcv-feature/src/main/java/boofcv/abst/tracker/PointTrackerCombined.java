@@ -31,6 +31,7 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Wrapper around {@link CombinedTrackerScalePoint} for {@link PointTracker}. Features are respawned when the
@@ -113,11 +114,15 @@ public class PointTrackerCombined<I extends ImageGray<I>, D extends ImageGray<D>
 		}
 
 		// Update the PointTrack state for KLT tracks
-		for( CombinedTrack<Desc> t : tracker.getPureKlt() ) {
+		List<CombinedTrack<Desc>> pureKlt = tracker.getPureKlt();
+		for (int i = 0; i < pureKlt.size(); i++) {
+			CombinedTrack<Desc> t = pureKlt.get(i);
 			((PointTrack)t.getCookie()).set(t);
 		}
 
-		for( CombinedTrack<Desc> t : tracker.getReactivated() ) {
+		List<CombinedTrack<Desc>> reactivated = tracker.getReactivated();
+		for (int i = 0; i < reactivated.size(); i++) {
+			CombinedTrack<Desc> t = reactivated.get(i);
 			((PointTrack)t.getCookie()).set(t);
 		}
 	}
@@ -131,7 +136,8 @@ public class PointTrackerCombined<I extends ImageGray<I>, D extends ImageGray<D>
 
 		List<CombinedTrack<Desc>> spawned = tracker.getSpawned();
 
-		for( CombinedTrack<Desc> t : spawned ) {
+		for (int i = 0; i < spawned.size(); i++) {
+			CombinedTrack<Desc> t = spawned.get(i);
 			PointTrack p = t.getCookie();
 			if( p == null ) {
 				p = new PointTrack();
@@ -188,6 +194,18 @@ public class PointTrackerCombined<I extends ImageGray<I>, D extends ImageGray<D>
 		return list;
 	}
 
+	@Override
+	public void forEachActiveTrack( Consumer<PointTrack> visitor ) {
+		List<CombinedTrack<Desc>> reactivated = tracker.getReactivated();
+		for (int i = 0; i < reactivated.size(); i++) {
+			visitor.accept(reactivated.get(i).getCookie());
+		}
+		List<CombinedTrack<Desc>> pureKlt = tracker.getPureKlt();
+		for (int i = 0; i < pureKlt.size(); i++) {
+			visitor.accept(pureKlt.get(i).getCookie());
+		}
+	}
+
 	@Override
 	public List<PointTrack> getInactiveTracks(List<PointTrack> list) {
 		if( list == null ) {
@@ -30,15 +30,20 @@ import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.PyramidDiscrete;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.GrowQueue_B;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
  * Wrapper around {@link boofcv.alg.tracker.klt.PyramidKltTracker} for {@link PointTracker}.  Every track
  * will have the same size and shaped descriptor.  If any fault is encountered the track will be dropped.
  *
+ * Tracks are updated in two steps. First every track is updated and marked as a success or failure, then the tracks
+ * which failed are dropped. {@link PointTrackerKltPyramid_MT} overrides the first step to update tracks concurrently.
+ *
  * @author Peter Abeles
  */
 public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D>>
@@ -78,6 +83,9 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	// the tracker
 	protected PyramidKltTracker<I, D> tracker;
 
+	// indicates if the track at the same index in active was successfully updated
+	protected GrowQueue_B trackSuccess = new GrowQueue_B();
+
 	// selects point features
 	private GeneralFeatureDetector<I, D> detector;
 	// list of corners which should be ignored by the corner detector
@@ -265,7 +273,9 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 
 	@Override
 	public void dropAllTracks() {
-		unused.addAll(active);
+		for (int i = 0; i < active.size(); i++) {
+			unused.add(active.get(i));
+		}
 		active.clear();
 		dropped.clear();
 	}
@@ -287,48 +297,37 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		dropped.clear();
 
 		// update image pyramids
-		currPyr.update(image);
-
-		// track features
-		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
-		for (int i = active.size()-1; i >= 0; i--) {
-			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
+		currPyr.updatePyramid(image);
 
-			boolean success = false;
+		// track features and mark which ones failed
+		trackSuccess.resize(active.size());
+		updateTracks(image);
 
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					success = true;
-				}
-			}
-
-			if( !success ) {
-				active.remove( i );
+		// drop tracks which could not be updated
+		for (int i = active.size()-1; i >= 0; i--) {
+			if( !trackSuccess.data[i] ) {
+				PyramidKltFeature t = active.remove(i);
 				dropped.add( t );
 				unused.add( t );
 			}
 		}
 
-		if( toleranceFB >= 0 ) {
-			// If there are no tracks it must have been reset or this is the first frame
-			if( activeTracks ) {
-				backwardsTrackValidate();
-			} else {
-				this.prevPyr.update(image);
-			}
+		// If there are no tracks it must have been reset or this is the first frame. There's no need to update
+		// prevPyr since currPyr will become the previous pyramid when the next frame is processed
+		if( toleranceFB >= 0 && activeTracks ) {
+			backwardsTrackValidate();
 		}
 
 		// If configured to, drop features which are close by each other
 		if( pruneClose != null ) {
 			pruneClose.init(input.width,input.height);
 			pruneClose.process(active,closeDropped);
-			// TODO
 			active.removeAll(closeDropped);
-			dropped.addAll(closeDropped);
+			for (int i = 0; i < closeDropped.size(); i++) {
+				PyramidKltFeature t = closeDropped.get(i);
+				dropped.add( t );
+				unused.add( t );
+			}
 		}
 	}
 
@@ -339,14 +338,14 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	protected void backwardsTrackValidate() {
 		double tol2 = toleranceFB * toleranceFB;
 
-		tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
+		trackSuccess.resize(active.size());
+		trackBackwards(tol2);
+
 		for (int i = active.size()-1; i >= 0; i--) {
 			PyramidKltFeature t = active.get(i);
 			PointTrackMod p = t.getCookie();
 
-			KltTrackFault ret = tracker.track(t);
-
-			if( ret != KltTrackFault.SUCCESS || p.prev.distance2(t.x,t.y) > tol2 ) {
+			if( !trackSuccess.data[i] ) {
 				active.remove(i);
 				dropped.add( t );
 				unused.add( t );
@@ -360,6 +359,70 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 	}
 
+	/**
+	 * Computes the gradient then updates the location and description of every active track. If a track
+	 * is successfully updated then the element in {@link #trackSuccess} with the same index is set to true.
+	 */
+	protected void updateTracks( I image ) {
+		currPyr.updateGradient();
+		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+		trackRange(tracker, image, 0, active.size());
+		describeRange(tracker, 0, active.size());
+	}
+
+	/**
+	 * Tracks every active track back to the previous frame. If a track is found within the tolerance of its
+	 * original location the element in {@link #trackSuccess} with the same index is set to true.
+	 */
+	protected void trackBackwards( double tol2 ) {
+		tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
+		trackBackwardsRange(tracker, tol2, 0, active.size());
+	}
+
+	/**
+	 * Tracks the active tracks from idx0 to idx1-1.
+	 */
+	protected void trackRange( PyramidKltTracker<I,D> tracker , I image , int idx0 , int idx1 ) {
+		for (int i = idx0; i < idx1; i++) {
+			PyramidKltFeature t = active.get(i);
+			KltTrackFault ret = tracker.track(t);
+
+			// discard a track if its center drifts outside the image.
+			trackSuccess.data[i] = ret == KltTrackFault.SUCCESS && image.isInBounds((int)t.x,(int)t.y);
+		}
+	}
+
+	/**
+	 * Updates the description of successfully tracked tracks from idx0 to idx1-1
+	 */
+	protected void describeRange( PyramidKltTracker<I,D> tracker , int idx0 , int idx1 ) {
+		for (int i = idx0; i < idx1; i++) {
+			if( !trackSuccess.data[i] )
+				continue;
+			PyramidKltFeature t = active.get(i);
+			if( tracker.setDescription(t) ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+			} else {
+				trackSuccess.data[i] = false;
+			}
+		}
+	}
+
+	/**
+	 * Tracks the active tracks from idx0 to idx1-1 back to the previous frame
+	 */
+	protected void trackBackwardsRange( PyramidKltTracker<I,D> tracker , double tol2 , int idx0 , int idx1 ) {
+		for (int i = idx0; i < idx1; i++) {
+			PyramidKltFeature t = active.get(i);
+			PointTrackMod p = t.getCookie();
+
+			KltTrackFault ret = tracker.track(t);
+
+			trackSuccess.data[i] = ret == KltTrackFault.SUCCESS && !(p.prev.distance2(t.x,t.y) > tol2);
+		}
+	}
+
 	@Override
 	public boolean dropTrack(PointTrack track) {
 		if( active.remove((PyramidKltFeature)track.getDescription()) ) {
@@ -381,6 +444,13 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		return list;
 	}
 
+	@Override
+	public void forEachActiveTrack( Consumer<PointTrack> visitor ) {
+		for (int i = 0; i < active.size(); i++) {
+			visitor.accept(active.get(i).getCookie());
+		}
+	}
+
 	/**
 	 * KLT does not have inactive tracks since all tracks are dropped if a problem occurs.
 	 */
@@ -418,8 +488,8 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	}
 
 	protected void addToList( List<PyramidKltFeature> in , List<PointTrack> out ) {
-		for( PyramidKltFeature t : in ) {
-			out.add( (PointTrack)t.cookie );
+		for (int i = 0; i < in.size(); i++) {
+			out.add( (PointTrack)in.get(i).cookie );
 		}
 	}
 
@@ -455,8 +525,18 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 
 		public void update( I image ) {
+			updatePyramid(image);
+			updateGradient();
+		}
+
+		public void updatePyramid( I image ) {
 			basePyramid.process(image);
+		}
 
+		/**
+		 * Computes the gradient of each layer in the pyramid. Must be called after {@link #updatePyramid}
+		 */
+		public void updateGradient() {
 			if( derivX[0].width != basePyramid.getLayer(0).width ||
 					derivX[0].height != basePyramid.getLayer(0).height )
 			{
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.interpolate.InterpolateRectangle;
+import boofcv.alg.tracker.klt.KltConfig;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent version of {@link PointTrackerKltPyramid}. Active tracks are split into blocks which are updated
+ * by different threads, each with its own copy of the tracker. Dropped tracks are removed after all the threads
+ * have finished, in the same order as a single thread, so the results do not depend on the number of threads.
+ * The pyramid's gradient is only needed to update the description of a track and is computed at the same time
+ * features are being tracked.
+ *
+ * @author Peter Abeles
+ */
+public class PointTrackerKltPyramid_MT<I extends ImageGray<I>,D extends ImageGray<D>>
+		extends PointTrackerKltPyramid<I,D>
+{
+	// minimum number of tracks updated by a single thread
+	public int minTracksPerThread = 50;
+
+	// copies of the tracker which are used by individual threads
+	FastQueue<PyramidKltTracker<I,D>> workspace = new FastQueue(PyramidKltTracker.class,()->tracker.copy());
+
+	public PointTrackerKltPyramid_MT(KltConfig config,
+									 double toleranceFB,
+									 int templateRadius,
+									 boolean performPruneClose, PyramidDiscrete<I> pyramid,
+									 GeneralFeatureDetector<I, D> detector,
+									 ImageGradient<I, D> gradient,
+									 InterpolateRectangle<I> interpInput,
+									 InterpolateRectangle<D> interpDeriv,
+									 Class<D> derivType) {
+		super(config, toleranceFB, templateRadius, performPruneClose, pyramid, detector, gradient,
+				interpInput, interpDeriv, derivType);
+	}
+
+	@Override
+	protected void updateTracks( I image ) {
+		// KLT only needs the derivatives when the description is updated. Compute the gradient while features
+		// are being tracked
+		BoofConcurrency.loopFor(0,2,task->{
+			if( task == 0 ) {
+				currPyr.updateGradient();
+			} else {
+				BoofConcurrency.loopBlocks(0,active.size(),minTracksPerThread,workspace,(tracker,idx0,idx1)->{
+					tracker.setImage(currPyr.basePyramid);
+					trackRange(tracker, image, idx0, idx1);
+				});
+			}
+		});
+
+		// update the description of successfully tracked features
+		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+		BoofConcurrency.loopBlocks(0,active.size(),minTracksPerThread,workspace,(tracker,idx0,idx1)->{
+			tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
+			describeRange(tracker, idx0, idx1);
+		});
+	}
+
+	@Override
+	protected void trackBackwards( double tol2 ) {
+		BoofConcurrency.loopBlocks(0,active.size(),minTracksPerThread,workspace,(tracker,idx0,idx1)->{
+			tracker.setImage(prevPyr.basePyramid,prevPyr.derivX,prevPyr.derivY);
+			trackBackwardsRange(tracker, tol2, idx0, idx1);
+		});
+	}
+}
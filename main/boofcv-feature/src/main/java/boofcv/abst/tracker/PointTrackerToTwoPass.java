@@ -21,6 +21,7 @@ package boofcv.abst.tracker;
 import boofcv.struct.image.ImageBase;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Wrapper class that allows {@link PointTracker} to be used as a {@link PointTrackerTwoPass}.  Since
@@ -74,6 +75,11 @@ public class PointTrackerToTwoPass<T extends ImageBase<T>>
 		return tracker.getActiveTracks(list);
 	}
 
+	@Override
+	public void forEachActiveTrack( Consumer<PointTrack> visitor ) {
+		tracker.forEachActiveTrack(visitor);
+	}
+
 	@Override
 	public List<PointTrack> getInactiveTracks(List<PointTrack> list) {
 		return tracker.getInactiveTracks(list);
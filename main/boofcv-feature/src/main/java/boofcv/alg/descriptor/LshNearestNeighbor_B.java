@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Approximate nearest-neighbor search for binary descriptors using Locality Sensitive Hashing (LSH) [1]. Each hash
+ * table uses a key made up of bits which are randomly sampled from the descriptor. Points which have the same key
+ * as the query in any table are candidates and the Hamming distance is computed for each candidate. Points with a
+ * small Hamming distance are likely to share a key in at least one table. Optionally, keys which differ from the
+ * query's key by a single bit are also searched (multi-probe), which increases the odds of finding the true
+ * nearest neighbor without adding more tables.
+ * </p>
+ *
+ * <p>
+ * Each table is stored like a hash table. Points are sorted into slots using the lower bits of their key with a
+ * counting sort. The number of slots is about the number of points, so a slot contains only a few points and
+ * a bucket is found in constant time. Tables are not modified by a search and multiple searches can be run
+ * in parallel.
+ * Distance is the Hamming distance, i.e. it is not squared.
+ * </p>
+ *
+ * <p>
+ * [1] Gionis, Aristides, Piotr Indyk, and Rajeev Motwani. "Similarity search in high dimensions via hashing."
+ * VLDB. Vol. 99. No. 6. 1999.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LshNearestNeighbor_B implements NearestNeighbor<TupleDesc_B> {
+
+	// Number of hash tables
+	final int numTables;
+	// Number of bits in each key
+	final int bitsPerKey;
+	// If true then keys which differ by one bit are also searched
+	final boolean multiProbe;
+
+	final Random rand;
+
+	// The points being searched
+	List<TupleDesc_B> points;
+	// Bits in the descriptor which are sampled to create the key. [table][bit]
+	int[][] sampledBits;
+	// Number of bits in the descriptor when the bits were selected
+	int selectedNumBits = -1;
+	// The hash tables
+	Table[] tables = new Table[0];
+	// Number of bits in the key used to select a slot in the tables
+	int slotBits;
+
+	/**
+	 * Configures LSH
+	 *
+	 * @param numTables Number of hash tables. More tables improves accuracy. Try 10
+	 * @param bitsPerKey Number of bits in a key. Fewer bits means more candidates are examined. 1 to 30. Try 16
+	 * @param multiProbe If true then keys which differ by one bit from the query are also searched.
+	 * @param randomSeed Seed for the random number generator used to select bits
+	 */
+	public LshNearestNeighbor_B(int numTables, int bitsPerKey, boolean multiProbe, long randomSeed) {
+		if( numTables <= 0 )
+			throw new IllegalArgumentException("Must have at least one table");
+		if( bitsPerKey <= 0 || bitsPerKey > 30 )
+			throw new IllegalArgumentException("bitsPerKey must be from 1 to 30");
+		this.numTables = numTables;
+		this.bitsPerKey = bitsPerKey;
+		this.multiProbe = multiProbe;
+		this.rand = new Random(randomSeed);
+	}
+
+	@Override
+	public void setPoints(List<TupleDesc_B> points, boolean trackIndicies) {
+		this.points = points;
+
+		if( points.isEmpty() )
+			return;
+
+		// Select which bits are sampled. This is only done again if the descriptor changes size
+		int numBits = points.get(0).numBits;
+		if( sampledBits == null || numBits != selectedNumBits ) {
+			selectBits(numBits);
+		}
+
+		// number of slots is the power of two which is closest to the number of points
+		slotBits = 0;
+		while( slotBits < bitsPerKey && (1 << slotBits) < points.size() )
+			slotBits++;
+
+		if( tables.length != numTables ) {
+			tables = new Table[numTables];
+			for (int i = 0; i < numTables; i++) {
+				tables[i] = new Table();
+			}
+		}
+
+		for (int tableIdx = 0; tableIdx < numTables; tableIdx++) {
+			tables[tableIdx].build(points,sampledBits[tableIdx],slotBits);
+		}
+	}
+
+	/**
+	 * Randomly selects the bits used in each key. A bit isn't used more than once in the same key
+	 */
+	void selectBits( int numBits ) {
+		selectedNumBits = numBits;
+		int keyLength = Math.min(bitsPerKey,numBits);
+		int[] order = new int[numBits];
+		for (int i = 0; i < numBits; i++) {
+			order[i] = i;
+		}
+
+		sampledBits = new int[numTables][keyLength];
+		for (int tableIdx = 0; tableIdx < numTables; tableIdx++) {
+			// partial Fisher-Yates shuffle
+			for (int i = 0; i < keyLength; i++) {
+				int j = i + rand.nextInt(numBits-i);
+				int tmp = order[i]; order[i] = order[j]; order[j] = tmp;
+				sampledBits[tableIdx][i] = order[i];
+			}
+		}
+	}
+
+	static int computeKey( TupleDesc_B desc , int[] bits ) {
+		int key = 0;
+		for (int i = 0; i < bits.length; i++) {
+			int bit = bits[i];
+			key |= ((desc.data[bit/32] >>> (bit%32)) & 0x01) << i;
+		}
+		return key;
+	}
+
+	@Override
+	public NearestNeighbor.Search<TupleDesc_B> createSearch() {
+		return new InternalSearch();
+	}
+
+	public int getNumTables() {
+		return numTables;
+	}
+
+	public int getBitsPerKey() {
+		return bitsPerKey;
+	}
+
+	public boolean isMultiProbe() {
+		return multiProbe;
+	}
+
+	private class InternalSearch implements NearestNeighbor.Search<TupleDesc_B> {
+		// Marks which points have already been examined in the current search
+		int[] visited = new int[0];
+		int searchID = 0;
+
+		// best candidates sorted by distance
+		int[] bestIndex = new int[0];
+		int[] bestDistance = new int[0];
+		int bestSize;
+		int bestMax;
+
+		// maximum allowed distance
+		int maxDistance;
+
+		@Override
+		public boolean findNearest(TupleDesc_B point, double maxDistance, NnData<TupleDesc_B> result) {
+			search(point,maxDistance,1);
+			if( bestSize == 0 )
+				return false;
+			result.index = bestIndex[0];
+			result.point = points.get(bestIndex[0]);
+			result.distance = bestDistance[0];
+			return true;
+		}
+
+		@Override
+		public void findNearest(TupleDesc_B point, double maxDistance, int numNeighbors,
+								FastQueue<NnData<TupleDesc_B>> result) {
+			result.reset();
+			search(point,maxDistance,numNeighbors);
+			for (int i = 0; i < bestSize; i++) {
+				NnData<TupleDesc_B> r = result.grow();
+				r.index = bestIndex[i];
+				r.point = points.get(bestIndex[i]);
+				r.distance = bestDistance[i];
+			}
+		}
+
+		private void search(TupleDesc_B point, double maxDistance, int numNeighbors) {
+			bestSize = 0;
+			if( points == null || points.isEmpty() )
+				return;
+
+			if( visited.length < points.size() ) {
+				visited = new int[points.size()];
+				searchID = 0;
+			}
+			if( bestIndex.length < numNeighbors ) {
+				bestIndex = new int[numNeighbors];
+				bestDistance = new int[numNeighbors];
+			}
+			// When the ID wraps around the visited array needs to be cleared
+			if( ++searchID == Integer.MAX_VALUE ) {
+				Arrays.fill(visited,0);
+				searchID = 1;
+			}
+
+			this.bestMax = numNeighbors;
+			this.maxDistance = maxDistance < 0 || maxDistance >= Integer.MAX_VALUE ?
+					Integer.MAX_VALUE : (int)maxDistance;
+
+			for (int tableIdx = 0; tableIdx < numTables; tableIdx++) {
+				Table table = tables[tableIdx];
+				int key = computeKey(point,sampledBits[tableIdx]);
+
+				searchBucket(point,table,key);
+				if( multiProbe ) {
+					for (int bit = 0; bit < sampledBits[tableIdx].length; bit++) {
+						searchBucket(point,table,key ^ (1 << bit));
+					}
+				}
+			}
+		}
+
+		private void searchBucket( TupleDesc_B point , Table table , int key ) {
+			int slot = key & table.slotMask;
+			int end = table.slotStart[slot+1];
+			for (int i = table.slotStart[slot]; i < end; i++) {
+				if( table.keys[i] != key )
+					continue;
+				int index = table.indexes[i];
+				if( visited[index] == searchID )
+					continue;
+				visited[index] = searchID;
+
+				int distance = DescriptorDistance.hamming(point,points.get(index));
+				if( distance <= maxDistance )
+					addCandidate(index,distance);
+			}
+		}
+
+		/**
+		 * Inserts the candidate into the sorted list of best matches if it's good enough
+		 */
+		private void addCandidate( int index , int distance ) {
+			if( bestSize == bestMax ) {
+				if( distance >= bestDistance[bestSize-1] )
+					return;
+				bestSize--;
+			}
+			int i = bestSize;
+			while( i > 0 && bestDistance[i-1] > distance ) {
+				bestDistance[i] = bestDistance[i-1];
+				bestIndex[i] = bestIndex[i-1];
+				i--;
+			}
+			bestDistance[i] = distance;
+			bestIndex[i] = index;
+			bestSize++;
+		}
+	}
+
+	/**
+	 * Hash table. Points are sorted by the slot their key belongs in
+	 */
+	static class Table {
+		// Index of the first element in each slot. Has one extra element so that slot+1 is the end of the slot
+		int[] slotStart = new int[0];
+		// Key of each element
+		int[] keys = new int[0];
+		// Index of the point for each element
+		int[] indexes = new int[0];
+		int slotMask;
+
+		// work space for the key of each point
+		int[] pointKeys = new int[0];
+
+		void build( List<TupleDesc_B> points , int[] bits , int slotBits ) {
+			int numSlots = 1 << slotBits;
+			slotMask = numSlots - 1;
+			if( slotStart.length != numSlots+1 )
+				slotStart = new int[numSlots+1];
+			else
+				Arrays.fill(slotStart,0);
+			if( keys.length < points.size() ) {
+				keys = new int[points.size()];
+				indexes = new int[points.size()];
+				pointKeys = new int[points.size()];
+			}
+
+			// count the number of points in each slot
+			for (int i = 0; i < points.size(); i++) {
+				int key = computeKey(points.get(i),bits);
+				pointKeys[i] = key;
+				slotStart[(key & slotMask)+1]++;
+			}
+			for (int i = 0; i < numSlots; i++) {
+				slotStart[i+1] += slotStart[i];
+			}
+
+			// place each point into its slot. slotStart is used to track the next element and will be
+			// shifted by one slot when finished
+			for (int i = 0; i < points.size(); i++) {
+				int key = pointKeys[i];
+				int element = slotStart[key & slotMask]++;
+				keys[element] = key;
+				indexes[element] = i;
+			}
+			System.arraycopy(slotStart,0,slotStart,1,numSlots);
+			slotStart[0] = 0;
+		}
+	}
+}
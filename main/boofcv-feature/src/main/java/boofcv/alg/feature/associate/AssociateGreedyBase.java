@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -77,6 +77,28 @@ public abstract class AssociateGreedyBase<D> {
 	 */
 	public abstract void associate( FastQueue<D> src , FastQueue<D> dst );
 
+	/**
+	 * Backwards validation for src features in the range [i0,i1). A match is removed if its dst feature has an
+	 * equal or better score with another src feature. Requires the full score matrix in {@link #workBuffer}.
+	 */
+	void validateRows( int numSrc , int numDst , int i0 , int i1 ) {
+		for( int i = i0; i < i1; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			double scoreToBeat = workBuffer.data[i*numDst+match];
+
+			for( int j = 0; j < numSrc; j++ , match += numDst ) {
+				if( workBuffer.data[match] <= scoreToBeat && j != i ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+					break;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Returns a list of association pairs.  Each element in the returned list corresponds
 	 * to an element in the src list.  The value contained in the index indicate which element
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociationPacked;
+import boofcv.struct.PackedArray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Brute force greedy association for features stored in a {@link PackedArray}. This is the same algorithm as
+ * {@link AssociateGreedy} but descriptors are read directly from the packed array's contiguous storage.
+ * An object is associated with whichever object has the best fit score and every possible combination
+ * is examined. When called with a {@link FastQueue} the descriptors are first copied into packed arrays.
+ * </p>
+ *
+ * <p>
+ * Optionally, backwards validation can be used to reduce the number of false associations.
+ * Backwards validation works by checking to see if two objects are mutually the best association
+ * for each other.
+ * </p>
+ *
+ * @param <D> Feature description type.
+ * @param <P> Packed array type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyPacked<D, P extends PackedArray<D>> extends AssociateGreedyBase<D> {
+
+	// computes association score for packed descriptors
+	ScoreAssociationPacked<D,P> scorePacked;
+
+	// storage for descriptors passed in using a FastQueue
+	P packedSrc, packedDst;
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.
+	 * @param factory Creates the packed arrays used when associating descriptors stored in a FastQueue.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedyPacked(ScoreAssociationPacked<D,P> score, FastQueue.Factory<P> factory,
+								 boolean backwardsValidation) {
+		super(score, backwardsValidation);
+		this.scorePacked = score;
+		this.packedSrc = factory.newInstance();
+		this.packedDst = factory.newInstance();
+	}
+
+	/**
+	 * Copies the descriptors into packed arrays then associates them.
+	 *
+	 * @param src Source list.
+	 * @param dst Destination list.
+	 */
+	@Override
+	public void associate( FastQueue<D> src , FastQueue<D> dst ) {
+		copy(src, packedSrc);
+		copy(dst, packedDst);
+		associate(packedSrc, packedDst);
+	}
+
+	/**
+	 * Associates the two sets objects against each other by minimizing fit score.
+	 *
+	 * @param src Source list.
+	 * @param dst Destination list.
+	 */
+	public void associate( P src , P dst ) {
+		final int numSrc = src.size();
+		final int numDst = dst.size();
+
+		pairs.resize(numSrc);
+		fitQuality.resize(numSrc);
+		workBuffer.resize(numSrc*numDst);
+
+		scoreAll(src, dst);
+
+		if( backwardsValidation ) {
+			validateAll(numSrc, numDst);
+		}
+	}
+
+	/**
+	 * Scores every pair of src and dst features and selects the best match for each src
+	 */
+	protected void scoreAll( P src , P dst ) {
+		scoreRows(src, dst, 0, src.size());
+	}
+
+	/**
+	 * Performs backwards validation on all the src features
+	 */
+	protected void validateAll( int numSrc , int numDst ) {
+		validateRows(numSrc, numDst, 0, numSrc);
+	}
+
+	/**
+	 * Scores every dst feature against src features in the range [i0,i1) and selects the best match
+	 */
+	void scoreRows( P src , P dst , int i0 , int i1 ) {
+		final int numDst = dst.size();
+		for( int i = i0; i < i1; i++ ) {
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+
+			int workIdx = i*numDst;
+			for( int j = 0; j < numDst; j++ ) {
+				double fit = scorePacked.score(src, i, dst, j);
+				workBuffer.data[workIdx+j] = fit;
+
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+			pairs.data[i] = bestIndex;
+			fitQuality.data[i] = bestScore;
+		}
+	}
+
+	private void copy( FastQueue<D> list , P packed ) {
+		packed.reset();
+		packed.reserve(list.size);
+		for( int i = 0; i < list.size; i++ ) {
+			packed.append(list.get(i));
+		}
+	}
+
+	public ScoreAssociationPacked<D,P> getScorePacked() {
+		return scorePacked;
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociationPacked;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.PackedArray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link AssociateGreedyPacked}. Rows in the score matrix are computed in parallel
+ * and backwards validation is done in parallel.
+ *
+ * @param <D> Feature description type.
+ * @param <P> Packed array type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyPacked_MT<D, P extends PackedArray<D>> extends AssociateGreedyPacked<D,P> {
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.
+	 * @param factory Creates the packed arrays used when associating descriptors stored in a FastQueue.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedyPacked_MT(ScoreAssociationPacked<D,P> score, FastQueue.Factory<P> factory,
+									boolean backwardsValidation) {
+		super(score, factory, backwardsValidation);
+	}
+
+	@Override
+	protected void scoreAll( P src , P dst ) {
+		BoofConcurrency.loopBlocks(0, src.size(), (i0, i1) -> scoreRows(src, dst, i0, i1));
+	}
+
+	@Override
+	protected void validateAll( int numSrc , int numDst ) {
+		BoofConcurrency.loopBlocks(0, numSrc, (i0, i1) -> validateRows(numSrc, numDst, i0, i1));
+	}
+}
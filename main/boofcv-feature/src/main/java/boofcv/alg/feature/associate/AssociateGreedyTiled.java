@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F32;
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_F32;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Brute force greedy association which produces the same results as {@link AssociateGreedy} but computes the
+ * score matrix using a {@link Kernel} specialized for a descriptor type instead of calling {@link ScoreAssociation}
+ * once for each pair. Descriptors are first copied into contiguous arrays. The src &times; dst score matrix is then
+ * computed in tiles which are small enough for the dst descriptors in a tile to stay in the cache while every src
+ * descriptor in the tile is scored against them. If concurrency is turned on then blocks of tiles are computed
+ * in parallel.
+ * </p>
+ *
+ * <p>
+ * Backwards validation is done by finding the minimum of each column in the score matrix once, instead of
+ * traversing the column of each match.
+ * </p>
+ *
+ * @see #createKernel(ScoreAssociation)
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyTiled<D> extends AssociateGreedyBase<D> {
+
+	// Approximate number of bytes used by dst descriptors in a tile
+	public int tileBytes = 16*1024;
+	// Number of src descriptors in a tile
+	public int tileSrc = 16;
+
+	// Computes the score matrix
+	final Kernel<D> kernel;
+
+	// minimum score in each column of the score matrix and the number of rows which have that score
+	GrowQueue_F64 columnMin = new GrowQueue_F64();
+	GrowQueue_I32 columnCount = new GrowQueue_I32();
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score. Must produce the same scores as the kernel.
+	 * @param kernel Computes the score matrix
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedyTiled(ScoreAssociation<D> score, Kernel<D> kernel, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+		this.kernel = kernel;
+	}
+
+	@Override
+	public void associate( FastQueue<D> src , FastQueue<D> dst ) {
+		final int numSrc = src.size;
+		final int numDst = dst.size;
+
+		pairs.resize(numSrc);
+		fitQuality.resize(numSrc);
+		workBuffer.resize(numSrc*numDst);
+
+		kernel.setDescriptions(src, dst);
+
+		// each task is one row of tiles, which also finds the best match of each src in the row
+		final int tileDst = Math.max(1, tileBytes/Math.max(1, kernel.bytesPerDescription()));
+		final int numTileRows = (numSrc + tileSrc - 1)/tileSrc;
+		if( BoofConcurrency.isUseConcurrent() ) {
+			BoofConcurrency.loopFor(0, numTileRows, tileRow -> processTileRow(tileRow, numSrc, numDst, tileDst));
+		} else {
+			for( int tileRow = 0; tileRow < numTileRows; tileRow++ ) {
+				processTileRow(tileRow, numSrc, numDst, tileDst);
+			}
+		}
+
+		if( backwardsValidation ) {
+			columnMin.resize(numDst);
+			columnCount.resize(numDst);
+			if( BoofConcurrency.isUseConcurrent() ) {
+				BoofConcurrency.loopBlocks(0, numDst, (j0, j1) -> findColumnMinimums(numSrc, numDst, j0, j1));
+			} else {
+				findColumnMinimums(numSrc, numDst, 0, numDst);
+			}
+
+			// A match is only valid if no other src has a score which is as good for the same dst
+			for( int i = 0; i < numSrc; i++ ) {
+				int match = pairs.data[i];
+				if( match == -1 )
+					continue;
+				double scoreToBeat = workBuffer.data[i*numDst+match];
+				if( scoreToBeat != columnMin.data[match] || columnCount.data[match] != 1 ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes all the tiles in a row then selects the best match for each src in the row
+	 */
+	void processTileRow( int tileRow , int numSrc , int numDst , int tileDst ) {
+		int i0 = tileRow*tileSrc;
+		int i1 = Math.min(numSrc, i0 + tileSrc);
+
+		for( int j0 = 0; j0 < numDst; j0 += tileDst ) {
+			kernel.score(i0, i1, j0, Math.min(numDst, j0 + tileDst), workBuffer.data, numDst);
+		}
+
+		for( int i = i0; i < i1; i++ ) {
+			double bestScore = maxFitError;
+			int bestIndex = -1;
+
+			int workIdx = i*numDst;
+			for( int j = 0; j < numDst; j++ ) {
+				double fit = workBuffer.data[workIdx+j];
+				if( fit <= bestScore ) {
+					bestIndex = j;
+					bestScore = fit;
+				}
+			}
+			pairs.data[i] = bestIndex;
+			fitQuality.data[i] = bestScore;
+		}
+	}
+
+	/**
+	 * Finds the minimum value and how many times it occurs for columns in the range [j0,j1)
+	 */
+	void findColumnMinimums( int numSrc , int numDst , int j0 , int j1 ) {
+		for( int j = j0; j < j1; j++ ) {
+			columnMin.data[j] = Double.MAX_VALUE;
+			columnCount.data[j] = 0;
+		}
+		for( int i = 0; i < numSrc; i++ ) {
+			int workIdx = i*numDst;
+			for( int j = j0; j < j1; j++ ) {
+				double value = workBuffer.data[workIdx+j];
+				if( value < columnMin.data[j] ) {
+					columnMin.data[j] = value;
+					columnCount.data[j] = 1;
+				} else if( value == columnMin.data[j] ) {
+					columnCount.data[j]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a kernel which produces identical scores to the provided score function or null if the score
+	 * function isn't supported. Supported score functions are {@link ScoreAssociateEuclideanSq_F64},
+	 * {@link ScoreAssociateEuclideanSq_F32}, and {@link ScoreAssociateHamming_B}.
+	 */
+	public static @Nullable <D> Kernel<D> createKernel( ScoreAssociation<D> score ) {
+		// sub-classes could change the score so only an exact match is accepted
+		if( score.getClass() == ScoreAssociateEuclideanSq_F64.class ) {
+			return (Kernel)new EuclideanSq_F64();
+		} else if( score.getClass() == ScoreAssociateEuclideanSq_F32.class ) {
+			return (Kernel)new EuclideanSq_F32();
+		} else if( score.getClass() == ScoreAssociateHamming_B.class ) {
+			return (Kernel)new Hamming_B();
+		}
+		return null;
+	}
+
+	/**
+	 * Computes scores for a tile in the score matrix
+	 */
+	public interface Kernel<D> {
+		/**
+		 * Copies the descriptions into internal storage
+		 */
+		void setDescriptions( FastQueue<D> src , FastQueue<D> dst );
+
+		/**
+		 * Scores src in [i0,i1) against dst in [j0,j1). Can be called by multiple threads at once.
+		 *
+		 * @param scores (Output) score matrix. score of (i,j) is written to element i*stride+j
+		 * @param stride Number of elements in a row of the score matrix
+		 */
+		void score( int i0 , int i1 , int j0 , int j1 , double[] scores , int stride );
+
+		/**
+		 * Number of bytes used to store a single description
+		 */
+		int bytesPerDescription();
+	}
+
+	/**
+	 * Euclidean distance squared for {@link TupleDesc_F64}
+	 */
+	public static class EuclideanSq_F64 implements Kernel<TupleDesc_F64> {
+		PackedTupleArray_F64 src = new PackedTupleArray_F64(0);
+		PackedTupleArray_F64 dst = new PackedTupleArray_F64(0);
+
+		@Override
+		public void setDescriptions( FastQueue<TupleDesc_F64> src, FastQueue<TupleDesc_F64> dst ) {
+			int dof = src.size > 0 ? src.get(0).size() : dst.size > 0 ? dst.get(0).size() : 0;
+			if( this.src.dof != dof ) {
+				this.src = new PackedTupleArray_F64(dof);
+				this.dst = new PackedTupleArray_F64(dof);
+			}
+			copy(src, this.src);
+			copy(dst, this.dst);
+		}
+
+		private static void copy( FastQueue<TupleDesc_F64> list , PackedTupleArray_F64 packed ) {
+			packed.reset();
+			packed.reserve(list.size);
+			for( int i = 0; i < list.size; i++ ) {
+				packed.append(list.get(i));
+			}
+		}
+
+		@Override
+		public void score( int i0, int i1, int j0, int j1, double[] scores, int stride ) {
+			final int dof = src.dof;
+			final double[] a = src.data;
+			final double[] b = dst.data;
+			for( int i = i0; i < i1; i++ ) {
+				int scoreIdx = i*stride;
+				int idxA = i*dof;
+				int j = j0;
+				// Four dst at a time. Each sum is independent, which avoids waiting on the previous addition, and
+				// the src element is loaded once. Elements are summed in the same order as DescriptorDistance
+				for( ; j + 4 <= j1; j += 4 ) {
+					int idxB0 = j*dof, idxB1 = idxB0 + dof, idxB2 = idxB1 + dof, idxB3 = idxB2 + dof;
+					double total0 = 0, total1 = 0, total2 = 0, total3 = 0;
+					for( int k = 0; k < dof; k++ ) {
+						double valueA = a[idxA+k];
+						double d0 = valueA-b[idxB0+k];
+						double d1 = valueA-b[idxB1+k];
+						double d2 = valueA-b[idxB2+k];
+						double d3 = valueA-b[idxB3+k];
+						total0 += d0*d0;
+						total1 += d1*d1;
+						total2 += d2*d2;
+						total3 += d3*d3;
+					}
+					scores[scoreIdx+j  ] = total0;
+					scores[scoreIdx+j+1] = total1;
+					scores[scoreIdx+j+2] = total2;
+					scores[scoreIdx+j+3] = total3;
+				}
+				for( ; j < j1; j++ ) {
+					scores[scoreIdx+j] = DescriptorDistance.euclideanSq(a, idxA, b, j*dof, dof);
+				}
+			}
+		}
+
+		@Override
+		public int bytesPerDescription() {
+			return src.dof*8;
+		}
+	}
+
+	/**
+	 * Euclidean distance squared for {@link TupleDesc_F32}
+	 */
+	public static class EuclideanSq_F32 implements Kernel<TupleDesc_F32> {
+		PackedTupleArray_F32 src = new PackedTupleArray_F32(0);
+		PackedTupleArray_F32 dst = new PackedTupleArray_F32(0);
+
+		@Override
+		public void setDescriptions( FastQueue<TupleDesc_F32> src, FastQueue<TupleDesc_F32> dst ) {
+			int dof = src.size > 0 ? src.get(0).size() : dst.size > 0 ? dst.get(0).size() : 0;
+			if( this.src.dof != dof ) {
+				this.src = new PackedTupleArray_F32(dof);
+				this.dst = new PackedTupleArray_F32(dof);
+			}
+			copy(src, this.src);
+			copy(dst, this.dst);
+		}
+
+		private static void copy( FastQueue<TupleDesc_F32> list , PackedTupleArray_F32 packed ) {
+			packed.reset();
+			packed.reserve(list.size);
+			for( int i = 0; i < list.size; i++ ) {
+				packed.append(list.get(i));
+			}
+		}
+
+		@Override
+		public void score( int i0, int i1, int j0, int j1, double[] scores, int stride ) {
+			final int dof = src.dof;
+			final float[] a = src.data;
+			final float[] b = dst.data;
+			for( int i = i0; i < i1; i++ ) {
+				int scoreIdx = i*stride;
+				int idxA = i*dof;
+				int j = j0;
+				// Four dst at a time. Each sum is independent, which avoids waiting on the previous addition, and
+				// the src element is loaded once. Elements are summed in the same order as DescriptorDistance
+				for( ; j + 4 <= j1; j += 4 ) {
+					int idxB0 = j*dof, idxB1 = idxB0 + dof, idxB2 = idxB1 + dof, idxB3 = idxB2 + dof;
+					float total0 = 0, total1 = 0, total2 = 0, total3 = 0;
+					for( int k = 0; k < dof; k++ ) {
+						float valueA = a[idxA+k];
+						double d0 = valueA-b[idxB0+k];
+						double d1 = valueA-b[idxB1+k];
+						double d2 = valueA-b[idxB2+k];
+						double d3 = valueA-b[idxB3+k];
+						total0 += d0*d0;
+						total1 += d1*d1;
+						total2 += d2*d2;
+						total3 += d3*d3;
+					}
+					scores[scoreIdx+j  ] = total0;
+					scores[scoreIdx+j+1] = total1;
+					scores[scoreIdx+j+2] = total2;
+					scores[scoreIdx+j+3] = total3;
+				}
+				for( ; j < j1; j++ ) {
+					scores[scoreIdx+j] = DescriptorDistance.euclideanSq(a, idxA, b, j*dof, dof);
+				}
+			}
+		}
+
+		@Override
+		public int bytesPerDescription() {
+			return src.dof*4;
+		}
+	}
+
+	/**
+	 * Hamming distance for {@link TupleDesc_B}. Descriptors are packed into longs so that each call to
+	 * {@link Long#bitCount} processes 64-bits.
+	 */
+	public static class Hamming_B implements Kernel<TupleDesc_B> {
+		// number of longs used to store each descriptor
+		int numLongs;
+		long[] src = new long[0];
+		long[] dst = new long[0];
+
+		@Override
+		public void setDescriptions( FastQueue<TupleDesc_B> src, FastQueue<TupleDesc_B> dst ) {
+			int numInts = src.size > 0 ? src.get(0).data.length : dst.size > 0 ? dst.get(0).data.length : 0;
+			numLongs = (numInts+1)/2;
+			this.src = pack(src, this.src);
+			this.dst = pack(dst, this.dst);
+		}
+
+		private long[] pack( FastQueue<TupleDesc_B> list , long[] packed ) {
+			if( packed.length < list.size*numLongs )
+				packed = new long[list.size*numLongs];
+
+			for( int i = 0; i < list.size; i++ ) {
+				int[] data = list.get(i).data;
+				int index = i*numLongs;
+				for( int k = 0; k < numLongs; k++ ) {
+					// an odd number of ints is padded with zeros, which doesn't change the distance
+					long lower = data[2*k] & 0xFFFFFFFFL;
+					long upper = 2*k+1 < data.length ? data[2*k+1] : 0;
+					packed[index+k] = (upper << 32) | lower;
+				}
+			}
+			return packed;
+		}
+
+		@Override
+		public void score( int i0, int i1, int j0, int j1, double[] scores, int stride ) {
+			final int numLongs = this.numLongs;
+			for( int i = i0; i < i1; i++ ) {
+				int scoreIdx = i*stride;
+				int srcIdx = i*numLongs;
+				for( int j = j0; j < j1; j++ ) {
+					int dstIdx = j*numLongs;
+					int distance = 0;
+					for( int k = 0; k < numLongs; k++ ) {
+						distance += Long.bitCount(src[srcIdx+k] ^ dst[dstIdx+k]);
+					}
+					scores[scoreIdx+j] = distance;
+				}
+			}
+		}
+
+		@Override
+		public int bytesPerDescription() {
+			return numLongs*8;
+		}
+	}
+}
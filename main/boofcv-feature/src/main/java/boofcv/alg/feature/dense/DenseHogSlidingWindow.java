@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.feature.describe.DescribeSiftCommon;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Provides access to HOG descriptors of a sliding window, e.g. for pedestrian detection, using the cell layout from
+ * {@link DescribeDenseHogFastAlg}. A window is a rectangular region of cells and its descriptor is made up of
+ * the blocks inside of it, spaced {@link BaseDenseHog#getStepBlock() stepBlock} cells apart. Cell histograms are
+ * computed once for each image. A block's normalized descriptor is computed the first time it's requested
+ * and then saved. Windows which overlap share the same blocks, so after a block has been computed scoring
+ * additional windows only costs the classifier.
+ * </p>
+ *
+ * <p>
+ * Block descriptors are stored in a single array which can be accessed using {@link #getBlockData()}. The
+ * descriptor of a window is not copied. Instead the location of each of its blocks inside the array is returned
+ * by {@link #getWindowBlocks}. The window's descriptor is the concatenation of those blocks in row-major order.
+ * </p>
+ *
+ * <p>
+ * Blocks are computed lazily and the accessors are not thread safe. If windows are going to be scored by
+ * multiple threads then call {@link #computeAllBlocks()} first.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseHogSlidingWindow<Input extends ImageBase<Input>> {
+	// Computes the cell histograms
+	final DescribeDenseHogFastAlg<Input> hog;
+
+	// Size of a window in cells
+	final int windowCellsX, windowCellsY;
+	// Number of blocks inside a window along each axis
+	final int windowBlocksX, windowBlocksY;
+
+	// Number of elements in a block's descriptor
+	final int blockLength;
+	// Number of blocks along each axis. There's a block at every cell which it can fit inside the image at
+	int blockRows, blockCols;
+
+	// Normalized descriptor of each block. Block (row,col) starts at index (row*blockCols + col)*blockLength
+	double[] blockData = new double[0];
+	// The image each block was last computed in. If it's not the current image then it needs to be computed
+	int[] blockImage = new int[0];
+	int imageID = 0;
+
+	/**
+	 * Configures the sliding window
+	 *
+	 * @param hog Used to compute the cell histograms
+	 * @param windowCellsX Width of the window in cells
+	 * @param windowCellsY Height of the window in cells
+	 */
+	public DenseHogSlidingWindow( DescribeDenseHogFastAlg<Input> hog , int windowCellsX , int windowCellsY ) {
+		if( windowCellsX < hog.getCellsPerBlockX() || windowCellsY < hog.getCellsPerBlockY() )
+			throw new IllegalArgumentException("Window must be at least as large as a block");
+
+		this.hog = hog;
+		this.windowCellsX = windowCellsX;
+		this.windowCellsY = windowCellsY;
+		this.windowBlocksX = (windowCellsX - hog.getCellsPerBlockX())/hog.getStepBlock() + 1;
+		this.windowBlocksY = (windowCellsY - hog.getCellsPerBlockY())/hog.getStepBlock() + 1;
+		this.blockLength = hog.getOrientationBins()*hog.getCellsPerBlockX()*hog.getCellsPerBlockY();
+	}
+
+	/**
+	 * Computes the cell histograms in the image. Block descriptors from the previous image are discarded.
+	 *
+	 * @param input Input image
+	 */
+	public void process( Input input ) {
+		hog.setInput(input);
+		hog.processCells();
+
+		blockRows = Math.max(0, hog.getCellRows() - hog.getCellsPerBlockY() + 1);
+		blockCols = Math.max(0, hog.getCellCols() - hog.getCellsPerBlockX() + 1);
+
+		int numBlocks = blockRows*blockCols;
+		if( blockImage.length < numBlocks ) {
+			blockData = new double[numBlocks*blockLength];
+			blockImage = new int[numBlocks];
+			imageID = 0;
+		}
+
+		// When the ID wraps around the array needs to be cleared
+		if( ++imageID == Integer.MAX_VALUE ) {
+			Arrays.fill(blockImage,0);
+			imageID = 1;
+		}
+	}
+
+	/**
+	 * Returns the index of the first element in {@link #getBlockData()} of the block whose top-left cell is at
+	 * (cellRow,cellCol). The block's descriptor is computed if needed.
+	 *
+	 * @param cellRow Row of the block's top-left cell
+	 * @param cellCol Column of the block's top-left cell
+	 * @return index of the block's first element
+	 */
+	public int getBlockIndex( int cellRow , int cellCol ) {
+		int block = cellRow*blockCols + cellCol;
+		if( blockImage[block] != imageID ) {
+			computeBlock(cellRow, cellCol, block*blockLength);
+			blockImage[block] = imageID;
+		}
+		return block*blockLength;
+	}
+
+	/**
+	 * Computes the descriptor of every block which has not already been computed. After this has been called
+	 * windows can be accessed by multiple threads.
+	 */
+	public void computeAllBlocks() {
+		for (int row = 0; row < blockRows; row++) {
+			computeBlockRow(row);
+		}
+	}
+
+	/**
+	 * Computes every block in a row which has not already been computed
+	 */
+	protected void computeBlockRow( int cellRow ) {
+		for (int cellCol = 0; cellCol < blockCols; cellCol++) {
+			getBlockIndex(cellRow,cellCol);
+		}
+	}
+
+	/**
+	 * Finds the blocks which compose the descriptor of a window.
+	 *
+	 * @param cellRow Row of the window's top-left cell
+	 * @param cellCol Column of the window's top-left cell
+	 * @param blockIndexes (Output) Index in {@link #getBlockData()} of each block in the window, in row-major order
+	 */
+	public void getWindowBlocks( int cellRow , int cellCol , GrowQueue_I32 blockIndexes ) {
+		checkWindow(cellRow, cellCol);
+
+		int step = hog.getStepBlock();
+		blockIndexes.reset();
+		for (int i = 0; i < windowBlocksY; i++) {
+			for (int j = 0; j < windowBlocksX; j++) {
+				blockIndexes.add(getBlockIndex(cellRow + i*step, cellCol + j*step));
+			}
+		}
+	}
+
+	/**
+	 * Copies the descriptor of a window into a tuple. Mostly intended for creating training data, when
+	 * scoring windows use {@link #getWindowBlocks} instead.
+	 *
+	 * @param cellRow Row of the window's top-left cell
+	 * @param cellCol Column of the window's top-left cell
+	 * @param descriptor (Output) The window's descriptor. Must have a length of {@link #getWindowLength()}
+	 */
+	public void getWindowDescriptor( int cellRow , int cellCol , TupleDesc_F64 descriptor ) {
+		checkWindow(cellRow, cellCol);
+		if( descriptor.size() != getWindowLength() )
+			throw new IllegalArgumentException("Descriptor has the wrong length. "+
+					descriptor.size()+" != "+getWindowLength());
+
+		int step = hog.getStepBlock();
+		int indexDesc = 0;
+		for (int i = 0; i < windowBlocksY; i++) {
+			for (int j = 0; j < windowBlocksX; j++) {
+				int index = getBlockIndex(cellRow + i*step, cellCol + j*step);
+				System.arraycopy(blockData, index, descriptor.value, indexDesc, blockLength);
+				indexDesc += blockLength;
+			}
+		}
+	}
+
+	private void checkWindow( int cellRow , int cellCol ) {
+		if( cellRow < 0 || cellCol < 0 || cellRow >= getWindowRows() || cellCol >= getWindowCols() )
+			throw new IllegalArgumentException("Window is outside the image. row="+cellRow+" col="+cellCol);
+	}
+
+	/**
+	 * Copies the histograms of cells in the block into the block's descriptor then applies the same
+	 * normalization as {@link DescribeDenseHogFastAlg}
+	 */
+	void computeBlock( int cellRow , int cellCol , int index ) {
+		final int N = hog.getOrientationBins();
+		int indexDesc = index;
+		for (int i = 0; i < hog.getCellsPerBlockY(); i++) {
+			for (int j = 0; j < hog.getCellsPerBlockX(); j++) {
+				DescribeDenseHogFastAlg.Cell c = hog.getCell(cellRow+i, cellCol+j);
+				for (int k = 0; k < N; k++) {
+					blockData[indexDesc++] = c.histogram[k];
+				}
+			}
+		}
+
+		// Apply SIFT style L2-Hys normalization
+		DescribeSiftCommon.normalizeDescriptor(blockData, index, blockLength, 0.2);
+	}
+
+	/**
+	 * Number of window positions along the y-axis. Windows can start at any cell.
+	 */
+	public int getWindowRows() {
+		return Math.max(0, hog.getCellRows() - windowCellsY + 1);
+	}
+
+	/**
+	 * Number of window positions along the x-axis. Windows can start at any cell.
+	 */
+	public int getWindowCols() {
+		return Math.max(0, hog.getCellCols() - windowCellsX + 1);
+	}
+
+	/**
+	 * Number of elements in a window's descriptor
+	 */
+	public int getWindowLength() {
+		return windowBlocksX*windowBlocksY*blockLength;
+	}
+
+	/**
+	 * Number of blocks in a window
+	 */
+	public int getNumWindowBlocks() {
+		return windowBlocksX*windowBlocksY;
+	}
+
+	public int getBlockLength() {
+		return blockLength;
+	}
+
+	/**
+	 * Array containing the descriptor of each block. Only blocks which have been requested are valid.
+	 */
+	public double[] getBlockData() {
+		return blockData;
+	}
+
+	public DescribeDenseHogFastAlg<Input> getHog() {
+		return hog;
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * Concurrent implementation of {@link DenseHogSlidingWindow}. When all the blocks are computed at once each
+ * row of blocks is computed in a separate thread.
+ *
+ * @author Peter Abeles
+ */
+public class DenseHogSlidingWindow_MT<Input extends ImageBase<Input>> extends DenseHogSlidingWindow<Input> {
+
+	public DenseHogSlidingWindow_MT( DescribeDenseHogFastAlg<Input> hog , int windowCellsX , int windowCellsY ) {
+		super(hog, windowCellsX, windowCellsY);
+	}
+
+	@Override
+	public void computeAllBlocks() {
+		BoofConcurrency.loopFor(0,blockRows,this::computeBlockRow);
+	}
+}
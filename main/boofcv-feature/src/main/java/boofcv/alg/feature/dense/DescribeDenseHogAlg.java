@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -89,7 +89,7 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	protected GrayF32 orientation = new GrayF32(1,1);
 	protected GrayF64 magnitude = new GrayF64(1,1); // stored as F64 instead of F32 for speed
 
-	// the active histogram being worked on
+	// the active histogram being worked on. Only used by the single block functions
 	double histogram[];
 
 	// spatial weights applied to each in a block
@@ -176,8 +176,15 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	/**
 	 * Computes the orientation and magnitude of each pixel
 	 */
-	private void computePixelFeatures() {
-		for (int y = 0; y < derivX.height; y++) {
+	protected void computePixelFeatures() {
+		computePixelFeatures(0,derivX.height);
+	}
+
+	/**
+	 * Computes the orientation and magnitude of each pixel in the specified range of rows
+	 */
+	protected void computePixelFeatures( int y0 , int y1 ) {
+		for (int y = y0; y < y1; y++) {
 			int pixelIndex = y*derivX.width;
 			int endIndex = pixelIndex+derivX.width;
 			for (; pixelIndex < endIndex; pixelIndex++ ) {
@@ -197,33 +204,55 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 */
 	@Override
 	public void process() {
-		locations.reset();
-		descriptions.reset();
-
 		int stepBlockPixelsX = pixelsPerCell *stepBlock;
 		int stepBlockPixelsY = pixelsPerCell *stepBlock;
 
 		int maxY = derivX.height - pixelsPerCell * cellsPerBlockY + 1;
 		int maxX = derivX.width - pixelsPerCell * cellsPerBlockX + 1;
 
-		for (int y = 0; y < maxY; y += stepBlockPixelsY ) {
-			for (int x = 0; x < maxX; x += stepBlockPixelsX ) {
-				TupleDesc_F64 d = descriptions.grow();
-				Arrays.fill(d.value,0);
-				histogram = d.value;
+		// number of blocks along each axis
+		final int blockRows = maxY <= 0 ? 0 : (maxY+stepBlockPixelsY-1)/stepBlockPixelsY;
+		final int blockCols = maxX <= 0 ? 0 : (maxX+stepBlockPixelsX-1)/stepBlockPixelsX;
 
-				for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
-					int blockPixelRow = cellRow* pixelsPerCell;
-					for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
-						int blockPixelCol = cellCol* pixelsPerCell;
+		// declare storage for all the descriptors so that they can be computed out of order
+		locations.resize(blockRows*blockCols);
+		descriptions.resize(blockRows*blockCols);
 
-						computeCellHistogram(x+blockPixelCol, y+blockPixelRow, cellCol, cellRow);
-					}
-				}
+		computeDescriptorRows(blockRows,blockCols);
+	}
+
+	/**
+	 * Computes the descriptors in every row of blocks. Storage has already been declared.
+	 */
+	protected void computeDescriptorRows( int blockRows , int blockCols ) {
+		for (int blockRow = 0; blockRow < blockRows; blockRow++) {
+			computeDescriptorRow(blockRow,blockCols);
+		}
+	}
+
+	/**
+	 * Computes all the descriptors in a row of blocks
+	 */
+	protected void computeDescriptorRow( int blockRow , int blockCols ) {
+		int y = blockRow*pixelsPerCell*stepBlock;
+		for (int blockCol = 0; blockCol < blockCols; blockCol++) {
+			int x = blockCol*pixelsPerCell*stepBlock;
+			int index = blockRow*blockCols + blockCol;
+
+			TupleDesc_F64 d = descriptions.get(index);
+			Arrays.fill(d.value,0);
+
+			for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
+				int blockPixelRow = cellRow* pixelsPerCell;
+				for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
+					int blockPixelCol = cellCol* pixelsPerCell;
 
-				DescribeSiftCommon.normalizeDescriptor(d,0.2);
-				locations.grow().set(x,y);
+					computeCellHistogram(x+blockPixelCol, y+blockPixelRow, cellCol, cellRow, d.value);
+				}
 			}
+
+			DescribeSiftCommon.normalizeDescriptor(d,0.2);
+			locations.get(index).set(x,y);
 		}
 	}
 
@@ -236,6 +265,19 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 */
 	void computeCellHistogram(int pixelX0 , int pixelY0 ,
 							  int cellX , int cellY ) {
+		computeCellHistogram(pixelX0, pixelY0, cellX, cellY, histogram);
+	}
+
+	/**
+	 * Computes the histogram for the block with the specified lower extent
+	 * @param pixelX0 cell's lower extent x-axis in the image
+	 * @param pixelY0 cell's lower extent y-axis in the image
+	 * @param cellX Location of the cell in the block x-axis
+	 * @param cellY Location of the cell in the block y-axis
+	 * @param histogram The block's histogram which is being computed
+	 */
+	void computeCellHistogram(int pixelX0 , int pixelY0 ,
+							  int cellX , int cellY , double[] histogram ) {
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
@@ -289,32 +331,32 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 
 				// spatial bilinear interpolation + orientation linear interpolation
 				// + gaussian weighting (previously applied)
-				addToHistogram( cellX-1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0);
-				addToHistogram( cellX-1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0);
+				addToHistogram( cellX-1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0, histogram);
+				addToHistogram( cellX-1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0, histogram);
 
-				addToHistogram( cellX, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0);
-				addToHistogram( cellX, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0);
+				addToHistogram( cellX, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0, histogram);
+				addToHistogram( cellX, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0, histogram);
 
-				addToHistogram( cellX+1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0);
-				addToHistogram( cellX+1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0);
+				addToHistogram( cellX+1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0, histogram);
+				addToHistogram( cellX+1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0, histogram);
 
-				addToHistogram( cellX-1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1);
-				addToHistogram( cellX-1, cellY , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1);
+				addToHistogram( cellX-1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1, histogram);
+				addToHistogram( cellX-1, cellY , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1, histogram);
 
-				addToHistogram( cellX, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1);
-				addToHistogram( cellX, cellY , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1);
+				addToHistogram( cellX, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1, histogram);
+				addToHistogram( cellX, cellY , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1, histogram);
 
-				addToHistogram( cellX+1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1);
-				addToHistogram( cellX+1, cellY , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1);
+				addToHistogram( cellX+1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1, histogram);
+				addToHistogram( cellX+1, cellY , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1, histogram);
 
-				addToHistogram( cellX-1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2);
-				addToHistogram( cellX-1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2);
+				addToHistogram( cellX-1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2, histogram);
+				addToHistogram( cellX-1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2, histogram);
 
-				addToHistogram( cellX, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2);
-				addToHistogram( cellX, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2);
+				addToHistogram( cellX, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2, histogram);
+				addToHistogram( cellX, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2, histogram);
 
-				addToHistogram( cellX+1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2);
-				addToHistogram( cellX+1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2);
+				addToHistogram( cellX+1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2, histogram);
+				addToHistogram( cellX+1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2, histogram);
 
 			}
 		}
@@ -328,6 +370,13 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 * @param magnitude edge magnitude
 	 */
 	void addToHistogram(int cellX, int cellY, int orientationIndex, double magnitude) {
+		addToHistogram(cellX, cellY, orientationIndex, magnitude, histogram);
+	}
+
+	/**
+	 * Adds the magnitude to the histogram at the specified cell and orientation
+	 */
+	void addToHistogram(int cellX, int cellY, int orientationIndex, double magnitude, double[] histogram) {
 		// see if it's being applied to a valid cell in the histogram
 		if( cellX < 0 || cellX >= cellsPerBlockX)
 			return;
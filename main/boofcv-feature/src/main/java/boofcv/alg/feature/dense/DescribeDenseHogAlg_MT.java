@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogAlg}. Pixel orientations and magnitudes are computed in
+ * bands of rows and each row of blocks is described in a separate thread.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogAlg<Input> {
+
+	public DescribeDenseHogAlg_MT( int orientationBins , int pixelsPerCell ,
+								   int cellsPerBlockX , int cellsPerBlockY,
+								   int stepBlock ,
+								   ImageType<Input> imageType ) {
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override
+	protected void computePixelFeatures() {
+		BoofConcurrency.loopBlocks(0,derivX.height,this::computePixelFeatures);
+	}
+
+	@Override
+	protected void computeDescriptorRows( int blockRows , int blockCols ) {
+		BoofConcurrency.loopFor(0,blockRows,blockRow->computeDescriptorRow(blockRow,blockCols));
+	}
+}
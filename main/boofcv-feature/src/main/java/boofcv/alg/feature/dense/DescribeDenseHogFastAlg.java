@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -78,6 +78,27 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 */
 	@Override
 	public void process() {
+		processCells();
+
+		final int cellRowMax = (cellRows - (cellsPerBlockY -1));
+		final int cellColMax = (cellCols - (cellsPerBlockX -1));
+
+		// number of blocks along each axis
+		final int blockRows = cellRowMax <= 0 ? 0 : (cellRowMax+stepBlock-1)/stepBlock;
+		final int blockCols = cellColMax <= 0 ? 0 : (cellColMax+stepBlock-1)/stepBlock;
+
+		// declare storage for all the descriptors so that they can be computed out of order
+		locations.resize(blockRows*blockCols);
+		descriptions.resize(blockRows*blockCols);
+
+		computeDescriptorRows(blockRows,blockCols);
+	}
+
+	/**
+	 * Computes the histogram in each cell but not the descriptors. After this has been called the cells
+	 * can be accessed using {@link #getCell(int, int)}.
+	 */
+	public void processCells() {
 		locations.reset();
 		descriptions.reset();
 
@@ -85,16 +106,28 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 		growCellArray(derivX.width, derivX.height);
 
 		computeCellHistograms();
+	}
 
-		int cellRowMax = (cellRows - (cellsPerBlockY -1));
-		int cellColMax = (cellCols - (cellsPerBlockX -1));
-
-		for (int i = 0; i < cellRowMax; i += stepBlock) {
-			for (int j = 0; j < cellColMax; j += stepBlock) {
-				computeDescriptor(i,j);
-			}
+	/**
+	 * Computes the descriptors in every row of blocks. Storage has already been declared.
+	 */
+	protected void computeDescriptorRows( int blockRows , int blockCols ) {
+		for (int blockRow = 0; blockRow < blockRows; blockRow++) {
+			computeDescriptorRow(blockRow,blockCols);
 		}
+	}
 
+	/**
+	 * Computes all the descriptors in a row of blocks
+	 */
+	protected void computeDescriptorRow( int blockRow , int blockCols ) {
+		int row = blockRow*stepBlock;
+		for (int blockCol = 0, col = 0; blockCol < blockCols; blockCol++, col += stepBlock) {
+			int index = blockRow*blockCols + blockCol;
+			// set location to top-left pixel
+			locations.get(index).set(col* pixelsPerCell,row* pixelsPerCell);
+			computeDescriptor(row,col,descriptions.get(index));
+		}
 	}
 
 	/**
@@ -143,16 +176,23 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	}
 
 	/**
-	 * Compute the descriptor from the specified cells.  (row,col) to (row+w,col+w)
+	 * Compute the descriptor from the specified cells and adds it to the list of descriptors. (row,col) to (row+w,col+w)
 	 * @param row Lower extent of cell rows
 	 * @param col Lower extent of cell columns
 	 */
 	void computeDescriptor(int row, int col) {
 		// set location to top-left pixel
 		locations.grow().set(col* pixelsPerCell,row* pixelsPerCell);
+		computeDescriptor(row,col,descriptions.grow());
+	}
 
-		TupleDesc_F64 d = descriptions.grow();
-
+	/**
+	 * Compute the descriptor from the specified cells.  (row,col) to (row+w,col+w)
+	 * @param row Lower extent of cell rows
+	 * @param col Lower extent of cell columns
+	 * @param d Storage for the descriptor
+	 */
+	void computeDescriptor(int row, int col, TupleDesc_F64 d) {
 		int indexDesc = 0;
 		for (int i = 0; i < cellsPerBlockY; i++) {
 			for (int j = 0; j < cellsPerBlockX; j++) {
@@ -170,17 +210,26 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 
 	/**
 	 * Compute histograms for all the cells inside the image using precomputed derivative.
+	 */
+	protected void computeCellHistograms() {
+		computeCellHistograms(0,cellRows);
+	}
 
+	/**
+	 * Compute histograms for cells in the specified range of rows
+	 *
+	 * @param cellRow0 First row of cells, inclusive
+	 * @param cellRow1 Last row of cells, exclusive
 	 */
-	void computeCellHistograms() {
+	protected void computeCellHistograms( int cellRow0 , int cellRow1 ) {
 
 		int width = cellCols* pixelsPerCell;
-		int height = cellRows* pixelsPerCell;
+		int height = cellRow1* pixelsPerCell;
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
-		int indexCell = 0;
-		for (int i = 0; i < height; i += pixelsPerCell) {
+		int indexCell = cellRow0*cellCols;
+		for (int i = cellRow0*pixelsPerCell; i < height; i += pixelsPerCell) {
 			for (int j = 0; j < width; j += pixelsPerCell, indexCell++ ) {
 				Cell c = cells[indexCell];
 				c.reset();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -42,6 +42,10 @@ import org.ddogleg.struct.FastQueue;
  * the sampling period be adjusted.  Multiple descriptors can overlap the same area, so pixel orientation and
  * magnitude is just computed once and saved.</p>
  *
+ * <p>Each pixel contributes to at most two spatial bins along each axis and two orientation bins. Which bins and
+ * their weights are found directly instead of iterating through every bin. Descriptors only read from the saved
+ * gradient so they can be computed in parallel, see {@link DescribeDenseSiftAlg_MT}.</p>
+ *
  * @author Peter Abeles
  */
 public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCommon {
@@ -63,6 +67,11 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	// saved location of where in the image it sampled
 	FastQueue<Point2D_I32> sampleLocations = new FastQueue<>(Point2D_I32.class, true);
 
+	// For each row or column of pixels in the sample region, the first spatial bin it contributes to
+	// and the weight of the next spatial bin
+	int[] pixelToGrid;
+	float[] pixelToGridFrac;
+
 	/**
 	 * Specifies SIFT descriptor structure and sampling frequency.
 	 * @param widthSubregion Width of sub-region in samples.  Try 4
@@ -92,6 +101,16 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 				return new TupleDesc_F64(DOF);
 			}
 		};
+
+		// the same pixel to spatial bin relationship is used along both axises
+		int widthPixels = widthSubregion*widthGrid;
+		pixelToGrid = new int[widthPixels];
+		pixelToGridFrac = new float[widthPixels];
+		for (int i = 0; i < widthPixels; i++) {
+			float sub = i/(float)widthSubregion;
+			pixelToGrid[i] = (int)sub;
+			pixelToGridFrac[i] = sub - pixelToGrid[i];
+		}
 	}
 
 	/**
@@ -128,30 +147,50 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 		int numX = (int)((X1-X0)/periodColumns);
 		int numY = (int)((Y1-Y0)/periodRows);
 
-		descriptors.reset();
-		sampleLocations.reset();
+		// declare storage for all the descriptors so that they can be computed out of order
+		descriptors.resize(numX*numY);
+		sampleLocations.resize(numX*numY);
+
+		processRows(numX,numY,X0,X1,Y0,Y1);
+	}
 
+	/**
+	 * Computes the descriptors in every row of the sampling grid. Storage has already been declared.
+	 */
+	protected void processRows( int numX , int numY , int X0 , int X1 , int Y0 , int Y1 ) {
 		for (int i = 0; i < numY; i++) {
-			int y = (Y1-Y0)*i/(numY-1) + Y0;
+			processRow(i,numX,numY,X0,X1,Y0,Y1);
+		}
+	}
 
-			for (int j = 0; j < numX; j++) {
-				int x = (X1-X0)*j/(numX-1) + X0;
+	/**
+	 * Computes the descriptors in a single row of the sampling grid
+	 */
+	protected void processRow( int i , int numX , int numY , int X0 , int X1 , int Y0 , int Y1 ) {
+		int y = (Y1-Y0)*i/(numY-1) + Y0;
 
-				TupleDesc_F64 desc = descriptors.grow();
+		for (int j = 0; j < numX; j++) {
+			int x = (X1-X0)*j/(numX-1) + X0;
 
-				computeDescriptor(x,y,desc);
-				sampleLocations.grow().set(x,y);
-			}
+			computeDescriptor(x,y,descriptors.get(i*numX+j));
+			sampleLocations.get(i*numX+j).set(x,y);
 		}
 	}
 
 	/**
 	 * Computes the angle of each pixel and its gradient magnitude
 	 */
-	void precomputeAngles(D image) {
-		int savecIndex = 0;
-		for (int y = 0; y < image.height; y++) {
+	protected void precomputeAngles(D image) {
+		precomputeAngles(image,0,image.height);
+	}
+
+	/**
+	 * Computes the angle and gradient magnitude of each pixel in the specified range of rows
+	 */
+	protected void precomputeAngles(D image, int y0 , int y1 ) {
+		for (int y = y0; y < y1; y++) {
 			int pixelIndex = y*image.stride + image.startIndex;
+			int savecIndex = y*image.width;
 
 			for (int x = 0; x < image.width; x++, pixelIndex++, savecIndex++ ) {
 				float spacialDX = imageDerivX.getF(pixelIndex);
@@ -164,7 +203,9 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	}
 
 	/**
-	 * Computes the descriptor centered at the specified coordinate
+	 * Computes the descriptor centered at the specified coordinate. Can be called by multiple threads at
+	 * the same time.
+	 *
 	 * @param cx center of region x-axis
 	 * @param cy center of region y-axis
 	 * @param desc The descriptor
@@ -179,24 +220,60 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 		for (int i = 0; i < widthPixels; i++) {
 			int angleIndex = (cy-radius+i)*savedAngle.width + (cx-radius);
 
-			float subY = i/(float)widthSubregion;
+			int gridY = pixelToGrid[i];
+			float fracY = pixelToGridFrac[i];
 
 			for (int j = 0; j < widthPixels; j++, angleIndex++ ) {
-				float subX = j/(float)widthSubregion;
-
 				double angle = savedAngle.data[angleIndex];
 
 				float weightGaussian = gaussianWeight[i*widthPixels+j];
 				float weightGradient = savedMagnitude.data[angleIndex];
 
 				// trilinear interpolation intro descriptor
-				trilinearInterpolation(weightGaussian*weightGradient,subX,subY,angle,desc);
+				trilinearInterpolation(weightGaussian*weightGradient,gridY,fracY,
+						pixelToGrid[j],pixelToGridFrac[j],angle,desc);
 			}
 		}
 
 		normalizeDescriptor(desc,maxDescriptorElementValue);
 	}
 
+	/**
+	 * Applies trilinear interpolation across the descriptor. Equivalent to
+	 * {@link DescribeSiftCommon#trilinearInterpolation} but only visits the bins with a non-zero weight.
+	 * Each pixel contributes to at most two bins along each of the three axises.
+	 *
+	 * @param gridY The first spatial bin along the y-axis
+	 * @param fracY Fractional distance along y-axis from gridY
+	 * @param gridX The first spatial bin along the x-axis
+	 * @param fracX Fractional distance along x-axis from gridX
+	 */
+	void trilinearInterpolation( float weight , int gridY , float fracY , int gridX , float fracX ,
+								 double angle , TupleDesc_F64 descriptor ) {
+		// find the two orientation bins the angle is between and their weights
+		double findex = angle/histogramBinWidth;
+		int bin0 = (int)findex;
+		double weightBin1 = findex - bin0;
+		bin0 %= numHistogramBins;
+		int bin1 = (bin0+1)%numHistogramBins;
+
+		for (int i = gridY; i <= gridY+1 && i < widthGrid; i++) {
+			double weightGridY = 1.0 - Math.abs(fracY - (i-gridY));
+			if( weightGridY <= 0) continue;
+			for (int j = gridX; j <= gridX+1 && j < widthGrid; j++) {
+				double weightGridX = 1.0 - Math.abs(fracX - (j-gridX));
+				if( weightGridX <= 0 ) continue;
+
+				int descriptorIndex = (i*widthGrid + j)*numHistogramBins;
+				double w = weight*weightGridX*weightGridY;
+				if( 1.0 - weightBin1 > 0 )
+					descriptor.value[descriptorIndex+bin0] += w*(1.0-weightBin1);
+				if( weightBin1 > 0 )
+					descriptor.value[descriptorIndex+bin1] += w*weightBin1;
+			}
+		}
+	}
+
 	public double getPeriodRows() {
 		return periodRows;
 	}
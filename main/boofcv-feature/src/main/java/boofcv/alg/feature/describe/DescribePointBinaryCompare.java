@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -32,6 +32,11 @@ import georegression.struct.point.Point2D_I32;
  * </p>
  *
  * <p>
+ * After {@link #setImage} has been called the process functions only read from internal data structures. Multiple
+ * threads can describe points at the same time using the same instance.
+ * </p>
+ *
+ * <p>
  * [1] Y. Amit and D. Geman. Shape Quantization and Recognition with Randomized Trees. Neural Computation,
  * 9(7):1545–1588, 1997.
  * </p>
@@ -107,6 +112,37 @@ public abstract class DescribePointBinaryCompare<T extends ImageGray<T>> {
 	 */
 	public abstract void processBorder( int c_x , int c_y , TupleDesc_B feature );
 
+	/**
+	 * Called if the descriptor region is contained entirely inside the image. No bounds checks are performed.
+	 * The descriptor is written into the array starting at 'offset'. One element is written for every 32
+	 * comparisons and any additional elements in the descriptor are not modified.
+	 *
+	 * The default implementation calls {@link #processInside(int, int, TupleDesc_B)} with a new descriptor
+	 * and copies the results. Override to avoid creating a new descriptor each call.
+	 */
+	public void processInside( int c_x , int c_y , int[] data , int offset ) {
+		TupleDesc_B feature = new TupleDesc_B(definition.getLength());
+		processInside(c_x,c_y,feature);
+		System.arraycopy(feature.data,0,data,offset,numWords());
+	}
+
+	/**
+	 * Called if the descriptor region goes outside the image border. Writes to the array the same way as
+	 * {@link #processInside(int, int, int[], int)}.
+	 */
+	public void processBorder( int c_x , int c_y , int[] data , int offset ) {
+		TupleDesc_B feature = new TupleDesc_B(definition.getLength());
+		processBorder(c_x,c_y,feature);
+		System.arraycopy(feature.data,0,data,offset,numWords());
+	}
+
+	/**
+	 * Number of elements in the descriptor which are written to by comparisons
+	 */
+	private int numWords() {
+		return (definition.compare.length+31)/32;
+	}
+
 	public BinaryCompareDefinition_I32 getDefinition() {
 		return definition;
 	}
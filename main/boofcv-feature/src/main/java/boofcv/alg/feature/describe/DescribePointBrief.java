@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,8 +21,13 @@ package boofcv.alg.feature.describe;
 import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
 import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * <p>
@@ -88,6 +93,58 @@ public class DescribePointBrief<T extends ImageGray<T>> {
 		describe.process((int)c_x,(int)c_y,feature);
 	}
 
+	/**
+	 * Computes descriptors for all the points and stores them in a packed array. The descriptor for
+	 * point 'i' is element 'i' in the packed array. The result is identical to calling
+	 * {@link #process(double, double, TupleDesc_B)} for each point.
+	 *
+	 * @param points (Input) Center of each region being described.
+	 * @param descriptions (Output) Storage for the descriptors. Resized to match the number of points.
+	 */
+	public void process( List<Point2D_F64> points , PackedTupleArray_B descriptions ) {
+		if( descriptions.numBits != describe.getDefinition().getLength() )
+			throw new IllegalArgumentException("Number of bits in the packed array doesn't match the definition. "+
+					descriptions.numBits+" != "+describe.getDefinition().getLength());
+
+		descriptions.resize(points.size());
+		processBatch(points,descriptions);
+	}
+
+	/**
+	 * Describes all the points. The packed array has already been resized.
+	 */
+	protected void processBatch( List<Point2D_F64> points , PackedTupleArray_B descriptions ) {
+		process(points,descriptions,0,points.size());
+	}
+
+	/**
+	 * Describes points in the specified range. Points which are entirely inside the image are determined
+	 * here and skip the bounds checks.
+	 */
+	protected void process( List<Point2D_F64> points , PackedTupleArray_B descriptions , int idx0 , int idx1 ) {
+		final int radius = describe.getDefinition().radius;
+		final int x1 = describe.image.width - radius;
+		final int y1 = describe.image.height - radius;
+		final int numInts = descriptions.numInts;
+		final int[] data = descriptions.data;
+		// The descriptor can have more bits than comparisons. Those bits are always zero
+		final int numWords = (describe.getDefinition().compare.length+31)/32;
+
+		for (int i = idx0; i < idx1; i++) {
+			Point2D_F64 p = points.get(i);
+			int c_x = (int)p.x;
+			int c_y = (int)p.y;
+
+			if( c_x >= radius && c_y >= radius && c_x < x1 && c_y < y1 ) {
+				describe.processInside(c_x,c_y,data,i*numInts);
+			} else {
+				describe.processBorder(c_x,c_y,data,i*numInts);
+			}
+			if( numWords < numInts )
+				Arrays.fill(data,i*numInts+numWords,(i+1)*numInts,0);
+		}
+	}
+
 	public BinaryCompareDefinition_I32 getDefinition() {
 		return describe.getDefinition();
 	}
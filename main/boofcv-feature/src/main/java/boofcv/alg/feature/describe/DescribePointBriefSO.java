@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,11 +24,15 @@ import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.misc.BoofMiscOps;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.GrowQueue_F64;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * <p>
@@ -81,6 +85,66 @@ public class DescribePointBriefSO<T extends ImageGray<T>> {
 	}
 
 	public void process( float c_x , float c_y , float orientation , float radius , TupleDesc_B feature )
+	{
+		Arrays.fill(feature.data, 0);
+		process(interp, values, c_x, c_y, orientation, radius, feature.data, 0);
+	}
+
+	/**
+	 * Computes descriptors for all the points and stores them in a packed array. The descriptor for
+	 * point 'i' is element 'i' in the packed array. The result is identical to calling
+	 * {@link #process(float, float, float, float, TupleDesc_B)} for each point.
+	 *
+	 * @param points (Input) Center of each region being described.
+	 * @param orientations (Input) Orientation of each region.
+	 * @param radii (Input) Radius of each region.
+	 * @param descriptions (Output) Storage for the descriptors. Resized to match the number of points.
+	 */
+	public void process( List<Point2D_F64> points , GrowQueue_F64 orientations , GrowQueue_F64 radii ,
+						 PackedTupleArray_B descriptions ) {
+		if( descriptions.numBits != definition.getLength() )
+			throw new IllegalArgumentException("Number of bits in the packed array doesn't match the definition. "+
+					descriptions.numBits+" != "+definition.getLength());
+		if( orientations.size != points.size() || radii.size != points.size() )
+			throw new IllegalArgumentException("Orientations and radii must have the same size as points");
+
+		descriptions.resize(points.size());
+		processBatch(points,orientations,radii,descriptions);
+	}
+
+	/**
+	 * Describes all the points. The packed array has already been resized.
+	 */
+	protected void processBatch( List<Point2D_F64> points , GrowQueue_F64 orientations , GrowQueue_F64 radii ,
+								 PackedTupleArray_B descriptions ) {
+		process(interp,values,points,orientations,radii,descriptions,0,points.size());
+	}
+
+	/**
+	 * Describes points in the specified range using the provided interpolation, which has been set to the
+	 * blurred image, and storage for sample values.
+	 */
+	protected void process( InterpolatePixelS<T> interp , float[] values ,
+							List<Point2D_F64> points , GrowQueue_F64 orientations , GrowQueue_F64 radii ,
+							PackedTupleArray_B descriptions , int idx0 , int idx1 ) {
+		final int numInts = descriptions.numInts;
+		final int[] data = descriptions.data;
+		Arrays.fill(data, idx0*numInts, idx1*numInts, 0);
+
+		for (int i = idx0; i < idx1; i++) {
+			Point2D_F64 p = points.get(i);
+			process(interp, values, (float)p.x, (float)p.y,
+					(float)orientations.data[i], (float)radii.data[i], data, i*numInts);
+		}
+	}
+
+	/**
+	 * Computes the descriptor and sets bits in the array starting at 'offset'. Bits are only set and
+	 * the descriptor must be filled with zeros first.
+	 */
+	private void process( InterpolatePixelS<T> interp , float[] values ,
+						  float c_x , float c_y , float orientation , float radius ,
+						  int[] data , int offset )
 	{
 		float scale = (float)(radius/BoofDefaults.BRIEF_SCALE_TO_RADIUS);
 		// NOTE: This doesn't seem to take in account the interpolation border.  Might not work algs
@@ -90,8 +154,6 @@ public class DescribePointBriefSO<T extends ImageGray<T>> {
 		float c = (float)Math.cos(orientation);
 		float s = (float)Math.sin(orientation);
 
-		Arrays.fill(feature.data, 0);
-
 		if( isInside ) {
 			for( int i = 0; i < definition.samplePoints.length; i++ ) {
 				Point2D_I32 a = definition.samplePoints[i];
@@ -102,7 +164,8 @@ public class DescribePointBriefSO<T extends ImageGray<T>> {
 				values[i] = interp.get_fast(x0, y0);
 			}
 		} else {
-			// handle the image border case
+			// handle the image border case. Samples outside the image have a value of zero
+			Arrays.fill(values, 0);
 			for( int i = 0; i < definition.samplePoints.length; i++ ) {
 				Point2D_I32 a = definition.samplePoints[i];
 				// rotate the points
@@ -116,12 +179,11 @@ public class DescribePointBriefSO<T extends ImageGray<T>> {
 			}
 		}
 
+		// branchless since the comparison is unpredictable
 		for( int i = 0; i < definition.compare.length; i++ ) {
 			Point2D_I32 comp = definition.compare[i];
 
-			if( values[comp.x] < values[comp.y] ) {
-				feature.data[ i/32 ] |= 1 << (i % 32);
-			}
+			data[ offset + i/32 ] |= (values[comp.x] < values[comp.y] ? 1 : 0) << (i % 32);
 		}
 	}
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link DescribePointBriefSO}. In batch mode the points are split into blocks
+ * and each block is described in a separate thread with its own interpolation.
+ *
+ * @author Peter Abeles
+ */
+public class DescribePointBriefSO_MT<T extends ImageGray<T>> extends DescribePointBriefSO<T> {
+	/**
+	 * Minimum number of points described by a single thread in batch mode. Each thread also needs its
+	 * own copy of the interpolation, so small blocks add overhead. Can be changed to tune performance.
+	 */
+	public int minBlock = 50;
+
+	// Each thread has its own interpolation and sample values
+	private FastQueue<ThreadWork> workspace = new FastQueue(ThreadWork.class, ()->new ThreadWork());
+
+	public DescribePointBriefSO_MT( BinaryCompareDefinition_I32 definition,
+									BlurFilter<T> filterBlur,
+									InterpolatePixelS<T> interp ) {
+		super(definition, filterBlur, interp);
+	}
+
+	@Override
+	protected void processBatch( List<Point2D_F64> points , GrowQueue_F64 orientations , GrowQueue_F64 radii ,
+								 PackedTupleArray_B descriptions ) {
+		BoofConcurrency.loopBlocks(0,points.size(),minBlock,workspace,(work,idx0,idx1)->{
+			work.interp.setImage(blur);
+			process(work.interp,work.values,points,orientations,radii,descriptions,idx0,idx1);
+		});
+	}
+
+	private class ThreadWork {
+		InterpolatePixelS<T> interp = DescribePointBriefSO_MT.this.interp.copy();
+		float[] values = new float[ definition.samplePoints.length ];
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link DescribePointBrief}. In batch mode the points are split into blocks
+ * and each block is described in a separate thread.
+ *
+ * @author Peter Abeles
+ */
+public class DescribePointBrief_MT<T extends ImageGray<T>> extends DescribePointBrief<T> {
+	/**
+	 * Minimum number of points described by a single thread in batch mode. A BRIEF descriptor only takes
+	 * a few hundred pixel comparisons, so if a block is too small the cost of starting the thread dominates.
+	 * Public so that it can be tuned for the descriptor length and computer.
+	 */
+	public int minBlock = 50;
+
+	public DescribePointBrief_MT( DescribePointBinaryCompare<T> describe, BlurFilter<T> filterBlur ) {
+		super(describe, filterBlur);
+	}
+
+	@Override
+	protected void processBatch( List<Point2D_F64> points , PackedTupleArray_B descriptions ) {
+		BoofConcurrency.loopBlocks(0,points.size(),minBlock,(idx0,idx1)->process(points,descriptions,idx0,idx1));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -60,6 +60,8 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 	// conversion from scale-space sigma to image pixels
 	double sigmaToPixels;
 
+	// type of image derivative
+	Class<Deriv> derivType;
 
 	/**
 	 * Configures the descriptor.
@@ -76,11 +78,28 @@ public class DescribePointSift<Deriv extends ImageGray> extends DescribeSiftComm
 							 double maxDescriptorElementValue , Class<Deriv> derivType ) {
 		super(widthSubregion,widthGrid,numHistogramBins,weightingSigmaFraction,maxDescriptorElementValue);
 		this.sigmaToPixels = sigmaToPixels;
+		this.derivType = derivType;
 
 		imageDerivX = FactoryGImageGray.create(derivType);
 		imageDerivY = FactoryGImageGray.create(derivType);
 	}
 
+	private DescribePointSift( DescribePointSift<Deriv> original ) {
+		super(original);
+		this.sigmaToPixels = original.sigmaToPixels;
+		this.derivType = original.derivType;
+
+		imageDerivX = FactoryGImageGray.create(derivType);
+		imageDerivY = FactoryGImageGray.create(derivType);
+	}
+
+	/**
+	 * Creates a new instance with the same configuration.  The image gradient is not copied.
+	 */
+	public DescribePointSift<Deriv> copy() {
+		return new DescribePointSift<>(this);
+	}
+
 	/**
 	 * Sets the image spacial derivatives.  These should be computed from an image at the appropriate scale
 	 * in scale-space.
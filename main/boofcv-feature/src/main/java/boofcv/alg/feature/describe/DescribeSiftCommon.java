@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -73,6 +73,18 @@ public class DescribeSiftCommon {
 		gaussianWeight = createGaussianWeightKernel(weightSigma,descriptorWindow/2);
 	}
 
+	/**
+	 * Copies the configuration of the original.  The Gaussian weight is never modified and is shared.
+	 */
+	protected DescribeSiftCommon( DescribeSiftCommon original ) {
+		this.widthSubregion = original.widthSubregion;
+		this.widthGrid = original.widthGrid;
+		this.numHistogramBins = original.numHistogramBins;
+		this.histogramBinWidth = original.histogramBinWidth;
+		this.maxDescriptorElementValue = original.maxDescriptorElementValue;
+		this.gaussianWeight = original.gaussianWeight;
+	}
+
 	/**
 	 * Adjusts the descriptor.  This adds lighting invariance and reduces the affects of none-affine changes
 	 * in lighting.
@@ -97,6 +109,43 @@ public class DescribeSiftCommon {
 		UtilFeature.normalizeL2(descriptor);
 	}
 
+	/**
+	 * Same as {@link #normalizeDescriptor(TupleDesc_F64, double)} but for a descriptor which is stored inside
+	 * of an array.
+	 *
+	 * @param data Array containing the descriptor
+	 * @param offset Index of the descriptor's first element
+	 * @param length Number of elements in the descriptor
+	 */
+	public static void normalizeDescriptor( double[] data , int offset , int length ,
+											double maxDescriptorElementValue ) {
+		normalizeL2(data,offset,length);
+
+		// clip the values
+		for (int i = offset; i < offset+length; i++) {
+			if( data[i] > maxDescriptorElementValue ) {
+				data[i] = maxDescriptorElementValue;
+			}
+		}
+
+		normalizeL2(data,offset,length);
+	}
+
+	private static void normalizeL2( double[] data , int offset , int length ) {
+		double norm = 0;
+		for (int i = offset; i < offset+length; i++) {
+			double v = data[i];
+			norm += v*v;
+		}
+		if( norm == 0 )
+			return;
+
+		norm = Math.sqrt(norm);
+		for (int i = offset; i < offset+length; i++) {
+			data[i] /= norm;
+		}
+	}
+
 	/**
 	 * Creates a gaussian weighting kernel with an even number of elements along its width
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -44,10 +44,20 @@ public class ImplDescribeBinaryCompare_U8 extends DescribePointBinaryCompare<Gra
 	}
 
 	@Override
-	public void processInside( int c_x , int c_y , TupleDesc_B feature )
-	{
+	public void processInside( int c_x , int c_y , TupleDesc_B feature ) {
 		Arrays.fill(feature.data, 0);
+		processInside(c_x,c_y,feature.data,0);
+	}
+
+	@Override
+	public void processBorder( int c_x , int c_y , TupleDesc_B feature ) {
+		Arrays.fill(feature.data, 0);
+		processBorder(c_x,c_y,feature.data,0);
+	}
 
+	@Override
+	public void processInside( int c_x , int c_y , int[] data , int offset )
+	{
 		int index = image.startIndex + image.stride*c_y + c_x;
 
 		for( int i = 0; i < definition.compare.length; i += 32 ) {
@@ -60,20 +70,16 @@ public class ImplDescribeBinaryCompare_U8 extends DescribePointBinaryCompare<Gra
 				valA = image.data[index + offsetsA[j]]& 0xFF;
 				valB = image.data[index + offsetsB[j]]& 0xFF;
 
-				desc *= 2;
-				if( valA < valB ) {
-					desc += 1;
-				}
+				// branchless since the comparison is unpredictable
+				desc = (desc << 1) | (valA < valB ? 1 : 0);
 			}
 
-			feature.data[ i/32 ] = desc;
+			data[ offset + i/32 ] = desc;
 		}
 	}
 
 	@Override
-	public void processBorder( int c_x , int c_y , TupleDesc_B feature ) {
-		Arrays.fill(feature.data, 0);
-
+	public void processBorder( int c_x , int c_y , int[] data , int offset ) {
 		int index = image.startIndex + image.stride*c_y + c_x;
 
 		for( int i = 0; i < definition.compare.length; i += 32 ) {
@@ -96,7 +102,7 @@ public class ImplDescribeBinaryCompare_U8 extends DescribePointBinaryCompare<Gra
 					}
 				}
 			}
-			feature.data[ i/32 ] = desc;
+			data[ offset + i/32 ] = desc;
 		}
 	}
 
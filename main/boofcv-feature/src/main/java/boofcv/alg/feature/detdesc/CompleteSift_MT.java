@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detect.extract.NonMaxLimiter;
+import boofcv.alg.feature.describe.DescribePointSift;
+import boofcv.alg.feature.detect.interest.SiftScaleSpace;
+import boofcv.alg.feature.orientation.OrientationHistogramSift;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * Concurrent implementation of {@link CompleteSift}. Detections in a scale image are first collected, then the
+ * orientations of all the detections are estimated in parallel followed by computing all the descriptors in
+ * parallel. Features are added in the same order as the single threaded version and the output is identical.
+ *
+ * @author Peter Abeles
+ */
+public class CompleteSift_MT extends CompleteSift {
+
+	// detections in the current scale image
+	FastQueue<ScalePoint> candidates = new FastQueue<>(ScalePoint.class, false);
+	// orientations of each candidate
+	FastQueue<GrowQueue_F64> candidateAngles = new FastQueue<>(GrowQueue_F64.class, true);
+
+	// Each thread has its own copy of the orientation and descriptor algorithms
+	FastQueue<ThreadWork> workspace = new FastQueue(ThreadWork.class, ()->new ThreadWork(orientation.copy(),describe.copy()));
+
+	/**
+	 * Configures SIFT.  See {@link CompleteSift#CompleteSift} for a description of the parameters.
+	 */
+	public CompleteSift_MT(SiftScaleSpace scaleSpace, double edgeR, NonMaxLimiter extractor,
+						   OrientationHistogramSift<GrayF32> orientation,
+						   DescribePointSift<GrayF32> describe) {
+		super(scaleSpace, edgeR, extractor, orientation, describe);
+	}
+
+	@Override
+	protected void detectFeatures(int scaleIndex) {
+		candidates.reset();
+		super.detectFeatures(scaleIndex);
+
+		// estimate the orientation of each candidate
+		candidateAngles.resize(candidates.size);
+		BoofConcurrency.loopBlocks(0,candidates.size,workspace,(work,idx0,idx1)->{
+			work.setImageGradient(derivX,derivY);
+
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = candidates.get(i);
+				work.orientation.process(p.x/pixelScaleToInput,p.y/pixelScaleToInput,p.scale/pixelScaleToInput);
+				candidateAngles.get(i).setTo(work.orientation.getOrientations());
+			}
+		});
+
+		// there's a feature for each orientation. Add them in the same order as the single threaded version
+		final int featureIdx0 = features.size;
+		for (int i = 0; i < candidates.size; i++) {
+			ScalePoint p = candidates.get(i);
+			GrowQueue_F64 angles = candidateAngles.get(i);
+			for (int j = 0; j < angles.size; j++) {
+				features.grow().white = p.white;
+				orientations.add(angles.get(j));
+				locations.add(p);
+			}
+		}
+
+		// describe all the new features
+		BoofConcurrency.loopBlocks(featureIdx0,features.size,workspace,(work,idx0,idx1)->{
+			work.setImageGradient(derivX,derivY);
+
+			for (int i = idx0; i < idx1; i++) {
+				ScalePoint p = locations.get(i);
+				double localX = p.x / pixelScaleToInput;
+				double localY = p.y / pixelScaleToInput;
+				double localSigma = p.scale / pixelScaleToInput;
+
+				work.describe.process(localX,localY,localSigma,orientations.get(i),features.get(i));
+			}
+		});
+	}
+
+	@Override
+	protected void handleDetection(ScalePoint p) {
+		// processing of the detection is delayed until all the detections in the scale image are known
+		candidates.add(p);
+	}
+
+	private static class ThreadWork {
+		OrientationHistogramSift<GrayF32> orientation;
+		DescribePointSift<GrayF32> describe;
+
+		public ThreadWork(OrientationHistogramSift<GrayF32> orientation, DescribePointSift<GrayF32> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+
+		public void setImageGradient( GrayF32 derivX , GrayF32 derivY ) {
+			orientation.setImageGradient(derivX,derivY);
+			describe.setImageGradient(derivX,derivY);
+		}
+	}
+}
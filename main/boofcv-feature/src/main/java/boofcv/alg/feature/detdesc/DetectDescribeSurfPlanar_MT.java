@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,6 +25,7 @@ import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.ScalePoint;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
 
 /**
  * Multi-threaded version of {@link DetectDescribeSurfPlanar}
@@ -38,10 +39,14 @@ public class DetectDescribeSurfPlanar_MT<II extends ImageGray<II>> extends Detec
 		super(detector, orientation, describe);
 	}
 
+	// Copies of the orientation and description algorithms for each thread
+	private final FastQueue<ThreadWork> workspace = new FastQueue(ThreadWork.class,
+			()->new ThreadWork((OrientationIntegral)orientation.copy(),describe.copy()));
+
 	protected void describe(II grayII, Planar<II> colorII) {
-		BoofConcurrency.loopBlocks(0,foundPoints.size(),(i0, i1)-> {
-			OrientationIntegral<II> orientation = (OrientationIntegral) this.orientation.copy();
-			DescribePointSurfPlanar<II> describe = this.describe.copy();
+		BoofConcurrency.loopBlocks(0,foundPoints.size(),workspace,(work, i0, i1)-> {
+			OrientationIntegral<II> orientation = work.orientation;
+			DescribePointSurfPlanar<II> describe = work.describe;
 
 			orientation.setImage(grayII);
 			describe.setImage(grayII, colorII);
@@ -57,4 +62,14 @@ public class DetectDescribeSurfPlanar_MT<II extends ImageGray<II>> extends Detec
 			}
 		});
 	}
+
+	private class ThreadWork {
+		OrientationIntegral<II> orientation;
+		DescribePointSurfPlanar<II> describe;
+
+		public ThreadWork(OrientationIntegral<II> orientation, DescribePointSurfPlanar<II> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
 }
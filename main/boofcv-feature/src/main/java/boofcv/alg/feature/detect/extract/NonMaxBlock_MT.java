@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,6 +21,7 @@ package boofcv.alg.feature.detect.extract;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -28,9 +29,9 @@ import java.util.List;
 
 /**
  * <p>Concurrent implementation of {@link NonMaxBlock_MT}. Every row of block is run in its own threads.
- * All threads keep track of all the found mins/maxs in seperate lists which are then combined after
- * a thread has finished running. All searches and point lists declared for each thread
- * are saved for future use</p>
+ * Each row of blocks saves the found mins/maxs into its own list and the lists are combined in order after
+ * all the threads have finished. Thus the output is identical to the single threaded version, including the order.
+ * All searches and point lists declared for each thread are saved for future use</p>
  *
  * @author Peter Abeles
  */
@@ -39,19 +40,15 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 	// lock for variables below - which are lists used to store work space for individual threads
 	final Object lock = new Object();
 	final List<Search> searches = new ArrayList<>();
-	final List<QueueCorner> cornerLists = new ArrayList<>();
+
+	// found mins/maxs in each row of blocks
+	final FastQueue<QueueCorner> rowMin = new FastQueue<>(QueueCorner.class, true);
+	final FastQueue<QueueCorner> rowMax = new FastQueue<>(QueueCorner.class, true);
 
 	public NonMaxBlock_MT(Search search) {
 		super(search);
 	}
 
-	/**
-	 * Detects local minimums and/or maximums in the provided intensity image.
-	 *
-	 * @param intensityImage (Input) Feature intensity image.
-	 * @param localMin (Output) storage for found local minimums.
-	 * @param localMax (Output) storage for found local maximums.
-	 */
 	@Override
 	public void process(GrayF32 intensityImage, @Nullable QueueCorner localMin, @Nullable QueueCorner localMax) {
 
@@ -74,10 +71,12 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 		if( range > N*step )
 			N += 1;
 
+		rowMin.resize(N);
+		rowMax.resize(N);
+
 		BoofConcurrency.loopFor(0,N, iterY -> {
 
 			NonMaxBlock.Search search;
-			QueueCorner threadMin=null,threadMax=null;
 
 			// get work space for this thread
 			synchronized (lock) {
@@ -86,13 +85,13 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 				} else {
 					search = searches.remove( searches.size()-1 );
 				}
-				if( search.isDetectMinimums() ) {
-					threadMin = pop();
-				}
-				if( search.isDetectMaximums() ) {
-					threadMax = pop();
-				}
 			}
+			QueueCorner threadMin = search.isDetectMinimums() ? rowMin.get(iterY) : null;
+			QueueCorner threadMax = search.isDetectMaximums() ? rowMax.get(iterY) : null;
+			if( threadMin != null )
+				threadMin.reset();
+			if( threadMax != null )
+				threadMax.reset();
 			search.initialize(configuration,intensityImage,threadMin,threadMax);
 
 			// search for local peaks along this block row
@@ -106,33 +105,23 @@ public class NonMaxBlock_MT extends NonMaxBlock {
 				search.searchBlock(x,y,x1,y1);
 			}
 
-			// Save the results and recycle thread working space
+			// recycle thread working space
 			synchronized (lock) {
-				saveResults(localMin, threadMin);
-				saveResults(localMax, threadMax);
-
 				searches.add(search);
-				if( threadMin != null )
-					cornerLists.add(threadMin);
-				if( threadMax != null )
-					cornerLists.add(threadMax);
 			}
 		});
-	}
 
-	private QueueCorner pop() {
-		QueueCorner queue;
-		if (cornerLists.isEmpty()) {
-			queue = new QueueCorner();
-		} else {
-			queue = cornerLists.remove(cornerLists.size() - 1);
+		// Save the results in the same order as they would be found by a single thread
+		for (int iterY = 0; iterY < N; iterY++) {
+			if( search.isDetectMinimums() )
+				saveResults(localMin, rowMin.get(iterY));
+			if( search.isDetectMaximums() )
+				saveResults(localMax, rowMax.get(iterY));
 		}
-		queue.reset();
-		return queue;
 	}
 
-	private void saveResults(QueueCorner output, QueueCorner thread) {
-		if( thread != null ) {
+	private void saveResults(@Nullable QueueCorner output, QueueCorner thread) {
+		if( output != null ) {
 			for (int i = 0; i < thread.size; i++) {
 				output.grow().set(thread.get(i));
 			}
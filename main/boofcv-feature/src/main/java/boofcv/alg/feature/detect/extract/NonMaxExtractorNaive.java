@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -71,102 +71,106 @@ public class NonMaxExtractorNaive {
 	}
 
 	public void process(GrayF32 intensityImage, QueueCorner peaks) {
+		for (int y = border; y < intensityImage.height - border; y++) {
+			processRow(intensityImage, y, peaks);
+		}
+	}
 
+	/**
+	 * Searches for local maximums along a single row. Found peaks are added to the end of the list.
+	 */
+	protected void processRow(GrayF32 intensityImage, int y, QueueCorner peaks) {
 		if (useStrictRule)
-			strictRule(intensityImage, peaks);
+			strictRule(intensityImage, y, peaks);
 		else
-			notStrictRule(intensityImage, peaks);
+			notStrictRule(intensityImage, y, peaks);
 	}
 
-	private void strictRule(GrayF32 intensityImage, QueueCorner corners) {
+	private void strictRule(GrayF32 intensityImage, int y, QueueCorner corners) {
 		final int imgWidth = intensityImage.getWidth();
 		final int imgHeight = intensityImage.getHeight();
 
 		final float inten[] = intensityImage.data;
 
-		for (int y = border; y < imgHeight - border; y++) {
-			int center = intensityImage.startIndex + y * intensityImage.stride + border;
-			for (int x = border; x < imgWidth - border; x++) {
-
-				float val = inten[center++];
-				if (val < thresh) continue;
-
-				boolean max = true;
-
-				int x0 = x - radius;
-				int x1 = x + radius;
-				int y0 = y - radius;
-				int y1 = y + radius;
-
-				if (x0 < 0) x0 = 0;
-				if (y0 < 0) y0 = 0;
-				if (x1 >= imgWidth) x1 = imgWidth - 1;
-				if (y1 >= imgHeight) y1 = imgHeight - 1;
-
-				escape:
-				for (int i = y0; i <= y1; i++) {
-					int index = intensityImage.startIndex + i * intensityImage.stride + x0;
-					for (int j = x0; j <= x1; j++, index++) {
-						// don't compare the center point against itself
-						if (i == y && j == x)
-							continue;
-
-						if (val <= inten[index]) {
-							max = false;
-							break escape;
-						}
+		int center = intensityImage.startIndex + y * intensityImage.stride + border;
+		for (int x = border; x < imgWidth - border; x++) {
+
+			float val = inten[center++];
+			if (val < thresh) continue;
+
+			boolean max = true;
+
+			int x0 = x - radius;
+			int x1 = x + radius;
+			int y0 = y - radius;
+			int y1 = y + radius;
+
+			if (x0 < 0) x0 = 0;
+			if (y0 < 0) y0 = 0;
+			if (x1 >= imgWidth) x1 = imgWidth - 1;
+			if (y1 >= imgHeight) y1 = imgHeight - 1;
+
+			escape:
+			for (int i = y0; i <= y1; i++) {
+				int index = intensityImage.startIndex + i * intensityImage.stride + x0;
+				for (int j = x0; j <= x1; j++, index++) {
+					// don't compare the center point against itself
+					if (i == y && j == x)
+						continue;
+
+					if (val <= inten[index]) {
+						max = false;
+						break escape;
 					}
 				}
+			}
 
-				// add points which are local maximums and are not already contained in the corners list
-				if (max && val != Float.MAX_VALUE) {
-					corners.add(x, y);
-				}
+			// add points which are local maximums and are not already contained in the corners list
+			if (max && val != Float.MAX_VALUE) {
+				corners.add(x, y);
 			}
 		}
 	}
 
-	private void notStrictRule(GrayF32 intensityImage, QueueCorner corners) {
+	private void notStrictRule(GrayF32 intensityImage, int y, QueueCorner corners) {
 		final int imgWidth = intensityImage.getWidth();
 		final int imgHeight = intensityImage.getHeight();
 
 		final float inten[] = intensityImage.data;
 
-		for (int y = border; y < imgHeight - border; y++) {
-			int center = intensityImage.startIndex + y * intensityImage.stride + border;
-			for (int x = border; x < imgWidth - border; x++) {
+		int center = intensityImage.startIndex + y * intensityImage.stride + border;
+		for (int x = border; x < imgWidth - border; x++) {
 
-				float val = inten[center++];
-				if (val < thresh) continue;
+			float val = inten[center++];
+			if (val < thresh) continue;
 
-				boolean max = true;
+			boolean max = true;
 
-				int x0 = x - radius;
-				int x1 = x + radius;
-				int y0 = y - radius;
-				int y1 = y + radius;
+			int x0 = x - radius;
+			int x1 = x + radius;
+			int y0 = y - radius;
+			int y1 = y + radius;
 
-				if (x0 < 0) x0 = 0;
-				if (y0 < 0) y0 = 0;
-				if (x1 >= imgWidth) x1 = imgWidth - 1;
-				if (y1 >= imgHeight) y1 = imgHeight - 1;
+			if (x0 < 0) x0 = 0;
+			if (y0 < 0) y0 = 0;
+			if (x1 >= imgWidth) x1 = imgWidth - 1;
+			if (y1 >= imgHeight) y1 = imgHeight - 1;
 
-				escape:
-				for (int i = y0; i <= y1; i++) {
-					int index = intensityImage.startIndex + i * intensityImage.stride + x0;
-					for (int j = x0; j <= x1; j++, index++) {
+			escape:
+			for (int i = y0; i <= y1; i++) {
+				int index = intensityImage.startIndex + i * intensityImage.stride + x0;
+				for (int j = x0; j <= x1; j++, index++) {
 
-						if (val < inten[index]) {
-							max = false;
-							break escape;
-						}
+					if (val < inten[index]) {
+						max = false;
+						break escape;
 					}
 				}
+			}
 
-				// add points which are local maximums and are not already contained in the corners list
-				if (max && val != Float.MAX_VALUE) {
-					corners.add(x, y);
-				}
+			// add points which are local maximums and are not already contained in the corners list
+			if (max && val != Float.MAX_VALUE) {
+				corners.add(x, y);
 			}
 		}
 	}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link NonMaxExtractorNaive}. Each row is searched in its own thread and saves
+ * its peaks into its own list. After all the threads have finished the lists are combined in order, so the output
+ * is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class NonMaxExtractorNaive_MT extends NonMaxExtractorNaive {
+
+	// found peaks in each row
+	final FastQueue<QueueCorner> rowPeaks = new FastQueue<>(QueueCorner.class, true);
+
+	public NonMaxExtractorNaive_MT(boolean useStrictRule) {
+		super(useStrictRule);
+	}
+
+	@Override
+	public void process(GrayF32 intensityImage, QueueCorner peaks) {
+		int y0 = border;
+		int y1 = intensityImage.height - border;
+		if( y1 <= y0 )
+			return;
+
+		rowPeaks.resize(y1-y0);
+
+		BoofConcurrency.loopFor(y0,y1, y -> {
+			QueueCorner row = rowPeaks.get(y-y0);
+			row.reset();
+			processRow(intensityImage,y,row);
+		});
+
+		// Save the results in the same order as they would be found by a single thread
+		for (int i = 0; i < rowPeaks.size; i++) {
+			QueueCorner row = rowPeaks.get(i);
+			for (int j = 0; j < row.size; j++) {
+				peaks.grow().set(row.get(j));
+			}
+		}
+	}
+}
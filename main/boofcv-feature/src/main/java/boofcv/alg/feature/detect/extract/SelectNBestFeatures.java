@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,7 +25,8 @@ import org.ddogleg.sorting.QuickSelect;
 
 
 /**
- * Selects and sorts up to the N best features based on their intensity.
+ * Selects up to the N best features based on their intensity. The order of the selected features is not
+ * specified and can change between implementations.
  *
  * @author Peter Abeles
  */
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>Concurrent implementation of {@link SelectNBestFeatures}. The list of corners is split into blocks and
+ * each thread finds the N best in its block using a bounded heap. The sorted results from each block are then
+ * combined with a k-way merge. Ties in intensity are broken using the order of the input list, which makes the
+ * output independent of how the list was split up.</p>
+ *
+ * <p>When pruning is required the returned corners are sorted from best to worst, otherwise the input order is
+ * kept. The single threaded version makes no guarantee about order, so callers should not depend on it.</p>
+ *
+ * @author Peter Abeles
+ */
+public class SelectNBestFeatures_MT extends SelectNBestFeatures {
+
+	// minimum number of corners processed by a single thread
+	public int minBlock = 2000;
+
+	// storage for the best corners found in each block
+	final FastQueue<Block> blocks = new FastQueue<>(Block.class, Block::new);
+
+	public SelectNBestFeatures_MT(int N) {
+		super(N);
+	}
+
+	@Override
+	public void process(GrayF32 intensityImage, QueueCorner origCorners, boolean positive ) {
+		if (origCorners.size <= target) {
+			super.process(intensityImage, origCorners, positive);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(0,origCorners.size,Math.max(minBlock,target),blocks,(block,idx0,idx1)->
+				selectBlock(intensityImage,origCorners,positive,block,idx0,idx1));
+
+		// k-way merge of the sorted blocks
+		bestCorners.reset();
+		for (int i = 0; i < blocks.size; i++) {
+			blocks.get(i).head = 0;
+		}
+		while( bestCorners.size < target ) {
+			Block best = null;
+			for (int i = 0; i < blocks.size; i++) {
+				Block b = blocks.get(i);
+				if( b.head >= b.indexes.size )
+					continue;
+				if( best == null || isBetter(b.scores.data[b.head],b.indexes.data[b.head],
+						best.scores.data[best.head],best.indexes.data[best.head]))
+					best = b;
+			}
+			if( best == null )
+				break;
+			Point2D_I16 pt = origCorners.data[best.indexes.data[best.head++]];
+			bestCorners.add(pt.x, pt.y);
+		}
+	}
+
+	/**
+	 * Finds the N best corners inside the block and sorts them from best to worst
+	 */
+	void selectBlock(GrayF32 intensityImage, QueueCorner origCorners, boolean positive,
+					 Block block, int idx0, int idx1) {
+		GrowQueue_I32 indexes = block.indexes;
+		GrowQueue_F32 scores = block.scores;
+		indexes.reset();
+		scores.reset();
+
+		// min-heap with the worst of the best corners at the root
+		for (int i = idx0; i < idx1; i++) {
+			Point2D_I16 pt = origCorners.data[i];
+			float score = intensityImage.unsafe_get(pt.x, pt.y);
+			if( !positive )
+				score = -score;
+
+			if( indexes.size < target ) {
+				indexes.add(i);
+				scores.add(score);
+				siftUp(block,indexes.size-1);
+			} else if( isBetter(score,i,scores.data[0],indexes.data[0])) {
+				indexes.data[0] = i;
+				scores.data[0] = score;
+				siftDown(block,0,indexes.size);
+			}
+		}
+
+		// heap sort. The worst is moved to the end each iteration
+		for (int end = indexes.size-1; end > 0; end--) {
+			swap(block,0,end);
+			siftDown(block,0,end);
+		}
+	}
+
+	/**
+	 * Returns true if corner 'a' should be selected before corner 'b'
+	 */
+	static boolean isBetter( float scoreA, int indexA, float scoreB, int indexB ) {
+		return scoreA > scoreB || (scoreA == scoreB && indexA < indexB);
+	}
+
+	private static void siftUp( Block block, int i ) {
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( !isBetter(block.scores.data[parent],block.indexes.data[parent],
+					block.scores.data[i],block.indexes.data[i]))
+				break;
+			swap(block,i,parent);
+			i = parent;
+		}
+	}
+
+	private static void siftDown( Block block, int i , int size ) {
+		float[] scores = block.scores.data;
+		int[] indexes = block.indexes.data;
+		while( true ) {
+			int left = 2*i+1;
+			if( left >= size )
+				break;
+			int worst = left;
+			int right = left+1;
+			if( right < size && isBetter(scores[left],indexes[left],scores[right],indexes[right]))
+				worst = right;
+			if( !isBetter(scores[i],indexes[i],scores[worst],indexes[worst]))
+				break;
+			swap(block,i,worst);
+			i = worst;
+		}
+	}
+
+	private static void swap( Block block, int a , int b ) {
+		float tmpS = block.scores.data[a];
+		block.scores.data[a] = block.scores.data[b];
+		block.scores.data[b] = tmpS;
+		int tmpI = block.indexes.data[a];
+		block.indexes.data[a] = block.indexes.data[b];
+		block.indexes.data[b] = tmpI;
+	}
+
+	/**
+	 * Best corners found inside a single block
+	 */
+	static class Block {
+		// index of the corner in the input list
+		final GrowQueue_I32 indexes = new GrowQueue_I32();
+		// intensity of each corner, negated when selecting minimums
+		final GrowQueue_F32 scores = new GrowQueue_F32();
+		// index of the next element to be merged
+		int head;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -44,17 +44,24 @@ public class ThresholdCornerExtractor {
 	public void process(GrayF32 intensity, QueueCorner corners ) {
 		corners.reset();
 
+		for( int y = 0; y < intensity.height; y++ ) {
+			processRow(intensity, y, corners);
+		}
+	}
+
+	/**
+	 * Adds pixels in a single row which are above the threshold to the end of the list
+	 */
+	protected void processRow(GrayF32 intensity, int y, QueueCorner corners ) {
 		float data[] = intensity.data;
 
-		for( int y = 0; y < intensity.height; y++ ) {
-			int startIndex = intensity.startIndex + y*intensity.stride;
-			int endIndex = startIndex + intensity.width;
+		int startIndex = intensity.startIndex + y*intensity.stride;
+		int endIndex = startIndex + intensity.width;
 
-			for( int index = startIndex; index < endIndex; index++ ) {
-				if( data[index] > thresh ) {
-					int x = index-startIndex;
-					corners.add(x,y);
-				}
+		for( int index = startIndex; index < endIndex; index++ ) {
+			if( data[index] > thresh ) {
+				int x = index-startIndex;
+				corners.add(x,y);
 			}
 		}
 	}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link ThresholdCornerExtractor}. Each row is thresholded in its own thread and
+ * the rows are combined in order afterwards, thus the output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class ThresholdCornerExtractor_MT extends ThresholdCornerExtractor {
+
+	// pixels above the threshold in each row
+	final FastQueue<QueueCorner> rowCorners = new FastQueue<>(QueueCorner.class, true);
+
+	public ThresholdCornerExtractor_MT( float thresh ) {
+		super(thresh);
+	}
+
+	public ThresholdCornerExtractor_MT() {
+	}
+
+	@Override
+	public void process(GrayF32 intensity, QueueCorner corners ) {
+		corners.reset();
+
+		rowCorners.resize(intensity.height);
+
+		BoofConcurrency.loopFor(0,intensity.height, y -> {
+			QueueCorner row = rowCorners.get(y);
+			row.reset();
+			processRow(intensity,y,row);
+		});
+
+		for (int y = 0; y < rowCorners.size; y++) {
+			QueueCorner row = rowCorners.get(y);
+			for (int i = 0; i < row.size; i++) {
+				corners.grow().set(row.get(i));
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -75,8 +75,8 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	private int stride = 0;
 
 	// list of pixels that might be corners.
-	private QueueCorner candidatesLow = new QueueCorner(10);
-	private QueueCorner candidatesHigh = new QueueCorner(10);
+	protected QueueCorner candidatesLow = new QueueCorner(10);
+	protected QueueCorner candidatesHigh = new QueueCorner(10);
 
 	// reference to the input image
 	protected T image;
@@ -121,34 +121,11 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	 * used
 	 */
 	public void process( T image , GrayF32 intensity ) {
+		initialize(image);
 		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
-		candidatesLow.reset();
-		candidatesHigh.reset();
-		this.image = image;
-
-		if( stride != image.stride ) {
-			stride = image.stride;
-			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
-		}
-		helper.setImage(image,offsets);
 
 		for (int y = radius; y < image.height-radius; y++) {
-			int indexIntensity = intensity.startIndex + y*intensity.stride + radius;
-			int index = image.startIndex + y*image.stride + radius;
-			for (int x = radius; x < image.width-radius; x++, index++,indexIntensity++) {
-
-				int result = helper.checkPixel(index);
-
-				if( result < 0 ) {
-					intensity.data[indexIntensity] = helper.scoreLower(index);
-					candidatesLow.add(x,y);
-				} else if( result > 0) {
-					intensity.data[indexIntensity] = helper.scoreUpper(index);
-					candidatesHigh.add(x,y);
-				} else {
-					intensity.data[indexIntensity] = 0;
-				}
-			}
+			processRow(helper,y,intensity,candidatesLow,candidatesHigh);
 			// check on a per row basis to reduce impact on performance
 			if( candidatesLow.size + candidatesHigh.size >= maxFeatures )
 				break;
@@ -159,7 +136,21 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	 * Computes fast corner features
 	 */
 	public void process( T image ) {
+		initialize(image);
 		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
+
+		for (int y = radius; y < image.height-radius; y++) {
+			processRow(helper,y,candidatesLow,candidatesHigh);
+			// check on a per row basis to reduce impact on performance
+			if( candidatesLow.size + candidatesHigh.size >= maxFeatures )
+				break;
+		}
+	}
+
+	/**
+	 * Discards previous results and prepares to process the image
+	 */
+	protected void initialize( T image ) {
 		candidatesLow.reset();
 		candidatesHigh.reset();
 		this.image = image;
@@ -169,22 +160,46 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
 		}
 		helper.setImage(image,offsets);
+	}
 
-		for (int y = radius; y < image.height-radius; y++) {
-			int index = image.startIndex + y*image.stride + radius;
-			for (int x = radius; x < image.width-radius; x++, index++) {
+	/**
+	 * Detects corners in a single row and computes their intensity
+	 */
+	protected void processRow( FastCornerInterface<T> helper , int y , GrayF32 intensity ,
+							   QueueCorner candidatesLow , QueueCorner candidatesHigh ) {
+		int indexIntensity = intensity.startIndex + y*intensity.stride + radius;
+		int index = image.startIndex + y*image.stride + radius;
+		for (int x = radius; x < image.width-radius; x++, index++,indexIntensity++) {
+
+			int result = helper.checkPixel(index);
+
+			if( result < 0 ) {
+				intensity.data[indexIntensity] = helper.scoreLower(index);
+				candidatesLow.add(x,y);
+			} else if( result > 0) {
+				intensity.data[indexIntensity] = helper.scoreUpper(index);
+				candidatesHigh.add(x,y);
+			} else {
+				intensity.data[indexIntensity] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Detects corners in a single row
+	 */
+	protected void processRow( FastCornerInterface<T> helper , int y ,
+							   QueueCorner candidatesLow , QueueCorner candidatesHigh ) {
+		int index = image.startIndex + y*image.stride + radius;
+		for (int x = radius; x < image.width-radius; x++, index++) {
 
-				int result = helper.checkPixel(index);
+			int result = helper.checkPixel(index);
 
-				if( result < 0 ) {
-					candidatesLow.add(x,y);
-				} else if( result > 0 ) {
-					candidatesHigh.add(x,y);
-				}
+			if( result < 0 ) {
+				candidatesLow.add(x,y);
+			} else if( result > 0 ) {
+				candidatesHigh.add(x,y);
 			}
-			// check on a per row basis to reduce impact on performance
-			if( candidatesLow.size + candidatesHigh.size >= maxFeatures )
-				break;
 		}
 	}
 
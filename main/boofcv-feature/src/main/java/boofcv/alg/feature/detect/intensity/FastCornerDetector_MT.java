@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link FastCornerDetector}. The image is split into bands of rows which are
+ * processed in parallel, with each thread having its own copy of the helper. Corners are saved in a list for
+ * each row and then the lists are merged in order. The found corners are identical to and in the same order
+ * as the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerDetector_MT<T extends ImageGray<T>> extends FastCornerDetector<T> {
+
+	// corners found in each row
+	final FastQueue<QueueCorner> rowsLow = new FastQueue<>(QueueCorner.class, true);
+	final FastQueue<QueueCorner> rowsHigh = new FastQueue<>(QueueCorner.class, true);
+
+	// Helper for each thread
+	final FastQueue<FastCornerInterface<T>> helpers;
+
+	/**
+	 * Constructor
+	 *
+	 * @param helper Provide the image type specific helper.
+	 */
+	public FastCornerDetector_MT(FastCornerInterface<T> helper) {
+		super(helper);
+		helpers = new FastQueue(FastCornerInterface.class, helper::newInstance);
+	}
+
+	@Override
+	public void process( T image , GrayF32 intensity ) {
+		initialize(image);
+		if( !setupRows(image) )
+			return;
+
+		BoofConcurrency.loopBlocks(radius, image.height-radius, helpers, (helper, y0, y1) -> {
+			helper.setImage(image,offsets);
+			for (int y = y0; y < y1; y++) {
+				QueueCorner low = rowsLow.get(y-radius);
+				QueueCorner high = rowsHigh.get(y-radius);
+				low.reset();
+				high.reset();
+				processRow(helper,y,intensity,low,high);
+			}
+		});
+
+		mergeRows(image);
+	}
+
+	@Override
+	public void process( T image ) {
+		initialize(image);
+		if( !setupRows(image) )
+			return;
+
+		BoofConcurrency.loopBlocks(radius, image.height-radius, helpers, (helper, y0, y1) -> {
+			helper.setImage(image,offsets);
+			for (int y = y0; y < y1; y++) {
+				QueueCorner low = rowsLow.get(y-radius);
+				QueueCorner high = rowsHigh.get(y-radius);
+				low.reset();
+				high.reset();
+				processRow(helper,y,low,high);
+			}
+		});
+
+		mergeRows(image);
+	}
+
+	/**
+	 * Declares storage for each row
+	 *
+	 * @return false if the image is too small to contain any corners
+	 */
+	private boolean setupRows( T image ) {
+		int numRows = image.height-2*radius;
+		if( numRows <= 0 || image.width <= 2*radius )
+			return false;
+		rowsLow.resize(numRows);
+		rowsHigh.resize(numRows);
+		return true;
+	}
+
+	/**
+	 * Adds the corners from each row in order. Rows after the maximum number of features has been reached
+	 * are skipped, just like the single threaded version.
+	 */
+	private void mergeRows( T image ) {
+		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
+
+		for (int row = 0; row < rowsLow.size; row++) {
+			QueueCorner low = rowsLow.get(row);
+			QueueCorner high = rowsHigh.get(row);
+			for (int i = 0; i < low.size; i++) {
+				candidatesLow.add(low.get(i));
+			}
+			for (int i = 0; i < high.size; i++) {
+				candidatesHigh.add(high.get(i));
+			}
+			if( candidatesLow.size + candidatesHigh.size >= maxFeatures )
+				break;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,6 +25,11 @@ import boofcv.struct.image.ImageGray;
  */
 public interface FastCornerInterface<T extends ImageGray<T>> {
 
+	/**
+	 * Creates a new instance with the same configuration. Used to create a helper for each thread
+	 */
+	FastCornerInterface<T> newInstance();
+
 	void setImage( T image , int offsets[] );
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -38,6 +38,11 @@ public class ImplFastCorner11_U8 extends ImplFastHelper_U8
 		super(pixelTol);
 	}
 
+	@Override
+	public ImplFastCorner11_U8 newInstance() {
+		return new ImplFastCorner11_U8(tol);
+	}
+
 	/**
 	 * @return 1 = positive corner, 0 = no corner, -1 = negative corner
 	 */
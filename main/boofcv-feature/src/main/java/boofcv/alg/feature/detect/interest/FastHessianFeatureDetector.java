@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -21,8 +21,8 @@ package boofcv.alg.feature.detect.interest;
 import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
 import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity;
-import boofcv.core.image.border.FactoryImageBorderAlgs;
 import boofcv.struct.QueueCorner;
+import boofcv.struct.border.ImageBorderValue;
 import boofcv.struct.border.ImageBorder_F32;
 import boofcv.struct.feature.ScalePoint;
 import boofcv.struct.image.GrayF32;
@@ -30,6 +30,7 @@ import boofcv.struct.image.ImageGray;
 import georegression.struct.point.Point2D_I16;
 import org.ddogleg.struct.FastQueue;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 
@@ -84,34 +85,31 @@ import java.util.List;
  */
 public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 
-	// finds features from 2D intensity image
-	private NonMaxSuppression extractor;
-	// sorts feature by their intensity
-	private SelectNBestFeatures sortBest;
 	// the maximum number of returned feature per scale
-	private int maxFeaturesPerScale;
+	protected int maxFeaturesPerScale;
 
 	// local sub-space
 	private GrayF32 intensity[];
 	private int spaceIndex = 0;
-	private QueueCorner foundFeatures = new QueueCorner(100);
+	// workspace for finding features in a scale
+	private final ScaleWorkspace workspace;
 
 	// List of found feature points
-	private FastQueue<ScalePoint> foundPoints = new FastQueue<>(10, ScalePoint.class, true);
+	protected FastQueue<ScalePoint> foundPoints = new FastQueue<>(10, ScalePoint.class, true);
 
 	// size of detected feature at the smallest scale
-	private int initialSize;
+	protected int initialSize;
 	// increment between kernel sizes as it goes up in scale
-	private int scaleStepSize;
+	protected int scaleStepSize;
 	// the number of octaves it examines
-	private int numberOfOctaves;
+	protected int numberOfOctaves;
 
 	// local variables that are predeclared
-	private int sizes[];
+	protected int sizes[];
 
 	// how often the image is sampled in the first octave
 	// a value of 1 would mean every pixel is sampled
-	private int initialSampleRate;
+	protected int initialSampleRate;
 
 	/**
 	 * <p>
@@ -135,11 +133,8 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 									  int initialSampleRate, int initialSize,
 									  int numberScalesPerOctave,
 									  int numberOfOctaves, int scaleStepSize) {
-		this.extractor = extractor;
-		if( maxFeaturesPerScale > 0 ) {
-			this.maxFeaturesPerScale = maxFeaturesPerScale;
-			sortBest = new SelectNBestFeatures(maxFeaturesPerScale);
-		}
+		this.maxFeaturesPerScale = Math.max(0,maxFeaturesPerScale);
+		this.workspace = new ScaleWorkspace(extractor,maxFeaturesPerScale);
 		this.initialSampleRate = initialSampleRate;
 		this.initialSize = initialSize;
 		this.numberOfOctaves = numberOfOctaves;
@@ -154,12 +149,6 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	 * @param integral Image transformed into an integral image.
 	 */
 	public void detect( II integral ) {
-		if( intensity == null ) {
-			intensity = new GrayF32[3];
-			for( int i = 0; i < intensity.length; i++ ) {
-				intensity[i] = new GrayF32(integral.width,integral.height);
-			}
-		}
 		foundPoints.reset();
 
 		// computes feature intensity every 'skip' pixels
@@ -200,6 +189,13 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		int w = integral.width/skip;
 		int h = integral.height/skip;
 
+		if( intensity == null ) {
+			intensity = new GrayF32[3];
+			for( int i = 0; i < intensity.length; i++ ) {
+				intensity[i] = new GrayF32(w,h);
+			}
+		}
+
 		// resize the output intensity image taking in account subsampling
 		for( int i = 0; i < intensity.length; i++ ) {
 			intensity[i].reshape(w,h);
@@ -232,31 +228,54 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 		int index1 = (spaceIndex + 1) % 3;
 		int index2 = (spaceIndex + 2) % 3;
 
-		ImageBorder_F32 inten0 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index0], 0);
-		GrayF32 inten1 = intensity[index1];
-		ImageBorder_F32 inten2 = (ImageBorder_F32)FactoryImageBorderAlgs.value(intensity[index2], 0);
+		findLocalScaleSpaceMax(intensity[index0],intensity[index1],intensity[index2],
+				size,level,skip,workspace,foundPoints);
+	}
+
+	/**
+	 * Looks for features which are local maximums in the image and scale-space.
+	 *
+	 * @param intensity0 Intensity of the scale below
+	 * @param intensity1 Intensity of the scale which features are being detected in
+	 * @param intensity2 Intensity of the scale above
+	 * @param size Size of features in different scale-spaces.
+	 * @param level Which level in the scale-space
+	 * @param skip How many pixels are skipped over.
+	 * @param work Workspace for finding features
+	 * @param foundPoints (Output) Found features are added to this list
+	 */
+	protected void findLocalScaleSpaceMax( GrayF32 intensity0, GrayF32 intensity1, GrayF32 intensity2,
+										   int []size, int level, int skip,
+										   ScaleWorkspace work, FastQueue<ScalePoint> foundPoints ) {
+		work.inten0.setImage(intensity0);
+		work.inten2.setImage(intensity2);
+		ImageBorder_F32 inten0 = work.inten0;
+		GrayF32 inten1 = intensity1;
+		ImageBorder_F32 inten2 = work.inten2;
+		NonMaxSuppression extractor = work.extractor;
+		QueueCorner foundFeatures = work.foundFeatures;
 
 		// find local maximums in image 2D space.  Borders need to be ignored since
 		// false positives are found around them as an artifact of pixels outside being
 		// treated as being zero.
 		foundFeatures.reset();
 		extractor.setIgnoreBorder(size[level] / (2 * skip));
-		extractor.process(intensity[index1],null,null,null,foundFeatures);
+		extractor.process(intensity1,null,null,null,foundFeatures);
 
 		// Can't consider feature which are right up against the border since they might not be a true local
 		// maximum when you consider the features on the other side of the ignore border
 		int ignoreRadius = extractor.getIgnoreBorder() + extractor.getSearchRadius();
-		int ignoreWidth = intensity[index1].width-ignoreRadius;
-		int ignoreHeight = intensity[index1].height-ignoreRadius;
+		int ignoreWidth = intensity1.width-ignoreRadius;
+		int ignoreHeight = intensity1.height-ignoreRadius;
 
 		// number of features which can be added
 		int numberRemaining;
 
 		// if configured to do so, only select the features with the highest intensity
 		QueueCorner features;
-		if( sortBest != null ) {
-			sortBest.process(intensity[index1],foundFeatures,true);
-			features = sortBest.getBestCorners();
+		if( work.sortBest != null ) {
+			work.sortBest.process(intensity1,foundFeatures,true);
+			features = work.sortBest.getBestCorners();
 			numberRemaining = maxFeaturesPerScale;
 		} else {
 			features = foundFeatures;
@@ -391,4 +410,23 @@ public class FastHessianFeatureDetector<II extends ImageGray<II>> {
 	public int getSmallestWidth() {
 		return initialSize;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Data structures used to find features inside a single scale
+	 */
+	protected static class ScaleWorkspace {
+		// finds features from 2D intensity image
+		final NonMaxSuppression extractor;
+		// sorts feature by their intensity
+		final @Nullable SelectNBestFeatures sortBest;
+		final QueueCorner foundFeatures = new QueueCorner(100);
+		// intensity in the scales above and below. pixels outside the image are zero
+		final ImageBorder_F32 inten0 = new ImageBorderValue.Value_F32(0);
+		final ImageBorder_F32 inten2 = new ImageBorderValue.Value_F32(0);
+
+		public ScaleWorkspace( NonMaxSuppression extractor , int maxFeaturesPerScale ) {
+			this.extractor = extractor;
+			this.sortBest = maxFeaturesPerScale > 0 ? new SelectNBestFeatures(maxFeaturesPerScale) : null;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.feature.detect.intensity.GIntegralImageFeatureIntensity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.function.Supplier;
+
+/**
+ * Concurrent implementation of {@link FastHessianFeatureDetector}. Instead of computing one scale at a time,
+ * the intensity of every scale in an octave is computed in parallel, with rows in each scale also being split
+ * across threads. Then features are found in all the inner scales of the octave in parallel. Each inner scale has
+ * its own non-maximum suppression algorithm and storage for found features, which are reused between images.
+ * Found features are identical to and in the same order as the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class FastHessianFeatureDetector_MT<II extends ImageGray<II>> extends FastHessianFeatureDetector<II> {
+
+	// Intensity of every scale in the octave
+	final FastQueue<GrayF32> octaveIntensity = new FastQueue<>(GrayF32.class, ()->new GrayF32(1,1));
+	// Workspace for each inner scale in the octave
+	final FastQueue<ScaleWorkspace> scaleWorkspace;
+	// Features found in each inner scale in the octave
+	final FastQueue<FastQueue<ScalePoint>> scalePoints =
+			new FastQueue(FastQueue.class, ()->new FastQueue<>(ScalePoint.class,true));
+
+	/**
+	 * Configures the detector. See {@link FastHessianFeatureDetector#FastHessianFeatureDetector} for a description
+	 * of the parameters.
+	 *
+	 * @param factoryExtractor Creates a feature extractor for each scale that features are detected inside of
+	 */
+	public FastHessianFeatureDetector_MT(Supplier<NonMaxSuppression> factoryExtractor, int maxFeaturesPerScale,
+										 int initialSampleRate, int initialSize,
+										 int numberScalesPerOctave,
+										 int numberOfOctaves, int scaleStepSize) {
+		super(factoryExtractor.get(), maxFeaturesPerScale, initialSampleRate, initialSize,
+				numberScalesPerOctave, numberOfOctaves, scaleStepSize);
+
+		scaleWorkspace = new FastQueue<>(ScaleWorkspace.class,
+				()->new ScaleWorkspace(factoryExtractor.get(),this.maxFeaturesPerScale));
+	}
+
+	@Override
+	protected void detectOctave( II integral , int skip , int ...featureSize ) {
+		int w = integral.width/skip;
+		int h = integral.height/skip;
+
+		// resize the output intensity image taking in account subsampling
+		octaveIntensity.resize(featureSize.length);
+		for( int i = 0; i < featureSize.length; i++ ) {
+			octaveIntensity.get(i).reshape(w,h);
+		}
+
+		// compute feature intensity in each level
+		BoofConcurrency.loopFor(0,featureSize.length,i->
+				GIntegralImageFeatureIntensity.hessian(integral,skip,featureSize[i],octaveIntensity.get(i)));
+
+		// find maximums in scale space for every scale which has a scale above and below it
+		final int numInner = featureSize.length-2;
+		if( numInner <= 0 )
+			return;
+		scaleWorkspace.resize(numInner);
+		scalePoints.resize(numInner);
+		BoofConcurrency.loopFor(0,numInner,i->{
+			FastQueue<ScalePoint> points = scalePoints.get(i);
+			points.reset();
+			findLocalScaleSpaceMax(octaveIntensity.get(i),octaveIntensity.get(i+1),octaveIntensity.get(i+2),
+					featureSize,i+1,skip,scaleWorkspace.get(i),points);
+		});
+
+		// Add the features in the same order as the single threaded version
+		for( int i = 0; i < numInner; i++ ) {
+			FastQueue<ScalePoint> points = scalePoints.get(i);
+			for( int j = 0; j < points.size; j++ ) {
+				foundPoints.grow().set(points.get(j));
+			}
+		}
+	}
+}
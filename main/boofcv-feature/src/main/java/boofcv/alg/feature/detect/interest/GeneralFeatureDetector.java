@@ -21,6 +21,8 @@ package boofcv.alg.feature.detect.interest;
 import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.intensity.GeneralFeatureIntensity;
 import boofcv.alg.feature.detect.extract.SelectNBestFeatures;
+import boofcv.alg.feature.detect.extract.SelectNBestFeatures_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
@@ -54,8 +56,9 @@ public class GeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<
 	protected QueueCorner excludeMaximum;
 	protected QueueCorner excludeMinimum;
 
-	// selects the features with the largest intensity
-	protected SelectNBestFeatures selectBest = new SelectNBestFeatures(10);
+	// selects the features with the largest intensity. Order of the selected features depends on the implementation
+	protected SelectNBestFeatures selectBest = BoofConcurrency.isUseConcurrent() ?
+			new SelectNBestFeatures_MT(10) : new SelectNBestFeatures(10);
 	// maximum number of features it will detect across the image
 	protected int maxFeatures;
 
@@ -105,6 +108,9 @@ public class GeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<
 	 * @param derivYY Second derivative.  Only needed if {@link #getRequiresHessian()} ()} is true.
 	 */
 	public void process(I image, D derivX, D derivY, D derivXX, D derivYY, D derivXY) {
+		foundMinimum.reset();
+		foundMaximum.reset();
+
 		intensity.process(image, derivX, derivY, derivXX, derivYY, derivXY);
 		GrayF32 intensityImage = intensity.getIntensity();
 
@@ -135,8 +141,6 @@ public class GeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<
 			}
 		}
 
-		foundMinimum.reset();
-		foundMaximum.reset();
 		if (intensity.hasCandidates()) {
 			extractor.process(intensityImage, intensity.getCandidatesMin(), intensity.getCandidatesMax(),foundMinimum, foundMaximum);
 		} else {
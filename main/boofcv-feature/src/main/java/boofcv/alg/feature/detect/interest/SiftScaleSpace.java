@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,7 @@ import boofcv.alg.filter.convolve.GConvolveImageOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.misc.PixelMath;
 import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.kernel.FactoryKernel;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -221,12 +222,21 @@ public class SiftScaleSpace {
 			applyGaussian(octaveImages[i - 1], octaveImages[i], kernelSigmaToK[i-1]);
 		}
 
-		for (int i = 1; i < numScales+3; i++) {
-			differenceOfGaussian[i-1].reshape(tempImage0.width, tempImage0.height);
-			PixelMath.subtract(octaveImages[i],octaveImages[i - 1],differenceOfGaussian[i-1]);
+		// each blurred image depends on the previous one, but the DoG images are independent of each other
+		if( BoofConcurrency.isUseConcurrent() ) {
+			BoofConcurrency.loopFor(1, numScales + 3, this::computeDifferenceOfGaussian);
+		} else {
+			for (int i = 1; i < numScales + 3; i++) {
+				computeDifferenceOfGaussian(i);
+			}
 		}
 	}
 
+	private void computeDifferenceOfGaussian( int i ) {
+		differenceOfGaussian[i-1].reshape(tempImage0.width, tempImage0.height);
+		PixelMath.subtract(octaveImages[i],octaveImages[i - 1],differenceOfGaussian[i-1]);
+	}
+
 	public GrayF32 getImageScale(int scaleIndex ) {
 		return octaveImages[scaleIndex];
 	}
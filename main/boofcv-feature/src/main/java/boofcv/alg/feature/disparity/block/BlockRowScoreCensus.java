@@ -18,11 +18,11 @@
 
 package boofcv.alg.feature.disparity.block;
 
-import boofcv.alg.descriptor.DescriptorDistance;
 import boofcv.struct.image.*;
 
 /**
- * Computes the block disparity score using a {@link boofcv.alg.transform.census.CensusTransform}.
+ * Computes the block disparity score using a {@link boofcv.alg.transform.census.CensusTransform}. The hamming
+ * distance for an entire row is computed in a single pass using {@link ImplCensusHamming}.
  *
  * @author Peter Abeles
  */
@@ -40,11 +40,7 @@ public interface BlockRowScoreCensus
 		public U8( int maxPerPixel ) { super(maxPerPixel); }
 		@Override
 		public void score(byte[] leftRow, byte[] rightRow, int indexLeft, int indexRight, int offset, int length, int[] elementScore) {
-			for( int i = 0; i < length; i++ ) {
-				final int a = leftRow[ indexLeft++ ]& 0xFF;
-				final int b = rightRow[ indexRight++ ]& 0xFF;
-				elementScore[offset+i] = DescriptorDistance.hamming(a^b);
-			}
+			ImplCensusHamming.row(leftRow,rightRow,indexLeft,indexRight,elementScore,offset,length);
 		}
 
 		@Override
@@ -57,11 +53,7 @@ public interface BlockRowScoreCensus
 		public S32( int maxPerPixel ) { super(maxPerPixel); }
 		@Override
 		public void score(int[] leftRow, int[] rightRow, int indexLeft, int indexRight, int offset, int length, int[] elementScore) {
-			for( int i = 0; i < length; i++ ) {
-				final int a = leftRow[ indexLeft++ ];
-				final int b = rightRow[ indexRight++ ];
-				elementScore[offset+i] = DescriptorDistance.hamming(a^b);
-			}
+			ImplCensusHamming.row(leftRow,rightRow,indexLeft,indexRight,elementScore,offset,length);
 		}
 
 		@Override
@@ -74,11 +66,7 @@ public interface BlockRowScoreCensus
 		public S64( int maxPerPixel ) { super(maxPerPixel); }
 		@Override
 		public void score(long[] leftRow, long[] rightRow, int indexLeft, int indexRight, int offset, int length, int[] elementScore) {
-			for( int i = 0; i < length; i++ ) {
-				final long a = leftRow[ indexLeft++ ];
-				final long b = rightRow[ indexRight++ ];
-				elementScore[offset+i] = DescriptorDistance.hamming(a^b);
-			}
+			ImplCensusHamming.row(leftRow,rightRow,indexLeft,indexRight,elementScore,offset,length);
 		}
 
 		@Override
@@ -41,6 +41,9 @@ public abstract class DisparitySparseScoreSadRect< ArrayData , Input extends Ima
 	// size of the region: radius*2 + 1
 	protected int regionWidth,regionHeight;
 
+	// border specified by the user and the copies used with each input image
+	protected ImageBorder<Input> border;
+
 	// input images
 	protected Input left;
 	protected Input right;
@@ -61,6 +64,7 @@ public abstract class DisparitySparseScoreSadRect< ArrayData , Input extends Ima
 	}
 
 	public void setBorder( ImageBorder<Input> border ) {
+		this.border = border;
 		this.bleft = border.copy();
 		this.bright = border.copy();
 	}
@@ -121,6 +125,14 @@ public abstract class DisparitySparseScoreSadRect< ArrayData , Input extends Ima
 		return disparityMax;
 	}
 
+	public int getDisparityRange() {
+		return disparityRange;
+	}
+
+	public ImageBorder<Input> getBorder() {
+		return border;
+	}
+
 	public int getRadiusX() {
 		return radiusX;
 	}
@@ -137,4 +149,24 @@ public abstract class DisparitySparseScoreSadRect< ArrayData , Input extends Ima
 	public abstract ArrayData getScore();
 
 	public abstract Class<Input> getImageType();
+
+	/**
+	 * Creates a new instance with the same configuration and input images which can be used in a different thread
+	 * at the same time as this instance.
+	 */
+	public abstract DisparitySparseScoreSadRect<ArrayData,Input> concurrentCopy();
+
+	/**
+	 * Copies the configuration, border, and input images into the provided instance. Used when
+	 * creating a {@link #concurrentCopy()}.
+	 */
+	protected <S extends DisparitySparseScoreSadRect<ArrayData,Input>> S copySettings( S dst ) {
+		if( disparityRange > 0 )
+			dst.configure(disparityMin,disparityRange);
+		if( bleft != null )
+			dst.setBorder(bleft);
+		if( left != null )
+			dst.setImages(left,right);
+		return dst;
+	}
 }
@@ -43,4 +43,10 @@ public interface DisparitySparseSelect<ArrayType> {
 	 * @return disparity
 	 */
 	double getDisparity();
+
+	/**
+	 * Creates a new instance with the same configuration which can be used in a different thread
+	 * at the same time as this instance.
+	 */
+	DisparitySparseSelect<ArrayType> concurrentCopy();
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.block;
+
+/**
+ * <p>
+ * Batch kernels for computing the hamming distance between census transformed pixels. Instead of computing
+ * the distance for one pair of pixels at a time, each function processes an entire contiguous array in a single
+ * pass. The inner loops are simple, branch free, and access memory sequentially with {@link Integer#bitCount}
+ * or {@link Long#bitCount} being used to count bits. The JIT turns bitCount into a single popcount instruction
+ * and is able to auto-vectorize these loops on hardware which supports it.
+ * </p>
+ *
+ * <p>
+ * Functions which compute the cost for multiple disparities of a single pixel require the right image's row
+ * to be stored in reverse order. That way increasing the disparity corresponds to increasing the array index.
+ * See {@link #reverse(long[], int, long[], int)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplCensusHamming {
+
+	/**
+	 * Computes the hamming distance between two arrays. out[offset+i] = hamming(left[idxLeft+i] ^ right[idxRight+i])
+	 *
+	 * @param left Census values in the left image
+	 * @param right Census values in the right image
+	 * @param idxLeft first element in left
+	 * @param idxRight first element in right
+	 * @param out (Output) storage for hamming distance
+	 * @param offset first element in out
+	 * @param length Number of elements which are processed
+	 */
+	public static void row( byte[] left , byte[] right , int idxLeft , int idxRight ,
+							int[] out , int offset , int length ) {
+		for (int i = 0; i < length; i++) {
+			out[offset+i] = Integer.bitCount((left[idxLeft+i]^right[idxRight+i]) & 0xFF);
+		}
+	}
+
+	/**
+	 * @see #row(byte[], byte[], int, int, int[], int, int)
+	 */
+	public static void row( int[] left , int[] right , int idxLeft , int idxRight ,
+							int[] out , int offset , int length ) {
+		for (int i = 0; i < length; i++) {
+			out[offset+i] = Integer.bitCount(left[idxLeft+i]^right[idxRight+i]);
+		}
+	}
+
+	/**
+	 * @see #row(byte[], byte[], int, int, int[], int, int)
+	 */
+	public static void row( long[] left , long[] right , int idxLeft , int idxRight ,
+							int[] out , int offset , int length ) {
+		for (int i = 0; i < length; i++) {
+			out[offset+i] = Long.bitCount(left[idxLeft+i]^right[idxRight+i]);
+		}
+	}
+
+	/**
+	 * Computes the scaled cost for a single pixel in the left image across multiple disparities.
+	 * out[idxOut+d] = (maxCost*hamming(valueLeft ^ reversed[idxReversed+d])) &gt;&gt; shift
+	 *
+	 * @param valueLeft Census value of the pixel in the left image
+	 * @param reversed Right image's row with its elements in reverse order
+	 * @param idxReversed Index of disparity = 0 in reversed
+	 * @param maxCost The cost when every bit is different
+	 * @param shift log2 of the number of bits in the census value. 3 = 8-bit, 5 = 32-bit, 6 = 64-bit
+	 * @param out (Output) storage for cost
+	 * @param idxOut Index of disparity = 0 in out
+	 * @param length Number of disparity values
+	 */
+	public static void disparities( int valueLeft , byte[] reversed , int idxReversed ,
+									int maxCost , int shift ,
+									short[] out , int idxOut , int length ) {
+		for (int d = 0; d < length; d++) {
+			out[idxOut+d] = (short)((maxCost*Integer.bitCount((valueLeft^reversed[idxReversed+d])&0xFF)) >> shift);
+		}
+	}
+
+	/**
+	 * @see #disparities(int, byte[], int, int, int, short[], int, int)
+	 */
+	public static void disparities( int valueLeft , int[] reversed , int idxReversed ,
+									int maxCost , int shift ,
+									short[] out , int idxOut , int length ) {
+		for (int d = 0; d < length; d++) {
+			out[idxOut+d] = (short)((maxCost*Integer.bitCount(valueLeft^reversed[idxReversed+d])) >> shift);
+		}
+	}
+
+	/**
+	 * @see #disparities(int, byte[], int, int, int, short[], int, int)
+	 */
+	public static void disparities( long valueLeft , long[] reversed , int idxReversed ,
+									int maxCost , int shift ,
+									short[] out , int idxOut , int length ) {
+		for (int d = 0; d < length; d++) {
+			out[idxOut+d] = (short)((maxCost*Long.bitCount(valueLeft^reversed[idxReversed+d])) >> shift);
+		}
+	}
+
+	/**
+	 * Copies 'length' elements from src into dst in reverse order. dst[i] = src[idxSrc+length-1-i]
+	 */
+	public static void reverse( byte[] src , int idxSrc , byte[] dst , int length ) {
+		for (int i = 0, j = idxSrc+length-1; i < length; i++, j--) {
+			dst[i] = src[j];
+		}
+	}
+
+	/**
+	 * @see #reverse(byte[], int, byte[], int)
+	 */
+	public static void reverse( int[] src , int idxSrc , int[] dst , int length ) {
+		for (int i = 0, j = idxSrc+length-1; i < length; i++, j--) {
+			dst[i] = src[j];
+		}
+	}
+
+	/**
+	 * @see #reverse(byte[], int, byte[], int)
+	 */
+	public static void reverse( long[] src , int idxSrc , long[] dst , int length ) {
+		for (int i = 0, j = idxSrc+length-1; i < length; i++, j--) {
+			dst[i] = src[j];
+		}
+	}
+}
@@ -35,6 +35,8 @@ public abstract class SelectSparseStandardWta<ArrayType>
 
 	// maximum allowed error
 	protected int maxError;
+	// texture threshold as specified in the constructor
+	protected double texture;
 
 	/**
 	 *
@@ -43,6 +45,7 @@ public abstract class SelectSparseStandardWta<ArrayType>
 	 */
 	public SelectSparseStandardWta(int maxError, double texture) {
 		this.maxError = maxError <= 0 ? Integer.MAX_VALUE : maxError;
+		this.texture = texture;
 		setTexture(texture);
 	}
 
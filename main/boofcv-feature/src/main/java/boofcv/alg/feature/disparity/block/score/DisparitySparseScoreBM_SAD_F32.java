@@ -117,4 +117,9 @@ public class DisparitySparseScoreBM_SAD_F32 extends DisparitySparseScoreSadRect<
 		return GrayF32.class;
 	}
 
+	@Override
+	public DisparitySparseScoreBM_SAD_F32 concurrentCopy() {
+		return copySettings(new DisparitySparseScoreBM_SAD_F32(radiusX,radiusY));
+	}
+
 }
@@ -116,4 +116,9 @@ public class DisparitySparseScoreBM_SAD_S16 extends DisparitySparseScoreSadRect<
 		return GrayS16.class;
 	}
 
+	@Override
+	public DisparitySparseScoreBM_SAD_S16 concurrentCopy() {
+		return copySettings(new DisparitySparseScoreBM_SAD_S16(radiusX,radiusY));
+	}
+
 }
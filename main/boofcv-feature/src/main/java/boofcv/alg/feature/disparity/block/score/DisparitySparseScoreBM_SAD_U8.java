@@ -117,4 +117,9 @@ public class DisparitySparseScoreBM_SAD_U8 extends DisparitySparseScoreSadRect<i
 		return GrayU8.class;
 	}
 
+	@Override
+	public DisparitySparseScoreBM_SAD_U8 concurrentCopy() {
+		return copySettings(new DisparitySparseScoreBM_SAD_U8(radiusX,radiusY));
+	}
+
 }
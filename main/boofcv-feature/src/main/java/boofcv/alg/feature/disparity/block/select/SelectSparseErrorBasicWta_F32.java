@@ -53,4 +53,9 @@ public class SelectSparseErrorBasicWta_F32 implements DisparitySparseSelect<floa
 	public double getDisparity() {
 		return disparity;
 	}
+
+	@Override
+	public SelectSparseErrorBasicWta_F32 concurrentCopy() {
+		return new SelectSparseErrorBasicWta_F32();
+	}
 }
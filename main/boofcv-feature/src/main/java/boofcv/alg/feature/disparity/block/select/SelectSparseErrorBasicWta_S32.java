@@ -53,4 +53,9 @@ public class SelectSparseErrorBasicWta_S32 implements DisparitySparseSelect<int[
 	public double getDisparity() {
 		return disparity;
 	}
+
+	@Override
+	public SelectSparseErrorBasicWta_S32 concurrentCopy() {
+		return new SelectSparseErrorBasicWta_S32();
+	}
 }
@@ -33,6 +33,11 @@ public class SelectSparseErrorSubpixel {
 			super(maxError, texture);
 		}
 
+		@Override
+		public S32 concurrentCopy() {
+			return new S32(maxError,texture);
+		}
+
 		@Override
 		public boolean select(int[] scores, int disparityMax) {
 			if( super.select(scores, disparityMax) ) {
@@ -64,6 +69,11 @@ public class SelectSparseErrorSubpixel {
 			super(maxError, texture);
 		}
 
+		@Override
+		public F32 concurrentCopy() {
+			return new F32(maxError,texture);
+		}
+
 		@Override
 		public boolean select(float[] scores, int disparityMax) {
 			if( super.select(scores, disparityMax) ) {
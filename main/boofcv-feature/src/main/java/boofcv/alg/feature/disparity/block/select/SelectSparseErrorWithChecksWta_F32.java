@@ -82,4 +82,9 @@ public class SelectSparseErrorWithChecksWta_F32 extends SelectSparseStandardWta<
 		return true;
 	}
 
+	@Override
+	public SelectSparseErrorWithChecksWta_F32 concurrentCopy() {
+		return new SelectSparseErrorWithChecksWta_F32(maxError,texture);
+	}
+
 }
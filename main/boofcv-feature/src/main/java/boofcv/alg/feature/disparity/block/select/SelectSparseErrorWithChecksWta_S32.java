@@ -83,4 +83,9 @@ public class SelectSparseErrorWithChecksWta_S32 extends SelectSparseStandardWta<
 		return true;
 	}
 
+	@Override
+	public SelectSparseErrorWithChecksWta_S32 concurrentCopy() {
+		return new SelectSparseErrorWithChecksWta_S32(maxError,texture);
+	}
+
 }
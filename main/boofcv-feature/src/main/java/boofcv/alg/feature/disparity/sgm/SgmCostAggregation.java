@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,8 +19,6 @@
 package boofcv.alg.feature.disparity.sgm;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.concurrency.BoofConcurrency;
-import boofcv.concurrency.IntRangeObjectConsumer;
 import boofcv.struct.image.GrayU16;
 import boofcv.struct.image.Planar;
 import org.ddogleg.struct.FastQueue;
@@ -88,10 +86,18 @@ public class SgmCostAggregation {
 	// Cost applied to small and large changes in the neighborhood
 	int penalty1 =200, penalty2 =2000;
 
+	/**
+	 * Path directions (dx,dy) in the order they are considered. The first N are used, where N is 1,2,4,8, or 16
+	 */
+	static final int[][] DIRECTIONS = new int[][]{
+			{1,0},{-1,0},
+			{0,1},{0,-1},
+			{1,1},{-1,-1},{-1,1},{1,-1},
+			{1,2},{2,1},{2,-1},{1,-2},{-1,-2},{-2,-1},{-2,1},{-1,2}};
+
 	// Book keeping for concurrency
 	FastQueue<Trajectory> trajectories = new FastQueue<>(Trajectory.class,Trajectory::new);
 	FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class, WorkSpace::new);
-	ComputeBlock computeBlock = new ComputeBlock();
 
 	/**
 	 * Configures the minimum disparity. The range is specified implicitly by the cost tensor.
@@ -111,34 +117,28 @@ public class SgmCostAggregation {
 	public void process( Planar<GrayU16> costYXD ) {
 		init(costYXD);
 
-		if( pathsConsidered >= 1 ) {
-			scoreDirection(1, 0);
-		}
-		if( pathsConsidered >= 2 ) {
-			scoreDirection(-1, 0);
-		}
-		if( pathsConsidered >= 4 ) {
-			scoreDirection(0, 1);
-			scoreDirection(0, -1);
-		}
-		if( pathsConsidered >= 8 ) {
-			scoreDirection(1, 1);
-			scoreDirection(-1, -1);
-			scoreDirection(-1, 1);
-			scoreDirection(1, -1);
-		}
-		if( pathsConsidered >= 16 ) {
-			scoreDirection(1, 2);
-			scoreDirection(2, 1);
-			scoreDirection(2, -1);
-			scoreDirection(1, -2);
-			scoreDirection(-1, -2);
-			scoreDirection(-2, -1);
-			scoreDirection(-2, 1);
-			scoreDirection(-1, 2);
+		final int numPaths = numberOfDirections();
+		for (int i = 0; i < numPaths; i++) {
+			scoreDirection(DIRECTIONS[i][0], DIRECTIONS[i][1]);
 		}
 	}
 
+	/**
+	 * Number of elements in {@link #DIRECTIONS} which will be considered given {@link #pathsConsidered}
+	 */
+	int numberOfDirections() {
+		if( pathsConsidered >= 16 )
+			return 16;
+		else if( pathsConsidered >= 8 )
+			return 8;
+		else if( pathsConsidered >= 4 )
+			return 4;
+		else if( pathsConsidered >= 2 )
+			return 2;
+		else
+			return 1;
+	}
+
 	/**
 	 * Initializes data structures
 	 */
@@ -160,13 +160,24 @@ public class SgmCostAggregation {
 
 	/**
 	 * Scores all possible paths for this given direction and add it to the aggregated cost.
-	 *
-	 * Concurrency note: It's safe to write to the aggregated score without synchronization since only one
-	 * path in the block below will touch a pixel.
 	 */
 	void scoreDirection(int dx , int dy ) {
 
 		// Create a list of paths it will score
+		createTrajectories(dx, dy, trajectories);
+
+		WorkSpace w= workspace.get(0);
+		w.checkSize();
+		for (int i = 0; i < trajectories.size; i++) {
+			Trajectory t = trajectories.get(i);
+			scorePath(t.x0, t.y0, t.dx, t.dy, w.workCostLr);
+		}
+	}
+
+	/**
+	 * Creates a list of all the paths, i.e. their initial coordinate, which go in the specified direction
+	 */
+	void createTrajectories(int dx, int dy, FastQueue<Trajectory> trajectories) {
 		trajectories.reset();
 		if( dx > 0 ) {
 			for (int y = 0; y < lengthY; y++) {
@@ -192,29 +203,6 @@ public class SgmCostAggregation {
 				trajectories.grow().set(x,lengthY-1,dx,dy);
 			}
 		}
-
-		if( BoofConcurrency.USE_CONCURRENT ) {
-			BoofConcurrency.loopBlocks(0,trajectories.size,1,workspace,computeBlock);
-		} else {
-			WorkSpace w= workspace.get(0);
-			w.checkSize();
-			for (int i = 0; i < trajectories.size; i++) {
-				Trajectory t = trajectories.get(i);
-				scorePath(t.x0, t.y0, t.dx, t.dy, w.workCostLr);
-			}
-		}
-	}
-
-	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
-		@Override
-		public void accept(WorkSpace workspace, int minInclusive, int maxExclusive) {
-			workspace.checkSize();
-
-			for (int i = minInclusive; i < maxExclusive; i++) {
-				Trajectory t = trajectories.get(i);
-				scorePath(t.x0,t.y0,t.dx,t.dy,workspace.workCostLr);
-			}
-		}
 	}
 
 	/**
@@ -234,6 +222,14 @@ public class SgmCostAggregation {
 	 * @param dy step y-axis
 	 */
 	void scorePath(int x0 , int y0 , int dx , int dy , short[] workCostLr) {
+		scorePath(x0, y0, dx, dy, workCostLr, aggregated);
+	}
+
+	/**
+	 * Same as {@link #scorePath(int, int, int, int, short[])} but the path's cost is added to 'target'
+	 * instead of {@link #aggregated}
+	 */
+	void scorePath(int x0 , int y0 , int dx , int dy , short[] workCostLr , Planar<GrayU16> target ) {
 
 		// there is no previous disparity score so simply fill the cost for d=0
 		{
@@ -250,13 +246,11 @@ public class SgmCostAggregation {
 			for (int d = 0; d < localRangeD; d++) {
 				workCostLr[d] = (short)((workCostLr[d]&0xFFFF)-minCost);
 			}
-			// In the for loop below it needs the previous cost at index localRangeD[i]-1.
+			// In the for loop below it needs the previous cost at index localRangeD[i+1]-1.
 			// If we are on the left side of the image then localRangeD[i] < localRangeD[i+1]!
 			// That's a problem because if we read localRangeD[i+1]-1 it will be unassigned and have
 			// an unknown value! We get around that by just copying the cost at the end.
-			if( localRangeD != helper.disparityRange) {
-				workCostLr[localRangeD] = workCostLr[localRangeD-1];
-			}
+			padLocalRange(0, localRangeD, dx, workCostLr);
 		}
 
 		// Compute the cost of rest of the path recursively
@@ -279,9 +273,7 @@ public class SgmCostAggregation {
 			computeCostBorderD(idxCost,idxLrPrev,localRangeD-1,costXD, localRangeD, workCostLr);
 
 			// see comments above for what's going on here
-			if( localRangeD != helper.disparityRange) {
-				workCostLr[idxLrPrev+lengthD+localRangeD] = workCostLr[idxLrPrev+lengthD+localRangeD-1];
-			}
+			padLocalRange(idxLrPrev+lengthD, localRangeD, dx, workCostLr);
 
 			// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
 			int minCost = Integer.MAX_VALUE;
@@ -294,16 +286,39 @@ public class SgmCostAggregation {
 			}
 		}
 
-		saveWorkToAggregated(x0,y0,dx,dy,lengthPath, workCostLr);
+		saveWorkToAggregated(x0,y0,dx,dy,lengthPath, workCostLr, target);
+	}
+
+	/**
+	 * Copies the cost at the end of the local disparity range into the elements the next step along the path
+	 * could read. The local range can grow by up to |dx| each step, e.g. by 2 for the 16 path directions.
+	 * Without this those elements would contain values left over from whichever path last used the workspace.
+	 *
+	 * @param idxLr Index of d=0 for the path element which was just computed
+	 */
+	void padLocalRange( int idxLr , int localRangeD , int dx , short[] workCostLr ) {
+		final int end = Math.min(helper.disparityRange, localRangeD+Math.max(1,Math.abs(dx)));
+		final short value = workCostLr[idxLr+localRangeD-1];
+		for (int d = localRangeD; d < end; d++) {
+			workCostLr[idxLr+d] = value;
+		}
 	}
 
 	/**
 	 * Adds the work LR onto the aggregated cost Tensor, which is the sum of all paths
 	 */
 	void saveWorkToAggregated( int x0 , int y0 , int dx , int dy , int length , short[] workCostLr) {
+		saveWorkToAggregated(x0, y0, dx, dy, length, workCostLr, aggregated);
+	}
+
+	/**
+	 * Adds the work LR onto the 'target' tensor
+	 */
+	void saveWorkToAggregated( int x0 , int y0 , int dx , int dy , int length , short[] workCostLr ,
+							   Planar<GrayU16> target ) {
 		for (int i = 0, x=x0, y=y0; i < length; i++, x += dx, y += dy) {
 			final int localLengthD = helper.localDisparityRangeLeft(x+disparityMin);
-			GrayU16 aggrXD = aggregated.getBand(y);
+			GrayU16 aggrXD = target.getBand(y);
 
 			int idxWork = i*lengthD;                // Lr(i,0)
 			int idxAggr = aggrXD.getIndex(0,x);  // A(d=0,x)
@@ -450,7 +465,7 @@ public class SgmCostAggregation {
 	 * (x0,y0) is the initial coordinate
 	 * (dx,dy) is the direction
 	 */
-	private static class Trajectory {
+	static class Trajectory {
 		public int x0,y0,dx,dy;
 
 		public void set(int x0, int y0, int dx , int dy ) {
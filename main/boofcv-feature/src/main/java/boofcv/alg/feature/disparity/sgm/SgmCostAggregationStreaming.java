@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU16;
+
+/**
+ * <p>
+ * Memory bounded variant of {@link SgmCostAggregation}. Instead of aggregating the cost over the entire H*W*D
+ * cost tensor the cost is provided and aggregated one row at a time, starting from the top of the image. Only
+ * paths which arrive at a pixel from the same row or the row above can be computed this way, i.e. the
+ * directions (1,0), (-1,0), (0,1), (1,1), and (-1,1). Memory usage is O(W*D) instead of O(H*W*D).
+ * </p>
+ *
+ * <p>
+ * The path cost is computed using exactly the same equations as {@link SgmCostAggregation}. If the full
+ * aggregation is run with only the paths listed above then the aggregated cost for each row will be identical.
+ * </p>
+ *
+ * <p>Number of paths which are considered given {@link #setPathsConsidered(int) paths considered}:</p>
+ * <ul>
+ *     <li>1 = (1,0)</li>
+ *     <li>2 = (1,0), (-1,0)</li>
+ *     <li>4 = (1,0), (-1,0), (0,1)</li>
+ *     <li>8 or 16 = (1,0), (-1,0), (0,1), (1,1), (-1,1)</li>
+ * </ul>
+ *
+ * @see SgmStereoDisparityStreaming
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregationStreaming {
+	protected SgmHelper helper = new SgmHelper();
+
+	// Aggregated cost for the most recently processed row. x=disparity, y=x-axis
+	GrayU16 aggregatedXD = new GrayU16(1,1);
+
+	// Length of original image. x = col, y = rows, d = disparity range
+	int lengthX,lengthY,lengthD;
+	// If disparityMin > 0 then the first disparityMin x elements have no score and are skipped
+	int effectiveLengthX;
+	// The minimum disparity that will be considered.
+	int disparityMin;
+
+	/**
+	 * Number of paths to consider. 1 to 16 is valid
+	 */
+	int pathsConsidered = 8;
+
+	// Cost applied to small and large changes in the neighborhood
+	int penalty1 =200, penalty2 =2000;
+
+	// Which row is expected next
+	int expectedY;
+
+	// Storage for Lr along the horizontal paths. Row major (x,d). Only a single row is needed.
+	short[] workHorizontal = new short[0];
+
+	// step along the x-axis for paths which come from the row above
+	int[] downDx = new int[0];
+	// Lr for the previous row and the current row for each path which comes from the row above
+	short[][] downPrev = new short[0][];
+	short[][] downCurr = new short[0][];
+
+	/**
+	 * Configures the minimum disparity
+	 * @param disparityMin The minimum disparity that will be considered
+	 */
+	public void configure( int disparityMin ) {
+		this.disparityMin = disparityMin;
+	}
+
+	/**
+	 * Initializes data structures for a new image. Must be called before the first row is processed.
+	 *
+	 * @param lengthX Image width
+	 * @param lengthY Image height
+	 * @param lengthD Disparity range
+	 */
+	public void initialize( int lengthX , int lengthY , int lengthD ) {
+		if( pathsConsidered < 1 || pathsConsidered > 16 )
+			throw new IllegalArgumentException("Number of paths must be 1 to 16, inclusive. Not "+ pathsConsidered);
+		this.lengthX = lengthX;
+		this.lengthY = lengthY;
+		this.lengthD = lengthD;
+		this.effectiveLengthX = lengthX-disparityMin;
+		this.expectedY = 0;
+
+		helper.configure(lengthX, disparityMin,lengthD);
+		aggregatedXD.reshape(lengthD,lengthX);
+
+		int N = lengthX*lengthD;
+		if( workHorizontal.length != N )
+			workHorizontal = new short[N];
+
+		if( pathsConsidered >= 8 ) {
+			downDx = new int[]{0,1,-1};
+		} else if( pathsConsidered >= 4 ) {
+			downDx = new int[]{0};
+		} else {
+			downDx = new int[0];
+		}
+
+		if( downPrev.length != downDx.length || (downDx.length > 0 && downPrev[0].length != N) ) {
+			downPrev = new short[downDx.length][N];
+			downCurr = new short[downDx.length][N];
+		}
+	}
+
+	/**
+	 * Aggregates the cost for the next row. Rows must be processed in order, starting at y=0. The results
+	 * are available in {@link #getAggregatedXD()} until the next row is processed.
+	 *
+	 * @param y Which row in the image is being processed
+	 * @param costXD Cost for this row. See {@link SgmDisparityCost}
+	 */
+	public void process( int y , GrayU16 costXD ) {
+		if( y != expectedY )
+			throw new IllegalArgumentException("Rows must be processed in order. Expected "+expectedY+" not "+y);
+		expectedY++;
+
+		ImageMiscOps.fill(aggregatedXD,0);
+
+		if( pathsConsidered >= 1 ) {
+			scoreHorizontal(costXD, 1);
+		}
+		if( pathsConsidered >= 2 ) {
+			scoreHorizontal(costXD, -1);
+		}
+		for (int i = 0; i < downDx.length; i++) {
+			scoreFromAbove(y, costXD, downDx[i], downPrev[i], downCurr[i]);
+
+			// The current row will be the previous row when the next row is processed
+			short[] tmp = downPrev[i];
+			downPrev[i] = downCurr[i];
+			downCurr[i] = tmp;
+		}
+	}
+
+	/**
+	 * Scores the path which goes along the row in the specified direction and adds it to the aggregated cost
+	 */
+	void scoreHorizontal( GrayU16 costXD , int dx ) {
+		final short[] work = workHorizontal;
+		int x0 = dx > 0 ? 0 : effectiveLengthX-1;
+		pathStart(costXD, x0, work);
+		for (int x = x0+dx; x >= 0 && x < effectiveLengthX; x += dx) {
+			pathStep(costXD, x, work, (x-dx)*lengthD, work);
+		}
+		saveWorkToAggregated(work);
+	}
+
+	/**
+	 * Scores paths which arrive from the row above. If the previous pixel along the path is outside the image then
+	 * a new path is started at this pixel
+	 *
+	 * @param dx Step along the x-axis. The step along the y-axis is always 1
+	 */
+	void scoreFromAbove( int y , GrayU16 costXD , int dx , short[] workPrev , short[] work ) {
+		for (int x = 0; x < effectiveLengthX; x++) {
+			int prevX = x-dx;
+			if( y == 0 || prevX < 0 || prevX >= effectiveLengthX ) {
+				pathStart(costXD, x, work);
+			} else {
+				pathStep(costXD, x, workPrev, prevX*lengthD, work);
+			}
+		}
+		saveWorkToAggregated(work);
+	}
+
+	/**
+	 * Computes Lr for the first element in a path. There is no previous disparity score so the cost is copied.
+	 */
+	void pathStart( GrayU16 costXD , int x , short[] work ) {
+		int minCost = Integer.MAX_VALUE;
+		final int idxCost = costXD.getIndex(0,x);   // C(0,0)
+		final int idxWork = x*lengthD;
+		final int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+		for (int d = 0; d < localRangeD; d++) {
+			int v = costXD.data[idxCost + d]&0xFFFF; // Lr(0,d) = C(0,d)
+			work[idxWork+d] = (short)v;
+			minCost = Math.min(minCost,v);
+		}
+		// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
+		for (int d = 0; d < localRangeD; d++) {
+			work[idxWork+d] = (short)((work[idxWork+d]&0xFFFF)-minCost);
+		}
+		// See comments in SgmCostAggregation.scorePath() for why this is done
+		if( localRangeD != helper.disparityRange) {
+			work[idxWork+localRangeD] = work[idxWork+localRangeD-1];
+		}
+	}
+
+	/**
+	 * Computes Lr for an element in a path given the Lr of the previous element in the path
+	 *
+	 * @param x x-coordinate of the element in the cost tensor
+	 * @param workPrev Storage for the previous Lr
+	 * @param idxPrev Index of Lr(p-r,0) in workPrev
+	 * @param work Storage for the Lr being computed. Written to at index x*lengthD
+	 */
+	void pathStep( GrayU16 costXD , int x , short[] workPrev , int idxPrev , short[] work ) {
+		final int idxCost = costXD.getIndex(0,x);
+		final int idxWork = x*lengthD;
+		// remember x=0 is really x+disparityMin because the first elements are skipped
+		final int localRangeD = helper.localDisparityRangeLeft(x+disparityMin);
+
+		// Score the inner portion of disparity first to avoid bounds checks
+		computeCostInnerD(costXD.data, idxCost, workPrev, idxPrev, work, idxWork, localRangeD);
+
+		// Now handle the borders at d=0 and d=N-1
+		computeCostBorderD(costXD.data, idxCost, workPrev, idxPrev, work, idxWork, 0, localRangeD);
+		computeCostBorderD(costXD.data, idxCost, workPrev, idxPrev, work, idxWork, localRangeD-1, localRangeD);
+
+		// see comments in SgmCostAggregation.scorePath() for what's going on here
+		if( localRangeD != helper.disparityRange) {
+			work[idxWork+localRangeD] = work[idxWork+localRangeD-1];
+		}
+
+		// The modified equation 13. Cost Equation 12 - min[k] Lr(p,k)
+		int minCost = Integer.MAX_VALUE;
+		for (int d = 0; d < localRangeD; d++) {
+			minCost = Math.min(minCost,work[idxWork+d]&0xFFFF);
+		}
+		for (int d = 0; d < localRangeD; d++) {
+			work[idxWork+d] = (short)((work[idxWork+d]&0xFFFF)- minCost);
+		}
+	}
+
+	/**
+	 * Same as {@link SgmCostAggregation#computeCostInnerD} but the previous and current Lr can be stored in
+	 * different arrays.
+	 */
+	void computeCostInnerD( final short[] costXD, final int idxCost,
+							final short[] workPrev, int idxPrev,
+							final short[] work, final int idxWork,
+							final int lengthLocalD ) {
+		if( lengthLocalD < 3 ) // there is no inner portion
+			return;
+
+		final int penalty1 = this.penalty1;
+		final int penalty2 = this.penalty2;
+
+		// initialize the sampling at d=1. elements will be exchanged inside the loop
+		int c1 = workPrev[idxPrev  ]&0xFFFF;  // Lr(p-r,d-1)
+		int c2 = workPrev[idxPrev+1]&0xFFFF;  // Lr(p-r,d  )
+		idxPrev += 2;
+
+		for (int d = 1; d < lengthLocalD-1; d++, idxPrev++) {
+			int cost = costXD[idxCost+d] & 0xFFFF; // C(p,d)
+
+			int c0=c1;                        // Lr(p-r,d-1)
+			c1=c2;                            // Lr(p-r,d  )
+			c2 = workPrev[idxPrev]&0xFFFF;    // Lr(p-r,d+1)
+
+			// Add penalty terms
+			int a = c1;
+			int b = c0 + penalty1;
+			int c = c2 + penalty1;
+
+			// Find the minimum of the three scores
+			if( b < a )
+				a = b;
+			if( c < a )
+				a = c;
+			if( penalty2 < a )
+				a = penalty2;
+
+			work[idxWork+d] = (short)(cost + a);
+		}
+	}
+
+	/**
+	 * Same as {@link SgmCostAggregation#computeCostBorderD} but the previous and current Lr can be stored in
+	 * different arrays.
+	 */
+	void computeCostBorderD( final short[] costXD, final int idxCost,
+							 final short[] workPrev, final int idxPrev,
+							 final short[] work, final int idxWork,
+							 final int d , final int localRangeD ) {
+		int cost = costXD[idxCost+d] & 0xFFFF;  // C(p,d)
+
+		// Sample previously computed aggregate costs with bounds checking
+		int a = workPrev[idxPrev+d]&0xFFFF; // Lr(p-r,d)
+		int b = d > 0 ? workPrev[idxPrev+d-1]&0xFFFF : SgmDisparityCost.MAX_COST; // Lr(p-r,d-1)
+		int c = d < localRangeD-1 ? workPrev[idxPrev+d+1]&0xFFFF : SgmDisparityCost.MAX_COST; // Lr(p-r,d+1)
+
+		// Add penalty terms
+		b += penalty1;
+		c += penalty1;
+
+		// Find the minimum of the three scores
+		if( b < a )
+			a = b;
+		if( c < a )
+			a = c;
+		if( penalty2 < a )
+			a = penalty2;
+
+		work[idxWork+d] = (short)(cost + a);
+	}
+
+	/**
+	 * Adds the work LR for the row onto the aggregated cost
+	 */
+	void saveWorkToAggregated( short[] work ) {
+		final short[] aggr = aggregatedXD.data;
+		for (int x = 0; x < effectiveLengthX; x++) {
+			final int localLengthD = helper.localDisparityRangeLeft(x+disparityMin);
+
+			int idxWork = x*lengthD;
+			int idxAggr = aggregatedXD.getIndex(0,x);
+			for (int d = 0; d < localLengthD; d++, idxAggr++, idxWork++) {
+				aggr[idxAggr] = (short)((aggr[idxAggr]&0xFFFF) + (work[idxWork]&0xFFFF));
+			}
+		}
+	}
+
+	/**
+	 * Aggregated cost for the row which was most recently processed. Same format as a single band in
+	 * {@link SgmCostAggregation#getAggregated()}.
+	 */
+	public GrayU16 getAggregatedXD() {
+		return aggregatedXD;
+	}
+
+	public int getPenalty1() {
+		return penalty1;
+	}
+
+	public void setPenalty1(int penalty1) {
+		this.penalty1 = penalty1;
+	}
+
+	public int getPenalty2() {
+		return penalty2;
+	}
+
+	public void setPenalty2(int penalty2) {
+		this.penalty2 = penalty2;
+	}
+
+	public int getPathsConsidered() {
+		return pathsConsidered;
+	}
+
+	public void setPathsConsidered(int pathsConsidered) {
+		this.pathsConsidered = pathsConsidered;
+	}
+}
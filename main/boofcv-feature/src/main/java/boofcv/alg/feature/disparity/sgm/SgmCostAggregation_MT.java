@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent version of {@link SgmCostAggregation}. There are two modes. By default, paths in the same direction
+ * are split into blocks which are scored at the same time. It's safe to write to the aggregated cost without
+ * synchronization since only one path in each direction will touch a pixel. Directions are processed one after
+ * another.
+ * </p>
+ *
+ * <p>
+ * If partial sums are turned on then the paths in all directions are scored at the same time. The paths are split
+ * into blocks and each block adds its cost into its own partial sum of the aggregated cost. Once all the paths have
+ * been scored the partial sums are added together in a fixed order. Threads only need to be synchronized once,
+ * instead of once for each direction. The cost is memory, since every block needs a partial sum with the same shape
+ * as the cost tensor.
+ * </p>
+ *
+ * <p>In both modes the output is identical to the single thread version.</p>
+ *
+ * @author Peter Abeles
+ */
+public class SgmCostAggregation_MT extends SgmCostAggregation {
+
+	// If true all directions are scored at the same time using partial sums
+	final boolean partialSums;
+
+	ComputeBlock computeBlock = new ComputeBlock();
+
+	// Paths in every direction which are to be scored in partial sums mode
+	FastQueue<Trajectory> allTrajectories = new FastQueue<>(Trajectory.class,Trajectory::new);
+	// Storage for each block of paths in partial sums mode
+	FastQueue<PartialSum> partials = new FastQueue<>(PartialSum.class,PartialSum::new);
+
+	/**
+	 * Specifies how paths are scored concurrently
+	 *
+	 * @param partialSums If true all directions are scored at the same time and an extra tensor the size of the
+	 *                    cost tensor is required for every thread. If false directions are scored one at a time.
+	 */
+	public SgmCostAggregation_MT( boolean partialSums ) {
+		this.partialSums = partialSums;
+	}
+
+	public SgmCostAggregation_MT() {
+		this(false);
+	}
+
+	@Override
+	public void process( Planar<GrayU16> costYXD ) {
+		if( !partialSums ) {
+			super.process(costYXD);
+			return;
+		}
+
+		init(costYXD);
+
+		// Create a single list with the paths from every direction
+		allTrajectories.reset();
+		final int numPaths = numberOfDirections();
+		for (int i = 0; i < numPaths; i++) {
+			createTrajectories(DIRECTIONS[i][0], DIRECTIONS[i][1], trajectories);
+			for (int j = 0; j < trajectories.size; j++) {
+				Trajectory t = trajectories.get(j);
+				allTrajectories.grow().set(t.x0,t.y0,t.dx,t.dy);
+			}
+		}
+
+		BoofConcurrency.loopBlocks(0,allTrajectories.size,partials,(partial,idx0,idx1)->{
+			partial.initialize();
+			for (int i = idx0; i < idx1; i++) {
+				Trajectory t = allTrajectories.get(i);
+				scorePath(t.x0, t.y0, t.dx, t.dy, partial.work.workCostLr, partial.aggregated);
+			}
+		});
+
+		// Add the partial sums together. This is always done in the same order so the results are deterministic
+		BoofConcurrency.loopFor(0,lengthY,y->{
+			final GrayU16 aggrXD = aggregated.getBand(y);
+			final int N = aggrXD.width*aggrXD.height;
+			for (int blockIdx = 0; blockIdx < partials.size; blockIdx++) {
+				final short[] partialXD = partials.get(blockIdx).aggregated.getBand(y).data;
+				for (int i = 0; i < N; i++) {
+					aggrXD.data[i] = (short)((aggrXD.data[i]&0xFFFF) + (partialXD[i]&0xFFFF));
+				}
+			}
+		});
+	}
+
+	@Override
+	void scoreDirection(int dx , int dy ) {
+		// Create a list of paths it will score
+		createTrajectories(dx, dy, trajectories);
+
+		BoofConcurrency.loopBlocks(0,trajectories.size,1,workspace,computeBlock);
+	}
+
+	public boolean isPartialSums() {
+		return partialSums;
+	}
+
+	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
+		@Override
+		public void accept(WorkSpace workspace, int minInclusive, int maxExclusive) {
+			workspace.checkSize();
+
+			for (int i = minInclusive; i < maxExclusive; i++) {
+				Trajectory t = trajectories.get(i);
+				scorePath(t.x0,t.y0,t.dx,t.dy,workspace.workCostLr);
+			}
+		}
+	}
+
+	/**
+	 * Workspace and partial sum of aggregated cost for one block of paths
+	 */
+	class PartialSum {
+		Planar<GrayU16> aggregated = new Planar<>(GrayU16.class,1,1,2);
+		WorkSpace work = new WorkSpace();
+
+		void initialize() {
+			aggregated.reshape(costYXD);
+			GImageMiscOps.fill(aggregated,0);
+			work.checkSize();
+		}
+	}
+}
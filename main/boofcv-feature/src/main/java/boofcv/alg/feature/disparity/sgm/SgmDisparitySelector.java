@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -62,26 +62,48 @@ public class SgmDisparitySelector {
 		disparity.reshape(lengthX,lengthY);
 
 		for (int y = 0; y < lengthY; y++) {
-			GrayU16 aggregatedXD = aggregatedYXD.getBand(y);
-
-			// if 'x' is less than minDisparity then that's nothing that it can compare against
-			for (int x = 0; x < disparityMin; x++) {
-				disparity.unsafe_set(x,y, invalidDisparity);
-			}
-			for (int x = disparityMin; x < lengthX; x++) {
-				disparity.unsafe_set(x,y, findBestDisparity(x,aggregatedXD));
-			}
+			selectRow(y,aggregatedYXD.getBand(y),disparity);
 		}
 
 	}
 
+	/**
+	 * Selects the best disparity for every pixel in a single row. Used when the aggregated cost is computed
+	 * one row at a time. {@link #setup(int, int, int)} must be called first and disparity must already have
+	 * the correct shape.
+	 *
+	 * @param y Row in the image
+	 * @param aggregatedXD (Input) Aggregated disparity cost for each pixel in the row
+	 * @param disparity (output) selected disparity
+	 */
+	public void selectRow( int y , GrayU16 aggregatedXD , GrayU8 disparity ) {
+		// if 'x' is less than minDisparity then that's nothing that it can compare against
+		for (int x = 0; x < disparityMin; x++) {
+			disparity.unsafe_set(x,y, invalidDisparity);
+		}
+		for (int x = disparityMin; x < lengthX; x++) {
+			disparity.unsafe_set(x,y, findBestDisparity(x,aggregatedXD));
+		}
+	}
+
 	/**
 	 * Sets up internal data structures based on the aggregated cost
 	 */
 	void setup(Planar<GrayU16> aggregatedYXD) {
-		this.lengthY = aggregatedYXD.getNumBands();
-		this.lengthX = aggregatedYXD.height;
-		this.lengthD = aggregatedYXD.width;
+		setup(aggregatedYXD.height,aggregatedYXD.getNumBands(),aggregatedYXD.width);
+	}
+
+	/**
+	 * Sets up internal data structures based on the shape of the aggregated cost tensor
+	 *
+	 * @param lengthX Image width
+	 * @param lengthY Image height
+	 * @param lengthD Disparity range
+	 */
+	public void setup( int lengthX , int lengthY , int lengthD ) {
+		this.lengthY = lengthY;
+		this.lengthX = lengthX;
+		this.lengthD = lengthD;
 		this.invalidDisparity = invalidGivenRange(lengthD);
 		helper.configure(lengthX, disparityMin,lengthD);
 		if( invalidDisparity > 255 )
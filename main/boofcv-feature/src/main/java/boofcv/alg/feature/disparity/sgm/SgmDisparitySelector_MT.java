@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -33,16 +33,6 @@ public class SgmDisparitySelector_MT extends SgmDisparitySelector {
 		setup(aggregatedYXD);
 		disparity.reshape(lengthX,lengthY);
 
-		BoofConcurrency.loopFor(0,lengthY,1,(y)->{
-			GrayU16 aggregatedXD = aggregatedYXD.getBand(y);
-
-			// if 'x' is less than minDisparity then that's nothing that it can compare against
-			for (int x = 0; x < disparityMin; x++) {
-				disparity.unsafe_set(x,y, invalidDisparity);
-			}
-			for (int x = disparityMin; x < lengthX; x++) {
-				disparity.unsafe_set(x,y, findBestDisparity(x,aggregatedXD));
-			}
-		});
+		BoofConcurrency.loopFor(0,lengthY,1,(y)-> selectRow(y,aggregatedYXD.getBand(y),disparity));
 	}
 }
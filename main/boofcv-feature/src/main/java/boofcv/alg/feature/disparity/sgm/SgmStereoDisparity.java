@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -68,27 +68,33 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 		Planar<GrayU16> aggregatedYXD = aggregation.getAggregated();
 
 		for (int y = 0; y < aggregatedYXD.getNumBands(); y++) {
-			GrayU16 costXD = aggregatedYXD.getBand(y);
-			for (int x = 0; x < disparityMin; x++) {
-				dst.unsafe_set(x,y,disparityRange); // make as invalid
-			}
-			for (int x = disparityMin; x < costXD.height; x++) {
-				int localMaxRange = helper.localDisparityRangeLeft(x);
-				int d = src.unsafe_get(x,y);
-				float subpixel;
-				if( d > 0 && d < localMaxRange-1) {
-					int adjX = x - disparityMin; // see how cost tensor is defined
-					int c0 = costXD.unsafe_get(d-1,adjX);
-					int c1 = costXD.unsafe_get(d  ,adjX);
-					int c2 = costXD.unsafe_get(d+1,adjX);
-
-					float offset = (float)(c0-c2)/(float)(2*(c0-2*c1+c2));
-					subpixel = d + offset;
-				} else {
-					subpixel = d;
-				}
-				dst.unsafe_set(x,y,subpixel);
+			subpixelRow(y,aggregatedYXD.getBand(y),src,dst);
+		}
+	}
+
+	/**
+	 * Computes the sub-pixel disparity for a single row given the aggregated cost for that row
+	 */
+	protected void subpixelRow( int y , GrayU16 costXD , GrayU8 src , GrayF32 dst ) {
+		for (int x = 0; x < disparityMin; x++) {
+			dst.unsafe_set(x,y,disparityRange); // make as invalid
+		}
+		for (int x = disparityMin; x < costXD.height; x++) {
+			int localMaxRange = helper.localDisparityRangeLeft(x);
+			int d = src.unsafe_get(x,y);
+			float subpixel;
+			if( d > 0 && d < localMaxRange-1) {
+				int adjX = x - disparityMin; // see how cost tensor is defined
+				int c0 = costXD.unsafe_get(d-1,adjX);
+				int c1 = costXD.unsafe_get(d  ,adjX);
+				int c2 = costXD.unsafe_get(d+1,adjX);
+
+				float offset = (float)(c0-c2)/(float)(2*(c0-2*c1+c2));
+				subpixel = d + offset;
+			} else {
+				subpixel = d;
 			}
+			dst.unsafe_set(x,y,subpixel);
 		}
 	}
 
@@ -104,6 +110,10 @@ public abstract class SgmStereoDisparity<T extends ImageBase<T>, C extends Image
 		return aggregation;
 	}
 
+	public void setAggregation(SgmCostAggregation aggregation) {
+		this.aggregation = aggregation;
+	}
+
 	public Planar<GrayU16> getCostYXD() {
 		return costYXD;
 	}
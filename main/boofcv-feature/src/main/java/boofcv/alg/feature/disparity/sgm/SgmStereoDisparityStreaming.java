@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.abst.filter.FilterImageInterface;
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.feature.disparity.sgm.cost.SgmCostBase;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+
+import javax.annotation.Nullable;
+
+/**
+ * SGM stereo which never declares the full H*W*D cost or aggregated tensors. The cost, aggregation, and
+ * disparity selection are all done one row at a time using {@link SgmCostAggregationStreaming}. Memory usage is
+ * O(W*D), which allows much larger images and disparity ranges to be processed. The trade off is that only
+ * paths which flow from the top of the image down can be considered, see {@link SgmCostAggregationStreaming}.
+ *
+ * Settings for the penalties and number of paths are taken from {@link #getAggregation()} so that it can be
+ * configured the same way as the other SGM implementations.
+ *
+ * Sub-pixel disparity must be computed while the aggregated cost for the row is still available. If you wish
+ * to use {@link #subpixel} then call {@link #setSubpixel(boolean)} before processing.
+ *
+ * @author Peter Abeles
+ */
+public class SgmStereoDisparityStreaming<T extends ImageBase<T>, C extends ImageBase<C>>
+	extends SgmStereoDisparity<T,C>
+{
+	// Optional transform applied to the input images, e.g. census transform
+	@Nullable FilterImageInterface<T, C> transform;
+	// Storage for transformed left and right images
+	C transLeft;
+	C transRight;
+
+	// Computes the cost for one row at a time
+	SgmCostBase<C> rowCost;
+	// Aggregates the cost along paths one row at a time
+	SgmCostAggregationStreaming streaming = new SgmCostAggregationStreaming();
+
+	// Cost for the row being processed
+	GrayU16 costXD = new GrayU16(1,1);
+
+	// Storage for sub-pixel disparity. null if disabled
+	@Nullable GrayF32 disparitySubpixel;
+
+	/**
+	 * Constructor
+	 *
+	 * @param transform Transform applied to the input images before computing the cost. If null then the cost
+	 *                  is computed directly from the input images and T must be the same type as C.
+	 * @param rowCost Computes the cost
+	 * @param selector Selects the disparity from the aggregated cost
+	 */
+	public SgmStereoDisparityStreaming(@Nullable FilterImageInterface<T, C> transform,
+									   SgmCostBase<C> rowCost, SgmDisparitySelector selector) {
+		super(rowCost, selector);
+		this.rowCost = rowCost;
+		this.transform = transform;
+		if( transform != null ) {
+			transLeft = transform.getOutputType().createImage(1,1);
+			transRight = transform.getOutputType().createImage(1,1);
+		}
+	}
+
+	@Override
+	public void process( T left , T right ) {
+		InputSanityCheck.checkSameShape(left,right);
+
+		C costLeft, costRight;
+		if( transform != null ) {
+			transform.process(left,transLeft);
+			transform.process(right,transRight);
+			costLeft = transLeft;
+			costRight = transRight;
+		} else {
+			costLeft = (C)left;
+			costRight = (C)right;
+		}
+
+		disparity.reshape(left);
+		helper.configure(left.width,disparityMin,disparityRange);
+		rowCost.configure(disparityMin,disparityRange);
+		rowCost.setImages(costLeft,costRight);
+
+		streaming.configure(disparityMin);
+		streaming.setPathsConsidered(aggregation.getPathsConsidered());
+		streaming.setPenalty1(aggregation.getPenalty1());
+		streaming.setPenalty2(aggregation.getPenalty2());
+		streaming.initialize(left.width,left.height,disparityRange);
+
+		selector.setDisparityMin(disparityMin);
+		selector.setup(left.width,left.height,disparityRange);
+
+		if( disparitySubpixel != null )
+			disparitySubpixel.reshape(left.width,left.height);
+
+		costXD.reshape(disparityRange,left.width);
+		for (int y = 0; y < left.height; y++) {
+			// Compute the cost for this row
+			rowCost.processRow(y,costXD);
+			// Aggregate the cost along all the paths which pass through this row
+			streaming.process(y,costXD);
+			// Select the best disparity for each pixel given the cost
+			selector.selectRow(y,streaming.getAggregatedXD(),disparity);
+
+			if( disparitySubpixel != null )
+				subpixelRow(y,streaming.getAggregatedXD(),disparity,disparitySubpixel);
+		}
+	}
+
+	/**
+	 * Returns the sub-pixel disparity which was computed inside of {@link #process}. The aggregated cost is
+	 * no longer available so 'src' must be the disparity image computed by {@link #process}.
+	 */
+	@Override
+	public void subpixel( GrayU8 src , GrayF32 dst ) {
+		if( disparitySubpixel == null )
+			throw new IllegalArgumentException("Sub-pixel was not enabled. Call setSubpixel(true) before processing");
+		if( src != disparity )
+			throw new IllegalArgumentException("src must be the disparity image returned by getDisparity()");
+		dst.setTo(disparitySubpixel);
+	}
+
+	/**
+	 * Specifies if sub-pixel disparity should be computed while processing
+	 */
+	public void setSubpixel( boolean subpixel ) {
+		if( subpixel ) {
+			if( disparitySubpixel == null )
+				disparitySubpixel = new GrayF32(1,1);
+		} else {
+			disparitySubpixel = null;
+		}
+	}
+
+	public boolean isSubpixel() {
+		return disparitySubpixel != null;
+	}
+
+	public SgmCostAggregationStreaming getStreaming() {
+		return streaming;
+	}
+}
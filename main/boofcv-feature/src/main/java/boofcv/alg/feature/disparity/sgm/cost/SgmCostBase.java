@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -45,35 +45,53 @@ public abstract class SgmCostBase<T extends ImageBase<T>> implements SgmDisparit
 
 	@Override
 	public void process(T left, T right, Planar<GrayU16> costYXD) {
+		setImages(left, right);
+
+		// Declare the "tensor" with shape (lengthY,lengthX,lengthD)
+		costYXD.reshape(disparityRange,left.width,left.height);
+
+		for (int y = 0; y < left.height; y++) {
+			processRow(y,costYXD.getBand(y));
+		}
+	}
+
+	/**
+	 * Specifies the input images. Must be called before {@link #processRow}.
+	 */
+	public void setImages(T left, T right) {
 		InputSanityCheck.checkSameShape(left,right);
 		if( disparityRange == 0)
 			throw new IllegalArgumentException("disparityRange is 0. Did you call configure()?");
 		this.left = left;
 		this.right = right;
+	}
 
-		// Declare the "tensor" with shape (lengthY,lengthX,lengthD)
-		costYXD.reshape(disparityRange,left.width,left.height);
-
-		for (int y = 0; y < left.height; y++) {
-			costXD = costYXD.getBand(y);
+	/**
+	 * Computes the cost for a single row in the image. This allows the cost to be computed one row at a time
+	 * without declaring the entire cost tensor.
+	 *
+	 * @param y Row in the image
+	 * @param costXD (Output) Cost for the row. Must have a shape of (disparityRange, image width)
+	 */
+	public void processRow(int y, GrayU16 costXD) {
+		this.costXD = costXD;
 
-			int idxLeft  = left.startIndex  + y*left.stride + disparityMin;
+		int idxLeft  = left.startIndex  + y*left.stride + disparityMin;
 
-			for (int x = disparityMin; x < left.width; x++, idxLeft++) {
-				int idxOut = costXD.startIndex + (x-disparityMin)*costYXD.stride;
+		for (int x = disparityMin; x < left.width; x++, idxLeft++) {
+			int idxOut = costXD.startIndex + (x-disparityMin)*costXD.stride;
 
-				// The local limits on ranges that can be examined
-				int localRange = Math.min(disparityRange,x-disparityMin+1);
+			// The local limits on ranges that can be examined
+			int localRange = Math.min(disparityRange,x-disparityMin+1);
 
-				// start reading the right image at the smallest disparity then increase disparity size
-				int idxRight = right.startIndex + y*right.stride + x - disparityMin;
+			// start reading the right image at the smallest disparity then increase disparity size
+			int idxRight = right.startIndex + y*right.stride + x - disparityMin;
 
-				computeDisparityErrors(idxLeft,idxRight,idxOut,localRange);
+			computeDisparityErrors(idxLeft,idxRight,idxOut,localRange);
 
-				// Fill in the disparity values outside the image with max cost
-				for (int d = localRange; d < disparityRange; d++) {
-					costXD.data[idxOut+d] = SgmDisparityCost.MAX_COST;
-				}
+			// Fill in the disparity values outside the image with max cost
+			for (int d = localRange; d < disparityRange; d++) {
+				costXD.data[idxOut+d] = SgmDisparityCost.MAX_COST;
 			}
 		}
 	}
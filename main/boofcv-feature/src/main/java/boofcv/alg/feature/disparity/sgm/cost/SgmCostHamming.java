@@ -18,49 +18,87 @@
 
 package boofcv.alg.feature.disparity.sgm.cost;
 
-import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.alg.feature.disparity.block.ImplCensusHamming;
 import boofcv.alg.feature.disparity.sgm.SgmDisparityCost;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayS64;
+import boofcv.struct.image.GrayU16;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 
 /**
- * Computes the cost as the hamming distance between two pixels.
+ * Computes the cost as the hamming distance between two pixels. The right image's row is copied in reverse order
+ * so that the cost for all disparities of a pixel can be computed in a single sequential pass by
+ * {@link ImplCensusHamming}.
  *
  * @author Peter Abeles
  */
 public abstract class SgmCostHamming<T extends ImageBase<T>> extends SgmCostBase<T> {
+
+	// idxRight in computeDisparityErrors() maps to this index minus idxRight in the reversed row
+	protected int offsetReversed;
+
+	@Override
+	public void processRow(int y, GrayU16 costXD) {
+		int idxRow = right.startIndex + y*right.stride;
+		offsetReversed = idxRow + right.width - 1;
+		reverseRightRow(idxRow,right.width);
+		super.processRow(y, costXD);
+	}
+
+	/**
+	 * Copies the right image's row into the work array in reverse order
+	 */
+	protected abstract void reverseRightRow( int idxRow , int width );
+
 	public static class U8 extends SgmCostHamming<GrayU8> {
+		byte[] reversed = new byte[0];
+
+		@Override
+		protected void reverseRightRow(int idxRow, int width) {
+			if( reversed.length < width )
+				reversed = new byte[width];
+			ImplCensusHamming.reverse(right.data,idxRow,reversed,width);
+		}
+
 		@Override
 		protected void computeDisparityErrors(int idxLeft, int idxRight, int idxOut, int disparityRange) {
-			int valLeft = left.data[idxLeft] & 0xFF;
-			for (int d = 0; d < disparityRange; d++) {
-				int valRight = right.data[idxRight--] & 0xFF;
-				costXD.data[idxOut+d] = (short) (SgmDisparityCost.MAX_COST*DescriptorDistance.hamming(valLeft^valRight)/8);
-			}
+			ImplCensusHamming.disparities(left.data[idxLeft] & 0xFF,reversed,offsetReversed-idxRight,
+					SgmDisparityCost.MAX_COST,3,costXD.data,idxOut,disparityRange);
 		}
 	}
 
 	public static class S32 extends SgmCostHamming<GrayS32> {
+		int[] reversed = new int[0];
+
+		@Override
+		protected void reverseRightRow(int idxRow, int width) {
+			if( reversed.length < width )
+				reversed = new int[width];
+			ImplCensusHamming.reverse(right.data,idxRow,reversed,width);
+		}
+
 		@Override
 		protected void computeDisparityErrors(int idxLeft, int idxRight, int idxOut, int disparityRange) {
-			int valLeft = left.data[idxLeft];
-			for (int d = 0; d < disparityRange; d++) {
-				int valRight = right.data[idxRight--];
-				costXD.data[idxOut+d] = (short) (SgmDisparityCost.MAX_COST*DescriptorDistance.hamming(valLeft^valRight)/32);
-			}
+			ImplCensusHamming.disparities(left.data[idxLeft],reversed,offsetReversed-idxRight,
+					SgmDisparityCost.MAX_COST,5,costXD.data,idxOut,disparityRange);
 		}
 	}
 
 	public static class S64 extends SgmCostHamming<GrayS64> {
+		long[] reversed = new long[0];
+
+		@Override
+		protected void reverseRightRow(int idxRow, int width) {
+			if( reversed.length < width )
+				reversed = new long[width];
+			ImplCensusHamming.reverse(right.data,idxRow,reversed,width);
+		}
+
 		@Override
 		protected void computeDisparityErrors(int idxLeft, int idxRight, int idxOut, int disparityRange) {
-			long valLeft = left.data[idxLeft];
-			for (int d = 0; d < disparityRange; d++) {
-				long valRight = right.data[idxRight--];
-				costXD.data[idxOut+d] = (short) (SgmDisparityCost.MAX_COST*DescriptorDistance.hamming(valLeft^valRight)/64);
-			}
+			ImplCensusHamming.disparities(left.data[idxLeft],reversed,offsetReversed-idxRight,
+					SgmDisparityCost.MAX_COST,6,costXD.data,idxOut,disparityRange);
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -87,6 +87,9 @@ public class OrientationHistogramSift<Deriv extends ImageGray>
 	InterpolateArray approximateGauss;
 	double approximateStep = 0.1;
 
+	// type of image derivative
+	private Class<Deriv> derivType;
+
 	/**
 	 * Configures orientation estimation
 	 *
@@ -102,6 +105,7 @@ public class OrientationHistogramSift<Deriv extends ImageGray>
 		this.histogramY = new double[ histogramSize ];
 
 		this.sigmaEnlarge = sigmaEnlarge;
+		this.derivType = derivType;
 
 		this.histAngleBin = 2.0*Math.PI/histogramSize;
 
@@ -117,6 +121,13 @@ public class OrientationHistogramSift<Deriv extends ImageGray>
 		this.derivY = FactoryGImageGray.create(derivType);
 	}
 
+	/**
+	 * Creates a new instance with the same configuration.  The image gradient is not copied.
+	 */
+	public OrientationHistogramSift<Deriv> copy() {
+		return new OrientationHistogramSift<>(histogramMag.length,sigmaEnlarge,derivType);
+	}
+
 	/**
 	 * Specify the input image
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -77,6 +77,9 @@ public class CombinedTrackerScalePoint
 	// Marks a known track as being associated
 	private boolean associated[] = new boolean[1];
 
+	// storage for all the tracks which are associated against detected features
+	private List<CombinedTrack<TD>> all = new ArrayList<>();
+
 	/**
 	 * Configures tracker
 	 *
@@ -168,8 +171,8 @@ public class CombinedTrackerScalePoint
 		for( int i = 0; i < N; i++ )
 			associated[i] = false;
 
-		for( AssociatedIndex i : matches.toList() ) {
-			associated[i.dst] = true;
+		for (int i = 0; i < matches.size; i++) {
+			associated[matches.get(i).dst] = true;
 		}
 
 		// spawn new tracks for unassociated detected features
@@ -222,8 +225,8 @@ public class CombinedTrackerScalePoint
 		}
 
 		// create a list of previously created track descriptions
-		for( CombinedTrack<TD> t : known ) {
-			knownDesc.add(t.desc);
+		for (int i = 0; i < known.size(); i++) {
+			knownDesc.add(known.get(i).desc);
 		}
 
 		// associate features
@@ -243,10 +246,10 @@ public class CombinedTrackerScalePoint
 	 */
 	public void associateAllToDetected() {
 		// initialize data structures
-		List<CombinedTrack<TD>> all = new ArrayList<>();
-		all.addAll(tracksReactivated);
-		all.addAll(tracksDormant);
-		all.addAll(tracksPureKlt);
+		all.clear();
+		addToList(tracksReactivated, all);
+		addToList(tracksDormant, all);
+		addToList(tracksPureKlt, all);
 
 		int numTainted = tracksReactivated.size() + tracksDormant.size();
 
@@ -265,7 +268,8 @@ public class CombinedTrackerScalePoint
 			associated[i] = false;
 		}
 
-		for( AssociatedIndex a : matches.toList() ) {
+		for (int i = 0; i < matches.size; i++) {
+			AssociatedIndex a = matches.get(i);
 			// don't mess with pure-KLT tracks
 			if( a.src >= numTainted )
 				continue;
@@ -329,9 +333,9 @@ public class CombinedTrackerScalePoint
 	 * Drops all tracks and recycles the data
 	 */
 	public void dropAllTracks() {
-		tracksUnused.addAll(tracksDormant);
-		tracksUnused.addAll(tracksPureKlt);
-		tracksUnused.addAll(tracksReactivated);
+		addToList(tracksDormant, tracksUnused);
+		addToList(tracksPureKlt, tracksUnused);
+		addToList(tracksReactivated, tracksUnused);
 
 		tracksSpawned.clear();
 		tracksPureKlt.clear();
@@ -339,4 +343,13 @@ public class CombinedTrackerScalePoint
 		tracksSpawned.clear();
 		tracksDormant.clear();
 	}
+
+	/**
+	 * Adds the tracks to the list. Uses a loop since {@link List#addAll} creates a copy of the input
+	 */
+	private static <T> void addToList( List<T> in , List<T> out ) {
+		for (int i = 0; i < in.size(); i++) {
+			out.add(in.get(i));
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -112,6 +112,13 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		this.config = config;
 	}
 
+	/**
+	 * Creates a new tracker with the same configuration and its own workspace. The image is not copied.
+	 */
+	public KltTracker<I,D> copy() {
+		return new KltTracker<>(interpInput.copy(), interpDeriv.copy(), config);
+	}
+
 	/**
 	 * Sets the current image it should be tracking with.
 	 *
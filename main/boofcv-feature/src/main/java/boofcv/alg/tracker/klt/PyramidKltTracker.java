@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -48,6 +48,13 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 		this.tracker = tracker;
 	}
 
+	/**
+	 * Creates a new tracker with the same configuration and its own workspace. The image is not copied.
+	 */
+	public PyramidKltTracker<InputImage,DerivativeImage> copy() {
+		return new PyramidKltTracker<>(tracker.copy());
+	}
+
 	/**
 	 * Sets the feature's description up.  The feature's (x,y) must have already been set
 	 * and {@link #setImage} been called.
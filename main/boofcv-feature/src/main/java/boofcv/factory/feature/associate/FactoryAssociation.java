@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,18 +19,23 @@
 package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
+import boofcv.alg.descriptor.KdTreeTuple_F32;
 import boofcv.alg.descriptor.KdTreeTuple_F64;
+import boofcv.alg.descriptor.LshNearestNeighbor_B;
 import boofcv.alg.feature.associate.*;
 import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.PackedArray;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.alg.KdTreeDistance;
+import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
 
 
 /**
- * Creates algorithms for associating {@link boofcv.struct.feature.TupleDesc_F64} features.
+ * Creates algorithms for associating {@link boofcv.struct.feature.TupleDesc} features.
  *
  * @author Peter Abeles
  */
@@ -39,7 +44,8 @@ public class FactoryAssociation {
 
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
-	 * See {@link AssociateGreedy} for details.
+	 * See {@link AssociateGreedy} for details. If the score is Euclidean or Hamming then {@link AssociateGreedyTiled}
+	 * is used, which produces the same results faster.
 	 * 
 	 * @param score Computes the fit score between two features.
 	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
@@ -55,7 +61,11 @@ public class FactoryAssociation {
 	{
 		AssociateGreedyBase<D> alg;
 
-		if(BoofConcurrency.USE_CONCURRENT ) {
+		// Use a specialized kernel to compute the score matrix if one is available for this score
+		AssociateGreedyTiled.Kernel<D> kernel = AssociateGreedyTiled.createKernel(score);
+		if( kernel != null ) {
+			alg = new AssociateGreedyTiled<>(score, kernel, backwardsValidation);
+		} else if(BoofConcurrency.isUseConcurrent() ) {
 			alg = new AssociateGreedy_MT<>(score, backwardsValidation);
 		} else {
 			alg = new AssociateGreedy<>(score, backwardsValidation);
@@ -64,6 +74,37 @@ public class FactoryAssociation {
 		return new WrapAssociateGreedy<>(alg);
 	}
 
+	/**
+	 * Brute force greedy association which copies the descriptors into packed arrays then scores them
+	 * directly from the array's contiguous storage. Produces the same results as
+	 * {@link #greedy(ScoreAssociation, double, boolean)}. If the descriptors are already in a packed array
+	 * use {@link AssociateGreedyPacked} directly. See {@link AssociateGreedyPacked} for details.
+	 *
+	 * @param score Computes the fit score between two features, e.g. {@link ScoreAssociateEuclideanSq_F64}.
+	 * @param factory Creates packed arrays with the correct degree-of-freedom,
+	 *                e.g. () -&gt; new PackedTupleArray_F64(64)
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @param <D> Data structure being associated
+	 * @param <P> Packed array type
+	 * @return AssociateDescription
+	 */
+	public static <D, P extends PackedArray<D>> AssociateDescription<D>
+	greedyPacked( ScoreAssociationPacked<D,P> score ,
+				  FastQueue.Factory<P> factory ,
+				  double maxError ,
+				  boolean backwardsValidation )
+	{
+		AssociateGreedyPacked<D,P> alg;
+		if( BoofConcurrency.isUseConcurrent() ) {
+			alg = new AssociateGreedyPacked_MT<>(score, factory, backwardsValidation);
+		} else {
+			alg = new AssociateGreedyPacked<>(score, factory, backwardsValidation);
+		}
+		alg.setMaxFitError(maxError);
+		return new WrapAssociateGreedy<>(alg);
+	}
+
 
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
@@ -104,23 +145,78 @@ public class FactoryAssociation {
 																	  int numTrees ,
 																	  int numConsiderSplit ,
 																	  long randomSeed) {
+		return kdRandomForest(configNN,dimension,maxNodesSearched,numTrees,numConsiderSplit,randomSeed,
+				TupleDesc_F64.class);
+	}
+
+	/**
+	 * Approximate association using multiple random K-D trees (random forest) for descriptors with a high degree of
+	 * freedom, e.g. &gt; 20. Supports {@link TupleDesc_F64} and {@link TupleDesc_F32}.
+	 *
+	 * @see #kdRandomForest(ConfigAssociateNearestNeighbor, int, int, int, int, long)
+	 *
+	 * @param tupleType Type of descriptor being associated
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static <D> AssociateDescription<D> kdRandomForest( @Nullable ConfigAssociateNearestNeighbor configNN ,
+															  int dimension,
+															  int maxNodesSearched ,
+															  int numTrees ,
+															  int numConsiderSplit ,
+															  long randomSeed,
+															  Class<D> tupleType ) {
+		KdTreeDistance distance;
+		if( TupleDesc_F64.class.isAssignableFrom(tupleType) ) {
+			distance = new KdTreeTuple_F64(dimension);
+		} else if( tupleType == TupleDesc_F32.class ) {
+			distance = new KdTreeTuple_F32(dimension);
+		} else {
+			throw new IllegalArgumentException("K-D tree not supported for type "+tupleType.getSimpleName());
+		}
+
 		NearestNeighbor nn = FactoryNearestNeighbor.kdRandomForest(
-				new KdTreeTuple_F64(dimension),
-				maxNodesSearched,numTrees,numConsiderSplit,randomSeed);
+				distance, maxNodesSearched,numTrees,numConsiderSplit,randomSeed);
 
 		return associateNearestNeighbor(configNN,nn);
 	}
 
-	public static AssociateNearestNeighbor<TupleDesc_F64>
+	/**
+	 * Approximate association for binary descriptors using Locality Sensitive Hashing. Instead of comparing
+	 * every pair, only features which share a hash key with the query are compared. The distance is the
+	 * Hamming distance and is not squared, so {@link ConfigAssociateNearestNeighbor#distanceIsSquared} is ignored.
+	 *
+	 * @see LshNearestNeighbor_B
+	 * @see AssociateNearestNeighbor_ST
+	 *
+	 * @param configNN Configuration for association. Null for default.
+	 * @param numTables Number of hash tables. More tables improves accuracy. Try 10
+	 * @param bitsPerKey Number of bits in a key. Fewer bits means more candidates are examined. 1 to 30. Try 16
+	 * @param multiProbe If true then keys which differ by one bit from the query are also searched. Try true
+	 * @param randomSeed Seed used by random number generator
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static AssociateDescription<TupleDesc_B> lshHamming( @Nullable ConfigAssociateNearestNeighbor configNN ,
+																int numTables ,
+																int bitsPerKey ,
+																boolean multiProbe ,
+																long randomSeed ) {
+		NearestNeighbor<TupleDesc_B> nn = new LshNearestNeighbor_B(numTables,bitsPerKey,multiProbe,randomSeed);
+
+		AssociateNearestNeighbor<TupleDesc_B> assoc = associateNearestNeighbor(configNN,nn);
+		assoc.setRatioUsesSqrt(false);
+		return assoc;
+	}
+
+	public static <D> AssociateNearestNeighbor<D>
 	associateNearestNeighbor( @Nullable ConfigAssociateNearestNeighbor config ,
-							  NearestNeighbor nn )
+							  NearestNeighbor<D> nn )
 	{
 		if( config == null )
 			config = new ConfigAssociateNearestNeighbor();
 
 		config.checkValidity();
 
-		AssociateNearestNeighbor<TupleDesc_F64> assoc;
+		AssociateNearestNeighbor<D> assoc;
 		if( BoofConcurrency.USE_CONCURRENT ) {
 			assoc = new AssociateNearestNeighbor_MT<>(nn);
 		} else {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,8 +18,8 @@
 
 package boofcv.factory.feature.dense;
 
-import boofcv.alg.feature.dense.DescribeDenseHogAlg;
-import boofcv.alg.feature.dense.DescribeDenseHogFastAlg;
+import boofcv.alg.feature.dense.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
@@ -37,9 +37,15 @@ public class FactoryDescribeImageDenseAlg {
 	DescribeDenseHogAlg<T> hog(@Nonnull ConfigDenseHoG config , ImageType<T> imageType ) {
 		config.checkValidity();
 
-		return new DescribeDenseHogAlg<>(config.orientationBins, config.pixelsPerCell,
-				config.cellsPerBlockX, config.cellsPerBlockY,
-				config.stepBlock, imageType);
+		if( BoofConcurrency.isUseConcurrent() ) {
+			return new DescribeDenseHogAlg_MT<>(config.orientationBins, config.pixelsPerCell,
+					config.cellsPerBlockX, config.cellsPerBlockY,
+					config.stepBlock, imageType);
+		} else {
+			return new DescribeDenseHogAlg<>(config.orientationBins, config.pixelsPerCell,
+					config.cellsPerBlockX, config.cellsPerBlockY,
+					config.stepBlock, imageType);
+		}
 
 	}
 
@@ -47,7 +53,30 @@ public class FactoryDescribeImageDenseAlg {
 	DescribeDenseHogFastAlg<T> hogFast(@Nonnull ConfigDenseHoG config , ImageType<T> imageType ) {
 		config.checkValidity();
 
-		return new DescribeDenseHogFastAlg(config.orientationBins,config.pixelsPerCell
-							,config.cellsPerBlockX,config.cellsPerBlockY,config.stepBlock, imageType);
+		if( BoofConcurrency.isUseConcurrent() ) {
+			return new DescribeDenseHogFastAlg_MT(config.orientationBins,config.pixelsPerCell
+					,config.cellsPerBlockX,config.cellsPerBlockY,config.stepBlock, imageType);
+		} else {
+			return new DescribeDenseHogFastAlg(config.orientationBins,config.pixelsPerCell
+					,config.cellsPerBlockX,config.cellsPerBlockY,config.stepBlock, imageType);
+		}
+	}
+
+	/**
+	 * Creates a sliding window HOG descriptor, e.g. for pedestrian detection, built on the fast HOG cell layout.
+	 *
+	 * @param config HOG configuration
+	 * @param windowCellsX Width of the window in cells
+	 * @param windowCellsY Height of the window in cells
+	 * @param imageType Type of input image
+	 * @see DenseHogSlidingWindow
+	 */
+	public static <T extends ImageBase<T>>
+	DenseHogSlidingWindow<T> hogSlidingWindow(@Nonnull ConfigDenseHoG config , int windowCellsX , int windowCellsY ,
+											  ImageType<T> imageType ) {
+		if( BoofConcurrency.isUseConcurrent() )
+			return new DenseHogSlidingWindow_MT<>(hogFast(config,imageType),windowCellsX,windowCellsY);
+		else
+			return new DenseHogSlidingWindow<>(hogFast(config,imageType),windowCellsX,windowCellsY);
 	}
 }
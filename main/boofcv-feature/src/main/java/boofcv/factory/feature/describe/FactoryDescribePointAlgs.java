@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -25,6 +25,7 @@ import boofcv.alg.feature.describe.*;
 import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
 import boofcv.alg.feature.describe.impl.*;
 import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.feature.TupleDesc;
@@ -84,7 +85,10 @@ public class FactoryDescribePointAlgs {
 			throw new IllegalArgumentException("Unknown image type: "+imageType.getSimpleName());
 		}
 
-		return new DescribePointBrief<>(compare, filterBlur);
+		if( BoofConcurrency.isUseConcurrent() )
+			return new DescribePointBrief_MT<>(compare, filterBlur);
+		else
+			return new DescribePointBrief<>(compare, filterBlur);
 	}
 
 	// todo remove filterBlur for all BRIEF change to radius,sigma,type
@@ -94,7 +98,10 @@ public class FactoryDescribePointAlgs {
 
 		InterpolatePixelS<T> interp = FactoryInterpolation.bilinearPixelS(imageType, BorderType.EXTENDED);
 
-		return new DescribePointBriefSO<>(definition, filterBlur, interp);
+		if( BoofConcurrency.isUseConcurrent() )
+			return new DescribePointBriefSO_MT<>(definition, filterBlur, interp);
+		else
+			return new DescribePointBriefSO<>(definition, filterBlur, interp);
 	}
 
 	public static <T extends ImageGray<T>>
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -139,6 +139,44 @@ public class FactoryFeatureExtractor {
 		return ret;
 	}
 
+	/**
+	 * Naive non-max feature extractor. Much slower than {@link #nonmax} and is intended for testing and
+	 * validation. Can only detect local maximums.
+	 *
+	 * @param config Configuration for extractor
+	 * @return A feature extractor.
+	 */
+	public static NonMaxSuppression nonmaxNaive( @Nullable ConfigExtract config ) {
+
+		if( config == null )
+			config = new ConfigExtract();
+		config.checkValidity();
+
+		if( config.detectMinimums || !config.detectMaximums )
+			throw new IllegalArgumentException("Naive extractor can only detect maximums");
+
+		// See if the user wants to use threaded code or not
+		NonMaxExtractorNaive alg = BoofConcurrency.isUseConcurrent() ?
+				new NonMaxExtractorNaive_MT(config.useStrictRule) : new NonMaxExtractorNaive(config.useStrictRule);
+
+		alg.setSearchRadius(config.radius);
+		alg.setThreshold(config.threshold);
+		alg.setBorder(config.ignoreBorder);
+
+		return new WrapperNonMaximumNaive(alg);
+	}
+
+	/**
+	 * Creates an extractor which selects every pixel above the threshold as a feature.
+	 *
+	 * @param threshold Pixels with an intensity above this value are features
+	 * @return The threshold extractor
+	 */
+	public static ThresholdCornerExtractor threshold( float threshold ) {
+		return BoofConcurrency.isUseConcurrent() ?
+				new ThresholdCornerExtractor_MT(threshold) : new ThresholdCornerExtractor(threshold);
+	}
+
 	/**
 	 * Creates a non-maximum limiter using the specified configuration
 	 * @param config non-maxumum settings
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -40,7 +40,8 @@ import boofcv.struct.image.ImageType;
 public class FactoryIntensityPoint {
 
 	/**
-	 * Feature intensity for Fast corner detector.  See {@link FastCornerDetector} for more details.
+	 * Feature intensity for Fast corner detector.  See {@link FastCornerDetector} for more details. A concurrent
+	 * implementation is used if concurrency is turned on.
 	 *
 	 * @param pixelTol How different pixels need to be to be considered part of a corner. Image dependent.  Try 20 to start.
 	 * @param minCont Minimum number of continue pixels in a circle for it ot be a corner.  Can be 9,10,11 or 12.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,7 @@
 package boofcv.factory.feature.detect.intensity;
 
 import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector_MT;
 import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.impl.*;
 import boofcv.concurrency.BoofConcurrency;
@@ -38,7 +39,8 @@ import boofcv.struct.image.ImageGray;
 public class FactoryIntensityPointAlg {
 
 	/**
-	 * Common interface for creating a {@link FastCornerDetector} from different image types.
+	 * Common interface for creating a {@link FastCornerDetector} from different image types. If concurrency is
+	 * turned on then {@link FastCornerDetector_MT} is returned.
 	 *
 	 * @param pixelTol How different pixels need to be to be considered part of a corner. Image dependent.  Try 20 to start.
 	 * @param minCont Minimum number of continue pixels in a circle for it ot be a corner.  Can be 9,10,11 or 12.
@@ -76,7 +78,11 @@ public class FactoryIntensityPointAlg {
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
-		return new FastCornerDetector(helper);
+		if( BoofConcurrency.isUseConcurrent() ) {
+			return new FastCornerDetector_MT(helper);
+		} else {
+			return new FastCornerDetector(helper);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -124,6 +124,7 @@ public class FactoryDetectPoint {
 	 * @param configDetector Configuration for feature extractor.
 	 * @param imageType ype of input image.
 	 * @see FastCornerDetector
+	 * @see boofcv.alg.feature.detect.intensity.FastCornerDetector_MT
 	 */
 	@SuppressWarnings("UnnecessaryLocalVariable")
 	public static <T extends ImageGray<T>, D extends ImageGray<D>>
@@ -146,6 +147,7 @@ public class FactoryDetectPoint {
 	 * @param configFast Configuration for FAST feature detector
 	 * @param imageType ype of input image.
 	 * @see FastCornerDetector
+	 * @see boofcv.alg.feature.detect.intensity.FastCornerDetector_MT
 	 */
 	public static <T extends ImageGray<T>>
 	PointDetector<T> createFast( @Nullable ConfigFastCorner configFast , Class<T> imageType) {
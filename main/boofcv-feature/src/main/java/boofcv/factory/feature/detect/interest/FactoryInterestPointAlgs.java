@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -33,6 +33,7 @@ import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
 import boofcv.alg.feature.detect.interest.*;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
 import boofcv.factory.filter.derivative.FactoryDerivativeSparse;
@@ -175,8 +176,14 @@ public class FactoryInterestPointAlgs {
 		config.checkValidity();
 
 		// ignore border is overwritten by Fast Hessian at detection time
-		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(
-				new ConfigExtract(config.extractRadius, config.detectThreshold, 0, true));
+		ConfigExtract configExtract = new ConfigExtract(config.extractRadius, config.detectThreshold, 0, true);
+		if( BoofConcurrency.isUseConcurrent() ) {
+			return new FastHessianFeatureDetector_MT<>(()->FactoryFeatureExtractor.nonmax(configExtract),
+					config.maxFeaturesPerScale, config.initialSampleSize, config.initialSize,
+					config.numberScalesPerOctave, config.numberOfOctaves, config.scaleStepSize);
+		}
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(configExtract);
 		return new FastHessianFeatureDetector<>(extractor, config.maxFeaturesPerScale,
 				config.initialSampleSize, config.initialSize, config.numberScalesPerOctave,
 				config.numberOfOctaves, config.scaleStepSize);
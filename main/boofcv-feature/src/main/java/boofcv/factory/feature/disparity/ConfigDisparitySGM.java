@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -69,7 +69,9 @@ public class ConfigDisparitySGM implements Configuration {
 	 */
 	public int penaltyLargeChange = 2000;
 	/**
-	 * Number of paths it should consider. 4 or 8 is most common. More paths slower it will run.
+	 * Number of paths it should consider. 4 or 8 is most common. More paths slower it will run. When streaming
+	 * only paths which flow down the image can be used and P8 is reduced to the 5 paths coming from the same
+	 * row or the row above. P16 is not allowed when streaming.
 	 */
 	public Paths paths = Paths.P8;
 	/**
@@ -80,6 +82,19 @@ public class ConfigDisparitySGM implements Configuration {
 	 * If true it will use block variants of errors.
 	 */
 	public boolean useBlocks=true;
+	/**
+	 * If true the cost will be computed and aggregated one row at a time. This avoids declaring the W*H*D
+	 * cost tensor, which can be very large, but only paths which flow down the image are considered.
+	 * Requires useBlocks to be false and does not support mutual information. With P1, P2, and P4 the
+	 * horizontal and vertical paths which flow down are used, with P8 all 5 downward paths are used.
+	 */
+	public boolean streaming=false;
+	/**
+	 * If true and concurrency is turned on then paths in all directions are aggregated at the same time using
+	 * a partial sum for each thread. This is faster but requires an extra copy of the cost tensor for each
+	 * thread. Ignored when streaming.
+	 */
+	public boolean concurrentPaths=false;
 	/**
 	 * Used if error type is Census
 	 */
@@ -127,6 +142,12 @@ public class ConfigDisparitySGM implements Configuration {
 			throw new IllegalArgumentException("Invalid value for penaltySmallChange.");
 		if( disparityMin < 0 )
 			throw new IllegalArgumentException("Minimum disparity must be >= 0");
+		if( streaming && useBlocks )
+			throw new IllegalArgumentException("Streaming can't be used with block errors");
+		if( streaming && errorType == DisparitySgmError.MUTUAL_INFORMATION )
+			throw new IllegalArgumentException("Streaming can't be used with mutual information");
+		if( streaming && paths == Paths.P16 )
+			throw new IllegalArgumentException("Streaming can only aggregate along 5 paths. Use P8 instead");
 		configBlockMatch.checkValidity();
 	}
 
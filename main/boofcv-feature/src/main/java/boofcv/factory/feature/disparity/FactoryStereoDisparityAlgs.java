@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -63,11 +63,16 @@ public class FactoryStereoDisparityAlgs {
 		SgmStereoDisparity sgm;
 
 		// There's currently no block variant of MI
-		if( !config.useBlocks )
+		if( config.streaming )
+			sgm = createSgmStreaming(config, selector);
+		else if( !config.useBlocks )
 			sgm = createSgmNativeCost(config, selector);
 		else
 			sgm = createSgmBlockCost(config, selector, GrayU8.class);
 
+		if( !config.streaming && BoofConcurrency.isUseConcurrent() )
+			sgm.setAggregation(new SgmCostAggregation_MT(config.concurrentPaths));
+
 		sgm.setDisparityMin(config.disparityMin);
 		sgm.setDisparityRange(config.disparityRange);
 		sgm.getAggregation().setPathsConsidered(config.paths.getCount());
@@ -93,18 +98,7 @@ public class FactoryStereoDisparityAlgs {
 
 			case CENSUS: {
 				FilterImageInterface censusTran = FactoryCensusTransform.variant(config.configCensus.variant, GrayU8.class);
-				Class censusType = censusTran.getOutputType().getImageClass();
-				SgmCostHamming cost;
-				if (censusType == GrayU8.class) {
-					cost = new SgmCostHamming.U8();
-				} else if (censusType == GrayS32.class) {
-					cost = new SgmCostHamming.S32();
-				} else if (censusType == GrayS64.class) {
-					cost = new SgmCostHamming.S64();
-				} else {
-					throw new IllegalArgumentException("Unsupported image type");
-				}
-				sgm = new SgmStereoDisparityCensus(censusTran,cost,selector);
+				sgm = new SgmStereoDisparityCensus(censusTran,createCensusCost(censusTran),selector);
 			} break;
 
 			default:
@@ -113,6 +107,42 @@ public class FactoryStereoDisparityAlgs {
 		return sgm;
 	}
 
+	private static SgmStereoDisparity createSgmStreaming( ConfigDisparitySGM config, SgmDisparitySelector selector) {
+		if( config.useBlocks )
+			throw new IllegalArgumentException("Streaming can't be used with block errors");
+
+		SgmStereoDisparityStreaming sgm;
+
+		switch( config.errorType) {
+			case ABSOLUTE_DIFFERENCE: {
+				sgm = new SgmStereoDisparityStreaming(null,new SgmCostAbsoluteDifference.U8(),selector);
+			} break;
+
+			case CENSUS: {
+				FilterImageInterface censusTran = FactoryCensusTransform.variant(config.configCensus.variant, GrayU8.class);
+				sgm = new SgmStereoDisparityStreaming(censusTran,createCensusCost(censusTran),selector);
+			} break;
+
+			default:
+				throw new IllegalArgumentException("Streaming does not support error type "+config.errorType);
+		}
+		sgm.setSubpixel(config.subpixel);
+		return sgm;
+	}
+
+	private static SgmCostHamming createCensusCost( FilterImageInterface censusTran ) {
+		Class censusType = censusTran.getOutputType().getImageClass();
+		if (censusType == GrayU8.class) {
+			return new SgmCostHamming.U8();
+		} else if (censusType == GrayS32.class) {
+			return new SgmCostHamming.S32();
+		} else if (censusType == GrayS64.class) {
+			return new SgmCostHamming.S64();
+		} else {
+			throw new IllegalArgumentException("Unsupported image type");
+		}
+	}
+
 	private static <T extends ImageGray<T>>
 	SgmStereoDisparity createSgmBlockCost(ConfigDisparitySGM config, SgmDisparitySelector selector, Class<T> imageType)
 	{
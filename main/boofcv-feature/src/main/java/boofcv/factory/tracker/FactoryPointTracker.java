@@ -50,6 +50,7 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.combined.CombinedTrackerScalePoint;
 import boofcv.alg.tracker.klt.ConfigPKlt;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
@@ -140,9 +141,15 @@ public class FactoryPointTracker {
 
 		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true, ImageType.single(imageType));
 
-		return new PointTrackerKltPyramid<>(config.config, config.toleranceFB,
-				config.templateRadius, config.pruneClose, pyramid, detector,
-				gradient, interpInput, interpDeriv, derivType);
+		if( BoofConcurrency.isUseConcurrent() ) {
+			return new PointTrackerKltPyramid_MT<>(config.config, config.toleranceFB,
+					config.templateRadius, config.pruneClose, pyramid, detector,
+					gradient, interpInput, interpDeriv, derivType);
+		} else {
+			return new PointTrackerKltPyramid<>(config.config, config.toleranceFB,
+					config.templateRadius, config.pruneClose, pyramid, detector,
+					gradient, interpInput, interpDeriv, derivType);
+		}
 	}
 
 	/**
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import boofcv.struct.PackedArray;
+
+/**
+ * Stores a set of {@link TupleDesc_B} inside of a single int[] array. Each tuple is stored in 'numInts'
+ * sequential elements, the same as {@link TupleDesc_B#data}, and tuple 'k' starts at index k*numInts.
+ * Since the tuples are stored next to each other, distance computations which iterate through all of them
+ * access memory sequentially.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_B implements PackedArray<TupleDesc_B> {
+	// Number of bits in each tuple
+	public final int numBits;
+	// Number of ints used to store each tuple
+	public final int numInts;
+	// Stores the tuples
+	public int[] data = new int[0];
+	// Number of tuples stored in the array
+	public int numElements;
+
+	// Storage for the tuple returned by getTemp()
+	final TupleDesc_B temp;
+
+	public PackedTupleArray_B( int numBits ) {
+		this.numBits = numBits;
+		this.temp = new TupleDesc_B(numBits);
+		this.numInts = temp.data.length;
+	}
+
+	@Override
+	public void reset() {
+		numElements = 0;
+	}
+
+	@Override
+	public void reserve(int numElements) {
+		if( data.length >= numElements*numInts )
+			return;
+		int[] tmp = new int[numElements*numInts];
+		System.arraycopy(data,0,tmp,0,this.numElements*numInts);
+		data = tmp;
+	}
+
+	/**
+	 * Changes the number of tuples in the array. Values of tuples which are added are not defined. Use this
+	 * when the array will be written to directly.
+	 *
+	 * @param numElements The new number of tuples
+	 */
+	public void resize(int numElements) {
+		reserve(numElements);
+		this.numElements = numElements;
+	}
+
+	@Override
+	public void append(TupleDesc_B element) {
+		if( element.numBits != numBits )
+			throw new IllegalArgumentException("Tuple has the wrong number of bits. "+element.numBits+" != "+numBits);
+		if( data.length < (numElements+1)*numInts )
+			reserve(Math.max(16,numElements*2));
+		System.arraycopy(element.data,0,data,numElements*numInts,numInts);
+		numElements++;
+	}
+
+	@Override
+	public TupleDesc_B getTemp(int index) {
+		getCopy(index,temp);
+		return temp;
+	}
+
+	@Override
+	public void getCopy(int index, TupleDesc_B dst) {
+		System.arraycopy(data,index*numInts,dst.data,0,numInts);
+	}
+
+	@Override
+	public int size() {
+		return numElements;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import boofcv.struct.PackedArray;
+
+/**
+ * Stores a set of {@link TupleDesc_F64} inside of a single double[] array. Element 'i' in tuple 'k' is stored
+ * at index k*dof + i. Since the tuples are stored next to each other, distance computations which iterate
+ * through all of them access memory sequentially.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_F64 implements PackedArray<TupleDesc_F64> {
+	// degree-of-freedom, number of elements in each tuple
+	public final int dof;
+	// Stores the tuples
+	public double[] data = new double[0];
+	// Number of tuples stored in the array
+	public int numElements;
+
+	// Storage for the tuple returned by getTemp()
+	final TupleDesc_F64 temp;
+
+	public PackedTupleArray_F64( int dof ) {
+		this.dof = dof;
+		this.temp = new TupleDesc_F64(dof);
+	}
+
+	@Override
+	public void reset() {
+		numElements = 0;
+	}
+
+	@Override
+	public void reserve(int numElements) {
+		if( data.length >= numElements*dof )
+			return;
+		double[] tmp = new double[numElements*dof];
+		System.arraycopy(data,0,tmp,0,this.numElements*dof);
+		data = tmp;
+	}
+
+	@Override
+	public void append(TupleDesc_F64 element) {
+		if( element.value.length != dof )
+			throw new IllegalArgumentException("Tuple has the wrong degree-of-freedom. "+element.value.length+" != "+dof);
+		if( data.length < (numElements+1)*dof )
+			reserve(Math.max(16,numElements*2));
+		System.arraycopy(element.value,0,data,numElements*dof,dof);
+		numElements++;
+	}
+
+	@Override
+	public TupleDesc_F64 getTemp(int index) {
+		getCopy(index,temp);
+		return temp;
+	}
+
+	@Override
+	public void getCopy(int index, TupleDesc_F64 dst) {
+		System.arraycopy(data,index*dof,dst.value,0,dof);
+	}
+
+	@Override
+	public int size() {
+		return numElements;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,6 +19,8 @@
 package boofcv.abst.feature.associate;
 
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedyPacked;
+import boofcv.struct.feature.PackedTupleArray_F64;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.junit.jupiter.api.Test;
 
@@ -51,6 +53,21 @@ public class TestWrapAssociateGreedy {
 		}.allTests();
 	}
 
+	@Test
+	public void packed() {
+		for( boolean backwards : new boolean[]{false,true} ) {
+			new StandardTests() {
+				@Override
+				public AssociateDescription<TupleDesc_F64> createAlg() {
+					ScoreAssociateEuclideanSq_F64 score = new ScoreAssociateEuclideanSq_F64();
+					AssociateGreedyPacked<TupleDesc_F64,PackedTupleArray_F64> greedy =
+							new AssociateGreedyPacked<>(score, () -> new PackedTupleArray_F64(1), backwards);
+					return new WrapAssociateGreedy<>(greedy);
+				}
+			}.allTests();
+		}
+	}
+
 	private static abstract class StandardTests extends StandardAssociateDescriptionChecks<TupleDesc_F64>
 	{
 		public StandardTests() {
@@ -20,6 +20,8 @@ package boofcv.abst.feature.disparity;
 
 import boofcv.alg.feature.disparity.block.score.DisparitySparseScoreBM_SAD_F32;
 import boofcv.alg.feature.disparity.block.select.SelectSparseErrorBasicWta_F32;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.factory.feature.disparity.ConfigDisparityBM;
 import boofcv.factory.feature.disparity.DisparityError;
@@ -28,8 +30,13 @@ import boofcv.struct.border.BorderType;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -45,6 +52,11 @@ public class TestWrapDisparityBlockSparseSad {
 	int h = 40;
 	int r = 2;
 
+	@AfterEach
+	void restoreConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = true;
+	}
+
 	/**
 	 * Compare to the equivalent dense algorithm
 	 */
@@ -92,4 +104,85 @@ public class TestWrapDisparityBlockSparseSad {
 		}
 	}
 
+	/**
+	 * Processing a batch of pixels should produce the same results as processing them one at a time
+	 */
+	@Test
+	public void process_batch() {
+		GrayU8 left = new GrayU8(w,h);
+		GrayU8 right = new GrayU8(w,h);
+		ImageMiscOps.fillUniform(left,rand,0,100);
+		ImageMiscOps.fillUniform(right,rand,0,100);
+
+		List<Point2D_I32> pixels = new ArrayList<>();
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w; x++ ) {
+				pixels.add(new Point2D_I32(x,y));
+			}
+		}
+
+		// Subpixel and texture validation to make sure all the select state is copied
+		StereoDisparitySparse<GrayU8> alg =
+				FactoryStereoDisparity.regionSparseWta(2,10,r,r,20,0.1,true,GrayU8.class);
+		alg.setImages(left,right);
+
+		for( boolean concurrent : new boolean[]{false,true} ) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			GrowQueue_F64 found = new GrowQueue_F64();
+			alg.process(pixels,found);
+			assertEquals(pixels.size(),found.size);
+
+			int totalValid = 0;
+			for (int i = 0; i < pixels.size(); i++) {
+				Point2D_I32 p = pixels.get(i);
+				if( alg.process(p.x,p.y) ) {
+					assertEquals(alg.getDisparity(),found.get(i),0.0);
+					totalValid++;
+				} else {
+					assertTrue(Double.isNaN(found.get(i)));
+				}
+			}
+			assertTrue(totalValid > 0);
+		}
+	}
+
+	/**
+	 * Changing the configuration after a batch has been processed must be seen by the copies used in each thread
+	 */
+	@Test
+	public void process_batch_reconfigure() {
+		GrayU8 left = new GrayU8(w,h);
+		GrayU8 right = new GrayU8(w,h);
+		ImageMiscOps.fillUniform(left,rand,0,100);
+		ImageMiscOps.fillUniform(right,rand,0,100);
+
+		List<Point2D_I32> pixels = new ArrayList<>();
+		for( int y = 0; y < h; y++ ) {
+			for( int x = 0; x < w; x++ ) {
+				pixels.add(new Point2D_I32(x,y));
+			}
+		}
+
+		WrapDisparityBlockSparseSad<?,GrayU8> alg = (WrapDisparityBlockSparseSad)
+				FactoryStereoDisparity.regionSparseWta(2,10,r,r,20,0.1,true,GrayU8.class);
+		alg.setImages(left,right);
+
+		BoofConcurrency.USE_CONCURRENT = true;
+		GrowQueue_F64 found = new GrowQueue_F64();
+		alg.process(pixels,found);
+
+		alg.getComputeScore().configure(0,5);
+		alg.getComputeScore().setBorder(FactoryImageBorder.generic(BorderType.ZERO, ImageType.SB_U8));
+		alg.setImages(left,right);
+		alg.process(pixels,found);
+
+		for (int i = 0; i < pixels.size(); i++) {
+			Point2D_I32 p = pixels.get(i);
+			if( alg.process(p.x,p.y) ) {
+				assertEquals(alg.getDisparity(),found.get(i),0.0);
+			} else {
+				assertTrue(Double.isNaN(found.get(i)));
+			}
+		}
+	}
 }
@@ -20,16 +20,22 @@ package boofcv.abst.tracker;
 
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageGray;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 
 /**
@@ -428,6 +434,82 @@ public abstract class StandardPointTracker<T extends ImageGray<T>> {
 		checkIdentical(input, ret);
 	}
 
+	@Test
+	void forEachActiveTrack() {
+		tracker = createTracker();
+		processImage((T)image);
+		tracker.spawnTracks();
+
+		List<PointTrack> expected = tracker.getActiveTracks(null);
+		List<PointTrack> found = new ArrayList<>();
+		tracker.forEachActiveTrack(found::add);
+
+		//sanity check
+		assertTrue(found.size() > 0 );
+
+		checkIdentical(expected, found);
+	}
+
+	/**
+	 * Once the tracker has warmed up, processing a frame and spawning tracks should not create garbage. Memory
+	 * allocated by every thread is counted, not just this one, so work done inside a thread pool is included.
+	 */
+	@Test
+	void steadyStateAllocation() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean)bean;
+		assumeTrue(sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled());
+
+		// threads will allocate memory when processing in parallel
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = false;
+		try {
+			tracker = createTracker();
+			GrayF32 imageB = image.createSameShape();
+			GImageMiscOps.fillUniform(imageB, rand, 0, 100);
+			List<PointTrack> active = new ArrayList<>();
+
+			int warmup = 20, trials = 20;
+			Map<Long,Long> before = new HashMap<>();
+			for (int i = 0; i < warmup+trials; i++) {
+				if( i == warmup )
+					allocatedBytes(sunBean, before);
+				processImage((T)(i%2==0 ? image : imageB));
+				active.clear();
+				tracker.getActiveTracks(active);
+				tracker.spawnTracks();
+			}
+			Map<Long,Long> after = new HashMap<>();
+			allocatedBytes(sunBean, after);
+
+			// Threads which were created after the start are included with all of their allocations
+			long total = 0;
+			for( Map.Entry<Long,Long> e : after.entrySet() ) {
+				total += e.getValue() - before.getOrDefault(e.getKey(), 0L);
+			}
+			long bytesPerFrame = total/trials;
+
+			// some small allocations are tolerated, e.g. boxing or resizing internal storage
+			assertTrue(bytesPerFrame < 2000, "bytes per frame "+bytesPerFrame);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+		}
+	}
+
+	/**
+	 * Looks up how many bytes each live thread has allocated
+	 */
+	private static void allocatedBytes( com.sun.management.ThreadMXBean bean , Map<Long,Long> bytes ) {
+		long[] ids = bean.getAllThreadIds();
+		long[] allocated = bean.getThreadAllocatedBytes(ids);
+		for (int i = 0; i < ids.length; i++) {
+			// -1 is returned if the thread is no longer alive
+			if( allocated[i] >= 0 )
+				bytes.put(ids[i], allocated[i]);
+		}
+	}
+
 	@Test
 	void getInactiveTracks() {
 		tracker = createTracker();
@@ -20,12 +20,18 @@ package boofcv.abst.tracker;
 
 import boofcv.abst.distort.FDistort;
 import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.tracker.klt.*;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.tracker.FactoryPointTracker;
 import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -43,8 +49,21 @@ class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 	@Override
 	public PointTracker<GrayF32> createTracker() {
 		config = new ConfigPKlt();
-		return FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 3, 1000, 0, true),
-				GrayF32.class, GrayF32.class);
+		return createTracker(config, false);
+	}
+
+	/**
+	 * Creates a tracker using the factory with concurrency turned on or off
+	 */
+	static PointTracker<GrayF32> createTracker( ConfigPKlt config , boolean concurrent ) {
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		try {
+			return FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 3, 1000, 0, true),
+					GrayF32.class, GrayF32.class);
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
 	}
 
 	/**
@@ -167,8 +186,7 @@ class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		// Strict tolerance on check
 		config.toleranceFB = 1e-3;
 
-		var alg = FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 3, 1000, 0, true),
-				GrayF32.class, GrayF32.class);
+		var alg = createTracker(config, false);
 
 		alg.process(image);
 		alg.spawnTracks();
@@ -196,8 +214,7 @@ class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		config.templateRadius=3;
 		config.toleranceFB = 0.1;
 
-		var alg = FactoryPointTracker.klt(config, new ConfigGeneralDetector(200, 3, 1000, 0, true),
-				GrayF32.class, GrayF32.class);
+		var alg = createTracker(config, false);
 
 		alg.process(image);
 		alg.spawnTracks();
@@ -220,9 +237,65 @@ class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		assertTrue(alg.getActiveTracks(null).size() > originalTotal*0.8 );
 	}
 
+	/**
+	 * Make sure the gradient is computed correctly
+	 */
+	@Test
+	void process_gradient() {
+		PointTrackerKltPyramid<GrayF32,GrayF32> alg =
+				(PointTrackerKltPyramid<GrayF32,GrayF32>)createTracker();
+
+		alg.process(image);
+		alg.spawnTracks();
+		assertTrue(alg.active.size() > 0);
+		alg.process(image);
+
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+		for (int i = 0; i < alg.currPyr.basePyramid.getNumLayers(); i++) {
+			GrayF32 layer = alg.currPyr.basePyramid.getLayer(i);
+			GrayF32 derivX = layer.createSameShape();
+			GrayF32 derivY = layer.createSameShape();
+			gradient.process(layer, derivX, derivY);
+
+			BoofTesting.assertEquals(derivX, alg.currPyr.derivX[i], 1e-4);
+			BoofTesting.assertEquals(derivY, alg.currPyr.derivY[i], 1e-4);
+		}
+	}
+
+	/**
+	 * Tracks which are too close to an older track should be dropped and recycled
+	 */
 	@Test
 	void pruneClose() {
-		fail("Implement");
+		ConfigPKlt config = new ConfigPKlt();
+		config.pruneClose = true;
+		PointTrackerKltPyramid<GrayF32,GrayF32> alg =
+				(PointTrackerKltPyramid<GrayF32,GrayF32>)createTracker(config, false);
+
+		alg.process(image);
+		alg.spawnTracks();
+		int numSpawned = alg.active.size();
+		assertTrue(numSpawned > 0);
+
+		// add a track right next to an existing track. It's newer so it should be the one which is pruned
+		PointTrack older = alg.active.get(0).getCookie();
+		PointTrack newer = alg.addTrack(older.x+1, older.y);
+		assertNotNull(newer);
+		assertEquals(numSpawned+1, alg.active.size());
+
+		alg.process(image);
+
+		List<PointTrack> dropped = alg.getDroppedTracks(null);
+		assertEquals(1, dropped.size());
+		assertSame(newer, dropped.get(0));
+		assertEquals(numSpawned, alg.active.size());
+		assertTrue(alg.active.contains(older.<PyramidKltFeature>getDescription()));
+
+		// the dropped track should be recycled
+		assertEquals(1, alg.unused.size());
+		assertSame(newer.getDescription(), alg.unused.get(0));
+		assertSame(newer, alg.addTrack(older.x+1, older.y));
+		assertEquals(0, alg.unused.size());
 	}
 
 	/**
@@ -243,5 +316,10 @@ class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		public KltTrackFault track(PyramidKltFeature feature) {
 			return KltTrackFault.SUCCESS;
 		}
+
+		@Override
+		public PyramidKltTracker copy() {
+			return new DummyTracker(null);
+		}
 	}
 }
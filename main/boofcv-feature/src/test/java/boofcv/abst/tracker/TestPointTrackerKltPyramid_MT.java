@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.tracker;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPointTrackerKltPyramid_MT {
+	Random rand = new Random(234);
+	int width = 100;
+	int height = 80;
+	GrayF32 image = new GrayF32(width,height);
+
+	public TestPointTrackerKltPyramid_MT() {
+		GImageMiscOps.fillUniform(image, rand, 0, 100);
+	}
+
+	/**
+	 * Tracks should be updated and dropped in the same order as the single threaded version
+	 */
+	@Test
+	void compareToSingle() {
+		ConfigPKlt config = new ConfigPKlt();
+		config.templateRadius=3;
+		config.toleranceFB = 0.5;
+
+		PointTracker<GrayF32> algST = TestPointTrackerKltPyramid.createTracker(config, false);
+		PointTrackerKltPyramid_MT<GrayF32,GrayF32> algMT = (PointTrackerKltPyramid_MT<GrayF32,GrayF32>)
+				TestPointTrackerKltPyramid.createTracker(config, true);
+		assertTrue(algST.getClass() == PointTrackerKltPyramid.class);
+		// force it to split the tracks up into many blocks
+		algMT.minTracksPerThread = 5;
+
+		GrayF32 shifted = image.createSameShape();
+		int totalDropped = 0;
+		for (int frame = 0; frame < 4; frame++) {
+			// shift the image and corrupt part of it so that some tracks are dropped
+			new FDistort(image,shifted).affine(1,0,0,1,frame*1.5,frame*0.5).borderExt().apply();
+			GImageMiscOps.fillUniform(shifted.subimage(0,0,width/4,height),rand,0,100);
+
+			algST.process(shifted);
+			algMT.process(shifted);
+
+			List<PointTrack> activeST = algST.getActiveTracks(null);
+			List<PointTrack> activeMT = algMT.getActiveTracks(null);
+			assertEquals(activeST.size(), activeMT.size());
+			for (int i = 0; i < activeST.size(); i++) {
+				assertEquals(activeST.get(i).featureId, activeMT.get(i).featureId);
+				assertEquals(0.0, activeST.get(i).distance(activeMT.get(i)));
+			}
+
+			List<PointTrack> droppedST = algST.getDroppedTracks(null);
+			List<PointTrack> droppedMT = algMT.getDroppedTracks(null);
+			assertEquals(droppedST.size(), droppedMT.size());
+			for (int i = 0; i < droppedST.size(); i++) {
+				assertEquals(droppedST.get(i).featureId, droppedMT.get(i).featureId);
+			}
+			totalDropped += droppedST.size();
+
+			algST.spawnTracks();
+			algMT.spawnTracks();
+			assertEquals(algST.getNewTracks(null).size(), algMT.getNewTracks(null).size());
+		}
+		assertTrue(totalDropped > 0);
+	}
+
+	/**
+	 * The gradient is computed while tracks are being updated. Make sure it's still computed correctly
+	 */
+	@Test
+	void process_gradient() {
+		PointTrackerKltPyramid_MT<GrayF32,GrayF32> alg = (PointTrackerKltPyramid_MT<GrayF32,GrayF32>)
+				TestPointTrackerKltPyramid.createTracker(new ConfigPKlt(), true);
+
+		alg.process(image);
+		alg.spawnTracks();
+		assertTrue(alg.active.size() > 0);
+		alg.process(image);
+
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+		for (int i = 0; i < alg.currPyr.basePyramid.getNumLayers(); i++) {
+			GrayF32 layer = alg.currPyr.basePyramid.getLayer(i);
+			GrayF32 derivX = layer.createSameShape();
+			GrayF32 derivY = layer.createSameShape();
+			gradient.process(layer, derivX, derivY);
+
+			BoofTesting.assertEquals(derivX, alg.currPyr.derivX[i], 1e-4);
+			BoofTesting.assertEquals(derivY, alg.currPyr.derivY[i], 1e-4);
+		}
+	}
+}
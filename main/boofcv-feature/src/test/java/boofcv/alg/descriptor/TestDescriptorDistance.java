@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -67,6 +67,24 @@ public class TestDescriptorDistance {
 		assertEquals(195, DescriptorDistance.euclideanSq(a, b), 1e-4);
 	}
 
+	@Test
+	public void euclideanSq_F64_array() {
+		double[] a = new double[]{0,0,1,2,3,4,5};
+		double[] b = new double[]{2,-1,7,-8,10};
+
+		assertEquals(195, DescriptorDistance.euclideanSq(a, 2, b, 0, 5), 1e-4);
+		assertEquals(0, DescriptorDistance.euclideanSq(a, 2, a, 2, 5), 1e-4);
+	}
+
+	@Test
+	public void euclideanSq_F32_array() {
+		float[] a = new float[]{0,0,1,2,3,4,5};
+		float[] b = new float[]{2,-1,7,-8,10};
+
+		assertEquals(195, DescriptorDistance.euclideanSq(a, 2, b, 0, 5), 1e-4);
+		assertEquals(0, DescriptorDistance.euclideanSq(a, 2, a, 2, 5), 1e-4);
+	}
+
 	@Test
 	public void correlation() {
 		TupleDesc_F64 a = new TupleDesc_F64(5);
@@ -177,6 +195,23 @@ public class TestDescriptorDistance {
 		}
 	}
 
+	@Test
+	public void hamming_array() {
+		TupleDesc_B a = new TupleDesc_B(512);
+		TupleDesc_B b = new TupleDesc_B(512);
+		int N = a.data.length;
+
+		for( int numTries = 0; numTries < 20; numTries++ ) {
+			int[] array = new int[N*2+3];
+			for( int i = 0; i < N; i++ ) {
+				array[3+i] = a.data[i] = rand.nextInt();
+				array[3+N+i] = b.data[i] = rand.nextInt();
+			}
+
+			assertEquals(hamming(a,b),DescriptorDistance.hamming(array, 3, array, 3+N, N));
+		}
+	}
+
 	@Test
 	public void hamming_int() {
 		assertEquals(0,DescriptorDistance.hamming(0));
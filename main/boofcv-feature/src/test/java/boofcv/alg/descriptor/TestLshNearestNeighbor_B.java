@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.descriptor;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.ConfigAssociateNearestNeighbor;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLshNearestNeighbor_B {
+	Random rand = new Random(234);
+	int numBits = 256;
+
+	FastQueue<TupleDesc_B> points = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(numBits));
+
+	/**
+	 * Queries are noisy copies of the points. The original point should almost always be found
+	 */
+	@Test
+	void findNearest_noisyCopies() {
+		createPoints(1000);
+
+		LshNearestNeighbor_B alg = new LshNearestNeighbor_B(10,16,true,0xBEEF);
+		alg.setPoints(points.toList(),true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+		NnData<TupleDesc_B> result = new NnData<>();
+
+		int correct = 0;
+		for (int i = 0; i < points.size; i++) {
+			TupleDesc_B query = noisyCopy(points.get(i),10);
+			if( !search.findNearest(query,-1,result) )
+				continue;
+			assertEquals(DescriptorDistance.hamming(query,points.get(result.index)),result.distance);
+			assertSame(points.get(result.index),result.point);
+			if( result.index == i )
+				correct++;
+		}
+		assertTrue(correct >= points.size*0.95, "correct = "+correct);
+	}
+
+	/**
+	 * An exact copy shares every key and must always be found
+	 */
+	@Test
+	void findNearest_exact() {
+		createPoints(200);
+
+		LshNearestNeighbor_B alg = new LshNearestNeighbor_B(1,20,false,0xBEEF);
+		alg.setPoints(points.toList(),true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+		NnData<TupleDesc_B> result = new NnData<>();
+
+		for (int i = 0; i < points.size; i++) {
+			assertTrue(search.findNearest(points.get(i).copy(),-1,result));
+			assertEquals(i,result.index);
+			assertEquals(0.0,result.distance);
+		}
+	}
+
+	@Test
+	void findNearest_maxDistance() {
+		createPoints(100);
+
+		LshNearestNeighbor_B alg = new LshNearestNeighbor_B(10,8,true,0xBEEF);
+		alg.setPoints(points.toList(),true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+		NnData<TupleDesc_B> result = new NnData<>();
+
+		TupleDesc_B query = noisyCopy(points.get(5),6);
+		assertTrue(search.findNearest(query,6,result));
+		assertEquals(5,result.index);
+		assertFalse(search.findNearest(query,5,result));
+	}
+
+	/**
+	 * The N best should be sorted and have the same distances as found by brute force
+	 */
+	@Test
+	void findNearest_N() {
+		createPoints(300);
+
+		// with one bit per key and multi-probe every point is a candidate, making it an exhaustive search
+		LshNearestNeighbor_B alg = new LshNearestNeighbor_B(1,1,true,0xBEEF);
+		alg.setPoints(points.toList(),true);
+		NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+		FastQueue<NnData<TupleDesc_B>> results = new FastQueue(NnData.class,true);
+
+		for (int trial = 0; trial < 20; trial++) {
+			TupleDesc_B query = randomDesc();
+			search.findNearest(query,-1,4,results);
+			assertEquals(4,results.size);
+
+			// brute force the 4 smallest distances
+			int[] distances = new int[points.size];
+			for (int i = 0; i < points.size; i++) {
+				distances[i] = DescriptorDistance.hamming(query,points.get(i));
+			}
+			Arrays.sort(distances);
+
+			for (int i = 0; i < 4; i++) {
+				NnData<TupleDesc_B> r = results.get(i);
+				assertEquals(distances[i],r.distance);
+				assertEquals(DescriptorDistance.hamming(query,points.get(r.index)),r.distance);
+			}
+		}
+	}
+
+	/**
+	 * Use LSH through the factory to associate two sets of features. The concurrent version should produce
+	 * the same matches
+	 */
+	@Test
+	void associate() {
+		createPoints(500);
+		FastQueue<TupleDesc_B> dst = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(numBits));
+		for (int i = 0; i < points.size; i++) {
+			dst.grow().setTo(noisyCopy(points.get(i),8));
+		}
+
+		ConfigAssociateNearestNeighbor config = new ConfigAssociateNearestNeighbor();
+		config.scoreRatioThreshold = 1.0;
+
+		FastQueue<AssociatedIndex> expected = null;
+		for( boolean concurrent : new boolean[]{false,true}) {
+			BoofConcurrency.USE_CONCURRENT = concurrent;
+			AssociateDescription<TupleDesc_B> assoc = FactoryAssociation.lshHamming(config,10,16,true,234);
+			assoc.setSource(points);
+			assoc.setDestination(dst);
+			assoc.associate();
+
+			FastQueue<AssociatedIndex> matches = assoc.getMatches();
+			int correct = 0;
+			for (int i = 0; i < matches.size; i++) {
+				if( matches.get(i).src == matches.get(i).dst )
+					correct++;
+			}
+			assertTrue(correct >= points.size*0.95, "correct = "+correct);
+
+			if( expected == null ) {
+				expected = new FastQueue<>(AssociatedIndex.class,true);
+				for (int i = 0; i < matches.size; i++) {
+					expected.grow().set(matches.get(i));
+				}
+			} else {
+				// order of the matches isn't guaranteed when concurrent
+				assertEquals(expected.size,matches.size);
+				int[] srcForDst = new int[dst.size];
+				Arrays.fill(srcForDst,-1);
+				for (int i = 0; i < expected.size; i++) {
+					srcForDst[expected.get(i).dst] = expected.get(i).src;
+				}
+				for (int i = 0; i < matches.size; i++) {
+					assertEquals(srcForDst[matches.get(i).dst],matches.get(i).src);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The set of points can be changed, including the number of bits in the descriptor
+	 */
+	@Test
+	void setPoints_changeSize() {
+		LshNearestNeighbor_B alg = new LshNearestNeighbor_B(5,10,true,0xBEEF);
+		NnData<TupleDesc_B> result = new NnData<>();
+
+		for( int bits : new int[]{256,64,256}) {
+			numBits = bits;
+			points = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(numBits));
+			createPoints(50+bits);
+			alg.setPoints(points.toList(),true);
+
+			NearestNeighbor.Search<TupleDesc_B> search = alg.createSearch();
+			for (int i = 0; i < points.size; i++) {
+				assertTrue(search.findNearest(points.get(i),-1,result));
+				assertEquals(0.0,result.distance);
+			}
+		}
+	}
+
+	private void createPoints( int N ) {
+		points.reset();
+		for (int i = 0; i < N; i++) {
+			points.grow().setTo(randomDesc());
+		}
+	}
+
+	private TupleDesc_B randomDesc() {
+		TupleDesc_B desc = new TupleDesc_B(numBits);
+		for (int i = 0; i < desc.data.length; i++) {
+			desc.data[i] = rand.nextInt();
+		}
+		return desc;
+	}
+
+	private TupleDesc_B noisyCopy( TupleDesc_B original , int numFlipped ) {
+		TupleDesc_B copy = original.copy();
+		boolean[] flipped = new boolean[numBits];
+		for (int i = 0; i < numFlipped; ) {
+			int bit = rand.nextInt(numBits);
+			if( flipped[bit] )
+				continue;
+			flipped[bit] = true;
+			copy.data[bit/32] ^= 1 << (bit%32);
+			i++;
+		}
+		return copy;
+	}
+}
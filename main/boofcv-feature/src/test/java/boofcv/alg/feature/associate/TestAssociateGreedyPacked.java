@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.PackedTupleArray_F64;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedyPacked {
+	Random rand = new Random(234);
+
+	/**
+	 * Should produce identical results to {@link AssociateGreedy}
+	 */
+	@Test
+	void compare_F64() {
+		FastQueue<TupleDesc_F64> a = new FastQueue<>(TupleDesc_F64.class, () -> new TupleDesc_F64(3));
+		FastQueue<TupleDesc_F64> b = new FastQueue<>(TupleDesc_F64.class, () -> new TupleDesc_F64(3));
+		PackedTupleArray_F64 packedA = new PackedTupleArray_F64(3);
+		PackedTupleArray_F64 packedB = new PackedTupleArray_F64(3);
+		for (int i = 0; i < 150; i++) {
+			a.grow().set(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+			b.grow().set(rand.nextDouble(), rand.nextDouble(), rand.nextDouble());
+			packedA.append(a.getTail());
+			packedB.append(b.getTail());
+		}
+
+		ScoreAssociateEuclideanSq_F64 score = new ScoreAssociateEuclideanSq_F64();
+		for( boolean backwards : new boolean[]{false,true}) {
+			AssociateGreedy<TupleDesc_F64> expected = new AssociateGreedy<>(score, backwards);
+			expected.setMaxFitError(0.05);
+			expected.associate(a, b);
+
+			AssociateGreedyPacked<TupleDesc_F64,PackedTupleArray_F64> alg =
+					new AssociateGreedyPacked<>(score, () -> new PackedTupleArray_F64(3), backwards);
+			alg.setMaxFitError(0.05);
+			alg.associate(packedA, packedB);
+			checkIdentical(expected, alg, a.size);
+
+			// descriptors in a FastQueue are packed first
+			alg.associate(a, b);
+			checkIdentical(expected, alg, a.size);
+		}
+	}
+
+	@Test
+	void compare_B() {
+		FastQueue<TupleDesc_B> a = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(64));
+		FastQueue<TupleDesc_B> b = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(64));
+		PackedTupleArray_B packedA = new PackedTupleArray_B(64);
+		PackedTupleArray_B packedB = new PackedTupleArray_B(64);
+		for (int i = 0; i < 150; i++) {
+			TupleDesc_B c = a.grow();
+			for (int j = 0; j < c.data.length; j++) {
+				c.data[j] = rand.nextInt();
+			}
+			// make half of the features similar to a feature in 'a'
+			TupleDesc_B d = b.grow();
+			d.setTo(c);
+			if( i%2 == 0 )
+				d.data[0] = rand.nextInt();
+			packedA.append(c);
+			packedB.append(d);
+		}
+
+		ScoreAssociateHamming_B score = new ScoreAssociateHamming_B();
+		AssociateGreedy<TupleDesc_B> expected = new AssociateGreedy<>(score, true);
+		expected.setMaxFitError(10);
+		expected.associate(a, b);
+
+		AssociateGreedyPacked<TupleDesc_B,PackedTupleArray_B> alg =
+				new AssociateGreedyPacked<>(score, () -> new PackedTupleArray_B(64), true);
+		alg.setMaxFitError(10);
+		alg.associate(packedA, packedB);
+		checkIdentical(expected, alg, a.size);
+	}
+
+	static void checkIdentical( AssociateGreedyBase<?> expected, AssociateGreedyBase<?> found, int N ) {
+		int numMatched = 0;
+		for (int i = 0; i < N; i++) {
+			assertEquals(expected.getPairs()[i], found.getPairs()[i]);
+			assertEquals(expected.getFitQuality()[i], found.getFitQuality()[i]);
+			if( found.getPairs()[i] >= 0 )
+				numMatched++;
+		}
+		// sanity check to make sure the test isn't trivial
+		assertEquals(true, numMatched > 0 && numMatched < N);
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.feature.associate.TestAssociateGreedyPacked.checkIdentical;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedyPacked_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compare() {
+		compare(false);
+		compare(true);
+	}
+
+	void compare( boolean backwards ) {
+		PackedTupleArray_B a = new PackedTupleArray_B(64);
+		PackedTupleArray_B b = new PackedTupleArray_B(64);
+		TupleDesc_B desc = new TupleDesc_B(64);
+		for (int i = 0; i < 200; i++) {
+			for (int j = 0; j < desc.data.length; j++) {
+				desc.data[j] = rand.nextInt();
+			}
+			a.append(desc);
+			// make half of the features similar to a feature in 'a'
+			if( i%2 == 0 )
+				desc.data[0] = rand.nextInt();
+			b.append(desc);
+		}
+
+		ScoreAssociateHamming_B score = new ScoreAssociateHamming_B();
+		AssociateGreedyPacked<TupleDesc_B,PackedTupleArray_B> sequentialAlg =
+				new AssociateGreedyPacked<>(score, () -> new PackedTupleArray_B(64), backwards);
+		sequentialAlg.setMaxFitError(10);
+		sequentialAlg.associate(a,b);
+
+		AssociateGreedyPacked_MT<TupleDesc_B,PackedTupleArray_B> parallelAlg =
+				new AssociateGreedyPacked_MT<>(score, () -> new PackedTupleArray_B(64), backwards);
+		parallelAlg.setMaxFitError(10);
+		parallelAlg.associate(a,b);
+
+		checkIdentical(sequentialAlg, parallelAlg, a.size());
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.*;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestAssociateGreedyTiled {
+	Random rand = new Random(234);
+
+	// sizes are not a multiple of the tile size
+	int numSrc = 117, numDst = 93;
+
+	boolean useConcurrent = BoofConcurrency.USE_CONCURRENT;
+
+	@AfterEach
+	void restoreConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = useConcurrent;
+	}
+
+	@Test
+	void compare_F64() {
+		FastQueue<TupleDesc_F64> src = new FastQueue<>(TupleDesc_F64.class, () -> new TupleDesc_F64(10));
+		FastQueue<TupleDesc_F64> dst = new FastQueue<>(TupleDesc_F64.class, () -> new TupleDesc_F64(10));
+		for (int i = 0; i < numSrc; i++) {
+			TupleDesc_F64 d = src.grow();
+			for (int j = 0; j < 10; j++) {
+				d.value[j] = rand.nextDouble();
+			}
+		}
+		for (int i = 0; i < numDst; i++) {
+			TupleDesc_F64 d = dst.grow();
+			d.setTo(src.get(rand.nextInt(numSrc)));
+			d.value[0] += rand.nextDouble()*0.1;
+		}
+
+		compare(new ScoreAssociateEuclideanSq_F64(), src, dst, 0.5);
+	}
+
+	@Test
+	void compare_F32() {
+		FastQueue<TupleDesc_F32> src = new FastQueue<>(TupleDesc_F32.class, () -> new TupleDesc_F32(10));
+		FastQueue<TupleDesc_F32> dst = new FastQueue<>(TupleDesc_F32.class, () -> new TupleDesc_F32(10));
+		for (int i = 0; i < numSrc; i++) {
+			TupleDesc_F32 d = src.grow();
+			for (int j = 0; j < 10; j++) {
+				d.value[j] = rand.nextFloat();
+			}
+		}
+		for (int i = 0; i < numDst; i++) {
+			TupleDesc_F32 d = dst.grow();
+			d.setTo(src.get(rand.nextInt(numSrc)));
+			d.value[0] += rand.nextFloat()*0.1f;
+		}
+
+		compare(new ScoreAssociateEuclideanSq_F32(), src, dst, 0.5);
+	}
+
+	/**
+	 * Uses an odd number of ints to make sure padding is handled. Hamming distances have a lot of ties, which
+	 * tests backwards validation
+	 */
+	@Test
+	void compare_B() {
+		FastQueue<TupleDesc_B> src = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(96));
+		FastQueue<TupleDesc_B> dst = new FastQueue<>(TupleDesc_B.class, () -> new TupleDesc_B(96));
+		for (int i = 0; i < numSrc; i++) {
+			TupleDesc_B d = src.grow();
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+		}
+		for (int i = 0; i < numDst; i++) {
+			TupleDesc_B d = dst.grow();
+			d.setTo(src.get(rand.nextInt(numSrc)));
+			d.data[2] ^= 1 << rand.nextInt(32);
+		}
+
+		compare(new ScoreAssociateHamming_B(), src, dst, 30);
+	}
+
+	<D> void compare( ScoreAssociation<D> score, FastQueue<D> src, FastQueue<D> dst, double maxError ) {
+		for (boolean backwards : new boolean[]{false, true}) {
+			AssociateGreedy<D> expected = new AssociateGreedy<>(score, backwards);
+			expected.setMaxFitError(maxError);
+			expected.associate(src, dst);
+
+			for (boolean concurrent : new boolean[]{false, true}) {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+				AssociateGreedyTiled<D> alg = new AssociateGreedyTiled<>(
+						score, AssociateGreedyTiled.createKernel(score), backwards);
+				alg.setMaxFitError(maxError);
+				// use small tiles so that there are multiple tiles
+				alg.tileSrc = 7;
+				alg.tileBytes = 400;
+				// call it twice to make sure it's reset correctly
+				alg.associate(dst, src);
+				alg.associate(src, dst);
+
+				int numMatched = 0;
+				for (int i = 0; i < src.size; i++) {
+					assertEquals(expected.getPairs()[i], alg.getPairs()[i]);
+					assertEquals(expected.getFitQuality()[i], alg.getFitQuality()[i]);
+					if (alg.getPairs()[i] >= 0)
+						numMatched++;
+				}
+				assertTrue(numMatched > 0 && numMatched < src.size);
+			}
+		}
+	}
+
+	@Test
+	void createKernel() {
+		assertTrue(AssociateGreedyTiled.createKernel(new ScoreAssociateEuclideanSq_F64()) instanceof AssociateGreedyTiled.EuclideanSq_F64);
+		assertTrue(AssociateGreedyTiled.createKernel(new ScoreAssociateEuclideanSq_F32()) instanceof AssociateGreedyTiled.EuclideanSq_F32);
+		assertTrue(AssociateGreedyTiled.createKernel(new ScoreAssociateHamming_B()) instanceof AssociateGreedyTiled.Hamming_B);
+		assertNull(AssociateGreedyTiled.createKernel(new ScoreAssociateSad_F64()));
+		// sub-classes could compute a different score
+		assertNull(AssociateGreedyTiled.createKernel(new ScoreAssociateEuclideanSq_F64(){}));
+	}
+}
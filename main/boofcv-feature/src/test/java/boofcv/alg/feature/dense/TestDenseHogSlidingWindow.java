@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseHogSlidingWindow {
+	ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+	Random rand = new Random(234);
+
+	GrayF32 input = new GrayF32(70,95);
+
+	TestDenseHogSlidingWindow() {
+		ImageMiscOps.fillUniform(input,rand,0,200);
+	}
+
+	/**
+	 * Each block should be the same as the descriptor computed by DescribeDenseHogFastAlg at the same location
+	 */
+	@Test
+	void compareBlocksToDense() {
+		DescribeDenseHogFastAlg<GrayF32> dense = new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType);
+		dense.setInput(input);
+		dense.process();
+
+		DenseHogSlidingWindow<GrayF32> alg = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType),6,8);
+		alg.process(input);
+
+		// every block location is included in the dense descriptor since stepBlock is 1
+		int blockCols = dense.getCellCols()-2;
+		int blockRows = dense.getCellRows()-1;
+		assertEquals(blockRows*blockCols,dense.getDescriptions().size);
+
+		for (int row = 0; row < blockRows; row++) {
+			for (int col = 0; col < blockCols; col++) {
+				TupleDesc_F64 expected = dense.getDescriptions().get(row*blockCols+col);
+				int index = alg.getBlockIndex(row,col);
+				for (int i = 0; i < alg.getBlockLength(); i++) {
+					assertEquals(expected.value[i],alg.getBlockData()[index+i],0.0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compare the blocks in a window against the expected location of each block
+	 */
+	@Test
+	void getWindowBlocks() {
+		int stepBlock = 2;
+		DenseHogSlidingWindow<GrayF32> alg = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,2,2,stepBlock,imageType),6,9);
+		alg.process(input);
+
+		// (6-2)/2+1 = 3 and (9-2)/2+1 = 4
+		assertEquals(12,alg.getNumWindowBlocks());
+		assertEquals(12*alg.getBlockLength(),alg.getWindowLength());
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		TupleDesc_F64 desc = new TupleDesc_F64(alg.getWindowLength());
+		for (int row = 0; row < alg.getWindowRows(); row += 3) {
+			for (int col = 0; col < alg.getWindowCols(); col += 2) {
+				alg.getWindowBlocks(row,col,found);
+				assertEquals(alg.getNumWindowBlocks(),found.size);
+				alg.getWindowDescriptor(row,col,desc);
+
+				for (int i = 0; i < 4; i++) {
+					for (int j = 0; j < 3; j++) {
+						int block = i*3+j;
+						int expected = alg.getBlockIndex(row+i*stepBlock,col+j*stepBlock);
+						assertEquals(expected,found.get(block));
+						for (int k = 0; k < alg.getBlockLength(); k++) {
+							assertEquals(alg.getBlockData()[expected+k],desc.value[block*alg.getBlockLength()+k],0.0);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Blocks from a previous image should not be returned
+	 */
+	@Test
+	void process_newImage() {
+		DenseHogSlidingWindow<GrayF32> alg = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType),6,8);
+		TupleDesc_F64 descA = new TupleDesc_F64(alg.getWindowLength());
+		TupleDesc_F64 descB = new TupleDesc_F64(alg.getWindowLength());
+		TupleDesc_F64 descC = new TupleDesc_F64(alg.getWindowLength());
+
+		alg.process(input);
+		alg.getWindowDescriptor(2,3,descA);
+
+		GrayF32 other = input.createSameShape();
+		ImageMiscOps.fillUniform(other,rand,0,200);
+		alg.process(other);
+		alg.getWindowDescriptor(2,3,descB);
+
+		alg.process(input);
+		alg.getWindowDescriptor(2,3,descC);
+
+		assertFalse(Arrays.equals(descA.value,descB.value));
+		assertArrayEquals(descA.value,descC.value,0.0);
+	}
+
+	/**
+	 * Computing all the blocks at once should produce the same results as lazily computing them
+	 */
+	@Test
+	void computeAllBlocks() {
+		DenseHogSlidingWindow<GrayF32> lazy = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType),6,8);
+		DenseHogSlidingWindow<GrayF32> all = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType),6,8);
+		lazy.process(input);
+		all.process(input);
+		all.computeAllBlocks();
+
+		TupleDesc_F64 descA = new TupleDesc_F64(lazy.getWindowLength());
+		TupleDesc_F64 descB = new TupleDesc_F64(lazy.getWindowLength());
+		for (int row = 0; row < lazy.getWindowRows(); row++) {
+			for (int col = 0; col < lazy.getWindowCols(); col++) {
+				lazy.getWindowDescriptor(row,col,descA);
+				all.getWindowDescriptor(row,col,descB);
+				assertArrayEquals(descA.value,descB.value,0.0);
+			}
+		}
+	}
+
+	@Test
+	void windowOutsideImage() {
+		DenseHogSlidingWindow<GrayF32> alg = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType),6,8);
+		alg.process(input);
+		GrowQueue_I32 found = new GrowQueue_I32();
+
+		alg.getWindowBlocks(alg.getWindowRows()-1,alg.getWindowCols()-1,found);
+		assertThrows(IllegalArgumentException.class,()->alg.getWindowBlocks(alg.getWindowRows(),0,found));
+		assertThrows(IllegalArgumentException.class,()->alg.getWindowBlocks(0,alg.getWindowCols(),found));
+		assertThrows(IllegalArgumentException.class,()->alg.getWindowBlocks(-1,0,found));
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDenseHogSlidingWindow_MT {
+	ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+
+	/**
+	 * Computing all the blocks concurrently should produce the same results as the single threaded version
+	 */
+	@Test
+	void computeAllBlocks() {
+		GrayF32 input = new GrayF32(70,95);
+		ImageMiscOps.fillUniform(input,new Random(234),0,200);
+
+		DenseHogSlidingWindow<GrayF32> single = new DenseHogSlidingWindow<>(
+				new DescribeDenseHogFastAlg<>(9,4,3,2,1,imageType),6,8);
+		DenseHogSlidingWindow_MT<GrayF32> alg = new DenseHogSlidingWindow_MT<>(
+				new DescribeDenseHogFastAlg_MT<>(9,4,3,2,1,imageType),6,8);
+		single.process(input);
+		single.computeAllBlocks();
+		alg.process(input);
+		alg.computeAllBlocks();
+
+		TupleDesc_F64 descA = new TupleDesc_F64(single.getWindowLength());
+		TupleDesc_F64 descB = new TupleDesc_F64(single.getWindowLength());
+		for (int row = 0; row < single.getWindowRows(); row++) {
+			for (int col = 0; col < single.getWindowCols(); col++) {
+				single.getWindowDescriptor(row,col,descA);
+				alg.getWindowDescriptor(row,col,descB);
+				assertArrayEquals(descA.value,descB.value,0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDescribeDenseHogFastAlg_MT {
+	ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 input = new GrayF32(67,83);
+		ImageMiscOps.fillUniform(input,new Random(234),0,200);
+
+		for( int stepBlock : new int[]{1,2} ) {
+			DescribeDenseHogFastAlg<GrayF32> algA = new DescribeDenseHogFastAlg<>(9,4,3,2,stepBlock,imageType);
+			algA.setInput(input);
+			algA.process();
+
+			DescribeDenseHogFastAlg_MT<GrayF32> algB = new DescribeDenseHogFastAlg_MT<>(9,4,3,2,stepBlock,imageType);
+			algB.setInput(input);
+			algB.process();
+
+			assertTrue(algA.getDescriptions().size > 10);
+			assertEquals(algA.getDescriptions().size, algB.getDescriptions().size);
+			assertEquals(algA.getLocations().size, algB.getLocations().size);
+			for (int i = 0; i < algA.getDescriptions().size; i++) {
+				assertEquals(algA.getLocations().get(i), algB.getLocations().get(i));
+				assertArrayEquals(algA.getDescriptions().get(i).value, algB.getDescriptions().get(i).value, 0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDescribeDenseSiftAlg_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 derivX = new GrayF32(100,102);
+		GrayF32 derivY = new GrayF32(100,102);
+
+		GImageMiscOps.fillUniform(derivX,rand,0,200);
+		GImageMiscOps.fillUniform(derivY,rand,0,200);
+
+		DescribeDenseSiftAlg<GrayF32> algA = new DescribeDenseSiftAlg<>(4,4,8,0.5,0.2,7,9,GrayF32.class);
+		DescribeDenseSiftAlg_MT<GrayF32> algB = new DescribeDenseSiftAlg_MT<>(4,4,8,0.5,0.2,7,9,GrayF32.class);
+
+		algA.setImageGradient(derivX,derivY);
+		algA.process();
+		algB.setImageGradient(derivX,derivY);
+		algB.process();
+
+		assertEquals(algA.getDescriptors().size,algB.getDescriptors().size);
+		for (int i = 0; i < algA.getDescriptors().size; i++) {
+			assertEquals(algA.getLocations().get(i).x,algB.getLocations().get(i).x);
+			assertEquals(algA.getLocations().get(i).y,algB.getLocations().get(i).y);
+			assertArrayEquals(algA.getDescriptors().get(i).value,algB.getDescriptors().get(i).value,0.0);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,15 +20,23 @@ package boofcv.alg.feature.describe;
 
 import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -61,6 +69,64 @@ public class TestDescribePointBrief {
 
 	}
 
+	/**
+	 * Points inside and along the border should be sent to the correct function in batch mode. Helper only
+	 * implements the functions which take a TupleDesc_B, which should still be called.
+	 */
+	@Test
+	public void batch_insideBorder() {
+		GrayU8 input = new GrayU8(30,40);
+		BlurFilter<GrayU8> filterBlur = FactoryBlurFilter.gaussian(ImageType.single(GrayU8.class), -1, 1);
+		Helper helper = new Helper();
+		DescribePointBrief<GrayU8> alg = new DescribePointBrief<>(helper,filterBlur);
+		alg.setImage(input);
+
+		List<Point2D_F64> points = new ArrayList<>();
+		points.add(new Point2D_F64(15,20));
+		points.add(new Point2D_F64(2,2));
+		points.add(new Point2D_F64(27.9,37.9));
+		points.add(new Point2D_F64(0,0));
+		points.add(new Point2D_F64(28,20));
+		points.add(new Point2D_F64(15,38));
+
+		alg.process(points,new PackedTupleArray_B(10));
+		assertEquals(3,helper.numInside);
+		assertEquals(3,helper.numOutside);
+	}
+
+	/**
+	 * Batch processing should produce the same descriptors as processing each point individually
+	 */
+	@Test
+	public void batch_compareToSingle() {
+		GrayU8 input = new GrayU8(120,100);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		// there are more samples than comparisons, which leaves unused bits in the descriptor
+		BinaryCompareDefinition_I32 def = FactoryBriefDefinition.gaussian(rand,8,40);
+		BlurFilter<GrayU8> filterBlur = FactoryBlurFilter.gaussian(ImageType.single(GrayU8.class), -1, 1);
+		DescribePointBrief<GrayU8> alg = FactoryDescribePointAlgs.brief(def,filterBlur);
+		alg.setImage(input);
+
+		List<Point2D_F64> points = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			points.add(new Point2D_F64(rand.nextDouble()*input.width,rand.nextDouble()*input.height));
+		}
+
+		PackedTupleArray_B found = new PackedTupleArray_B(def.getLength());
+		TupleDesc_B expected = alg.createFeature();
+		// garbage from a previous call should be overwritten
+		Arrays.fill(found.data,0xFFFFFFFF);
+		alg.process(points,found);
+		assertEquals(points.size(),found.size());
+
+		for (int i = 0; i < points.size(); i++) {
+			Point2D_F64 p = points.get(i);
+			alg.process(p.x,p.y,expected);
+			assertArrayEquals(expected.data,found.getTemp(i).data);
+		}
+	}
+
 	protected static class Helper extends DescribePointBinaryCompare<GrayU8> {
 
 		int numInside = 0;
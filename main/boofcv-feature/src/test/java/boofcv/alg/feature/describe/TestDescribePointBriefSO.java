@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -28,13 +28,19 @@ import boofcv.core.image.FactoryGImageGray;
 import boofcv.core.image.GImageGray;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.feature.PackedTupleArray_B;
 import boofcv.struct.feature.TupleDesc_B;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageType;
 import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.GrowQueue_F64;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -247,4 +253,38 @@ public class TestDescribePointBriefSO {
 		// sanity check.  the description should not be zero
 		assertTrue(desc.data[0] != 0 );
 	}
+
+	/**
+	 * Batch processing should produce the same descriptors as processing each point individually. Points
+	 * along the image border are included.
+	 */
+	@Test
+	public void batch_compareToSingle() {
+		GrayF32 input = createImage(width,height);
+
+		DescribePointBriefSO<GrayF32> alg = createAlg();
+		alg.setImage(input);
+
+		List<Point2D_F64> points = new ArrayList<>();
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		GrowQueue_F64 radii = new GrowQueue_F64();
+		for (int i = 0; i < 100; i++) {
+			points.add(new Point2D_F64(rand.nextDouble()*width,rand.nextDouble()*height));
+			orientations.add((rand.nextDouble()-0.5)*2.0*Math.PI);
+			radii.add(briefRadius*(0.5+rand.nextDouble()));
+		}
+
+		PackedTupleArray_B found = new PackedTupleArray_B(def.getLength());
+		TupleDesc_B expected = alg.createFeature();
+		// garbage from a previous call should be overwritten
+		Arrays.fill(found.data,0xFFFFFFFF);
+		alg.process(points,orientations,radii,found);
+		assertEquals(points.size(),found.size());
+
+		for (int i = 0; i < points.size(); i++) {
+			Point2D_F64 p = points.get(i);
+			alg.process((float)p.x,(float)p.y,(float)orientations.get(i),(float)radii.get(i),expected);
+			assertArrayEquals(expected.data,found.getTemp(i).data);
+		}
+	}
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribePointBriefSO_MT {
+
+	Random rand = new Random(234);
+	int width = 30;
+	int height = 40;
+	int briefRadius = 5;
+
+	/**
+	 * Batch processing should produce the same descriptors as the single threaded version. Points
+	 * along the image border are included.
+	 */
+	@Test
+	void compareToSingle() {
+		GrayF32 input = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,50);
+
+		BinaryCompareDefinition_I32 def = FactoryBriefDefinition.gaussian2(rand, briefRadius, 20);
+		BlurFilter<GrayF32> filterBlur = FactoryBlurFilter.gaussian(ImageType.single(GrayF32.class), -1, 1);
+		DescribePointBriefSO<GrayF32> alg = new DescribePointBriefSO<>(def,filterBlur,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED));
+		DescribePointBriefSO_MT<GrayF32> algMT = new DescribePointBriefSO_MT<>(def,filterBlur,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED));
+		algMT.minBlock = 5;
+		alg.setImage(input);
+		algMT.setImage(input);
+
+		List<Point2D_F64> points = new ArrayList<>();
+		GrowQueue_F64 orientations = new GrowQueue_F64();
+		GrowQueue_F64 radii = new GrowQueue_F64();
+		for (int i = 0; i < 100; i++) {
+			points.add(new Point2D_F64(rand.nextDouble()*width,rand.nextDouble()*height));
+			orientations.add((rand.nextDouble()-0.5)*2.0*Math.PI);
+			radii.add(briefRadius*(0.5+rand.nextDouble()));
+		}
+
+		PackedTupleArray_B expected = new PackedTupleArray_B(def.getLength());
+		PackedTupleArray_B found = new PackedTupleArray_B(def.getLength());
+		alg.process(points,orientations,radii,expected);
+		// garbage from a previous call should be overwritten
+		found.resize(points.size());
+		Arrays.fill(found.data,0xFFFFFFFF);
+		algMT.process(points,orientations,radii,found);
+
+		assertEquals(points.size(),found.size());
+		for (int i = 0; i < points.size(); i++) {
+			assertArrayEquals(expected.getTemp(i).data,found.getTemp(i).data);
+		}
+	}
+}
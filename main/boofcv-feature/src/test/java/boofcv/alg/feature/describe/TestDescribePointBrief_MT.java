@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.describe;
+
+import boofcv.abst.filter.blur.BlurFilter;
+import boofcv.alg.feature.describe.brief.BinaryCompareDefinition_I32;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
+import boofcv.alg.feature.describe.impl.ImplDescribeBinaryCompare_U8;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribePointBrief_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Batch processing should produce the same descriptors as the single threaded version
+	 */
+	@Test
+	void compareToSingle() {
+		GrayU8 input = new GrayU8(120,100);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		BinaryCompareDefinition_I32 def = FactoryBriefDefinition.gaussian(rand,8,40);
+		BlurFilter<GrayU8> filterBlur = FactoryBlurFilter.gaussian(ImageType.single(GrayU8.class), -1, 1);
+		DescribePointBrief<GrayU8> alg = new DescribePointBrief<>(new ImplDescribeBinaryCompare_U8(def),filterBlur);
+		DescribePointBrief_MT<GrayU8> algMT = new DescribePointBrief_MT<>(new ImplDescribeBinaryCompare_U8(def),filterBlur);
+		algMT.minBlock = 5;
+		alg.setImage(input);
+		algMT.setImage(input);
+
+		List<Point2D_F64> points = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			points.add(new Point2D_F64(rand.nextDouble()*input.width,rand.nextDouble()*input.height));
+		}
+
+		PackedTupleArray_B expected = new PackedTupleArray_B(def.getLength());
+		PackedTupleArray_B found = new PackedTupleArray_B(def.getLength());
+		alg.process(points,expected);
+		// garbage from a previous call should be overwritten
+		found.resize(points.size());
+		Arrays.fill(found.data,0xFFFFFFFF);
+		algMT.process(points,found);
+
+		assertEquals(points.size(),found.size());
+		for (int i = 0; i < points.size(); i++) {
+			assertArrayEquals(expected.getTemp(i).data,found.getTemp(i).data);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detdesc;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCompleteSift_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded version and in the same order
+	 */
+	@Test
+	void compare() {
+		BoofConcurrency.USE_CONCURRENT = false;
+		DetectDescribePoint<GrayF32, BrightFeature> siftA = FactoryDetectDescribe.sift(null);
+		BoofConcurrency.USE_CONCURRENT = true;
+		DetectDescribePoint<GrayF32, BrightFeature> siftB = FactoryDetectDescribe.sift(null);
+
+		GrayF32 image = new GrayF32(320,270);
+		GImageMiscOps.fillUniform(image, rand, 0, 200);
+
+		// The scale-space is also computed differently when concurrent
+		BoofConcurrency.USE_CONCURRENT = false;
+		siftA.detect(image);
+		BoofConcurrency.USE_CONCURRENT = true;
+		siftB.detect(image);
+
+		int N = siftA.getNumberOfFeatures();
+		assertEquals(N,siftB.getNumberOfFeatures());
+		assertTrue(N > 100);
+
+		for (int i = 0; i < N; i++) {
+			Point2D_F64 pa = siftA.getLocation(i);
+			Point2D_F64 pb = siftB.getLocation(i);
+			assertEquals(pa.x, pb.x, 0.0);
+			assertEquals(pa.y, pb.y, 0.0);
+			assertEquals(siftA.getRadius(i), siftB.getRadius(i), 0.0);
+			assertEquals(siftA.getOrientation(i), siftB.getOrientation(i), 0.0);
+
+			BrightFeature a = siftA.getDescription(i);
+			BrightFeature b = siftB.getDescription(i);
+			assertEquals(a.white, b.white);
+			assertArrayEquals(a.value, b.value, 0.0);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,56 @@
 
 package boofcv.alg.feature.detect.extract;
 
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
+ * Most of the tests are inside of the search tests
+ *
  * @author Peter Abeles
  */
 public class TestNonMaxBlock_MT {
-	// intentionally empty. Tested inside of search tests
+	/**
+	 * Found features should be in the same order as the single threaded version
+	 */
+	@Test
+	void sameOrderAsSingleThread() {
+		GrayF32 intensity = new GrayF32(200,230);
+		ImageMiscOps.fillUniform(intensity,new Random(234),-10,10);
+
+		NonMaxBlock.Search search = new NonMaxBlockSearchStrict.MinMax();
+		NonMaxBlock alg = new NonMaxBlock(search);
+		NonMaxBlock_MT algMT = new NonMaxBlock_MT(search.newInstance());
+		for( NonMaxBlock a : new NonMaxBlock[]{alg,algMT}) {
+			a.setSearchRadius(2);
+			a.setBorder(1);
+			a.setThresholdMin(-5);
+			a.setThresholdMax(5);
+		}
+
+		QueueCorner expectedMin = new QueueCorner(), expectedMax = new QueueCorner();
+		QueueCorner foundMin = new QueueCorner(), foundMax = new QueueCorner();
+		alg.process(intensity,expectedMin,expectedMax);
+		// process twice to make sure the work space is recycled correctly
+		for (int trial = 0; trial < 2; trial++) {
+			algMT.process(intensity,foundMin,foundMax);
+
+			assertTrue(expectedMax.size > 20);
+			assertEquals(expectedMin.size,foundMin.size);
+			assertEquals(expectedMax.size,foundMax.size);
+			for (int i = 0; i < expectedMin.size; i++) {
+				assertTrue(expectedMin.get(i).equals(foundMin.get(i)));
+			}
+			for (int i = 0; i < expectedMax.size; i++) {
+				assertTrue(expectedMax.get(i).equals(foundMax.get(i)));
+			}
+		}
+	}
 }
\ No newline at end of file
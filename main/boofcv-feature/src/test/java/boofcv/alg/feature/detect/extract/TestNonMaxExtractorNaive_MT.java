@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestNonMaxExtractorNaive_MT {
+
+	@Test
+	public void standardTests() {
+		standardTests(true);
+		standardTests(false);
+	}
+
+	private void standardTests( boolean strict ) {
+		new GenericNonMaxTests(strict,false,true) {
+
+			@Override
+			public void findPeaks(GrayF32 intensity, float threshold, int radius, int border,
+								  QueueCorner foundMinimum, QueueCorner foundMaximum) {
+				NonMaxExtractorNaive alg = new NonMaxExtractorNaive_MT(strict);
+				alg.setSearchRadius(radius);
+				alg.setThreshold(threshold);
+				alg.setBorder(border);
+				alg.process(intensity,foundMaximum);
+			}
+		}.allStandard();
+	}
+
+	/**
+	 * Found features should be in the same order as the single threaded version
+	 */
+	@Test
+	void sameOrderAsSingleThread() {
+		GrayF32 intensity = new GrayF32(200,230);
+		ImageMiscOps.fillUniform(intensity,new Random(234),-10,10);
+
+		for( boolean strict : new boolean[]{true,false}) {
+			NonMaxExtractorNaive alg = new NonMaxExtractorNaive(strict);
+			NonMaxExtractorNaive alg_MT = new NonMaxExtractorNaive_MT(strict);
+			for( NonMaxExtractorNaive a : new NonMaxExtractorNaive[]{alg,alg_MT}) {
+				a.setSearchRadius(2);
+				a.setBorder(1);
+				a.setThreshold(5);
+			}
+
+			QueueCorner expected = new QueueCorner();
+			alg.process(intensity,expected);
+			assertTrue(expected.size > 20);
+
+			// process twice to make sure the work space is recycled correctly
+			for (int trial = 0; trial < 2; trial++) {
+				QueueCorner found = new QueueCorner();
+				alg_MT.process(intensity,found);
+
+				assertEquals(expected.size,found.size);
+				for (int i = 0; i < expected.size; i++) {
+					assertTrue(expected.get(i).equals(found.get(i)));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.point.Point2D_I16;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSelectNBestFeatures_MT {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against a brute force sort of all the corners. Intensity values are integers so that there are
+	 * many ties, which must be broken by the order in the input list.
+	 */
+	@Test
+	void compareToBruteForce() {
+		GrayF32 intensity = new GrayF32(300,250);
+		ImageMiscOps.fillUniform(intensity,rand,-50,50);
+		for (int i = 0; i < intensity.data.length; i++) {
+			intensity.data[i] = (int)intensity.data[i];
+		}
+
+		QueueCorner corners = new QueueCorner();
+		for (int i = 0; i < 20000; i++) {
+			corners.add(rand.nextInt(intensity.width),rand.nextInt(intensity.height));
+		}
+
+		SelectNBestFeatures_MT alg = new SelectNBestFeatures_MT(10);
+		alg.minBlock = 500;
+
+		for( boolean positive : new boolean[]{true,false}) {
+			for( int N : new int[]{1,40,1500} ) {
+				alg.setN(N);
+				// process twice to make sure the work space is recycled correctly
+				for (int trial = 0; trial < 2; trial++) {
+					alg.process(intensity, corners, positive);
+					QueueCorner found = alg.getBestCorners();
+					List<Integer> expected = bruteForce(intensity, corners, positive);
+
+					assertEquals(N, found.size);
+					for (int i = 0; i < N; i++) {
+						assertTrue(corners.get(expected.get(i)).equals(found.get(i)));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Results should be the same as the single threaded version when there are no ties
+	 */
+	@Test
+	void compareToSingleThread() {
+		GrayF32 intensity = new GrayF32(300,250);
+		ImageMiscOps.fillUniform(intensity,rand,-50,50);
+
+		QueueCorner corners = new QueueCorner();
+		for (int y = 0; y < intensity.height; y += 2) {
+			for (int x = 0; x < intensity.width; x += 3) {
+				corners.add(x,y);
+			}
+		}
+
+		SelectNBestFeatures alg = new SelectNBestFeatures(200);
+		SelectNBestFeatures_MT alg_MT = new SelectNBestFeatures_MT(200);
+		alg_MT.minBlock = 500;
+
+		for( boolean positive : new boolean[]{true,false}) {
+			alg.process(intensity, corners, positive);
+			alg_MT.process(intensity, corners, positive);
+
+			QueueCorner expected = alg.getBestCorners();
+			QueueCorner found = alg_MT.getBestCorners();
+			assertEquals(expected.size, found.size);
+			for (int i = 0; i < expected.size; i++) {
+				Point2D_I16 e = expected.get(i);
+				boolean matched = false;
+				for (int j = 0; j < found.size; j++) {
+					if( e.equals(found.get(j))) {
+						matched = true;
+						break;
+					}
+				}
+				assertTrue(matched);
+			}
+		}
+	}
+
+	/**
+	 * If there are fewer corners than N then all of them are returned
+	 */
+	@Test
+	void tooFewCorners() {
+		GrayF32 intensity = new GrayF32(10,20);
+		QueueCorner corners = new QueueCorner();
+		corners.add(5,10);
+		corners.add(4,10);
+
+		SelectNBestFeatures_MT alg = new SelectNBestFeatures_MT(20);
+		alg.process(intensity,corners,true);
+
+		assertEquals(2,alg.getBestCorners().size);
+	}
+
+	private List<Integer> bruteForce( GrayF32 intensity, QueueCorner corners, boolean positive ) {
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < corners.size; i++) {
+			indexes.add(i);
+		}
+		Collections.sort(indexes,(a,b)->{
+			Point2D_I16 pa = corners.get(a), pb = corners.get(b);
+			float va = intensity.get(pa.x,pa.y), vb = intensity.get(pb.x,pb.y);
+			if( !positive ) {
+				va = -va; vb = -vb;
+			}
+			if( va != vb )
+				return Float.compare(vb,va);
+			return Integer.compare(a,b);
+		});
+		return indexes;
+	}
+}
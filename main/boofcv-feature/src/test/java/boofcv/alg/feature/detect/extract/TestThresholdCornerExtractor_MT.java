@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestThresholdCornerExtractor_MT {
+	/**
+	 * Found features should be in the same order as the single threaded version
+	 */
+	@Test
+	void sameOrderAsSingleThread() {
+		GrayF32 intensity = new GrayF32(200,230);
+		ImageMiscOps.fillUniform(intensity,new Random(234),-10,10);
+
+		ThresholdCornerExtractor alg = new ThresholdCornerExtractor(8);
+		ThresholdCornerExtractor alg_MT = new ThresholdCornerExtractor_MT(8);
+
+		QueueCorner expected = new QueueCorner();
+		alg.process(intensity,expected);
+		assertTrue(expected.size > 20);
+
+		QueueCorner found = new QueueCorner();
+		// process twice to make sure the work space is recycled correctly
+		for (int trial = 0; trial < 2; trial++) {
+			alg_MT.process(intensity,found);
+
+			assertEquals(expected.size,found.size);
+			for (int i = 0; i < expected.size; i++) {
+				assertTrue(expected.get(i).equals(found.get(i)));
+			}
+		}
+	}
+}
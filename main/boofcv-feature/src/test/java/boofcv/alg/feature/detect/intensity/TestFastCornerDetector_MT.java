@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner11_F32;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastCornerDetector_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compare_U8() {
+		GrayU8 image = new GrayU8(120,95);
+		GImageMiscOps.fillUniform(image,rand,0,255);
+		compare(new FastCornerDetector<>(new ImplFastCorner9_U8(20)),
+				new FastCornerDetector_MT<>(new ImplFastCorner9_U8(20)), image);
+	}
+
+	@Test
+	void compare_F32() {
+		GrayF32 image = new GrayF32(120,95);
+		GImageMiscOps.fillUniform(image,rand,0,255);
+		compare(new FastCornerDetector<>(new ImplFastCorner11_F32(20)),
+				new FastCornerDetector_MT<>(new ImplFastCorner11_F32(20)), image);
+	}
+
+	/**
+	 * Corners should be identical and in the same order when the maximum number of features is hit
+	 */
+	@Test
+	void maxFeatures() {
+		GrayU8 image = new GrayU8(120,95);
+		GImageMiscOps.fillUniform(image,rand,0,255);
+
+		FastCornerDetector<GrayU8> algA = new FastCornerDetector<>(new ImplFastCorner9_U8(20));
+		FastCornerDetector<GrayU8> algB = new FastCornerDetector_MT<>(new ImplFastCorner9_U8(20));
+		algA.setMaxFeaturesFraction(0.01);
+		algB.setMaxFeaturesFraction(0.01);
+
+		algA.process(image);
+		algB.process(image);
+		int total = algA.getCornersLow().size + algA.getCornersHigh().size;
+		assertTrue(total >= 0.01*image.width*image.height);
+		assertTrue(algA.getCornersLow().get(algA.getCornersLow().size-1).y < image.height/2);
+		checkIdentical(algA.getCornersLow(), algB.getCornersLow());
+		checkIdentical(algA.getCornersHigh(), algB.getCornersHigh());
+	}
+
+	/**
+	 * Images smaller than the circle should not cause a crash
+	 */
+	@Test
+	void tinyImage() {
+		FastCornerDetector<GrayU8> alg = new FastCornerDetector_MT<>(new ImplFastCorner9_U8(20));
+		alg.process(new GrayU8(5,5));
+		assertEquals(0, alg.getCornersLow().size + alg.getCornersHigh().size);
+		alg.process(new GrayU8(5,5),new GrayF32(5,5));
+		assertEquals(0, alg.getCornersLow().size + alg.getCornersHigh().size);
+	}
+
+	<T extends ImageGray<T>> void compare( FastCornerDetector<T> algA, FastCornerDetector<T> algB, T image ) {
+		// without intensity
+		algA.process(image);
+		algB.process(image);
+		assertTrue(algA.getCornersLow().size > 10 && algA.getCornersHigh().size > 10);
+		checkIdentical(algA.getCornersLow(), algB.getCornersLow());
+		checkIdentical(algA.getCornersHigh(), algB.getCornersHigh());
+
+		// with intensity. Process it twice to make sure the results are reset
+		GrayF32 intensityA = new GrayF32(image.width,image.height);
+		GrayF32 intensityB = new GrayF32(image.width,image.height);
+		algA.process(image,intensityA);
+		algB.process(image,intensityB);
+		algB.process(image,intensityB);
+		checkIdentical(algA.getCornersLow(), algB.getCornersLow());
+		checkIdentical(algA.getCornersHigh(), algB.getCornersHigh());
+		BoofTesting.assertEquals(intensityA, intensityB, 0.0);
+	}
+
+	static void checkIdentical( QueueCorner expected, QueueCorner found ) {
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			assertEquals(expected.get(i).x, found.get(i).x);
+			assertEquals(expected.get(i).y, found.get(i).y);
+		}
+	}
+}
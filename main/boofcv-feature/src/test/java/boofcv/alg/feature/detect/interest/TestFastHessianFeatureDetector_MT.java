@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.interest;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.GrayF32;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastHessianFeatureDetector_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Found features should be identical and in the same order as the single threaded version
+	 */
+	@Test
+	void compare() {
+		for( int maxPerScale : new int[]{-1,20} ) {
+			BoofConcurrency.USE_CONCURRENT = false;
+			ConfigExtract configExtract = new ConfigExtract(2, 1, 0, true);
+			FastHessianFeatureDetector<GrayF32> algA = new FastHessianFeatureDetector<>(
+					FactoryFeatureExtractor.nonmax(configExtract),maxPerScale,1,9,4,4,6);
+			BoofConcurrency.USE_CONCURRENT = true;
+			FastHessianFeatureDetector<GrayF32> algB = new FastHessianFeatureDetector_MT<>(
+					()->FactoryFeatureExtractor.nonmax(configExtract),maxPerScale,1,9,4,4,6);
+
+			// process images of different sizes to make sure the workspace is reused correctly
+			for( int trial = 0; trial < 2; trial++ ) {
+				GrayF32 image = new GrayF32(200+trial*40,180);
+				ImageMiscOps.fillUniform(image,rand,0,100);
+				GrayF32 integral = IntegralImageOps.transform(image,null);
+
+				BoofConcurrency.USE_CONCURRENT = false;
+				algA.detect(integral);
+				BoofConcurrency.USE_CONCURRENT = true;
+				algB.detect(integral);
+
+				List<ScalePoint> expected = algA.getFoundPoints();
+				List<ScalePoint> found = algB.getFoundPoints();
+				assertTrue(expected.size() > 20);
+				assertEquals(expected.size(), found.size());
+				for (int i = 0; i < expected.size(); i++) {
+					ScalePoint a = expected.get(i);
+					ScalePoint b = found.get(i);
+					assertEquals(a.x, b.x, 0.0);
+					assertEquals(a.y, b.y, 0.0);
+					assertEquals(a.scale, b.scale, 0.0);
+				}
+			}
+		}
+	}
+}
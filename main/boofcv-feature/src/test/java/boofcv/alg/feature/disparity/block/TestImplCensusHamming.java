@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.block;
+
+import boofcv.alg.descriptor.DescriptorDistance;
+import boofcv.alg.feature.disparity.sgm.SgmDisparityCost;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImplCensusHamming {
+	Random rand = new Random(234);
+	int N = 50;
+
+	/**
+	 * Compare against the single element hamming distance. All bits are randomized, including the sign bit
+	 */
+	@Test
+	void row() {
+		byte[] leftB = new byte[N], rightB = new byte[N];
+		int[] leftI = new int[N], rightI = new int[N];
+		long[] leftL = new long[N], rightL = new long[N];
+		rand.nextBytes(leftB);
+		rand.nextBytes(rightB);
+		for (int i = 0; i < N; i++) {
+			leftI[i] = rand.nextInt();
+			rightI[i] = rand.nextInt();
+			leftL[i] = rand.nextLong();
+			rightL[i] = rand.nextLong();
+		}
+
+		int[] found = new int[N];
+		int length = N-7;
+
+		ImplCensusHamming.row(leftB,rightB,2,5,found,1,length);
+		for (int i = 0; i < length; i++) {
+			assertEquals(DescriptorDistance.hamming((leftB[2+i]^rightB[5+i])&0xFF),found[1+i]);
+		}
+		ImplCensusHamming.row(leftI,rightI,2,5,found,1,length);
+		for (int i = 0; i < length; i++) {
+			assertEquals(DescriptorDistance.hamming(leftI[2+i]^rightI[5+i]),found[1+i]);
+		}
+		ImplCensusHamming.row(leftL,rightL,2,5,found,1,length);
+		for (int i = 0; i < length; i++) {
+			assertEquals(DescriptorDistance.hamming(leftL[2+i]^rightL[5+i]),found[1+i]);
+		}
+	}
+
+	/**
+	 * Compute the cost using the reversed row and compare against reading the original row backwards
+	 */
+	@Test
+	void disparities() {
+		int maxCost = SgmDisparityCost.MAX_COST;
+		int offset = 3, range = 20, x = 30;
+
+		byte[] rowB = new byte[N];
+		int[] rowI = new int[N];
+		long[] rowL = new long[N];
+		rand.nextBytes(rowB);
+		for (int i = 0; i < N; i++) {
+			rowI[i] = rand.nextInt();
+			rowL[i] = rand.nextLong();
+		}
+
+		byte[] revB = new byte[N-offset];
+		int[] revI = new int[N-offset];
+		long[] revL = new long[N-offset];
+		ImplCensusHamming.reverse(rowB,offset,revB,N-offset);
+		ImplCensusHamming.reverse(rowI,offset,revI,N-offset);
+		ImplCensusHamming.reverse(rowL,offset,revL,N-offset);
+
+		// index of x in the reversed array
+		int idxRev = N-1-x;
+		short[] found = new short[range+2];
+
+		int valB = 0xA5;
+		ImplCensusHamming.disparities(valB,revB,idxRev,maxCost,3,found,2,range);
+		for (int d = 0; d < range; d++) {
+			int expected = maxCost*DescriptorDistance.hamming((valB^rowB[x-d])&0xFF)/8;
+			assertEquals(expected,found[2+d]);
+		}
+
+		int valI = rand.nextInt();
+		ImplCensusHamming.disparities(valI,revI,idxRev,maxCost,5,found,2,range);
+		for (int d = 0; d < range; d++) {
+			int expected = maxCost*DescriptorDistance.hamming(valI^rowI[x-d])/32;
+			assertEquals(expected,found[2+d]);
+		}
+
+		long valL = rand.nextLong();
+		ImplCensusHamming.disparities(valL,revL,idxRev,maxCost,6,found,2,range);
+		for (int d = 0; d < range; d++) {
+			int expected = maxCost*DescriptorDistance.hamming(valL^rowL[x-d])/64;
+			assertEquals(expected,found[2+d]);
+		}
+	}
+}
@@ -209,7 +209,7 @@ class TestSgmCostAggregation {
 
 		BoofConcurrency.USE_CONCURRENT = true;
 		{
-			SgmCostAggregation alg = new SgmCostAggregation();
+			SgmCostAggregation alg = new SgmCostAggregation_MT();
 			alg.process(costYXD);
 			BoofTesting.assertEquals(expected,alg.getAggregated(),0.0);
 		}
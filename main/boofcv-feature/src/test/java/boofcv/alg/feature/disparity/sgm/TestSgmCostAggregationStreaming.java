@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmCostAggregationStreaming {
+	Random rand = new Random(234);
+	int width=40,height=30, rangeD =12;
+	boolean useConcurrent = BoofConcurrency.USE_CONCURRENT;
+
+	@BeforeEach
+	void setup() {
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	@AfterEach
+	void restoreConcurrency() {
+		BoofConcurrency.USE_CONCURRENT = useConcurrent;
+	}
+
+	/**
+	 * The full aggregation restricted to the same set of paths should produce identical results
+	 */
+	@Test
+	void compareToFullTensor() {
+		for( int disparityMin : new int[]{0,4}) {
+			Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+			GImageMiscOps.fillUniform(costYXD,rand,0,SgmDisparityCost.MAX_COST);
+
+			compareToFullTensor(costYXD,disparityMin,1,new int[][]{{1,0}});
+			compareToFullTensor(costYXD,disparityMin,2,new int[][]{{1,0},{-1,0}});
+			compareToFullTensor(costYXD,disparityMin,4,new int[][]{{1,0},{-1,0},{0,1}});
+			compareToFullTensor(costYXD,disparityMin,8,new int[][]{{1,0},{-1,0},{0,1},{1,1},{-1,1}});
+		}
+	}
+
+	void compareToFullTensor( Planar<GrayU16> costYXD , int disparityMin , int paths , int[][] directions ) {
+		SgmCostAggregation full = new SgmCostAggregation();
+		full.configure(disparityMin);
+		full.init(costYXD);
+		for( int[] dir : directions ) {
+			full.scoreDirection(dir[0],dir[1]);
+		}
+
+		SgmCostAggregationStreaming alg = new SgmCostAggregationStreaming();
+		alg.configure(disparityMin);
+		alg.setPathsConsidered(paths);
+		alg.initialize(width,height,rangeD);
+
+		for (int y = 0; y < height; y++) {
+			alg.process(y,costYXD.getBand(y));
+			BoofTesting.assertEquals(full.getAggregated().getBand(y),alg.getAggregatedXD(),0.0);
+		}
+	}
+
+	/**
+	 * Does it produce the same results when called multiple times with the same input?
+	 */
+	@Test
+	void process_MultipleCalls() {
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+		GImageMiscOps.fillUniform(costYXD,rand,0,100);
+
+		SgmCostAggregationStreaming alg = new SgmCostAggregationStreaming();
+		Planar<GrayU16> expected = costYXD.createSameShape();
+
+		for( int paths : new int[]{1,2,4,8,16}) {
+			alg.setPathsConsidered(paths);
+			alg.initialize(width,height,rangeD);
+			for (int y = 0; y < height; y++) {
+				alg.process(y, costYXD.getBand(y));
+				expected.getBand(y).setTo(alg.getAggregatedXD());
+			}
+			alg.initialize(width,height,rangeD);
+			for (int y = 0; y < height; y++) {
+				alg.process(y, costYXD.getBand(y));
+				BoofTesting.assertEquals(expected.getBand(y),alg.getAggregatedXD(),0.0);
+			}
+		}
+	}
+
+	/**
+	 * Rows must be processed in order since the paths depend on the row above
+	 */
+	@Test
+	void process_outOfOrder() {
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+
+		SgmCostAggregationStreaming alg = new SgmCostAggregationStreaming();
+		alg.initialize(width,height,rangeD);
+		alg.process(0, costYXD.getBand(0));
+		assertThrows(IllegalArgumentException.class,()->alg.process(2, costYXD.getBand(2)));
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.Planar;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmCostAggregation_MT {
+	Random rand = new Random(2345);
+	int width=120;
+	int height=60;
+	int rangeD=20;
+
+	/**
+	 * Compare threaded to single threaded for all the different number of paths
+	 */
+	@Test
+	void compareToSingle() {
+		Planar<GrayU16> costYXD = new Planar<>(GrayU16.class,rangeD,width,height);
+		GImageMiscOps.fillUniform(costYXD,rand,0,SgmDisparityCost.MAX_COST);
+
+		for( boolean partialSums : new boolean[]{false,true}) {
+			compareToSingle(costYXD, new SgmCostAggregation_MT(partialSums));
+		}
+	}
+
+	void compareToSingle( Planar<GrayU16> costYXD , SgmCostAggregation multi ) {
+		SgmCostAggregation single = new SgmCostAggregation();
+
+		for( int disparityMin : new int[]{0,3}) {
+			for (int paths : new int[]{1, 2, 4, 8, 16}) {
+				single.configure(disparityMin);
+				multi.configure(disparityMin);
+				single.setPathsConsidered(paths);
+				multi.setPathsConsidered(paths);
+
+				single.process(costYXD);
+				multi.process(costYXD);
+
+				BoofTesting.assertEquals(single.getAggregated(), multi.getAggregated(), 0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.disparity.sgm;
+
+import boofcv.abst.filter.FilterImageInterface;
+import boofcv.alg.feature.disparity.sgm.cost.SgmCostAbsoluteDifference;
+import boofcv.alg.feature.disparity.sgm.cost.SgmCostHamming;
+import boofcv.factory.transform.census.FactoryCensusTransform;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static boofcv.factory.transform.census.CensusVariants.BLOCK_3_3;
+
+/**
+ * @author Peter Abeles
+ */
+class TestSgmStereoDisparityStreaming {
+	@Nested
+	public class Error_U8 extends GenericSgmStereoDisparityChecks<GrayU8,GrayU8>
+	{
+		protected Error_U8() {
+			super(ImageType.SB_U8);
+		}
+
+		@Override
+		public SgmStereoDisparity<GrayU8, GrayU8> createAlgorithm() {
+			return new SgmStereoDisparityStreaming<>(null,new SgmCostAbsoluteDifference.U8(),new SgmDisparitySelector());
+		}
+	}
+
+	@Nested
+	public class Census_U8 extends GenericSgmStereoDisparityChecks<GrayU8,GrayU8>
+	{
+		protected Census_U8() {
+			super(ImageType.SB_U8);
+		}
+
+		@Override
+		public SgmStereoDisparity<GrayU8, GrayU8> createAlgorithm() {
+			FilterImageInterface censusTran = FactoryCensusTransform.variant(BLOCK_3_3, GrayU8.class);
+			return new SgmStereoDisparityStreaming(censusTran,new SgmCostHamming.U8(),new SgmDisparitySelector());
+		}
+
+		/**
+		 * Sub-pixel computed one row at a time should be the same as when it's computed from the full tensor
+		 */
+		@Test
+		void subpixel() {
+			renderStereoRandom(0,255,6,20);
+
+			SgmStereoDisparityStreaming<GrayU8,GrayU8> alg = (SgmStereoDisparityStreaming)createAlgorithm();
+			alg.setDisparityRange(20);
+			alg.getAggregation().setPathsConsidered(2);
+			alg.setSubpixel(true);
+			alg.process(left,right);
+			GrayF32 found = new GrayF32(1,1);
+			alg.subpixel(alg.getDisparity(),found);
+
+			// With only horizontal paths the full tensor approach considers the same paths
+			FilterImageInterface censusTran = FactoryCensusTransform.variant(BLOCK_3_3, GrayU8.class);
+			SgmStereoDisparity<GrayU8,GrayU8> full =
+					new SgmStereoDisparityCensus(censusTran,new SgmCostHamming.U8(),new SgmDisparitySelector());
+			full.setDisparityRange(20);
+			full.getAggregation().setPathsConsidered(2);
+			full.process(left,right);
+			GrayF32 expected = new GrayF32(1,1);
+			full.subpixel(full.getDisparity(),expected);
+
+			BoofTesting.assertEquals(full.getDisparity(),alg.getDisparity(),0);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+	}
+}
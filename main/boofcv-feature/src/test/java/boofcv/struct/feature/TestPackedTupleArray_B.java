@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPackedTupleArray_B {
+	Random rand = new Random(234);
+
+	@Test
+	void append_getCopy() {
+		// number of bits isn't a multiple of 32
+		PackedTupleArray_B alg = new PackedTupleArray_B(70);
+		assertEquals(3, alg.numInts);
+		TupleDesc_B[] expected = new TupleDesc_B[100];
+
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = new TupleDesc_B(70);
+			for (int j = 0; j < expected[i].data.length; j++) {
+				expected[i].data[j] = rand.nextInt();
+			}
+			alg.append(expected[i]);
+		}
+		assertEquals(expected.length, alg.size());
+
+		TupleDesc_B found = new TupleDesc_B(70);
+		for (int i = 0; i < expected.length; i++) {
+			alg.getCopy(i, found);
+			assertArrayEquals(expected[i].data, found.data);
+			assertArrayEquals(expected[i].data, alg.getTemp(i).data);
+		}
+	}
+
+	@Test
+	void append_wrongSize() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(70);
+		assertThrows(IllegalArgumentException.class, () -> alg.append(new TupleDesc_B(64)));
+	}
+}
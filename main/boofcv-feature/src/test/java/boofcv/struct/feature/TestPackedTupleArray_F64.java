@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPackedTupleArray_F64 {
+	Random rand = new Random(234);
+
+	@Test
+	void append_getCopy() {
+		PackedTupleArray_F64 alg = new PackedTupleArray_F64(5);
+		TupleDesc_F64[] expected = new TupleDesc_F64[100];
+
+		// Add enough that the array needs to grow several times
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = new TupleDesc_F64(5);
+			for (int j = 0; j < 5; j++) {
+				expected[i].value[j] = rand.nextDouble();
+			}
+			alg.append(expected[i]);
+		}
+		assertEquals(expected.length, alg.size());
+
+		TupleDesc_F64 found = new TupleDesc_F64(5);
+		for (int i = 0; i < expected.length; i++) {
+			alg.getCopy(i, found);
+			assertArrayEquals(expected[i].value, found.value, 0.0);
+			assertArrayEquals(expected[i].value, alg.getTemp(i).value, 0.0);
+		}
+	}
+
+	@Test
+	void reset_reserve() {
+		PackedTupleArray_F64 alg = new PackedTupleArray_F64(5);
+		alg.append(new TupleDesc_F64(5));
+		alg.reserve(20);
+		assertEquals(1, alg.size());
+		assertTrue(alg.data.length >= 100);
+
+		double[] data = alg.data;
+		alg.reset();
+		assertEquals(0, alg.size());
+		alg.reserve(10);
+		assertSame(data, alg.data);
+	}
+
+	@Test
+	void append_wrongSize() {
+		PackedTupleArray_F64 alg = new PackedTupleArray_F64(5);
+		assertThrows(IllegalArgumentException.class, () -> alg.append(new TupleDesc_F64(4)));
+	}
+}
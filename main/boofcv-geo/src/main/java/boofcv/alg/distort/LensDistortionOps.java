@@ -75,4 +75,34 @@ public class LensDistortionOps {
 
 		return distort;
 	}
+
+	/**
+	 * Same as {@link #changeCameraModel} but for {@link boofcv.struct.image.GrayU8} and
+	 * {@link boofcv.struct.image.InterleavedU8} images only. The distortion is computed with fixed point integer
+	 * math, which is much faster when the same camera model is applied to many images.
+	 *
+	 * @see ImageDistortFixed_U8
+	 */
+	public static <T extends ImageBase<T>,O extends CameraPinhole, D extends CameraPinhole>
+	ImageDistort<T,T> changeCameraModelU8(AdjustmentType type, BorderType borderType,
+										  O original,
+										  D desired,
+										  D modified,
+										  ImageType<T> imageType)
+	{
+		boolean skip = borderType == BorderType.SKIP;
+
+		// it has to process the border at some point, so if skip is requested just skip stuff truly outside the image
+		if( skip )
+			borderType = BorderType.EXTENDED;
+
+		Point2Transform2_F32 undistToDist = LensDistortionOps_F32.transformChangeModel(type, original, desired, true, modified);
+
+		ImageDistort<T,T> distort = FactoryDistort.distortFixedU8(borderType, imageType);
+
+		distort.setModel(new PointToPixelTransform_F32(undistToDist));
+		distort.setRenderAll(!skip );
+
+		return distort;
+	}
 }
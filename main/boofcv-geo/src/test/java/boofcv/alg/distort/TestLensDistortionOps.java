@@ -19,13 +19,20 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.impl.ImplBilinearPixel_U8;
+import boofcv.alg.misc.GImageMiscOps;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.calib.CameraPinhole;
 import boofcv.struct.calib.CameraPinholeBrown;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.testing.BoofTesting;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -58,4 +65,38 @@ class TestLensDistortionOps {
 			}
 		}
 	}
+
+	@Test
+	void changeCameraModelU8() {
+		CameraPinholeBrown original = new CameraPinholeBrown(200,200,0,200,200,400,400);
+		CameraPinhole desired = new CameraPinholeBrown(300,300,0,200,200,400,400);
+		CameraPinhole modified = new CameraPinhole();
+
+		ImageType[] types = new ImageType[]{ImageType.single(GrayU8.class),ImageType.il(3, InterleavedU8.class)};
+
+		for( ImageType imageType : types ) {
+			for( BorderType border : new BorderType[]{BorderType.EXTENDED,BorderType.SKIP,BorderType.ZERO} ) {
+				ImageDistort alg = LensDistortionOps.changeCameraModelU8(
+						AdjustmentType.FULL_VIEW, border,original,desired,modified, imageType);
+
+				assertTrue(alg instanceof ImageDistortFixed_U8);
+				assertEquals(border != BorderType.SKIP, alg.getRenderAll());
+
+				ImageBase input = imageType.createImage(400,400);
+				ImageBase found = imageType.createImage(400,400);
+				GImageMiscOps.fillUniform(input,new Random(234),0,255);
+				alg.apply(input,found);
+
+				// compare against the floating point version, which only supports gray images
+				if( imageType.getFamily() != ImageType.Family.GRAY )
+					continue;
+				ImageDistort expected = LensDistortionOps.changeCameraModel(
+						AdjustmentType.FULL_VIEW, border,original,desired,modified, imageType);
+				ImageBase expectedImage = imageType.createImage(400,400);
+				expected.apply(input,expectedImage);
+				// fixed point rounds while the floating point version truncates
+				BoofTesting.assertEquals(expectedImage,found,2.0);
+			}
+		}
+	}
 }
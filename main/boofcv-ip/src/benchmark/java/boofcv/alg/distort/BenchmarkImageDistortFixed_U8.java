@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
+import georegression.struct.point.Point2D_F32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares fixed point distortion of U8 images against the floating point implementations for a model which
+ * is similar to removing radial lens distortion.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkImageDistortFixed_U8 {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	public int width=1920, height=1080;
+
+	GrayU8 grayIn = new GrayU8(1,1);
+	GrayU8 grayOut = new GrayU8(1,1);
+	InterleavedU8 rgbIn = new InterleavedU8(1,1,3);
+	InterleavedU8 rgbOut = new InterleavedU8(1,1,3);
+
+	ImageDistort<GrayU8,GrayU8> cache_sb;
+	ImageDistort<GrayU8,GrayU8> fixed_sb;
+	ImageDistort<InterleavedU8,InterleavedU8> basic_il;
+	ImageDistort<InterleavedU8,InterleavedU8> fixed_il;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		grayIn.reshape(width,height);
+		grayOut.reshape(width,height);
+		rgbIn.reshape(width,height);
+		rgbOut.reshape(width,height);
+		GImageMiscOps.fillUniform(grayIn,rand,0,255);
+		GImageMiscOps.fillUniform(rgbIn,rand,0,255);
+
+		ImageType<GrayU8> typeSB = ImageType.single(GrayU8.class);
+		ImageType<InterleavedU8> typeIL = ImageType.il(3,InterleavedU8.class);
+
+		cache_sb = FactoryDistort.distort(true, InterpolationType.BILINEAR, BorderType.ZERO, typeSB, typeSB);
+		fixed_sb = FactoryDistort.distortFixedU8(BorderType.ZERO, typeSB);
+		basic_il = FactoryDistort.distort(false, InterpolationType.BILINEAR, BorderType.ZERO, typeIL, typeIL);
+		fixed_il = FactoryDistort.distortFixedU8(BorderType.ZERO, typeIL);
+
+		PixelTransform<Point2D_F32> tran = new Radial();
+		cache_sb.setModel(tran);
+		fixed_sb.setModel(tran);
+		basic_il.setModel(tran);
+		fixed_il.setModel(tran);
+	}
+
+	@Benchmark
+	public void cache_SB() {
+		cache_sb.apply(grayIn, grayOut);
+	}
+
+	@Benchmark
+	public void fixed_SB() {
+		fixed_sb.apply(grayIn, grayOut);
+	}
+
+	@Benchmark
+	public void basic_IL() {
+		basic_il.apply(rgbIn, rgbOut);
+	}
+
+	@Benchmark
+	public void fixed_IL() {
+		fixed_il.apply(rgbIn, rgbOut);
+	}
+
+	/**
+	 * Barrel distortion centered in the image
+	 */
+	private class Radial implements PixelTransform<Point2D_F32> {
+		@Override
+		public void compute(int x, int y, Point2D_F32 output) {
+			float nx = (x-width/2)/(float)width, ny = (y-height/2)/(float)width;
+			float scale = 1.0f - 0.15f*(nx*nx + ny*ny);
+			output.x = width/2 + nx*scale*width;
+			output.y = height/2 + ny*scale*width;
+		}
+
+		@Override
+		public PixelTransform<Point2D_F32> copyConcurrent() {
+			return this;
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkImageDistortFixed_U8.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
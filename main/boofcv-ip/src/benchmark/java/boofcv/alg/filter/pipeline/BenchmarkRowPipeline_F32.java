@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting, blurring, and computing the gradient of a 4K image one full image at a time against
+ * doing the same in a {@link RowPipeline_F32}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkRowPipeline_F32 {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	public int width=3840, height=2160;
+	public int radius=2;
+
+	GrayU8 input = new GrayU8(1,1);
+	GrayF32 converted = new GrayF32(1,1);
+	GrayF32 storage = new GrayF32(1,1);
+	GrayF32 blurred = new GrayF32(1,1);
+	GrayF32 derivX = new GrayF32(1,1);
+	GrayF32 derivY = new GrayF32(1,1);
+
+	ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.single(BorderType.EXTENDED,GrayF32.class);
+	RowPipeline_F32 pipeline = new RowPipeline_F32().gaussian(-1,radius).sobel();
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		input.reshape(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		converted.reshape(width,height);
+		storage.reshape(width,height);
+		blurred.reshape(width,height);
+		derivX.reshape(width,height);
+		derivY.reshape(width,height);
+	}
+
+	@Benchmark
+	public void separate() {
+		ConvertImage.convert(input,converted);
+		BlurImageOps.gaussian(converted,blurred,-1,radius,storage);
+		GradientSobel.process(blurred,derivX,derivY,border);
+	}
+
+	@Benchmark
+	public void pipeline() {
+		pipeline.process(input,derivX,derivY);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkRowPipeline_F32.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks 2D FFT with and without concurrency. Power of two and mixed radix sizes are both considered since
+ * they go through different code paths.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkGeneralPurposeFFT_2D {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"512","640"})
+	public int size;
+
+	float[] data_F32, work_F32;
+	double[] data_F64, work_F64;
+
+	GeneralPurposeFFT_F32_2D fft_F32;
+	GeneralPurposeFFT_F64_2D fft_F64;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// Image is 4:3 and the arrays are large enough to store the full complex result
+		int rows = size*3/4;
+		data_F32 = new float[rows*size*2];
+		data_F64 = new double[rows*size*2];
+		for (int i = 0; i < rows*size; i++) {
+			data_F64[i] = rand.nextDouble()*100;
+			data_F32[i] = (float)data_F64[i];
+		}
+		work_F32 = data_F32.clone();
+		work_F64 = data_F64.clone();
+
+		fft_F32 = concurrent ? new GeneralPurposeFFT_F32_2D_MT(rows,size) : new GeneralPurposeFFT_F32_2D(rows,size);
+		fft_F64 = concurrent ? new GeneralPurposeFFT_F64_2D_MT(rows,size) : new GeneralPurposeFFT_F64_2D(rows,size);
+	}
+
+	@Benchmark
+	public void realForwardFull_F32() {
+		System.arraycopy(data_F32,0,work_F32,0,data_F32.length);
+		fft_F32.realForwardFull(work_F32);
+	}
+
+	@Benchmark
+	public void complexForwardInverse_F32() {
+		System.arraycopy(data_F32,0,work_F32,0,data_F32.length);
+		fft_F32.complexForward(work_F32);
+		fft_F32.complexInverse(work_F32,true);
+	}
+
+	@Benchmark
+	public void realForwardFull_F64() {
+		System.arraycopy(data_F64,0,work_F64,0,data_F64.length);
+		fft_F64.realForwardFull(work_F64);
+	}
+
+	@Benchmark
+	public void complexForwardInverse_F64() {
+		System.arraycopy(data_F64,0,work_F64,0,data_F64.length);
+		fft_F64.complexForward(work_F64);
+		fft_F64.complexInverse(work_F64,true);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkGeneralPurposeFFT_2D.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.abst.transform.fft;
 
 import boofcv.alg.transform.fft.DiscreteFourierTransformOps;
 import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D;
+import boofcv.alg.transform.fft.GeneralPurposeFFT_F32_2D_MT;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.InterleavedF32;
 
@@ -44,6 +45,20 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 	// if true then it can modify the input images
 	private boolean modifyInputs = false;
 
+	// if true then the concurrent implementation is used
+	private final boolean concurrent;
+
+	/**
+	 * @param concurrent If true then {@link GeneralPurposeFFT_F32_2D_MT} is used
+	 */
+	public GeneralFft_to_DiscreteFourierTransform_F32( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public GeneralFft_to_DiscreteFourierTransform_F32() {
+		this(false);
+	}
+
 	@Override
 	public void forward(GrayF32 image, InterleavedF32 transform ) {
 		DiscreteFourierTransformOps.checkImageArguments(image,transform);
@@ -93,7 +108,10 @@ public class GeneralFft_to_DiscreteFourierTransform_F32
 		if( prevWidth != image.width || prevHeight != image.height ) {
 			prevWidth = image.width;
 			prevHeight = image.height;
-			alg = new GeneralPurposeFFT_F32_2D(image.height,image.width);
+			if( concurrent )
+				alg = new GeneralPurposeFFT_F32_2D_MT(image.height,image.width);
+			else
+				alg = new GeneralPurposeFFT_F32_2D(image.height,image.width);
 		}
 	}
 
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F32;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Variant of {@link ImageDistortCache_SB} designed for large images. The distortion is computed once and cached,
+ * but instead of one {@link Point2D_F32} per pixel it's saved in a single float array as interleaved (x,y) pairs.
+ * The output image is broken up into square tiles and the map is stored tile by tile, making the map for each tile
+ * contiguous in memory. Images are rendered one tile at a time. A tile in the output image typically maps
+ * to a compact region in the input image, which improves cache performance over rendering one row at a time.
+ * </p>
+ *
+ * <p>
+ * Memory usage of the map is 8 bytes per pixel, compared to about 24 bytes per pixel in {@link ImageDistortCache_SB}
+ * once object overhead is included.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortCacheTiled_SB<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
+		implements ImageDistort<Input,Output> {
+
+	protected AssignPixelValue_SB<Output> assigner;
+	// sub pixel interpolation
+	protected InterpolatePixelS<Input> interp;
+
+	// transform
+	protected PixelTransform<Point2D_F32> dstToSrc;
+
+	// Length of a side of a square tile
+	protected final int tileSize;
+
+	// size of output image
+	protected int width=-1,height=-1;
+	// number of tiles along each axis
+	protected int numTilesX,numTilesY;
+
+	// Location of each output pixel in the input image as interleaved (x,y) pairs. Stored tile by tile
+	protected float[] map = new float[0];
+
+	// crop boundary
+	protected int x0,y0,x1,y1;
+
+	// should it render all pixels in the destination, even ones outside the input image
+	protected boolean renderAll = true;
+	protected Input srcImg;
+	protected Output dstImg;
+
+	protected boolean dirty;
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param tileSize Length of a side of a square tile. Try 64.
+	 * @param assigner Assigns values to the output image
+	 * @param interp Interpolation algorithm
+	 */
+	public ImageDistortCacheTiled_SB(int tileSize,
+									 AssignPixelValue_SB<Output> assigner,
+									 InterpolatePixelS<Input> interp) {
+		if( tileSize <= 0 )
+			throw new IllegalArgumentException("tileSize must be more than zero");
+		this.tileSize = tileSize;
+		this.assigner = assigner;
+		this.interp = interp;
+	}
+
+	public ImageDistortCacheTiled_SB(AssignPixelValue_SB<Output> assigner,
+									 InterpolatePixelS<Input> interp) {
+		this(64,assigner,interp);
+	}
+
+	@Override
+	public void setModel(PixelTransform<Point2D_F32> dstToSrc) {
+		this.dirty = true;
+		this.dstToSrc = dstToSrc;
+	}
+
+	@Override
+	public void apply(Input srcImg, Output dstImg) {
+		init(srcImg, dstImg);
+
+		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
+
+		renderTiles(null);
+	}
+
+	@Override
+	public void apply(Input srcImg, Output dstImg, GrayU8 mask) {
+		init(srcImg, dstImg);
+		mask.reshape(dstImg);
+
+		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
+
+		renderTiles(mask);
+	}
+
+	@Override
+	public void apply(Input srcImg, Output dstImg, int dstX0, int dstY0, int dstX1, int dstY1) {
+		init(srcImg, dstImg);
+
+		// Check that a valid region was specified. If not do nothing
+		if( dstX1 <= dstX0 || dstY1 <= dstY0 )
+			return;
+
+		x0 = dstX0;y0 = dstY0;x1 = dstX1;y1 = dstY1;
+
+		renderTiles(null);
+	}
+
+	protected void init(Input srcImg, Output dstImg) {
+		if( dirty || width != dstImg.width || height != dstImg.height) {
+			width = dstImg.width;
+			height = dstImg.height;
+			numTilesX = (width+tileSize-1)/tileSize;
+			numTilesY = (height+tileSize-1)/tileSize;
+			if( map.length != 2*width*height )
+				map = new float[2*width*height];
+			computeMap();
+			dirty = false;
+		}
+
+		this.srcImg = srcImg;
+		this.dstImg = dstImg;
+		interp.setImage(srcImg);
+		assigner.setImage(dstImg);
+	}
+
+	/**
+	 * Computes the location of every output pixel in the input image
+	 */
+	protected void computeMap() {
+		Point2D_F32 p = new Point2D_F32();
+		for (int tile = 0; tile < numTilesX*numTilesY; tile++) {
+			computeMapTile(tile,dstToSrc,p);
+		}
+	}
+
+	/**
+	 * Renders all the tiles which intersect the crop region
+	 *
+	 * @param mask If not null then the mask is updated too
+	 */
+	protected void renderTiles( @Nullable GrayU8 mask ) {
+		for (int tile = 0; tile < numTilesX*numTilesY; tile++) {
+			renderTile(tile,interp,mask);
+		}
+	}
+
+	/**
+	 * Computes the map for a single tile
+	 */
+	protected void computeMapTile( int tile , PixelTransform<Point2D_F32> dstToSrc , Point2D_F32 p ) {
+		int tileX0 = (tile%numTilesX)*tileSize;
+		int tileY0 = (tile/numTilesX)*tileSize;
+		int tileX1 = Math.min(width,tileX0+tileSize);
+		int tileY1 = Math.min(height,tileY0+tileSize);
+
+		int indexMap = tileOffset(tileX0,tileY0,tileY1);
+		for (int y = tileY0; y < tileY1; y++) {
+			for (int x = tileX0; x < tileX1; x++) {
+				dstToSrc.compute(x,y,p);
+				map[indexMap++] = p.x;
+				map[indexMap++] = p.y;
+			}
+		}
+	}
+
+	/**
+	 * Renders the part of a single tile which is inside the crop region
+	 *
+	 * @param tile Index of the tile
+	 * @param interp Interpolation. Each thread must have its own copy.
+	 * @param mask If not null then the mask is updated too
+	 */
+	protected void renderTile( int tile , InterpolatePixelS<Input> interp , @Nullable GrayU8 mask ) {
+		int tileX0 = (tile%numTilesX)*tileSize;
+		int tileY0 = (tile/numTilesX)*tileSize;
+		int tileX1 = Math.min(width,tileX0+tileSize);
+		int tileY1 = Math.min(height,tileY0+tileSize);
+
+		// intersection of the tile and the crop region
+		int cx0 = Math.max(x0,tileX0), cx1 = Math.min(x1,tileX1);
+		int cy0 = Math.max(y0,tileY0), cy1 = Math.min(y1,tileY1);
+		if( cx1 <= cx0 || cy1 <= cy0 )
+			return;
+
+		float maxWidth = srcImg.getWidth()-1;
+		float maxHeight = srcImg.getHeight()-1;
+
+		final int tileWidth = tileX1-tileX0;
+		final int offset = tileOffset(tileX0,tileY0,tileY1);
+
+		for (int y = cy0; y < cy1; y++) {
+			int indexMap = offset + 2*((y-tileY0)*tileWidth + cx0-tileX0);
+			int indexDst = dstImg.startIndex + dstImg.stride*y + cx0;
+			int indexMsk = mask == null ? 0 : mask.startIndex + mask.stride*y + cx0;
+
+			for (int x = cx0; x < cx1; x++, indexDst++) {
+				float sx = map[indexMap++];
+				float sy = map[indexMap++];
+
+				boolean inside = sx >= 0 && sx <= maxWidth && sy >= 0 && sy <= maxHeight;
+
+				if( renderAll || inside ) {
+					if( interp.isInFastBounds(sx,sy) )
+						assigner.assign(indexDst,interp.get_fast(sx,sy));
+					else
+						assigner.assign(indexDst,interp.get(sx,sy));
+				}
+
+				if( mask != null )
+					mask.data[indexMsk++] = (byte)(inside ? 1 : 0);
+			}
+		}
+	}
+
+	/**
+	 * Index of the first element in the map for the specified tile
+	 *
+	 * @param tileX0 Lower extent of the tile along the x-axis
+	 * @param tileY0 Lower extent of the tile along the y-axis
+	 * @param tileY1 Upper extent of the tile along the y-axis
+	 */
+	protected int tileOffset( int tileX0 , int tileY0 , int tileY1 ) {
+		// all tiles in the rows above, then all the tiles to the left in this row of tiles
+		return 2*(tileY0*width + tileX0*(tileY1-tileY0));
+	}
+
+	public float[] getMap() {
+		return map;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	public InterpolatePixelS<Input> getInterp() {
+		return interp;
+	}
+
+	@Override
+	public void setRenderAll(boolean renderAll) {
+		this.renderAll = renderAll;
+	}
+
+	@Override
+	public boolean getRenderAll() {
+		return renderAll;
+	}
+
+	@Override
+	public PixelTransform<Point2D_F32> getModel() {
+		return dstToSrc;
+	}
+}
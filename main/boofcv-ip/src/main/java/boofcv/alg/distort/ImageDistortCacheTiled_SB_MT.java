@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent version of {@link ImageDistortCacheTiled_SB}. Tiles are split up between threads when computing the
+ * map and when rendering.
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortCacheTiled_SB_MT<Input extends ImageGray<Input>,Output extends ImageGray<Output>>
+		extends ImageDistortCacheTiled_SB<Input,Output> {
+
+	// Interpolation for each thread
+	private final FastQueue<InterpolatePixelS<Input>> workspace;
+
+	public ImageDistortCacheTiled_SB_MT(int tileSize,
+										AssignPixelValue_SB<Output> assigner,
+										InterpolatePixelS<Input> interp) {
+		super(tileSize, assigner, interp);
+		workspace = new FastQueue(InterpolatePixelS.class,()->this.interp.copy());
+	}
+
+	public ImageDistortCacheTiled_SB_MT(AssignPixelValue_SB<Output> assigner,
+										InterpolatePixelS<Input> interp) {
+		this(64,assigner,interp);
+	}
+
+	@Override
+	protected void computeMap() {
+		BoofConcurrency.loopBlocks(0,numTilesX*numTilesY,(tile0,tile1)->{
+			PixelTransform<Point2D_F32> dstToSrc = this.dstToSrc.copyConcurrent();
+			Point2D_F32 p = new Point2D_F32();
+			for (int tile = tile0; tile < tile1; tile++) {
+				computeMapTile(tile,dstToSrc,p);
+			}
+		});
+	}
+
+	@Override
+	protected void renderTiles( @Nullable GrayU8 mask ) {
+		BoofConcurrency.loopBlocks(0,numTilesX*numTilesY,workspace,(interp,tile0,tile1)->{
+			interp.setImage(srcImg);
+			for (int tile = tile0; tile < tile1; tile++) {
+				renderTile(tile,interp,mask);
+			}
+		});
+	}
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.InterleavedU8;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.GrowQueue_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Bilinear image distortion for 8-bit images which uses fixed point integer math. Intended for applications where
+ * the same distortion is applied to many images, e.g. removing lens distortion from a fixed camera. The first time
+ * an image is processed the source pixel and 8-bit bilinear weights are computed for every pixel in the output
+ * image. After that each output pixel is computed from four input pixels using only integer arithmetic, without
+ * calling the transform or interpolation.
+ * </p>
+ *
+ * <p>
+ * Pixels which map close to or outside of the input image's border can't be handled with the fixed point math.
+ * These are saved in a separate list and computed with the provided interpolation, which handles the border.
+ * </p>
+ *
+ * <p>
+ * Output values are rounded to the nearest integer. Compared to {@link ImageDistortCache_SB}, which truncates
+ * and uses floating point weights, values will differ by at most 1 or 2.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class ImageDistortFixed_U8<T extends ImageBase<T>, Interp extends InterpolatePixel<T>>
+		implements ImageDistort<T,T> {
+
+	// number of bits used by the bilinear weights
+	public static final int BITS = 8;
+
+	// transform from output image to input image
+	protected PixelTransform<Point2D_F32> dstToSrc;
+
+	// Interpolation used for pixels along the border
+	protected Interp interp;
+	// storage used to render border pixels
+	protected Workspace work;
+
+	// should it render all pixels in the destination, even ones outside the input image
+	protected boolean renderAll = true;
+
+	// if true then the map needs to be recomputed
+	protected boolean dirty = true;
+
+	// Shape of the images the map was computed for
+	protected int dstWidth=-1, dstHeight=-1;
+	protected int srcWidth=-1, srcHeight=-1, srcStride=-1, srcBands=-1;
+
+	// For each pixel in the output image, offset of the top-left source pixel from the source image's startIndex.
+	// -1 if the pixel must be computed using the border
+	protected int[] offsets = new int[0];
+	// 8-bit bilinear weights, x in the upper byte and y in the lower byte
+	protected short[] weights = new short[0];
+
+	// Output pixels which need to be computed using the border. Index is y*dstWidth + x.
+	protected GrowQueue_I32 borderPixels = new GrowQueue_I32();
+	// Location of each border pixel in the source image as interleaved (x,y)
+	protected GrowQueue_F32 borderCoordinates = new GrowQueue_F32();
+
+	// crop boundary
+	protected int x0,y0,x1,y1;
+
+	protected ImageDistortFixed_U8( Interp interp ) {
+		this.interp = interp;
+		this.work = new Workspace(interp);
+	}
+
+	@Override
+	public void setModel(PixelTransform<Point2D_F32> dstToSrc) {
+		this.dstToSrc = dstToSrc;
+		this.dirty = true;
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg) {
+		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
+		process(srcImg,dstImg,null);
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg, GrayU8 mask) {
+		mask.reshape(dstImg.width,dstImg.height);
+		x0 = 0;y0 = 0;x1 = dstImg.width;y1 = dstImg.height;
+		process(srcImg,dstImg,mask);
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg, int dstX0, int dstY0, int dstX1, int dstY1) {
+		// Check that a valid region was specified. If not do nothing
+		if( dstX1 <= dstX0 || dstY1 <= dstY0 )
+			return;
+		x0 = dstX0;y0 = dstY0;x1 = dstX1;y1 = dstY1;
+		process(srcImg,dstImg,null);
+	}
+
+	protected void process( T srcImg , T dstImg , @Nullable GrayU8 mask ) {
+		if( srcImg.getImageType().getNumBands() != dstImg.getImageType().getNumBands() )
+			throw new IllegalArgumentException("Input and output images must have the same number of bands");
+		if( dirty || dstWidth != dstImg.width || dstHeight != dstImg.height || srcWidth != srcImg.width ||
+				srcHeight != srcImg.height || srcStride != srcImg.stride ||
+				srcBands != srcImg.getImageType().getNumBands() ) {
+			computeMap(srcImg,dstImg);
+		}
+
+		render(srcImg,dstImg,mask);
+	}
+
+	/**
+	 * Renders all the pixels inside the crop region
+	 */
+	protected void render( T srcImg , T dstImg , @Nullable GrayU8 mask ) {
+		renderRows(srcImg,dstImg,mask,y0,y1);
+		work.interp.setImage(srcImg);
+		renderBorder(work,dstImg,mask,0,borderPixels.size);
+	}
+
+	/**
+	 * Computes the source pixel and weights for every pixel in the output image
+	 */
+	protected void computeMap( T srcImg , T dstImg ) {
+		dstWidth = dstImg.width;
+		dstHeight = dstImg.height;
+		srcWidth = srcImg.width;
+		srcHeight = srcImg.height;
+		srcStride = srcImg.stride;
+		srcBands = srcImg.getImageType().getNumBands();
+
+		int N = dstWidth*dstHeight;
+		if( offsets.length != N ) {
+			offsets = new int[N];
+			weights = new short[N];
+		}
+
+		computeMapRows();
+
+		// Pixels which can't use the fixed point math are saved in a list. There are relatively few of them
+		Point2D_F32 p = new Point2D_F32();
+		borderPixels.reset();
+		borderCoordinates.reset();
+		for (int i = 0; i < N; i++) {
+			if( offsets[i] >= 0 )
+				continue;
+			dstToSrc.compute(i%dstWidth,i/dstWidth,p);
+			borderPixels.add(i);
+			borderCoordinates.add(p.x);
+			borderCoordinates.add(p.y);
+		}
+		dirty = false;
+	}
+
+	/**
+	 * Computes the source pixel and weights for all rows in the output image
+	 */
+	protected void computeMapRows() {
+		computeMapRows(dstToSrc,0,dstHeight);
+	}
+
+	/**
+	 * Computes the source pixel and weights for the specified rows in the output image
+	 */
+	protected void computeMapRows( PixelTransform<Point2D_F32> dstToSrc , int row0 , int row1 ) {
+		final int maxWeight = (1 << BITS)-1;
+		Point2D_F32 p = new Point2D_F32();
+		for (int y = row0; y < row1; y++) {
+			int index = y*dstWidth;
+			for (int x = 0; x < dstWidth; x++, index++) {
+				dstToSrc.compute(x,y,p);
+
+				// All four pixels must be inside the image. This check also rejects NaN
+				if( p.x >= 0 && p.y >= 0 && p.x < srcWidth-1 && p.y < srcHeight-1 ) {
+					int ix = (int)p.x;
+					int iy = (int)p.y;
+					int ax = Math.min(maxWeight,(int)((p.x-ix)*(1 << BITS)+0.5f));
+					int ay = Math.min(maxWeight,(int)((p.y-iy)*(1 << BITS)+0.5f));
+
+					offsets[index] = iy*srcStride + ix*srcBands;
+					weights[index] = (short)((ax << BITS) | ay);
+				} else {
+					offsets[index] = -1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Renders pixels in the specified rows which can be computed using fixed point math
+	 */
+	protected abstract void renderRows( T srcImg , T dstImg , @Nullable GrayU8 mask , int row0 , int row1 );
+
+	/**
+	 * Renders pixels in the border list using the interpolation
+	 */
+	protected abstract void renderBorder( Workspace work , T dstImg , @Nullable GrayU8 mask , int idx0 , int idx1 );
+
+	/**
+	 * Returns true if the pixel in the border list is inside the crop region. If a mask is provided it's updated
+	 * and if the pixel should be rendered true is returned
+	 */
+	protected boolean checkBorder( int i , @Nullable GrayU8 mask ) {
+		int pixel = borderPixels.data[i];
+		int x = pixel%dstWidth;
+		int y = pixel/dstWidth;
+		if( x < x0 || x >= x1 || y < y0 || y >= y1 )
+			return false;
+
+		float sx = borderCoordinates.data[i*2];
+		float sy = borderCoordinates.data[i*2+1];
+		boolean inside = sx >= 0 && sx <= srcWidth-1 && sy >= 0 && sy <= srcHeight-1;
+
+		if( mask != null )
+			mask.data[mask.startIndex + y*mask.stride + x] = (byte)(inside ? 1 : 0);
+
+		return renderAll || inside;
+	}
+
+	/**
+	 * Applies fixed point bilinear interpolation to four pixel values
+	 */
+	protected static int interpolate( int p00 , int p10 , int p01 , int p11 , int ax , int ay ) {
+		int top = (p00 << BITS) + (p10-p00)*ax;
+		int bottom = (p01 << BITS) + (p11-p01)*ax;
+		return ((top << BITS) + (bottom-top)*ay + (1 << (2*BITS-1))) >> (2*BITS);
+	}
+
+	@Override
+	public void setRenderAll(boolean renderAll) {
+		this.renderAll = renderAll;
+	}
+
+	@Override
+	public boolean getRenderAll() {
+		return renderAll;
+	}
+
+	@Override
+	public PixelTransform<Point2D_F32> getModel() {
+		return dstToSrc;
+	}
+
+	public Interp getInterp() {
+		return interp;
+	}
+
+	/**
+	 * Storage used when rendering border pixels. Each thread needs its own.
+	 */
+	protected class Workspace {
+		// interpolation for border pixels
+		public Interp interp;
+		// storage for the interpolated value of each band
+		public float[] values = new float[0];
+
+		public Workspace( Interp interp ) {
+			this.interp = interp;
+		}
+	}
+
+	/**
+	 * Implementation for {@link GrayU8}
+	 */
+	public static class SB extends ImageDistortFixed_U8<GrayU8, InterpolatePixelS<GrayU8>> {
+		public SB( InterpolatePixelS<GrayU8> interp ) {
+			super(interp);
+		}
+
+		@Override
+		protected void renderRows(GrayU8 srcImg, GrayU8 dstImg, @Nullable GrayU8 mask, int row0, int row1) {
+			final byte[] src = srcImg.data;
+			final int stride = srcImg.stride;
+
+			for (int y = row0; y < row1; y++) {
+				int indexMap = y*dstWidth + x0;
+				int indexDst = dstImg.startIndex + y*dstImg.stride + x0;
+				int indexMsk = mask == null ? 0 : mask.startIndex + y*mask.stride + x0;
+
+				for (int x = x0; x < x1; x++, indexMap++, indexDst++, indexMsk++) {
+					int offset = offsets[indexMap];
+					if( offset < 0 )
+						continue;
+					int i = srcImg.startIndex + offset;
+					int w = weights[indexMap] & 0xFFFF;
+
+					dstImg.data[indexDst] = (byte)interpolate(
+							src[i] & 0xFF, src[i+1] & 0xFF, src[i+stride] & 0xFF, src[i+stride+1] & 0xFF,
+							w >>> BITS, w & 0xFF);
+					if( mask != null )
+						mask.data[indexMsk] = 1;
+				}
+			}
+		}
+
+		@Override
+		protected void renderBorder(Workspace work, GrayU8 dstImg, @Nullable GrayU8 mask, int idx0, int idx1) {
+			final InterpolatePixelS<GrayU8> interp = work.interp;
+			for (int i = idx0; i < idx1; i++) {
+				if( !checkBorder(i,mask) )
+					continue;
+				int pixel = borderPixels.data[i];
+				int indexDst = dstImg.startIndex + (pixel/dstWidth)*dstImg.stride + pixel%dstWidth;
+				float value = interp.get(borderCoordinates.data[i*2],borderCoordinates.data[i*2+1]);
+				dstImg.data[indexDst] = (byte)(value+0.5f);
+			}
+		}
+	}
+
+	/**
+	 * Implementation for {@link InterleavedU8}
+	 */
+	public static class IL extends ImageDistortFixed_U8<InterleavedU8, InterpolatePixelMB<InterleavedU8>> {
+		public IL( InterpolatePixelMB<InterleavedU8> interp ) {
+			super(interp);
+		}
+
+		@Override
+		protected void renderRows(InterleavedU8 srcImg, InterleavedU8 dstImg, @Nullable GrayU8 mask,
+								  int row0, int row1) {
+			final byte[] src = srcImg.data;
+			final int stride = srcImg.stride;
+			final int numBands = srcImg.numBands;
+
+			for (int y = row0; y < row1; y++) {
+				int indexMap = y*dstWidth + x0;
+				int indexDst = dstImg.startIndex + y*dstImg.stride + x0*numBands;
+				int indexMsk = mask == null ? 0 : mask.startIndex + y*mask.stride + x0;
+
+				for (int x = x0; x < x1; x++, indexMap++, indexDst += numBands, indexMsk++) {
+					int offset = offsets[indexMap];
+					if( offset < 0 )
+						continue;
+					int i = srcImg.startIndex + offset;
+					int w = weights[indexMap] & 0xFFFF;
+					int ax = w >>> BITS, ay = w & 0xFF;
+
+					for (int band = 0; band < numBands; band++, i++) {
+						dstImg.data[indexDst+band] = (byte)interpolate(
+								src[i] & 0xFF, src[i+numBands] & 0xFF,
+								src[i+stride] & 0xFF, src[i+stride+numBands] & 0xFF, ax, ay);
+					}
+					if( mask != null )
+						mask.data[indexMsk] = 1;
+				}
+			}
+		}
+
+		@Override
+		protected void renderBorder(Workspace work, InterleavedU8 dstImg, @Nullable GrayU8 mask, int idx0, int idx1) {
+			final InterpolatePixelMB<InterleavedU8> interp = work.interp;
+			final int numBands = dstImg.numBands;
+			if( work.values.length != numBands )
+				work.values = new float[numBands];
+			final float[] values = work.values;
+
+			for (int i = idx0; i < idx1; i++) {
+				if( !checkBorder(i,mask) )
+					continue;
+				int pixel = borderPixels.data[i];
+				int indexDst = dstImg.startIndex + (pixel/dstWidth)*dstImg.stride + (pixel%dstWidth)*numBands;
+				interp.get(borderCoordinates.data[i*2],borderCoordinates.data[i*2+1],values);
+				for (int band = 0; band < numBands; band++) {
+					dstImg.data[indexDst+band] = (byte)(values[band]+0.5f);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.InterleavedU8;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementations of {@link ImageDistortFixed_U8}. Rows of the map are computed and rendered in
+ * parallel. Pixels along the border are split into blocks, each with its own copy of the interpolation.
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistortFixed_U8_MT {
+
+	/**
+	 * Concurrent implementation of {@link ImageDistortFixed_U8.SB}
+	 */
+	public static class SB extends ImageDistortFixed_U8.SB {
+		// storage for each thread when rendering the border
+		private final FastQueue<Workspace> workspaces;
+
+		public SB( InterpolatePixelS<GrayU8> interp ) {
+			super(interp);
+			workspaces = new FastQueue(ImageDistortFixed_U8.Workspace.class,()->new Workspace(this.interp.copy()));
+		}
+
+		@Override
+		protected void computeMapRows() {
+			BoofConcurrency.loopBlocks(0,dstHeight,(row0,row1)->
+					computeMapRows(dstToSrc.copyConcurrent(),row0,row1));
+		}
+
+		@Override
+		protected void render( GrayU8 srcImg, GrayU8 dstImg, @Nullable GrayU8 mask ) {
+			renderConcurrent(this,workspaces,srcImg,dstImg,mask);
+		}
+	}
+
+	/**
+	 * Concurrent implementation of {@link ImageDistortFixed_U8.IL}
+	 */
+	public static class IL extends ImageDistortFixed_U8.IL {
+		// storage for each thread when rendering the border
+		private final FastQueue<Workspace> workspaces;
+
+		public IL( InterpolatePixelMB<InterleavedU8> interp ) {
+			super(interp);
+			workspaces = new FastQueue(ImageDistortFixed_U8.Workspace.class,()->new Workspace(this.interp.copy()));
+		}
+
+		@Override
+		protected void computeMapRows() {
+			BoofConcurrency.loopBlocks(0,dstHeight,(row0,row1)->
+					computeMapRows(dstToSrc.copyConcurrent(),row0,row1));
+		}
+
+		@Override
+		protected void render( InterleavedU8 srcImg, InterleavedU8 dstImg, @Nullable GrayU8 mask ) {
+			renderConcurrent(this,workspaces,srcImg,dstImg,mask);
+		}
+	}
+
+	/**
+	 * Renders the inner rows and the border pixels in parallel
+	 */
+	static <T extends ImageBase<T>, Interp extends InterpolatePixel<T>>
+	void renderConcurrent( ImageDistortFixed_U8<T,Interp> alg,
+						   FastQueue<ImageDistortFixed_U8<T,Interp>.Workspace> workspaces,
+						   T srcImg, T dstImg, @Nullable GrayU8 mask )
+	{
+		BoofConcurrency.loopBlocks(alg.y0,alg.y1,(row0,row1)->alg.renderRows(srcImg,dstImg,mask,row0,row1));
+		BoofConcurrency.loopBlocks(0,alg.borderPixels.size,workspaces,(work,idx0,idx1)->{
+			work.interp.setImage(srcImg);
+			alg.renderBorder(work,dstImg,mask,idx0,idx1);
+		});
+	}
+}
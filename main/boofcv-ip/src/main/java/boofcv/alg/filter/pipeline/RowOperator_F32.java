@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.alg.filter.kernel.KernelMath;
+import boofcv.struct.convolve.Kernel1D_F32;
+
+/**
+ * <p>
+ * A single stage in a {@link RowPipeline_F32}. Each call computes one row of output from a small window of rows
+ * which were computed by the previous stage. A row can have multiple bands, e.g. the output of a gradient has
+ * two bands, one for each derivative.
+ * </p>
+ *
+ * <p>
+ * Operators must not modify their internal state inside of {@link #process} since the same instance is used by
+ * all threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class RowOperator_F32 {
+	// Shape of the image
+	protected int width, height;
+	// Number of bands in the input rows
+	protected int inputBands;
+
+	/**
+	 * Called before an image is processed.
+	 *
+	 * @param inputBands Number of bands in the rows produced by the previous stage
+	 * @param width Image width
+	 * @param height Image height
+	 */
+	public void initialize( int inputBands , int width , int height ) {
+		if( inputBands != getRequiredInputBands() && getRequiredInputBands() > 0 )
+			throw new IllegalArgumentException(getClass().getSimpleName()+" requires "+
+					getRequiredInputBands()+" input bands not "+inputBands);
+		this.inputBands = inputBands;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Number of input bands this operator requires. If &le; 0 then it works with any number of bands.
+	 */
+	public int getRequiredInputBands() {
+		return 0;
+	}
+
+	/**
+	 * Number of bands in each output row. Only valid after {@link #initialize} has been called.
+	 */
+	public abstract int getOutputBands();
+
+	/**
+	 * Number of rows above the current row needed from the previous stage
+	 */
+	public int getRowsAbove() {
+		return 0;
+	}
+
+	/**
+	 * Number of rows below the current row needed from the previous stage
+	 */
+	public int getRowsBelow() {
+		return 0;
+	}
+
+	/**
+	 * Computes a single row.
+	 *
+	 * @param y The row being computed
+	 * @param rows Rows from the previous stage. rows[band][i] is row y - rowsAbove + i. Rows outside the image
+	 *             are replaced by the closest row inside the image.
+	 * @param output Storage for the output row. output[band]
+	 */
+	public abstract void process( int y , float[][][] rows , float[][] output );
+
+	/**
+	 * Normalized 1D convolution along the x-axis. Same as
+	 * {@link boofcv.alg.filter.convolve.ConvolveImageNormalized#horizontal(Kernel1D_F32, boofcv.struct.image.GrayF32, boofcv.struct.image.GrayF32)}
+	 */
+	public static class ConvolveHorizontal extends RowOperator_F32 {
+		Kernel1D_F32 kernel;
+
+		public ConvolveHorizontal( Kernel1D_F32 kernel ) {
+			this.kernel = normalized(kernel);
+		}
+
+		@Override
+		public int getOutputBands() {
+			return inputBands;
+		}
+
+		@Override
+		public void process(int y, float[][][] rows, float[][] output) {
+			final float[] k = kernel.data;
+			final int kernelWidth = kernel.width;
+			final int offset = kernel.offset;
+
+			// region where the entire kernel is inside the image
+			final int x0 = Math.min(offset,width);
+			final int x1 = Math.max(x0,width-(kernelWidth-1-offset));
+
+			for (int band = 0; band < rows.length; band++) {
+				final float[] in = rows[band][0];
+				final float[] out = output[band];
+
+				for (int x = 0; x < x0; x++) {
+					out[x] = border(in,x);
+				}
+				switch( kernelWidth ) {
+					case 3: inner3(in,out,x0,x1); break;
+					case 5: inner5(in,out,x0,x1); break;
+					case 7: inner7(in,out,x0,x1); break;
+					default:
+						for (int x = x0; x < x1; x++) {
+							int start = x - offset;
+							float total = 0;
+							for (int i = 0; i < kernelWidth; i++) {
+								total += in[start+i]*k[i];
+							}
+							out[x] = total;
+						}
+				}
+				for (int x = x1; x < width; x++) {
+					out[x] = border(in,x);
+				}
+			}
+		}
+
+		// Unrolled versions of the inner loop for common kernel sizes. See ConvolveImageUnrolled_SB_F32_F32
+		private void inner3( float[] in , float[] out , int x0 , int x1 ) {
+			final float k1 = kernel.data[0], k2 = kernel.data[1], k3 = kernel.data[2];
+			final int offset = kernel.offset;
+			for (int x = x0; x < x1; x++) {
+				int i = x - offset;
+				out[x] = in[i]*k1 + in[i+1]*k2 + in[i+2]*k3;
+			}
+		}
+
+		private void inner5( float[] in , float[] out , int x0 , int x1 ) {
+			final float k1 = kernel.data[0], k2 = kernel.data[1], k3 = kernel.data[2];
+			final float k4 = kernel.data[3], k5 = kernel.data[4];
+			final int offset = kernel.offset;
+			for (int x = x0; x < x1; x++) {
+				int i = x - offset;
+				out[x] = in[i]*k1 + in[i+1]*k2 + in[i+2]*k3 + in[i+3]*k4 + in[i+4]*k5;
+			}
+		}
+
+		private void inner7( float[] in , float[] out , int x0 , int x1 ) {
+			final float k1 = kernel.data[0], k2 = kernel.data[1], k3 = kernel.data[2];
+			final float k4 = kernel.data[3], k5 = kernel.data[4], k6 = kernel.data[5], k7 = kernel.data[6];
+			final int offset = kernel.offset;
+			for (int x = x0; x < x1; x++) {
+				int i = x - offset;
+				out[x] = in[i]*k1 + in[i+1]*k2 + in[i+2]*k3 + in[i+3]*k4 + in[i+4]*k5 + in[i+5]*k6 + in[i+6]*k7;
+			}
+		}
+
+		private float border( float[] in , int x ) {
+			float total = 0;
+			float weight = 0;
+			for (int i = 0; i < kernel.width; i++) {
+				int sx = x - kernel.offset + i;
+				if( sx < 0 || sx >= width )
+					continue;
+				float w = kernel.data[i];
+				weight += w;
+				total += in[sx]*w;
+			}
+			return total/weight;
+		}
+	}
+
+	/**
+	 * Normalized 1D convolution along the y-axis. Same as
+	 * {@link boofcv.alg.filter.convolve.ConvolveImageNormalized#vertical(Kernel1D_F32, boofcv.struct.image.GrayF32, boofcv.struct.image.GrayF32)}
+	 */
+	public static class ConvolveVertical extends RowOperator_F32 {
+		Kernel1D_F32 kernel;
+
+		public ConvolveVertical( Kernel1D_F32 kernel ) {
+			this.kernel = normalized(kernel);
+		}
+
+		@Override
+		public int getOutputBands() {
+			return inputBands;
+		}
+
+		@Override
+		public int getRowsAbove() {
+			return kernel.offset;
+		}
+
+		@Override
+		public int getRowsBelow() {
+			return kernel.width-kernel.offset-1;
+		}
+
+		@Override
+		public void process(int y, float[][][] rows, float[][] output) {
+			final float[] k = kernel.data;
+
+			// kernel elements which are inside the image
+			final int i0 = Math.max(0,kernel.offset-y);
+			final int i1 = Math.min(kernel.width,height-y+kernel.offset);
+
+			float weight = 0;
+			for (int i = i0; i < i1; i++) {
+				weight += k[i];
+			}
+			final boolean border = i0 != 0 || i1 != kernel.width;
+
+			for (int band = 0; band < rows.length; band++) {
+				final float[][] in = rows[band];
+				final float[] out = output[band];
+
+				// rows are added one at a time so that the inner loop runs along the row
+				float w = k[i0];
+				float[] row = in[i0];
+				for (int x = 0; x < width; x++) {
+					out[x] = row[x]*w;
+				}
+				for (int i = i0+1; i < i1; i++) {
+					w = k[i];
+					row = in[i];
+					for (int x = 0; x < width; x++) {
+						out[x] += row[x]*w;
+					}
+				}
+
+				if( border ) {
+					for (int x = 0; x < width; x++) {
+						out[x] /= weight;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sobel gradient with an extended border. Same as
+	 * {@link boofcv.alg.filter.derivative.GradientSobel#process(boofcv.struct.image.GrayF32, boofcv.struct.image.GrayF32, boofcv.struct.image.GrayF32, boofcv.struct.border.ImageBorder_F32)}.
+	 * Input is a single band and output is two bands, x and y derivative.
+	 */
+	public static class Sobel extends RowOperator_F32 {
+		@Override
+		public int getRequiredInputBands() {
+			return 1;
+		}
+
+		@Override
+		public int getOutputBands() {
+			return 2;
+		}
+
+		@Override
+		public int getRowsAbove() {
+			return 1;
+		}
+
+		@Override
+		public int getRowsBelow() {
+			return 1;
+		}
+
+		@Override
+		public void process(int y, float[][][] rows, float[][] output) {
+			final float[] r0 = rows[0][0];
+			final float[] r1 = rows[0][1];
+			final float[] r2 = rows[0][2];
+			final float[] derivX = output[0];
+			final float[] derivY = output[1];
+
+			if( width < 3 ) {
+				for (int x = 0; x < width; x++) {
+					border(x,r0,r1,r2,derivX,derivY);
+				}
+				return;
+			}
+
+			border(0,r0,r1,r2,derivX,derivY);
+			// each derivative is computed in its own simple loop, which the JIT can vectorize
+			for (int x = 1; x < width-1; x++) {
+				derivX[x] = ((r0[x+1] - r0[x-1]) + (r2[x+1] - r2[x-1]))*0.25f + (r1[x+1] - r1[x-1])*0.5f;
+			}
+			for (int x = 1; x < width-1; x++) {
+				derivY[x] = ((r2[x-1] - r0[x-1]) + (r2[x+1] - r0[x+1]))*0.25f + (r2[x] - r0[x])*0.5f;
+			}
+			border(width-1,r0,r1,r2,derivX,derivY);
+		}
+
+		private void border( int x , float[] r0 , float[] r1 , float[] r2 , float[] derivX , float[] derivY ) {
+			int xm = Math.max(0,x-1);
+			int xp = Math.min(width-1,x+1);
+
+			float v = (r2[xp] - r0[xm])*0.25f;
+			float w = (r2[xm] - r0[xp])*0.25f;
+
+			derivY[x] = (r2[x] - r0[x])*0.5f + v + w;
+			derivX[x] = (r1[xp] - r1[xm])*0.5f + v - w;
+		}
+	}
+
+	/**
+	 * Converts an image gradient into edge intensity, and optionally edge direction. Same as
+	 * GradientToEdgeFeatures.intensityE() and GradientToEdgeFeatures.direction() in boofcv-feature.
+	 * Input is two bands, x and y derivative.
+	 */
+	public static class EdgeIntensity extends RowOperator_F32 {
+		boolean direction;
+
+		/**
+		 * @param direction If true the output will have a second band with the edge direction
+		 */
+		public EdgeIntensity( boolean direction ) {
+			this.direction = direction;
+		}
+
+		@Override
+		public int getRequiredInputBands() {
+			return 2;
+		}
+
+		@Override
+		public int getOutputBands() {
+			return direction ? 2 : 1;
+		}
+
+		@Override
+		public void process(int y, float[][][] rows, float[][] output) {
+			final float[] derivX = rows[0][0];
+			final float[] derivY = rows[1][0];
+			final float[] intensity = output[0];
+
+			for (int x = 0; x < width; x++) {
+				float dx = derivX[x];
+				float dy = derivY[x];
+				intensity[x] = (float)Math.sqrt(dx*dx + dy*dy);
+			}
+
+			if( !direction )
+				return;
+
+			final float[] angle = output[1];
+			for (int x = 0; x < width; x++) {
+				float dx = derivX[x];
+				float dy = derivY[x];
+
+				// compute the angle while avoiding divided by zero errors
+				angle[x] = Math.abs(dx) < 1e-10f ? (float)(Math.PI/2.0) : (float)Math.atan(dy/dx);
+			}
+		}
+	}
+
+	/**
+	 * Computes output = scale*input + offset for every band
+	 */
+	public static class Linear extends RowOperator_F32 {
+		float scale, offset;
+
+		public Linear(float scale, float offset) {
+			this.scale = scale;
+			this.offset = offset;
+		}
+
+		@Override
+		public int getOutputBands() {
+			return inputBands;
+		}
+
+		@Override
+		public void process(int y, float[][][] rows, float[][] output) {
+			for (int band = 0; band < rows.length; band++) {
+				final float[] in = rows[band][0];
+				final float[] out = output[band];
+				for (int x = 0; x < width; x++) {
+					out[x] = in[x]*scale + offset;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Absolute value of every band
+	 */
+	public static class Abs extends RowOperator_F32 {
+		@Override
+		public int getOutputBands() {
+			return inputBands;
+		}
+
+		@Override
+		public void process(int y, float[][][] rows, float[][] output) {
+			for (int band = 0; band < rows.length; band++) {
+				final float[] in = rows[band][0];
+				final float[] out = output[band];
+				for (int x = 0; x < width; x++) {
+					out[x] = Math.abs(in[x]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Ensures the kernel sums to one, like ConvolveImageNormalized does
+	 */
+	static Kernel1D_F32 normalized( Kernel1D_F32 kernel ) {
+		if( Math.abs(kernel.computeSum() - 1.0f) > 1e-4f ) {
+			kernel = kernel.copy();
+			KernelMath.normalizeSumToOne(kernel);
+		}
+		return kernel;
+	}
+}
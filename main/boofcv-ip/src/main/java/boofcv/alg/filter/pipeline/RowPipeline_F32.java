@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.FactoryGImageGray;
+import boofcv.core.image.GImageGray;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Applies a chain of image operations one row at a time without creating an intermediate image for each
+ * operation. Each stage only stores the few rows needed by the next stage in a ring buffer, which typically
+ * fits inside the CPU's cache. For example, converting a {@link GrayU8} image, blurring it, computing the Sobel
+ * gradient and then the edge intensity normally writes and reads four full size intermediate images. Here
+ * the same chain reads the input image and writes the output image once.
+ * </p>
+ *
+ * <p>
+ * The pipeline is built by calling functions which add a stage and return this instance. Output is the same as
+ * calling the equivalent operations one after another, up to floating point round off error.
+ * </p>
+ * <pre>
+ * RowPipeline_F32 pipeline = new RowPipeline_F32().gaussian(-1,2).sobel().edgeIntensity(false);
+ * pipeline.process(gray, intensity);
+ * </pre>
+ *
+ * <p>
+ * Concurrency: The image is split into blocks of rows. Each thread has its own ring buffers and recomputes the
+ * rows which overlap with the neighboring blocks.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RowPipeline_F32 {
+	// Operations applied to the image, in order
+	protected final List<RowOperator_F32> operators = new ArrayList<>();
+
+	// Number of bands output by each stage. Stage 0 is the input image
+	protected int[] bands = new int[0];
+
+	// Number of rows computed by each stage which need to be stored for the following stage
+	protected int[] capacity = new int[0];
+
+	// Storage for each thread
+	protected FastQueue<Workspace> workspace = new FastQueue(Workspace.class,Workspace::new);
+
+	/**
+	 * Adds an operation to the end of the pipeline
+	 */
+	public RowPipeline_F32 add( RowOperator_F32 operator ) {
+		operators.add(operator);
+		return this;
+	}
+
+	/**
+	 * Normalized convolution along the x-axis
+	 *
+	 * @see boofcv.alg.filter.convolve.ConvolveImageNormalized
+	 */
+	public RowPipeline_F32 horizontal( Kernel1D_F32 kernel ) {
+		return add(new RowOperator_F32.ConvolveHorizontal(kernel));
+	}
+
+	/**
+	 * Normalized convolution along the y-axis
+	 *
+	 * @see boofcv.alg.filter.convolve.ConvolveImageNormalized
+	 */
+	public RowPipeline_F32 vertical( Kernel1D_F32 kernel ) {
+		return add(new RowOperator_F32.ConvolveVertical(kernel));
+	}
+
+	/**
+	 * Gaussian blur. Same as {@link boofcv.alg.filter.blur.BlurImageOps#gaussian(GrayF32, GrayF32, double, int, GrayF32)}
+	 *
+	 * @param sigma Gaussian distribution's sigma.  If &le; 0 then will be selected based on radius.
+	 * @param radius Radius of the Gaussian blur function. If &le; 0 then radius will be determined by sigma.
+	 */
+	public RowPipeline_F32 gaussian( double sigma , int radius ) {
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigma, radius);
+		return horizontal(kernel).vertical(kernel);
+	}
+
+	/**
+	 * Sobel gradient with an extended border. Output has two bands, x and y derivative.
+	 *
+	 * @see boofcv.alg.filter.derivative.GradientSobel
+	 */
+	public RowPipeline_F32 sobel() {
+		return add(new RowOperator_F32.Sobel());
+	}
+
+	/**
+	 * Converts a gradient into edge intensity and optionally edge direction.
+	 *
+	 * @param direction If true then there will be a second output band with the edge direction
+	 */
+	public RowPipeline_F32 edgeIntensity( boolean direction ) {
+		return add(new RowOperator_F32.EdgeIntensity(direction));
+	}
+
+	/**
+	 * Applies output = scale*input + offset to every band
+	 */
+	public RowPipeline_F32 linear( float scale , float offset ) {
+		return add(new RowOperator_F32.Linear(scale,offset));
+	}
+
+	/**
+	 * Absolute value of every band
+	 */
+	public RowPipeline_F32 abs() {
+		return add(new RowOperator_F32.Abs());
+	}
+
+	/**
+	 * Applies the pipeline to the input image
+	 *
+	 * @param input Input image. Only a single band image is supported. {@link GrayU8} and {@link GrayF32} are
+	 *              fastest.
+	 * @param outputs Output images, one for each band in the last stage. Reshaped to match the input.
+	 */
+	public void process( ImageGray input , GrayF32... outputs ) {
+		initialize(input.width,input.height);
+
+		if( outputs.length != bands[operators.size()] )
+			throw new IllegalArgumentException("Expected "+bands[operators.size()]+" output images not "+outputs.length);
+		for( GrayF32 output : outputs ) {
+			output.reshape(input.width,input.height);
+		}
+
+		if( BoofConcurrency.isUseConcurrent() ) {
+			// make blocks large enough that recomputing rows along the block's border is a small cost
+			int minBlock = Math.max(16,4*getRowsAbove());
+			BoofConcurrency.loopBlocks(0,input.height,minBlock,workspace,(work,y0,y1)->
+					work.process(input,outputs,y0,y1));
+		} else {
+			workspace.resize(1);
+			workspace.get(0).process(input,outputs,0,input.height);
+		}
+	}
+
+	/**
+	 * Initializes each stage and computes the number of bands and buffered rows
+	 */
+	protected void initialize( int width , int height ) {
+		if( operators.isEmpty() )
+			throw new IllegalArgumentException("No operators have been added");
+
+		int N = operators.size();
+		bands = new int[N+1];
+		capacity = new int[N+1];
+		bands[0] = 1;
+		for (int i = 0; i < N; i++) {
+			RowOperator_F32 op = operators.get(i);
+			op.initialize(bands[i],width,height);
+			bands[i+1] = op.getOutputBands();
+			capacity[i] = op.getRowsAbove()+op.getRowsBelow()+1;
+		}
+		// the last stage is copied into the output image as soon as it's computed
+		capacity[N] = 1;
+	}
+
+	/**
+	 * Total number of rows above the current row which are read from the input image
+	 */
+	public int getRowsAbove() {
+		int total = 0;
+		for (int i = 0; i < operators.size(); i++) {
+			total += operators.get(i).getRowsAbove();
+		}
+		return total;
+	}
+
+	/**
+	 * Number of output bands. Only valid after the first image has been processed.
+	 */
+	public int getOutputBands() {
+		return bands.length == 0 ? 0 : bands[bands.length-1];
+	}
+
+	public List<RowOperator_F32> getOperators() {
+		return operators;
+	}
+
+	/**
+	 * Ring buffers and state for processing a block of rows.
+	 */
+	protected class Workspace {
+		// Ring buffer of rows for each stage. rings[stage][band][slot][x]
+		float[][][][] rings = new float[0][][][];
+		// Index of the next row which will be computed by each stage
+		int[] next = new int[0];
+		// Rows passed to each operator. windows[operator][band][i]
+		float[][][][] windows = new float[0][][][];
+		// Output rows passed to each operator. outputRows[operator][band]
+		float[][][] outputRows = new float[0][][];
+
+		GImageGray generic;
+
+		void process( ImageGray input , GrayF32[] outputs , int y0 , int y1 ) {
+			declareStorage(input.width);
+			if( !(input instanceof GrayU8 || input instanceof GrayF32) )
+				generic = FactoryGImageGray.wrap(input);
+
+			// Rows each stage will start at. Stages further up compute rows above the block too
+			final int N = operators.size();
+			next[N] = y0;
+			for (int stage = N; stage > 0; stage--) {
+				next[stage-1] = Math.max(0,next[stage]-operators.get(stage-1).getRowsAbove());
+			}
+
+			for (int y = y0; y < y1; y++) {
+				require(N,y,input);
+
+				for (int band = 0; band < outputs.length; band++) {
+					GrayF32 output = outputs[band];
+					System.arraycopy(rings[N][band][0],0,output.data,output.startIndex+y*output.stride,input.width);
+				}
+			}
+		}
+
+		/**
+		 * Computes rows in the specified stage until the requested row has been computed
+		 */
+		void require( int stage , int y , ImageGray input ) {
+			while( next[stage] <= y ) {
+				int row = next[stage]++;
+				if( stage == 0 ) {
+					readInput(input,row,rings[0][0][row%capacity[0]]);
+				} else {
+					RowOperator_F32 op = operators.get(stage-1);
+					int above = op.getRowsAbove();
+					int below = op.getRowsBelow();
+
+					// make sure all the needed rows have been computed by the previous stage
+					require(stage-1,Math.min(input.height-1,row+below),input);
+
+					// collect the input rows, replacing rows outside the image with the closest one inside
+					float[][][] window = windows[stage-1];
+					float[][][] prev = rings[stage-1];
+					int cap = capacity[stage-1];
+					for (int i = 0; i < above+below+1; i++) {
+						int r = Math.max(0,Math.min(input.height-1,row-above+i));
+						for (int band = 0; band < window.length; band++) {
+							window[band][i] = prev[band][r%cap];
+						}
+					}
+
+					float[][] output = outputRows[stage-1];
+					float[][][] ring = rings[stage];
+					for (int band = 0; band < ring.length; band++) {
+						output[band] = ring[band][row%capacity[stage]];
+					}
+					op.process(row,window,output);
+				}
+			}
+		}
+
+		void readInput( ImageGray input , int y , float[] row ) {
+			final int width = input.width;
+			if( input instanceof GrayF32 ) {
+				GrayF32 img = (GrayF32)input;
+				System.arraycopy(img.data,img.startIndex+y*img.stride,row,0,width);
+			} else if( input instanceof GrayU8 ) {
+				GrayU8 img = (GrayU8)input;
+				int index = img.startIndex+y*img.stride;
+				for (int x = 0; x < width; x++) {
+					row[x] = img.data[index++] & 0xFF;
+				}
+			} else {
+				for (int x = 0; x < width; x++) {
+					row[x] = generic.unsafe_getF(x,y);
+				}
+			}
+		}
+
+		void declareStorage( int width ) {
+			final int N = operators.size();
+			if( rings.length != N+1 ) {
+				rings = new float[N+1][][][];
+				next = new int[N+1];
+				windows = new float[N][][][];
+				outputRows = new float[N][][];
+			}
+			for (int stage = 0; stage <= N; stage++) {
+				float[][][] ring = rings[stage];
+				if( ring == null || ring.length != bands[stage] || ring[0].length != capacity[stage] ||
+						ring[0][0].length != width ) {
+					rings[stage] = new float[bands[stage]][capacity[stage]][width];
+				}
+			}
+			for (int i = 0; i < N; i++) {
+				windows[i] = new float[bands[i]][capacity[i]][];
+				outputRows[i] = new float[bands[i+1]][];
+			}
+		}
+	}
+}
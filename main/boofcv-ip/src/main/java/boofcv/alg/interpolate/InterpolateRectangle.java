@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -52,5 +52,10 @@ public interface InterpolateRectangle<T extends ImageGray<T>> {
 	 * @param dest Where the interpolated region is to be copied into
 	 */
 	public void region(float tl_x, float tl_y, GrayF32 dest );
+
+	/**
+	 * Creates a new instance of this interpolation algorithm. The image is not copied.
+	 */
+	public InterpolateRectangle<T> copy();
 //	public void region(float tl_x, float tl_y, float[] results, int regWidth, int regHeight);
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,8 @@
 
 package boofcv.alg.transform.fft;
 
+import boofcv.concurrency.IntRangeObjectConsumer;
+
 /**
  * <p>
  * Computes 2D Discrete Fourier Transform (DFT) of complex and real, float
@@ -27,8 +29,8 @@ package boofcv.alg.transform.fft;
  * </p><p>
  * This code has a bit of a history.  Originally from General Purpose FFT.  Which was then ported into
  * JFFTPack written by Baoshe Zhang (http://jfftpack.sourceforge.net/), and then into JTransforms by Piotr Wendykier.
- * The major modification from JTransforms is that the SMP code has been stripped out.  It might be added back in
- * once an SMP strategy has been finalized in BoofCV.
+ * The major modification from JTransforms is that the SMP code has been moved into
+ * {@link GeneralPurposeFFT_F32_2D_MT}, which uses {@link boofcv.concurrency.BoofConcurrency}.
  * </p>
  * <p>
  * Code License:  The original license of General Purpose FFT Package is shown below.  This file will fall
@@ -46,7 +48,7 @@ package boofcv.alg.transform.fft;
  */
 public class GeneralPurposeFFT_F32_2D {
 
-	private int rows;
+	protected int rows;
 
 	private int columns;
 
@@ -60,6 +62,9 @@ public class GeneralPurposeFFT_F32_2D {
 	private float[] temp;
 	private float[][] temp2;
 
+	// Work space for the single threaded code. References the variables above
+	protected final Workspace mainWork;
+
 	/**
 	 * Creates new instance of DoubleFFT_2D.
 	 *
@@ -97,6 +102,8 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 
 		temp = new float[2 * rows];
+
+		mainWork = new Workspace(fftRows, fftColumns, t, temp);
 	}
 
 	/**
@@ -127,34 +134,15 @@ public class GeneralPurposeFFT_F32_2D {
 		if (isPowerOfTwo) {
 			int oldn2 = columns;
 			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * columns);
-			}
+			processRows(columns, (fft, offset) -> fft.complexForward(a, offset));
 			cdft2d_sub(-1, a, true);
 			columns = oldn2;
 		} else {
 			final int rowStride = 2 * columns;
 
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexForward(a, r * rowStride);
-			}
+			processRows(rowStride, (fft, offset) -> fft.complexForward(a, offset));
 
-			for (int c = 0; c < columns; c++) {
-				int idx0 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					temp[idx1] = a[idx2];
-					temp[idx1 + 1] = a[idx2 + 1];
-				}
-				fftRows.complexForward(temp);
-				for (int r = 0; r < rows; r++) {
-					int idx1 = 2 * r;
-					int idx2 = r * rowStride + idx0;
-					a[idx2] = temp[idx1];
-					a[idx2 + 1] = temp[idx1 + 1];
-				}
-			}
+			processColumns(0, columns, (work, c0, c1) -> complexColumns(a, c0, c1, true, false, work));
 		}
 	}
 
@@ -190,33 +178,14 @@ public class GeneralPurposeFFT_F32_2D {
 		if (isPowerOfTwo) {
 			int oldn2 = columns;
 			columns = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * columns, scale);
-			}
+			processRows(columns, (fft, offset) -> fft.complexInverse(a, offset, scale));
 			cdft2d_sub(1, a, scale);
 			columns = oldn2;
 		} else {
 			final int rowspan = 2 * columns;
-			for (int r = 0; r < rows; r++) {
-				fftColumns.complexInverse(a, r * rowspan, scale);
-			}
+			processRows(rowspan, (fft, offset) -> fft.complexInverse(a, offset, scale));
 
-			for (int c = 0; c < columns; c++) {
-				int idx1 = 2 * c;
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					temp[idx2] = a[idx3];
-					temp[idx2 + 1] = a[idx3 + 1];
-				}
-				fftRows.complexInverse(temp, scale);
-				for (int r = 0; r < rows; r++) {
-					int idx2 = 2 * r;
-					int idx3 = r * rowspan + idx1;
-					a[idx3] = temp[idx2];
-					a[idx3 + 1] = temp[idx2 + 1];
-				}
-			}
+			processColumns(0, columns, (work, c0, c1) -> complexColumns(a, c0, c1, false, scale, work));
 		}
 	}
 
@@ -256,9 +225,7 @@ public class GeneralPurposeFFT_F32_2D {
 		if (isPowerOfTwo == false) {
 			throw new IllegalArgumentException("rows and columns must be power of two numbers");
 		} else {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
+			processRows(columns, (fft, offset) -> fft.realForward(a, offset));
 			cdft2d_sub(-1, a, true);
 			rdft2d_sub(1, a);
 		}
@@ -287,9 +254,7 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realForward(a, r * columns);
-			}
+			processRows(columns, (fft, offset) -> fft.realForward(a, offset));
 			cdft2d_sub(-1, a, true);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
@@ -348,9 +313,7 @@ public class GeneralPurposeFFT_F32_2D {
 		} else {
 			rdft2d_sub(-1, a);
 			cdft2d_sub(1, a, scale);
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse(a, r * columns, scale);
-			}
+			processRows(columns, (fft, offset) -> fft.realInverse(a, offset, scale));
 		}
 	}
 
@@ -379,9 +342,7 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 
 		if (isPowerOfTwo) {
-			for (int r = 0; r < rows; r++) {
-				fftColumns.realInverse2(a, r * columns, scale);
-			}
+			processRows(columns, (fft, offset) -> fft.realInverse2(a, offset, scale));
 			cdft2d_sub(1, a, scale);
 			rdft2d_sub(1, a);
 			fillSymmetric(a);
@@ -403,24 +364,24 @@ public class GeneralPurposeFFT_F32_2D {
 		final int n2d2 = columns / 2 + 1;
 		final float[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realForward(a, r * columns);
-		}
+		processRows(columns, (fft, offset) -> fft.realForward(a, offset));
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realForwardFull(temp[0]);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
+		processColumns(1, n2d2 - 1, (work, c0, c1) -> {
+			for (int c = c0; c < c1; c++) {
+				int idx0 = 2 * c;
+				for (int r = 0; r < rows; r++) {
+					int idx1 = 2 * r;
+					int idx2 = r * columns + idx0;
+					temp[c][idx1] = a[idx2];
+					temp[c][idx1 + 1] = a[idx2 + 1];
+				}
+				work.fftRows.complexForward(temp[c]);
 			}
-			fftRows.complexForward(temp[c]);
-		}
+		});
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -472,24 +433,24 @@ public class GeneralPurposeFFT_F32_2D {
 		final int n2d2 = columns / 2 + 1;
 		final float[][] temp = temp2;
 
-		for (int r = 0; r < rows; r++) {
-			fftColumns.realInverse2(a, r * columns, scale);
-		}
+		processRows(columns, (fft, offset) -> fft.realInverse2(a, offset, scale));
 		for (int r = 0; r < rows; r++) {
 			temp[0][r] = a[r * columns]; //first column is always real
 		}
 		fftRows.realInverseFull(temp[0], scale);
 
-		for (int c = 1; c < n2d2 - 1; c++) {
-			int idx0 = 2 * c;
-			for (int r = 0; r < rows; r++) {
-				int idx1 = 2 * r;
-				int idx2 = r * columns + idx0;
-				temp[c][idx1] = a[idx2];
-				temp[c][idx1 + 1] = a[idx2 + 1];
+		processColumns(1, n2d2 - 1, (work, c0, c1) -> {
+			for (int c = c0; c < c1; c++) {
+				int idx0 = 2 * c;
+				for (int r = 0; r < rows; r++) {
+					int idx1 = 2 * r;
+					int idx2 = r * columns + idx0;
+					temp[c][idx1] = a[idx2];
+					temp[c][idx1 + 1] = a[idx2 + 1];
+				}
+				work.fftRows.complexInverse(temp[c], scale);
 			}
-			fftRows.complexInverse(temp[c], scale);
-		}
+		});
 
 		if ((columns % 2) == 0) {
 			for (int r = 0; r < rows; r++) {
@@ -567,11 +528,24 @@ public class GeneralPurposeFFT_F32_2D {
 		}
 	}
 
+	/**
+	 * Transforms the columns. When concurrent each thread processes blocks of 8 columns.
+	 */
 	private void cdft2d_sub(int isgn, float[] a, boolean scale) {
+		if (columns > 4) {
+			processColumns(0, columns / 8, (work, b0, b1) -> cdft2d_sub(isgn, a, scale, b0 * 8, b1 * 8, work));
+		} else {
+			cdft2d_sub(isgn, a, scale, 0, columns, mainWork);
+		}
+	}
+
+	private void cdft2d_sub(int isgn, float[] a, boolean scale, int c0, int c1, Workspace work) {
+		final float[] t = work.t;
+		final GeneralPurposeFFT_F32_1D fftRows = work.fftRows;
 		int idx1, idx2, idx3, idx4, idx5;
 		if (isgn == -1) {
 			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
+				for (int c = c0; c < c1; c += 8) {
 					for (int r = 0; r < rows; r++) {
 						idx1 = r * columns + c;
 						idx2 = 2 * r;
@@ -645,7 +619,7 @@ public class GeneralPurposeFFT_F32_2D {
 			}
 		} else {
 			if (columns > 4) {
-				for (int c = 0; c < columns; c += 8) {
+				for (int c = c0; c < c1; c += 8) {
 					for (int r = 0; r < rows; r++) {
 						idx1 = r * columns + c;
 						idx2 = 2 * r;
@@ -909,4 +883,78 @@ public class GeneralPurposeFFT_F32_2D {
 		a[idx1 + 1] = 0;
 		a[idx1 + columns + 1] = 0;
 	}
+
+	/**
+	 * Transforms columns c0 to c1 of complex data when the size isn't a power of two
+	 */
+	private void complexColumns(final float[] a, int c0, int c1, boolean forward, boolean scale, Workspace work) {
+		final int rowStride = 2 * columns;
+		final float[] temp = work.temp;
+
+		for (int c = c0; c < c1; c++) {
+			int idx0 = 2 * c;
+			for (int r = 0; r < rows; r++) {
+				int idx1 = 2 * r;
+				int idx2 = r * rowStride + idx0;
+				temp[idx1] = a[idx2];
+				temp[idx1 + 1] = a[idx2 + 1];
+			}
+			if (forward)
+				work.fftRows.complexForward(temp);
+			else
+				work.fftRows.complexInverse(temp, scale);
+			for (int r = 0; r < rows; r++) {
+				int idx1 = 2 * r;
+				int idx2 = r * rowStride + idx0;
+				a[idx2] = temp[idx1];
+				a[idx2 + 1] = temp[idx1 + 1];
+			}
+		}
+	}
+
+	/**
+	 * Applies a 1D transform to every row
+	 *
+	 * @param stride Number of elements in the array between each row
+	 */
+	protected void processRows(int stride, RowOperation op) {
+		for (int r = 0; r < rows; r++) {
+			op.process(fftColumns, r * stride);
+		}
+	}
+
+	/**
+	 * Processes a range of columns
+	 */
+	protected void processColumns(int c0, int c1, IntRangeObjectConsumer<Workspace> op) {
+		op.accept(mainWork, c0, c1);
+	}
+
+	protected interface RowOperation {
+		void process(GeneralPurposeFFT_F32_1D fft, int offset);
+	}
+
+	/**
+	 * 1D transforms and storage used by a single thread. A 1D transform can't be shared between threads
+	 * since it has internal work space.
+	 */
+	protected static class Workspace {
+		GeneralPurposeFFT_F32_1D fftRows, fftColumns;
+		float[] t;
+		float[] temp;
+
+		Workspace(GeneralPurposeFFT_F32_1D fftRows, GeneralPurposeFFT_F32_1D fftColumns, float[] t, float[] temp) {
+			this.fftRows = fftRows;
+			this.fftColumns = fftColumns;
+			this.t = t;
+			this.temp = temp;
+		}
+
+		Workspace(int rows, int columns, int lengthT) {
+			fftRows = new GeneralPurposeFFT_F32_1D(rows);
+			fftColumns = rows == columns ? fftRows : new GeneralPurposeFFT_F32_1D(columns);
+			t = new float[lengthT];
+			temp = new float[2 * rows];
+		}
+	}
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link GeneralPurposeFFT_F64_2D}. Rows and columns are split between threads.
+ * The 1D transforms have internal work space, so each thread has its own 1D transforms and storage. These
+ * are saved and reused in later calls.
+ *
+ * @author Peter Abeles
+ */
+public class GeneralPurposeFFT_F64_2D_MT extends GeneralPurposeFFT_F64_2D {
+
+	// Work space for each thread
+	private final FastQueue<Workspace> workspaces;
+
+	public GeneralPurposeFFT_F64_2D_MT(int rows, int columns) {
+		super(rows, columns);
+
+		final int lengthT = mainWork.t == null ? 0 : mainWork.t.length;
+		workspaces = new FastQueue(Workspace.class, () -> new Workspace(rows, columns, lengthT));
+	}
+
+	@Override
+	protected void processRows(int stride, RowOperation op) {
+		BoofConcurrency.loopBlocks(0, rows, workspaces, (work, r0, r1) -> {
+			for (int r = r0; r < r1; r++) {
+				op.process(work.fftColumns, r * stride);
+			}
+		});
+	}
+
+	@Override
+	protected void processColumns(int c0, int c1, IntRangeObjectConsumer<Workspace> op) {
+		BoofConcurrency.loopBlocks(c0, c1, workspaces, op);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -95,18 +95,7 @@ public class FactoryDistort {
 	public static <Input extends ImageGray<Input>, Output extends ImageGray<Output>>
 	ImageDistort<Input, Output> distortSB(boolean cached, InterpolatePixelS<Input> interp, Class<Output> outputType)
 	{
-		AssignPixelValue_SB<Output> assigner;
-		if( outputType == GrayF32.class ) {
-			assigner = (AssignPixelValue_SB)new AssignPixelValue_SB.F32();
-		} else if( GrayS32.class.isAssignableFrom(outputType) ) {
-			assigner = (AssignPixelValue_SB)new AssignPixelValue_SB.S32();
-		} else if( GrayI16.class.isAssignableFrom(outputType) ) {
-			assigner = (AssignPixelValue_SB)new AssignPixelValue_SB.I16();
-		} else if( GrayI8.class.isAssignableFrom(outputType) ) {
-			assigner = (AssignPixelValue_SB)new AssignPixelValue_SB.I8();
-		} else {
-			throw new IllegalArgumentException("Output type not supported: "+outputType.getSimpleName());
-		}
+		AssignPixelValue_SB<Output> assigner = assignerSB(outputType);
 
 		if(BoofConcurrency.USE_CONCURRENT ) {
 			if( cached ) {
@@ -121,6 +110,41 @@ public class FactoryDistort {
 		}
 	}
 
+	/**
+	 * Creates a cached {@link boofcv.alg.distort.ImageDistort} for large single band images. The distortion is stored
+	 * in a packed array and the image is rendered one tile at a time. See {@link ImageDistortCacheTiled_SB}.
+	 *
+	 * @param tileSize Length of a side of a square tile. Try 64.
+	 * @param interp Which interpolation algorithm should be used.
+	 * @param outputType Type of output image.
+	 */
+	public static <Input extends ImageGray<Input>, Output extends ImageGray<Output>>
+	ImageDistort<Input, Output> distortTiledSB(int tileSize, InterpolatePixelS<Input> interp, Class<Output> outputType)
+	{
+		AssignPixelValue_SB<Output> assigner = assignerSB(outputType);
+
+		if(BoofConcurrency.isUseConcurrent() ) {
+			return new ImageDistortCacheTiled_SB_MT<>(tileSize,assigner,interp);
+		} else {
+			return new ImageDistortCacheTiled_SB<>(tileSize,assigner,interp);
+		}
+	}
+
+	private static <Output extends ImageGray<Output>>
+	AssignPixelValue_SB<Output> assignerSB( Class<Output> outputType ) {
+		if( outputType == GrayF32.class ) {
+			return (AssignPixelValue_SB)new AssignPixelValue_SB.F32();
+		} else if( GrayS32.class.isAssignableFrom(outputType) ) {
+			return (AssignPixelValue_SB)new AssignPixelValue_SB.S32();
+		} else if( GrayI16.class.isAssignableFrom(outputType) ) {
+			return (AssignPixelValue_SB)new AssignPixelValue_SB.I16();
+		} else if( GrayI8.class.isAssignableFrom(outputType) ) {
+			return (AssignPixelValue_SB)new AssignPixelValue_SB.I8();
+		} else {
+			throw new IllegalArgumentException("Output type not supported: "+outputType.getSimpleName());
+		}
+	}
+
 	/**
 	 * Creates a {@link boofcv.alg.distort.ImageDistort} for the planar images, transformation
 	 * and interpolation instance.
@@ -166,6 +190,39 @@ public class FactoryDistort {
 		}
 	}
 
+	/**
+	 * Creates a cached {@link boofcv.alg.distort.ImageDistort} for {@link GrayU8} and {@link InterleavedU8} images
+	 * which uses fixed point bilinear interpolation. Designed for when the same distortion is applied to many
+	 * images, e.g. removing lens distortion. See {@link ImageDistortFixed_U8}.
+	 *
+	 * @param borderType How pixels outside the image border are handled
+	 * @param imageType Type of input and output image. Must be GrayU8 or InterleavedU8.
+	 */
+	public static <T extends ImageBase<T>> ImageDistort<T,T> distortFixedU8( BorderType borderType ,
+																			 ImageType<T> imageType )
+	{
+		if( imageType.getDataType() != ImageDataType.U8 )
+			throw new IllegalArgumentException("Only U8 images are supported");
+
+		InterpolatePixel<T> interp = FactoryInterpolation.
+				createPixel(0,255,InterpolationType.BILINEAR,borderType,imageType);
+
+		switch( imageType.getFamily() ) {
+			case GRAY:
+				if( BoofConcurrency.isUseConcurrent() )
+					return (ImageDistort)new ImageDistortFixed_U8_MT.SB((InterpolatePixelS)interp);
+				else
+					return (ImageDistort)new ImageDistortFixed_U8.SB((InterpolatePixelS)interp);
+			case INTERLEAVED:
+				if( BoofConcurrency.isUseConcurrent() )
+					return (ImageDistort)new ImageDistortFixed_U8_MT.IL((InterpolatePixelMB)interp);
+				else
+					return (ImageDistort)new ImageDistortFixed_U8.IL((InterpolatePixelMB)interp);
+			default:
+				throw new IllegalArgumentException("Image family not supported: "+imageType.getFamily());
+		}
+	}
+
 	public static PointDeformKeyPoints deformMls(ConfigDeformPointMLS config ) {
 		if( config == null )
 			config = new ConfigDeformPointMLS();
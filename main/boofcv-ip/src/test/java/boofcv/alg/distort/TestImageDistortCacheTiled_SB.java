@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.BilinearPixelS;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortCacheTiled_SB extends CommonImageDistort_SB {
+
+	@Override
+	protected ImageDistortHelper createAlg(BilinearPixelS<GrayF32> interp) {
+		return new Helper(interp);
+	}
+
+	/**
+	 * Compare against the non-tiled implementation for different tile sizes, including ones which don't evenly
+	 * divide the image, and with a crop region
+	 */
+	@Test
+	void compareToCache() {
+		GrayF32 input = new GrayF32(60,80);
+		GImageMiscOps.fillUniform(input,rand,0,150);
+
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayF32.class);
+
+		for( int tileSize : new int[]{1,7,16,200}) {
+			ImageDistortCache_SB<GrayF32,GrayF32> expected =
+					new ImageDistortCache_SB<>(new AssignPixelValue_SB.F32(),interpolate.copy());
+			ImageDistortCacheTiled_SB<GrayF32,GrayF32> alg =
+					new ImageDistortCacheTiled_SB<>(tileSize,new AssignPixelValue_SB.F32(),interpolate.copy());
+
+			// some pixels will be outside the input image
+			Affine2D_F32 affine = new Affine2D_F32(1.2f,0.1f,-0.05f,0.9f,-5,3);
+			expected.setModel(new PixelTransformAffine_F32(affine));
+			alg.setModel(new PixelTransformAffine_F32(affine));
+
+			for( boolean renderAll : new boolean[]{true,false}) {
+				expected.setRenderAll(renderAll);
+				alg.setRenderAll(renderAll);
+
+				GrayF32 outputA = new GrayF32(50,70);
+				GrayF32 outputB = new GrayF32(50,70);
+				expected.apply(input,outputA);
+				alg.apply(input,outputB);
+				BoofTesting.assertEquals(outputA,outputB,1e-4);
+
+				GImageMiscOps.fill(outputA,0);
+				GImageMiscOps.fill(outputB,0);
+				expected.apply(input,outputA,5,9,33,47);
+				alg.apply(input,outputB,5,9,33,47);
+				BoofTesting.assertEquals(outputA,outputB,1e-4);
+			}
+		}
+	}
+
+	protected static class Helper extends ImageDistortCacheTiled_SB implements ImageDistortHelper {
+
+		int total = 0;
+
+		public Helper(InterpolatePixelS interp) {
+			// small tiles so that there are partial tiles along the image border
+			super(4,null,interp);
+			assigner = new AssignPixelValue_SB.F32() {
+				@Override
+				public void assign(int indexDst, float value) {
+					total++;
+					int x = (indexDst - dstImg.startIndex)%dstImg.stride;
+					int y = (indexDst - dstImg.startIndex)/dstImg.stride;
+					assertTrue(dstImg.isInBounds(x,y));
+					GeneralizedImageOps.set(dstImg,x,y,value);
+				}
+			};
+		}
+
+		public void reset() {
+			total = 0;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+	}
+}
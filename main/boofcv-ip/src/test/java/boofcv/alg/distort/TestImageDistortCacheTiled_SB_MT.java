@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortCacheTiled_SB_MT {
+	Random rand = new Random(234);
+	int width = 60,height=80;
+
+	// some pixels will be outside the input image
+	Affine2D_F32 affine = new Affine2D_F32(1.2f,0.1f,-0.05f,0.9f,-5,3);
+
+	@Test
+	void compare_all() {
+		GrayF32 input = new GrayF32(width,height);
+		GrayF32 output_ST = new GrayF32(width,height);
+		GrayF32 output_MT = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,150);
+
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayF32.class);
+
+		ImageDistortCacheTiled_SB<GrayF32,GrayF32> alg_ST =
+				new ImageDistortCacheTiled_SB<>(7,new AssignPixelValue_SB.F32(),interpolate);
+		ImageDistortCacheTiled_SB_MT<GrayF32,GrayF32> alg_MT =
+				new ImageDistortCacheTiled_SB_MT<>(7,new AssignPixelValue_SB.F32(),interpolate);
+
+		alg_ST.setModel(new PixelTransformAffine_F32(affine));
+		alg_ST.apply(input,output_ST);
+
+		alg_MT.setModel(new PixelTransformAffine_F32(affine));
+		alg_MT.apply(input,output_MT);
+
+		BoofTesting.assertEquals(output_ST,output_MT, 0.0);
+	}
+
+	@Test
+	void compare_mask() {
+		GrayF32 input = new GrayF32(width,height);
+		GrayF32 output_ST = new GrayF32(width,height);
+		GrayF32 output_MT = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,150);
+
+		GrayU8 mask_ST = new GrayU8(width,height);
+		GrayU8 mask_MT = new GrayU8(width,height);
+
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayF32.class);
+
+		ImageDistortCacheTiled_SB<GrayF32,GrayF32> alg_ST =
+				new ImageDistortCacheTiled_SB<>(7,new AssignPixelValue_SB.F32(),interpolate);
+		ImageDistortCacheTiled_SB_MT<GrayF32,GrayF32> alg_MT =
+				new ImageDistortCacheTiled_SB_MT<>(7,new AssignPixelValue_SB.F32(),interpolate);
+
+		alg_ST.setRenderAll(false);
+		alg_MT.setRenderAll(false);
+
+		alg_ST.setModel(new PixelTransformAffine_F32(affine));
+		alg_ST.apply(input,output_ST,mask_ST);
+
+		alg_MT.setModel(new PixelTransformAffine_F32(affine));
+		alg_MT.apply(input,output_MT,mask_MT);
+
+		BoofTesting.assertEquals(output_ST,output_MT, 0.0);
+		BoofTesting.assertEquals(mask_ST,mask_MT, 0.0);
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.distort.PixelTransform;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageDistortFixed_U8 {
+	Random rand = new Random(234);
+
+	int srcWidth = 60, srcHeight = 80;
+	int dstWidth = 50, dstHeight = 70;
+
+	// some pixels will be outside the input image
+	Affine2D_F32 affine = new Affine2D_F32(1.2f,0.1f,-0.05f,0.9f,-5,3);
+
+	/**
+	 * Compare against the floating point implementation
+	 */
+	@Test
+	void compareToFloat_SB() {
+		compareToFloat_SB(new PixelTransformAffine_F32(affine));
+		compareToFloat_SB(new Radial());
+	}
+
+	void compareToFloat_SB( PixelTransform<Point2D_F32> transform ) {
+		GrayU8 input = new GrayU8(srcWidth,srcHeight);
+		GImageMiscOps.fillUniform(input,rand,0,256);
+
+		InterpolatePixelS<GrayU8> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayU8.class);
+
+		ImageDistortCache_SB<GrayU8,GrayF32> expected =
+				new ImageDistortCache_SB<>(new AssignPixelValue_SB.F32(),interpolate.copy());
+		ImageDistortFixed_U8.SB alg = new ImageDistortFixed_U8.SB(interpolate.copy());
+
+		expected.setModel(transform);
+		alg.setModel(transform);
+
+		for( boolean renderAll : new boolean[]{true,false}) {
+			expected.setRenderAll(renderAll);
+			alg.setRenderAll(renderAll);
+
+			GrayF32 outputA = new GrayF32(dstWidth,dstHeight);
+			GrayU8 outputB = new GrayU8(dstWidth,dstHeight);
+			GrayU8 maskA = new GrayU8(1,1);
+			GrayU8 maskB = new GrayU8(1,1);
+			expected.apply(input,outputA,maskA);
+			alg.apply(input,outputB,maskB);
+			checkEquals(outputA,outputB);
+			BoofTesting.assertEquals(maskA,maskB,0);
+
+			GImageMiscOps.fill(outputA,0);
+			GImageMiscOps.fill(outputB,0);
+			expected.apply(input,outputA,5,9,33,47);
+			alg.apply(input,outputB,5,9,33,47);
+			checkEquals(outputA,outputB);
+		}
+	}
+
+	/**
+	 * Compare against the floating point implementation
+	 */
+	@Test
+	void compareToFloat_IL() {
+		compareToFloat_IL(new PixelTransformAffine_F32(affine));
+		compareToFloat_IL(new Radial());
+	}
+
+	void compareToFloat_IL( PixelTransform<Point2D_F32> transform ) {
+		int numBands = 3;
+		InterleavedU8 input = new InterleavedU8(srcWidth,srcHeight,numBands);
+		GImageMiscOps.fillUniform(input,rand,0,256);
+
+		InterpolatePixelMB<InterleavedU8> interpolate = FactoryInterpolation.createPixelMB(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, input.getImageType());
+
+		ImageDistortBasic_IL<InterleavedU8,InterleavedF32> expected =
+				new ImageDistortBasic_IL<>(new AssignPixelValue_MB.F32(),interpolate.copy());
+		ImageDistortFixed_U8.IL alg = new ImageDistortFixed_U8.IL(interpolate.copy());
+
+		expected.setModel(transform);
+		alg.setModel(transform);
+
+		for( boolean renderAll : new boolean[]{true,false}) {
+			expected.setRenderAll(renderAll);
+			alg.setRenderAll(renderAll);
+
+			InterleavedF32 outputA = new InterleavedF32(dstWidth,dstHeight,numBands);
+			InterleavedU8 outputB = new InterleavedU8(dstWidth,dstHeight,numBands);
+			GrayU8 maskA = new GrayU8(1,1);
+			GrayU8 maskB = new GrayU8(1,1);
+			expected.apply(input,outputA,maskA);
+			alg.apply(input,outputB,maskB);
+			checkEquals(outputA,outputB);
+			BoofTesting.assertEquals(maskA,maskB,0);
+
+			GImageMiscOps.fill(outputA,0);
+			GImageMiscOps.fill(outputB,0);
+			expected.apply(input,outputA,5,9,33,47);
+			alg.apply(input,outputB,5,9,33,47);
+			checkEquals(outputA,outputB);
+		}
+	}
+
+	/**
+	 * Changing the model or the image shape must cause the map to be recomputed
+	 */
+	@Test
+	void recomputeMap() {
+		GrayU8 input = new GrayU8(srcWidth,srcHeight);
+		GImageMiscOps.fillUniform(input,rand,0,256);
+
+		ImageDistort<GrayU8,GrayU8> alg = FactoryDistort.distortFixedU8(
+				BorderType.EXTENDED,ImageType.single(GrayU8.class));
+		ImageDistort<GrayU8,GrayU8> fresh = FactoryDistort.distortFixedU8(
+				BorderType.EXTENDED,ImageType.single(GrayU8.class));
+
+		alg.setModel(new PixelTransformAffine_F32(affine));
+		alg.apply(input,new GrayU8(dstWidth,dstHeight));
+
+		// new model
+		PixelTransform<Point2D_F32> transform = new Radial();
+		alg.setModel(transform);
+		fresh.setModel(transform);
+		GrayU8 outputA = new GrayU8(dstWidth,dstHeight);
+		GrayU8 outputB = new GrayU8(dstWidth,dstHeight);
+		alg.apply(input,outputA);
+		fresh.apply(input,outputB);
+		BoofTesting.assertEquals(outputA,outputB,0);
+
+		// new output shape
+		outputA.reshape(dstWidth-5,dstHeight+3);
+		outputB.reshape(dstWidth-5,dstHeight+3);
+		fresh = FactoryDistort.distortFixedU8(BorderType.EXTENDED,ImageType.single(GrayU8.class));
+		fresh.setModel(transform);
+		alg.apply(input,outputA);
+		fresh.apply(input,outputB);
+		BoofTesting.assertEquals(outputA,outputB,0);
+
+		// Sub-image input. Same shape but different stride
+		GrayU8 sub = BoofTesting.createSubImageOf(input);
+		alg.apply(sub,outputA);
+		BoofTesting.assertEquals(outputA,outputB,0);
+	}
+
+	/**
+	 * The input and output images must have the same number of bands
+	 */
+	@Test
+	void mismatchedBands() {
+		InterpolatePixelMB<InterleavedU8> interpolate = FactoryInterpolation.createPixelMB(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, ImageType.il(3,InterleavedU8.class));
+		ImageDistortFixed_U8.IL alg = new ImageDistortFixed_U8.IL(interpolate);
+		alg.setModel(new PixelTransformAffine_F32(affine));
+
+		InterleavedU8 input = new InterleavedU8(srcWidth,srcHeight,3);
+		assertThrows(IllegalArgumentException.class,()->
+				alg.apply(input,new InterleavedU8(dstWidth,dstHeight,2)));
+	}
+
+	@Test
+	void factory() {
+		assertTrue(FactoryDistort.distortFixedU8(BorderType.ZERO,ImageType.single(GrayU8.class))
+				instanceof ImageDistortFixed_U8.SB);
+		assertTrue(FactoryDistort.distortFixedU8(BorderType.ZERO,ImageType.il(3,InterleavedU8.class))
+				instanceof ImageDistortFixed_U8.IL);
+		assertThrows(IllegalArgumentException.class,()->
+				FactoryDistort.distortFixedU8(BorderType.ZERO,ImageType.single(GrayF32.class)));
+	}
+
+	/**
+	 * Fixed point weights have 8-bits of precision, which can introduce an error of up to one, and the output is
+	 * rounded instead of truncated
+	 */
+	private static void checkEquals( ImageGray expected , GrayU8 found ) {
+		for (int y = 0; y < found.height; y++) {
+			for (int x = 0; x < found.width; x++) {
+				float e = ((GrayF32)expected).get(x,y);
+				assertEquals(e,found.get(x,y),1.5);
+			}
+		}
+	}
+
+	private static void checkEquals( InterleavedF32 expected , InterleavedU8 found ) {
+		for (int y = 0; y < found.height; y++) {
+			for (int x = 0; x < found.width; x++) {
+				for (int band = 0; band < found.numBands; band++) {
+					assertEquals(expected.getBand(x,y,band),found.getBand(x,y,band),1.5);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Non-linear transform similar to radial lens distortion
+	 */
+	private static class Radial implements PixelTransform<Point2D_F32> {
+		@Override
+		public void compute(int x, int y, Point2D_F32 output) {
+			float dx = (x-25)/25.0f, dy = (y-35)/25.0f;
+			float scale = 1.0f + 0.2f*(dx*dx + dy*dy);
+			output.x = 30 + 28*dx*scale;
+			output.y = 40 + 28*dy*scale;
+		}
+
+		@Override
+		public PixelTransform<Point2D_F32> copyConcurrent() {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistortFixed_U8_MT {
+	Random rand = new Random(234);
+	int width = 60,height=80;
+	private static final int NUM_BANDS = 2;
+
+	@Test
+	void compare_SB() {
+		GrayU8 input = new GrayU8(width,height);
+		GrayU8 output_ST = new GrayU8(width,height);
+		GrayU8 output_MT = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(input,rand,0,256);
+
+		InterpolatePixelS<GrayU8> interpolate = FactoryInterpolation.createPixelS(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, GrayU8.class);
+
+		ImageDistortFixed_U8.SB alg_ST = new ImageDistortFixed_U8.SB(interpolate.copy());
+		ImageDistortFixed_U8_MT.SB alg_MT = new ImageDistortFixed_U8_MT.SB(interpolate.copy());
+
+		alg_ST.setModel(new Transform());
+		alg_MT.setModel(new Transform());
+
+		alg_ST.apply(input,output_ST);
+		alg_MT.apply(input,output_MT);
+		BoofTesting.assertEquals(output_ST,output_MT,0);
+
+		// mask and a cropped region
+		GrayU8 mask_ST = new GrayU8(width,height);
+		GrayU8 mask_MT = new GrayU8(width,height);
+		alg_ST.setRenderAll(false);
+		alg_MT.setRenderAll(false);
+		alg_ST.apply(input,output_ST,mask_ST);
+		alg_MT.apply(input,output_MT,mask_MT);
+		BoofTesting.assertEquals(output_ST,output_MT,0);
+		BoofTesting.assertEquals(mask_ST,mask_MT,0);
+
+		alg_ST.apply(input,output_ST,5,9,33,47);
+		alg_MT.apply(input,output_MT,5,9,33,47);
+		BoofTesting.assertEquals(output_ST,output_MT,0);
+	}
+
+	@Test
+	void compare_IL() {
+		InterleavedU8 input = new InterleavedU8(width,height,NUM_BANDS);
+		InterleavedU8 output_ST = new InterleavedU8(width,height,NUM_BANDS);
+		InterleavedU8 output_MT = new InterleavedU8(width,height,NUM_BANDS);
+		GImageMiscOps.fillUniform(input,rand,0,256);
+
+		InterpolatePixelMB<InterleavedU8> interpolate = FactoryInterpolation.createPixelMB(
+				0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED, ImageType.il(NUM_BANDS,InterleavedU8.class));
+
+		ImageDistortFixed_U8.IL alg_ST = new ImageDistortFixed_U8.IL(interpolate.copy());
+		ImageDistortFixed_U8_MT.IL alg_MT = new ImageDistortFixed_U8_MT.IL(interpolate.copy());
+
+		alg_ST.setModel(new Transform());
+		alg_MT.setModel(new Transform());
+
+		alg_ST.apply(input,output_ST);
+		alg_MT.apply(input,output_MT);
+		BoofTesting.assertEquals(output_ST,output_MT,0);
+
+		// mask and a cropped region
+		GrayU8 mask_ST = new GrayU8(width,height);
+		GrayU8 mask_MT = new GrayU8(width,height);
+		alg_ST.setRenderAll(false);
+		alg_MT.setRenderAll(false);
+		alg_ST.apply(input,output_ST,mask_ST);
+		alg_MT.apply(input,output_MT,mask_MT);
+		BoofTesting.assertEquals(output_ST,output_MT,0);
+		BoofTesting.assertEquals(mask_ST,mask_MT,0);
+
+		alg_ST.apply(input,output_ST,5,9,33,47);
+		alg_MT.apply(input,output_MT,5,9,33,47);
+		BoofTesting.assertEquals(output_ST,output_MT,0);
+	}
+
+	/**
+	 * Transform where some pixels will be outside the input image
+	 */
+	public static class Transform extends PixelTransformAffine_F32 {
+		public Transform() {
+			getModel().set(1.2f,0.1f,-0.05f,0.9f,-5,3);
+		}
+
+		@Override
+		public PixelTransformAffine_F32 copyConcurrent() {
+			return new Transform();
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.pipeline;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.filter.convolve.ConvolveImageNormalized;
+import boofcv.alg.filter.derivative.GradientSobel;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.PixelMath;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.ConvertImage;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Peter Abeles
+ */
+class TestRowPipeline_F32 {
+	Random rand = new Random(234);
+	int width = 40, height = 55;
+
+	/**
+	 * Compare a typical chain of operations against applying each operation to an entire image
+	 */
+	@Test
+	void blurSobelEdge() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+
+		// expected results
+		GrayF32 converted = ConvertImage.convert(input,(GrayF32)null);
+		GrayF32 blurred = BlurImageOps.gaussian(converted,null,-1,3,null);
+		GrayF32 derivX = new GrayF32(width,height);
+		GrayF32 derivY = new GrayF32(width,height);
+		GradientSobel.process(blurred,derivX,derivY,
+				(ImageBorder_F32)FactoryImageBorder.single(BorderType.EXTENDED,GrayF32.class));
+		GrayF32 intensity = new GrayF32(width,height);
+		GrayF32 direction = new GrayF32(width,height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				float dx = derivX.get(x,y), dy = derivY.get(x,y);
+				intensity.set(x,y,(float)Math.sqrt(dx*dx+dy*dy));
+				direction.set(x,y,Math.abs(dx) < 1e-10f ? (float)(Math.PI/2.0) : (float)Math.atan(dy/dx));
+			}
+		}
+
+		RowPipeline_F32 alg = new RowPipeline_F32().gaussian(-1,3).sobel();
+		GrayF32 foundX = new GrayF32(1,1);
+		GrayF32 foundY = new GrayF32(1,1);
+		alg.process(input,foundX,foundY);
+		BoofTesting.assertEquals(derivX,foundX,1e-3);
+		BoofTesting.assertEquals(derivY,foundY,1e-3);
+
+		alg.edgeIntensity(true);
+		GrayF32 foundI = new GrayF32(1,1);
+		GrayF32 foundD = new GrayF32(1,1);
+		alg.process(input,foundI,foundD);
+		assertEquals(2,alg.getOutputBands());
+		BoofTesting.assertEquals(intensity,foundI,1e-3);
+		// direction is sensitive to small errors when the gradient is small
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				if( intensity.get(x,y) > 1 )
+					assertEquals(direction.get(x,y),foundD.get(x,y),1e-3);
+			}
+		}
+	}
+
+	/**
+	 * Kernels with an offset that isn't the center and kernels larger than the image
+	 */
+	@Test
+	void convolve() {
+		GrayF32 input = new GrayF32(width,height);
+		GImageMiscOps.fillUniform(input,rand,-10,10);
+
+		for( int kernelWidth : new int[]{1,4,7,70}) {
+			int offset = kernelWidth/3;
+			Kernel1D_F32 kernel = FactoryKernel.random1D_F32(kernelWidth,offset,0.1f,1.0f,rand);
+
+			GrayF32 expected = new GrayF32(width,height);
+			GrayF32 found = new GrayF32(width,height);
+
+			ConvolveImageNormalized.horizontal(kernel,input,expected);
+			new RowPipeline_F32().horizontal(kernel).process(input,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+
+			ConvolveImageNormalized.vertical(kernel,input,expected);
+			new RowPipeline_F32().vertical(kernel).process(input,found);
+			BoofTesting.assertEquals(expected,found,1e-4);
+		}
+	}
+
+	@Test
+	void pixelMath() {
+		GrayS16 input = new GrayS16(width,height);
+		GImageMiscOps.fillUniform(input,rand,-100,100);
+
+		GrayF32 expected = ConvertImage.convert(input,(GrayF32)null);
+		PixelMath.multiply(expected,2.0f,expected);
+		PixelMath.plus(expected,-5.0f,expected);
+		PixelMath.abs(expected,expected);
+
+		GrayF32 found = new GrayF32(1,1);
+		new RowPipeline_F32().linear(2.0f,-5.0f).abs().process(input,found);
+		BoofTesting.assertEquals(expected,found,1e-4);
+	}
+
+	/**
+	 * Results should be identical with and without concurrency
+	 */
+	@Test
+	void compareConcurrent() {
+		GrayU8 input = new GrayU8(width,300);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+
+		RowPipeline_F32 alg = new RowPipeline_F32().gaussian(-1,4).sobel().abs();
+
+		GrayF32 expectedX = new GrayF32(1,1), expectedY = new GrayF32(1,1);
+		GrayF32 foundX = new GrayF32(1,1), foundY = new GrayF32(1,1);
+
+		BoofConcurrency.USE_CONCURRENT = false;
+		alg.process(input,expectedX,expectedY);
+		BoofConcurrency.USE_CONCURRENT = true;
+		alg.process(input,foundX,foundY);
+
+		BoofTesting.assertEquals(expectedX,foundX,0);
+		BoofTesting.assertEquals(expectedY,foundY,0);
+	}
+
+	/**
+	 * Sub-images for the input and output
+	 */
+	@Test
+	void subimage() {
+		GrayU8 input = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+
+		RowPipeline_F32 alg = new RowPipeline_F32().gaussian(-1,2).sobel().edgeIntensity(false);
+
+		GrayF32 expected = new GrayF32(width,height);
+		GrayF32 found = BoofTesting.createSubImageOf(new GrayF32(width,height));
+		alg.process(input,expected);
+		GrayU8 subInput = BoofTesting.createSubImageOf(input);
+		alg.process(subInput,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	void checkBands() {
+		GrayU8 input = new GrayU8(width,height);
+
+		// wrong number of output images
+		assertThrows(IllegalArgumentException.class,()->
+				new RowPipeline_F32().sobel().process(input,new GrayF32(1,1)));
+		// edge intensity requires a gradient
+		assertThrows(IllegalArgumentException.class,()->
+				new RowPipeline_F32().edgeIntensity(false).process(input,new GrayF32(1,1)));
+		// no operators
+		assertThrows(IllegalArgumentException.class,()->
+				new RowPipeline_F32().process(input,new GrayF32(1,1)));
+	}
+}
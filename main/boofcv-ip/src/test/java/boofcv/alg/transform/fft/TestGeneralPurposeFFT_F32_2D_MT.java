@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneralPurposeFFT_F32_2D_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compare() {
+		// power of two, mixed radix, and Bluestein
+		int[][] shapes = new int[][]{{32,64},{64,32},{30,45},{31,211}};
+		for( int[] shape : shapes ) {
+			int numRows = shape[0], numColumns = shape[1];
+			float[] input = new float[numRows*numColumns*2];
+			for( int i = 0; i < input.length; i++ ) {
+				input[i] = (float)rand.nextGaussian();
+			}
+
+			boolean powerOf2 = DiscreteFourierTransformOps.isPowerOf2(numRows) &&
+					DiscreteFourierTransformOps.isPowerOf2(numColumns);
+
+			float[][] expected = new float[6][];
+			float[][] found = new float[6][];
+			for( boolean concurrent : new boolean[]{false,true} ) {
+				float[][] results = concurrent ? found : expected;
+				GeneralPurposeFFT_F32_2D alg = concurrent ?
+						new GeneralPurposeFFT_F32_2D_MT(numRows,numColumns) :
+						new GeneralPurposeFFT_F32_2D(numRows,numColumns);
+
+				results[0] = input.clone(); alg.complexForward(results[0]);
+				results[1] = input.clone(); alg.complexInverse(results[1],true);
+				results[2] = input.clone(); alg.realForwardFull(results[2]);
+				results[3] = input.clone(); alg.realInverseFull(results[3],true);
+				if( powerOf2 ) {
+					results[4] = input.clone(); alg.realForward(results[4]);
+					results[5] = input.clone(); alg.realInverse(results[5],true);
+				}
+			}
+
+			for( int i = 0; i < expected.length; i++ ) {
+				assertArrayEquals(expected[i],found[i]);
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -71,6 +71,87 @@ class TestBoofConcurrency {
 		fail("Couldn't find pair "+val0+" "+val1);
 	}
 
+	@Test
+	void bind_runWith() {
+		ConcurrencyContext context = new ConcurrencyContext(3);
+		try {
+			assertEquals(numThreads, BoofConcurrency.getMaxThreads());
+			BoofConcurrency.runWith(context, () -> {
+				assertSame(context, BoofConcurrency.getContext());
+				assertEquals(3, BoofConcurrency.getMaxThreads());
+				assertTrue(BoofConcurrency.isUseConcurrent());
+			});
+			// the previous context should be restored
+			assertEquals(numThreads, BoofConcurrency.getMaxThreads());
+
+			BoofConcurrency.bind(context);
+			assertEquals(3, BoofConcurrency.getMaxThreads());
+			BoofConcurrency.unbind();
+			assertEquals(numThreads, BoofConcurrency.getMaxThreads());
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	/**
+	 * Nested loops which are invoked inside a worker thread should stay inside the same context
+	 */
+	@Test
+	void nestedCallsStayInContext() {
+		ConcurrencyContext context = new ConcurrencyContext(2);
+		try {
+			GrowQueue_I32 found = new GrowQueue_I32();
+			BoofConcurrency.runWith(context, () -> BoofConcurrency.loopFor(0, 10, i -> {
+				synchronized (found) {
+					found.add(BoofConcurrency.getMaxThreads());
+				}
+			}));
+			assertEquals(10, found.size);
+			for (int i = 0; i < found.size; i++) {
+				assertEquals(2, found.get(i));
+			}
+		} finally {
+			context.shutdown();
+		}
+	}
+
+	/**
+	 * A single threaded context should process everything in the calling thread
+	 */
+	@Test
+	void singleThreadContext() {
+		ConcurrencyContext context = new ConcurrencyContext(1);
+		Thread caller = Thread.currentThread();
+		GrowQueue_I32 found = new GrowQueue_I32();
+
+		BoofConcurrency.runWith(context, () -> {
+			assertFalse(BoofConcurrency.isUseConcurrent());
+			BoofConcurrency.loopBlocks(10, 100, 12, (i0, i1) -> {
+				assertSame(caller, Thread.currentThread());
+				found.add(i0);
+				found.add(i1);
+			});
+			assertEquals(45, BoofConcurrency.sum(5,10,int.class,i->i+2).intValue());
+		});
+
+		assertEquals(2, found.size);
+		assertEquals(10, found.get(0));
+		assertEquals(100, found.get(1));
+		context.shutdown();
+	}
+
+	/**
+	 * Changing the number of threads should release the threads in the previous global pool
+	 */
+	@Test
+	void setMaxThreads_shutdownPrevious() {
+		ConcurrencyContext previous = BoofConcurrency.getContext();
+		BoofConcurrency.setMaxThreads(numThreads);
+		assertNotSame(previous, BoofConcurrency.getContext());
+		assertTrue(previous.pool.isShutdown());
+		assertFalse(BoofConcurrency.getContext().pool.isShutdown());
+	}
+
 	@Test
 	void selectBlockSize() {
 		assertEquals(10,BoofConcurrency.selectBlockSize(100,5,10));
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks TLD on a 720p image. The target is learned then tracked for one frame, which is dominated by the
+ * detection cascade
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkTldDetection {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	GrayF32 image0 = new GrayF32(1280,720);
+	GrayF32 image1 = new GrayF32(1280,720);
+
+	TldTracker<GrayF32,GrayF32> tracker;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Random rand = new Random(234);
+		GrayF32 noise = image0.createSameShape();
+		ImageMiscOps.fillUniform(noise,rand,0,255);
+		BlurImageOps.gaussian(noise,image0,-1,2,null);
+		new FDistort(image0,image1).affine(1,0,0,1,3,-2).borderExt().apply();
+
+		tracker = new TldTracker<>(new TldParameters(),
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),
+				FactoryDerivative.sobel(GrayF32.class, GrayF32.class), GrayF32.class, GrayF32.class, concurrent);
+		// learning is turned off so that each call is the same
+		tracker.setPerformLearning(false);
+	}
+
+	@Benchmark
+	public void track() {
+		tracker.initialize(image0, 400, 200, 560, 380);
+		tracker.track(image1);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTldDetection.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tracking several targets with independent {@link TldTracker} against {@link TldMultiTracker}, with
+ * and without a shared grid
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkTldMultiTracker {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"1","4"})
+	public int numTargets;
+
+	GrayF32[] frames = new GrayF32[2];
+
+	TldParameters config = new TldParameters();
+	TldTracker<GrayF32,GrayF32>[] single;
+	TldMultiTracker<GrayF32,GrayF32> multi;
+	TldMultiTracker<GrayF32,GrayF32> multiGrid;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		Random rand = new Random(234);
+		GrayF32 noise = new GrayF32(640,480);
+		ImageMiscOps.fillUniform(noise,rand,0,255);
+		GrayF32 blurred = noise.createSameShape();
+		BlurImageOps.gaussian(noise,blurred,-1,2,null);
+		for (int i = 0; i < frames.length; i++) {
+			frames[i] = blurred.createSameShape();
+			new FDistort(blurred,frames[i]).affine(1,0,0,1,i*2,-i*1.5).borderExt().apply();
+		}
+
+		single = new TldTracker[numTargets];
+		multi = new TldMultiTracker<>(config,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),
+				FactoryDerivative.sobel(GrayF32.class, GrayF32.class), GrayF32.class, GrayF32.class);
+		multi.process(frames[0]);
+		multiGrid = new TldMultiTracker<>(config,
+				FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),
+				FactoryDerivative.sobel(GrayF32.class, GrayF32.class), GrayF32.class, GrayF32.class, true);
+		multiGrid.process(frames[0]);
+		for (int i = 0; i < numTargets; i++) {
+			int x0 = 40 + 140*i, y0 = 60 + 60*i;
+			single[i] = new TldTracker<>(config,
+					FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED),
+					FactoryDerivative.sobel(GrayF32.class, GrayF32.class), GrayF32.class, GrayF32.class);
+			single[i].initialize(frames[0], x0, y0, x0+100, y0+120);
+			multi.addTarget(x0, y0, x0+100, y0+120);
+			multiGrid.addTarget(x0, y0, x0+100, y0+120);
+		}
+	}
+
+	@Benchmark
+	public void independent() {
+		for (int i = 0; i < numTargets; i++) {
+			single[i].track(frames[1]);
+		}
+	}
+
+	@Benchmark
+	public void shared() {
+		multi.process(frames[1]);
+	}
+
+	@Benchmark
+	public void sharedGrid() {
+		multiGrid.process(frames[1]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkTldMultiTracker.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -38,11 +38,11 @@ import java.util.List;
 public class TldDetection<T extends ImageGray<T>> {
 
 	// Detects rectangles: Removes candidates don't match the fern descriptors
-	private TldFernClassifier<T> fern;
+	protected TldFernClassifier<T> fern;
 	// Detects rectangles: Removes candidates don't match NCC descriptors
 	protected TldTemplateMatching<T> template;
 	// Detects rectangles: Removes candidates which lack texture
-	private TldVarianceFilter<T> variance;
+	protected TldVarianceFilter<T> variance;
 
 	// Storage for results of the fern test on individual regions
 	protected FastQueue<TldRegionFernInfo> fernInfo = new FastQueue<>(TldRegionFernInfo.class, true);
@@ -109,28 +109,17 @@ public class TldDetection<T extends ImageGray<T>> {
 
 		fernInfo.reset();
 
-		int totalP = 0;
-		int totalN = 0;
-
 		// Run through all candidate regions, ignore ones without enough variance, compute
 		// the fern for each one
-		TldRegionFernInfo info = fernInfo.grow();
-		for( int i = 0; i < cascadeRegions.size; i++ ) {
-			ImageRectangle region = cascadeRegions.get(i);
-
-			if( !variance.checkVariance(region)) {
-				continue;
-			}
+		computeFernInfo(cascadeRegions);
 
-			info.r = region;
-
-			if( fern.lookupFernPN(info)) {
-				totalP += info.sumP;
-				totalN += info.sumN;
-				info = fernInfo.grow();
-			}
+		int totalP = 0;
+		int totalN = 0;
+		for( int i = 0; i < fernInfo.size; i++ ) {
+			TldRegionFernInfo info = fernInfo.get(i);
+			totalP += info.sumP;
+			totalN += info.sumN;
 		}
-		fernInfo.removeTail();
 
 		// avoid overflow errors in the future by re-normalizing the Fern detector
 		if( totalP > 0x0fffffff)
@@ -159,6 +148,28 @@ public class TldDetection<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Applies the variance test to each region and looks up the fern values for the ones which pass. Regions
+	 * with a known fern value are saved in {@link #fernInfo}.
+	 */
+	protected void computeFernInfo( FastQueue<ImageRectangle> cascadeRegions ) {
+		TldRegionFernInfo info = fernInfo.grow();
+		for( int i = 0; i < cascadeRegions.size; i++ ) {
+			ImageRectangle region = cascadeRegions.get(i);
+
+			if( !variance.checkVariance(region)) {
+				continue;
+			}
+
+			info.r = region;
+
+			if( fern.lookupFernPN(info)) {
+				info = fernInfo.grow();
+			}
+		}
+		fernInfo.removeTail();
+	}
+
 	/**
 	 * Computes the confidence for all the regions which pass the fern test
 	 */
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.feature.NccFeature;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link TldDetection}. Regions are split into blocks and the variance, fern, and
+ * template tests for each block are done in a separate thread. Each thread has its own interpolation and
+ * descriptor storage. Results from each block are merged in order so the output is identical to the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class TldDetection_MT<T extends ImageGray<T>> extends TldDetection<T> {
+
+	/**
+	 * Minimum number of regions in a block for the variance and fern tests
+	 */
+	public int minBlockFern = 200;
+	/**
+	 * Minimum number of regions in a block for the template test
+	 */
+	public int minBlockTemplate = 10;
+
+	// interpolation used by the fern and template classifiers. Used to get the current image.
+	private InterpolatePixelS<T> interpolate;
+
+	// Storage for each block
+	private FastQueue<Block> blocks;
+	// blocks sorted by the first region they processed
+	private List<Block> sorted = new ArrayList<>();
+
+	public TldDetection_MT( TldFernClassifier<T> fern, TldTemplateMatching<T> template,
+							TldVarianceFilter<T> variance, InterpolatePixelS<T> interpolate, TldParameters config ) {
+		super(fern, template, variance, config);
+		this.interpolate = interpolate;
+		this.blocks = new FastQueue(Block.class, ()->new Block());
+	}
+
+	@Override
+	protected void computeFernInfo( FastQueue<ImageRectangle> cascadeRegions ) {
+		// results from the previous call are left in the blocks if there are no regions
+		blocks.reset();
+		BoofConcurrency.loopBlocks(0, cascadeRegions.size, minBlockFern, blocks, (block, idx0, idx1) -> {
+			block.start = idx0;
+			block.fernInfo.reset();
+			block.interpolate.setImage(interpolate.getImage());
+
+			TldRegionFernInfo info = block.fernInfo.grow();
+			for( int i = idx0; i < idx1; i++ ) {
+				ImageRectangle region = cascadeRegions.get(i);
+
+				if( !variance.checkVariance(region)) {
+					continue;
+				}
+
+				info.r = region;
+
+				if( fern.lookupFernPN(info, block.interpolate)) {
+					info = block.fernInfo.grow();
+				}
+			}
+			block.fernInfo.removeTail();
+		});
+
+		// combine results from each block in the same order as the input regions
+		sortBlocks();
+		for( int i = 0; i < sorted.size(); i++ ) {
+			FastQueue<TldRegionFernInfo> found = sorted.get(i).fernInfo;
+			for( int j = 0; j < found.size; j++ ) {
+				TldRegionFernInfo a = found.get(j);
+				TldRegionFernInfo b = fernInfo.grow();
+				b.r = a.r;
+				b.sumP = a.sumP;
+				b.sumN = a.sumN;
+			}
+		}
+	}
+
+	@Override
+	protected void computeTemplateConfidence() {
+		// results from the previous call are left in the blocks if there are no regions
+		blocks.reset();
+		BoofConcurrency.loopBlocks(0, fernRegions.size(), minBlockTemplate, blocks, (block, idx0, idx1) -> {
+			block.start = idx0;
+			block.candidates.reset();
+			block.interpolate.setImage(interpolate.getImage());
+
+			for( int i = idx0; i < idx1; i++ ) {
+				ImageRectangle region = fernRegions.get(i);
+
+				double confidence = template.computeConfidence(region.x0, region.y0, region.x1, region.y1,
+						block.observed, block.interpolate);
+
+				if( confidence < config.confidenceThresholdUpper)
+					continue;
+				TldRegion r = block.candidates.grow();
+				r.connections = 0;
+				r.rect.set(region);
+				r.confidence = confidence;
+			}
+		});
+
+		// combine results from each block in the same order as the input regions
+		sortBlocks();
+		for( int i = 0; i < sorted.size(); i++ ) {
+			FastQueue<TldRegion> found = sorted.get(i).candidates;
+			for( int j = 0; j < found.size; j++ ) {
+				TldRegion a = found.get(j);
+				TldRegion b = candidateDetections.grow();
+				b.connections = a.connections;
+				b.rect.set(a.rect);
+				b.confidence = a.confidence;
+			}
+		}
+	}
+
+	/**
+	 * Sorts the blocks processed in the last loop by the first region in each block
+	 */
+	private void sortBlocks() {
+		sorted.clear();
+		for( int i = 0; i < blocks.size; i++ ) {
+			Block b = blocks.get(i);
+			int j = sorted.size();
+			while( j > 0 && sorted.get(j-1).start > b.start )
+				j--;
+			sorted.add(j, b);
+		}
+	}
+
+	/**
+	 * Workspace and results for a block of regions
+	 */
+	private class Block {
+		// index of the first region in the block
+		int start;
+		// interpolation for this thread
+		InterpolatePixelS<T> interpolate = TldDetection_MT.this.interpolate.copy();
+		// storage for the descriptor of the region being processed
+		NccFeature observed = new NccFeature(15*15);
+		// regions which passed the fern test
+		FastQueue<TldRegionFernInfo> fernInfo = new FastQueue<>(TldRegionFernInfo.class, true);
+		// regions which passed the template test
+		FastQueue<TldRegion> candidates = new FastQueue<>(TldRegion.class, true);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -170,6 +170,18 @@ public class TldFernClassifier<T extends ImageGray<T>> {
 	 * @return true if a known value for any of the ferns was observed in this region
 	 */
 	public boolean lookupFernPN( TldRegionFernInfo info ) {
+		return lookupFernPN(info, interpolate);
+	}
+
+	/**
+	 * Same as {@link #lookupFernPN(TldRegionFernInfo)} but samples the image using the provided interpolation.
+	 * Fern tables are only read so this can be called from multiple threads, each with its own interpolation.
+	 *
+	 * @param info (Input) Location/Rectangle (output) P and N values
+	 * @param interpolate Interpolation which has been set to the current image
+	 * @return true if a known value for any of the ferns was observed in this region
+	 */
+	public boolean lookupFernPN( TldRegionFernInfo info , InterpolatePixelS<T> interpolate ) {
 
 		ImageRectangle r = info.r;
 
@@ -185,7 +197,7 @@ public class TldFernClassifier<T extends ImageGray<T>> {
 		for( int i = 0; i < ferns.length; i++ ) {
 			TldFernDescription fern = ferns[i];
 
-			int value = computeFernValue(c_x, c_y, rectWidth, rectHeight, fern);
+			int value = computeFernValue(c_x, c_y, rectWidth, rectHeight, fern, interpolate);
 
 			TldFernFeature f = managers[i].table[value];
 			if( f != null ) {
@@ -200,10 +212,67 @@ public class TldFernClassifier<T extends ImageGray<T>> {
 		return sumN != 0 || sumP != 0;
 	}
 
+	/**
+	 * Computes the value of every fern inside the region. Values can be looked up later using
+	 * {@link #lookupFernPN(TldRegionFernInfo, int[], int)}. Fern descriptions are only read so this can be called
+	 * from multiple threads, each with its own interpolation.
+	 *
+	 * @param r Region the ferns are computed inside of
+	 * @param interpolate Interpolation which has been set to the current image
+	 * @param values (Output) Storage for the value of each fern
+	 * @param offset Index of the first fern's value in values
+	 */
+	public void computeFernValues( ImageRectangle r , InterpolatePixelS<T> interpolate , int[] values , int offset ) {
+		float rectWidth = r.getWidth();
+		float rectHeight = r.getHeight();
+
+		float c_x = r.x0+(rectWidth-1)/2.0f;
+		float c_y = r.y0+(rectHeight-1)/2.0f;
+
+		for( int i = 0; i < ferns.length; i++ ) {
+			values[offset+i] = computeFernValue(c_x, c_y, rectWidth, rectHeight, ferns[i], interpolate);
+		}
+	}
+
+	/**
+	 * Same as {@link #lookupFernPN(TldRegionFernInfo)} but with fern values which have already been computed by
+	 * {@link #computeFernValues}.
+	 *
+	 * @param info (Input) Location/Rectangle (output) P and N values
+	 * @param values Value of each fern inside the region
+	 * @param offset Index of the first fern's value in values
+	 * @return true if a known value for any of the ferns was observed in this region
+	 */
+	public boolean lookupFernPN( TldRegionFernInfo info , int[] values , int offset ) {
+		int sumP = 0;
+		int sumN = 0;
+
+		for( int i = 0; i < ferns.length; i++ ) {
+			TldFernFeature f = managers[i].table[values[offset+i]];
+			if( f != null ) {
+				sumP += f.numP;
+				sumN += f.numN;
+			}
+		}
+
+		info.sumP = sumP;
+		info.sumN = sumN;
+
+		return sumN != 0 || sumP != 0;
+	}
+
 	/**
 	 * Computes the value of the specified fern at the specified location in the image.
 	 */
 	protected int computeFernValue(float c_x, float c_y, float rectWidth , float rectHeight , TldFernDescription fern ) {
+		return computeFernValue(c_x, c_y, rectWidth, rectHeight, fern, interpolate);
+	}
+
+	/**
+	 * Computes the value of the specified fern at the specified location using the provided interpolation.
+	 */
+	protected int computeFernValue(float c_x, float c_y, float rectWidth , float rectHeight , TldFernDescription fern ,
+								   InterpolatePixelS<T> interpolate ) {
 
 		rectWidth -= 1;
 		rectHeight -= 1;
@@ -291,6 +360,13 @@ public class TldFernClassifier<T extends ImageGray<T>> {
 		maxN = targetMax;
 	}
 
+	/**
+	 * Number of ferns in the classifier
+	 */
+	public int getNumFerns() {
+		return ferns.length;
+	}
+
 	public int getMaxP() {
 		return maxP;
 	}
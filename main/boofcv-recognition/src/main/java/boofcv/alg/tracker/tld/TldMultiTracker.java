@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.ddogleg.struct.GrowQueue_B;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * <p>
+ * Tracks multiple targets using {@link TldTracker TLD}. Image processing which does not depend on the target
+ * is only done once per frame and shared by all the targets. This includes the image pyramid, its gradient, and
+ * the integral images used by the variance filter. Each target is then updated in parallel.
+ * </p>
+ *
+ * <p>
+ * Optionally the sliding window grid can also be shared. Every target's fern classifier is created from the same
+ * seed so their fern descriptions are identical, but the fern values can't be shared because each target
+ * creates its own grid from its size. With a shared grid the width and height of each region are selected
+ * from a fixed set of scales, {@link TldParameters#detectMinimumSide} times a power of 1.2, instead of the
+ * target's size. Targets whose sizes are at similar scales then have regions in common. Fern values are
+ * computed once per frame for every region and each target looks them up in its own fern tables.
+ * </p>
+ *
+ * <p>
+ * Usage: Call {@link #process} for each new image then {@link #addTarget} to start tracking an object in that
+ * image. Results for each target are found by calling {@link #isSuccess(int)} and {@link #getTarget(int)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TldMultiTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
+
+	// Configuration used to create each target
+	private TldParameters config;
+
+	// Used to create the tracker for each target
+	private InterpolatePixelS<T> interpolate;
+	private ImageGradient<T,D> gradient;
+	private Class<T> imageType;
+	private Class<D> derivType;
+
+	// Image pyramid and its gradient for the current image
+	private PyramidDiscrete<T> currentPyramid;
+	private D[] currentDerivX;
+	private D[] currentDerivY;
+
+	// Image pyramid and its gradient for the previous image
+	private PyramidDiscrete<T> previousPyramid;
+	private D[] previousDerivX;
+	private D[] previousDerivY;
+
+	// computes the integral images which are used by all the targets
+	private TldVarianceFilter<T> integral;
+
+	// The most recently processed image
+	private T image;
+
+	// All the targets being tracked
+	private List<Target> targets = new ArrayList<>();
+	// If tracking was successful for each target in the most recent image
+	private GrowQueue_B success = new GrowQueue_B();
+
+	// If true the sliding window grid is shared by all the targets
+	private boolean sharedGrid;
+	// Computes the fern values in the shared grid. Same fern descriptions as every target
+	private TldFernClassifier<T> fernValues;
+	// All region shapes in the shared grid which are used by a target. Key is from shapeKey()
+	private Map<Long,Shape> shapes = new HashMap<>();
+	// shapes which are used by a target
+	private List<Shape> activeShapes = new ArrayList<>();
+	// Incremented each time an image is processed. Used to see if fern values are up to date
+	private int frameID = -1;
+
+	/**
+	 * Configures the tracker
+	 *
+	 * @param config Configuration used for every target
+	 */
+	public TldMultiTracker( TldParameters config ,
+							InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
+							Class<T> imageType , Class<D> derivType ) {
+		this(config, interpolate, gradient, imageType, derivType, false);
+	}
+
+	/**
+	 * Configures the tracker
+	 *
+	 * @param config Configuration used for every target
+	 * @param sharedGrid If true the sliding window grid is shared and fern values are computed once per frame
+	 */
+	public TldMultiTracker( TldParameters config ,
+							InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
+							Class<T> imageType , Class<D> derivType , boolean sharedGrid ) {
+		this.config = config;
+		this.sharedGrid = sharedGrid;
+		this.interpolate = interpolate;
+		this.gradient = gradient;
+		this.imageType = imageType;
+		this.derivType = derivType;
+
+		integral = new TldVarianceFilter<>(imageType);
+
+		// Same as what every target does so the fern descriptions are the same
+		if( sharedGrid ) {
+			fernValues = new TldFernClassifier<>(new Random(config.randomSeed),
+					config.numFerns, config.fernSize, 20, 0.5f, interpolate);
+		}
+	}
+
+	/**
+	 * Discards all the targets
+	 */
+	public void reset() {
+		targets.clear();
+		success.reset();
+		shapes.clear();
+		activeShapes.clear();
+		image = null;
+	}
+
+	/**
+	 * Processes the next image in the sequence and updates the location of all the targets.
+	 *
+	 * @param image Next image in the sequence. Must not be modified until the next call to process.
+	 */
+	public void process( T image ) {
+		if( currentPyramid == null ||
+				currentPyramid.getInputWidth() != image.width || currentPyramid.getInputHeight() != image.height ) {
+			// targets can't be tracked across a change in image shape
+			targets.clear();
+			success.reset();
+			shapes.clear();
+			declarePyramids(image.width, image.height);
+		} else {
+			swapPyramids();
+		}
+		this.image = image;
+
+		currentPyramid.process(image);
+		for (int i = 0; i < currentPyramid.getNumLayers(); i++) {
+			gradient.process(currentPyramid.getLayer(i), currentDerivX[i], currentDerivY[i]);
+		}
+		integral.setImage(image);
+		frameID++;
+
+		if( sharedGrid ) {
+			selectActiveShapes();
+			BoofConcurrency.loopFor(0, activeShapes.size(), i -> activeShapes.get(i).computeFernValues(image));
+		}
+
+		BoofConcurrency.loopFor(0, targets.size(), i -> {
+			success.data[i] = targets.get(i).track(image);
+		});
+	}
+
+	/**
+	 * Starts tracking a new target in the most recently processed image.
+	 *
+	 * @param x0 Top-left corner of rectangle. x-axis
+	 * @param y0 Top-left corner of rectangle. y-axis
+	 * @param x1 Bottom-right corner of rectangle. x-axis
+	 * @param y1 Bottom-right corner of rectangle. y-axis
+	 * @return Tracker for the new target
+	 */
+	public TldTracker<T,D> addTarget( int x0 , int y0 , int x1 , int y1 ) {
+		if( image == null )
+			throw new IllegalArgumentException("process() must be called first");
+
+		Target target = new Target();
+		target.initialize(image, x0, y0, x1, y1);
+		targets.add(target);
+		success.add(true);
+		return target;
+	}
+
+	/**
+	 * Stops tracking the specified target
+	 *
+	 * @param which Index of the target
+	 */
+	public void removeTarget( int which ) {
+		targets.remove(which);
+		success.remove(which, which);
+	}
+
+	/**
+	 * Finds all the shapes which are used by a target and discards the others
+	 */
+	private void selectActiveShapes() {
+		for( Shape shape : shapes.values() ) {
+			shape.used = false;
+		}
+		for (int i = 0; i < targets.size(); i++) {
+			List<Shape> targetShapes = targets.get(i).gridShapes;
+			for (int j = 0; j < targetShapes.size(); j++) {
+				targetShapes.get(j).used = true;
+			}
+		}
+		shapes.values().removeIf(shape -> !shape.used);
+
+		activeShapes.clear();
+		activeShapes.addAll(shapes.values());
+	}
+
+	/**
+	 * Selects the shapes in the shared grid which are closest to the target's size at each scale. Fern values
+	 * are computed for shapes which are new.
+	 *
+	 * @param region Region the target was initialized with
+	 * @param output (Output) Selected shapes
+	 */
+	private void selectShapes( Rectangle2D_F64 region , List<Shape> output ) {
+		output.clear();
+
+		int rectWidth = (int)(region.getWidth()+0.5);
+		int rectHeight = (int)(region.getHeight()+0.5);
+
+		// index of the scale which is closest to the target's size
+		int indexWidth = (int)Math.round(Math.log(rectWidth/(double)config.detectMinimumSide)/Math.log(1.2));
+		int indexHeight = (int)Math.round(Math.log(rectHeight/(double)config.detectMinimumSide)/Math.log(1.2));
+
+		for( int scaleInt = -config.scaleSpread; scaleInt <= config.scaleSpread; scaleInt++ ) {
+			// regions smaller than the minimum size are skipped
+			if( indexWidth+scaleInt < 0 || indexHeight+scaleInt < 0 )
+				continue;
+
+			int actualWidth = (int)(config.detectMinimumSide*Math.pow(1.2,indexWidth+scaleInt));
+			int actualHeight = (int)(config.detectMinimumSide*Math.pow(1.2,indexHeight+scaleInt));
+
+			if( actualWidth >= image.width || actualHeight >= image.height )
+				continue;
+
+			long key = shapeKey(actualWidth, actualHeight);
+			Shape shape = shapes.get(key);
+			if( shape == null ) {
+				shape = new Shape(actualWidth, actualHeight);
+				shapes.put(key, shape);
+			}
+			if( shape.frameID != frameID ) {
+				shape.computeFernValues(image);
+			}
+			output.add(shape);
+		}
+	}
+
+	private static long shapeKey( int width , int height ) {
+		return ((long)width << 32) | height;
+	}
+
+	/**
+	 * Declares the image pyramids. The first layer is copied, instead of referenced, so that the
+	 * previous image is available after the input image has been modified.
+	 */
+	private void declarePyramids( int width , int height ) {
+		int minSize = (config.trackerFeatureRadius*2+1)*5;
+		int[] scales = TldTracker.selectPyramidScale(width, height, minSize);
+
+		currentPyramid = FactoryPyramid.discreteGaussian(scales, -1, 1, false, ImageType.single(imageType));
+		previousPyramid = FactoryPyramid.discreteGaussian(scales, -1, 1, false, ImageType.single(imageType));
+		currentPyramid.initialize(width, height);
+		previousPyramid.initialize(width, height);
+
+		currentDerivX = declareDerivatives(currentPyramid);
+		currentDerivY = declareDerivatives(currentPyramid);
+		previousDerivX = declareDerivatives(currentPyramid);
+		previousDerivY = declareDerivatives(currentPyramid);
+	}
+
+	private D[] declareDerivatives( PyramidDiscrete<T> pyramid ) {
+		D[] derivs = (D[])Array.newInstance(derivType, pyramid.getNumLayers());
+		for (int i = 0; i < derivs.length; i++) {
+			derivs[i] = GeneralizedImageOps.createSingleBand(derivType, pyramid.getWidth(i), pyramid.getHeight(i));
+		}
+		return derivs;
+	}
+
+	/**
+	 * Makes the current image into the previous image
+	 */
+	private void swapPyramids() {
+		PyramidDiscrete<T> tmpPyramid = previousPyramid;
+		previousPyramid = currentPyramid;
+		currentPyramid = tmpPyramid;
+
+		D[] tmp = previousDerivX;
+		previousDerivX = currentDerivX;
+		currentDerivX = tmp;
+		tmp = previousDerivY;
+		previousDerivY = currentDerivY;
+		currentDerivY = tmp;
+	}
+
+	/**
+	 * Returns true if the specified target was successfully tracked in the most recent image
+	 */
+	public boolean isSuccess( int which ) {
+		return success.get(which);
+	}
+
+	/**
+	 * Returns the tracker for the specified target
+	 */
+	public TldTracker<T,D> getTarget( int which ) {
+		return targets.get(which);
+	}
+
+	/**
+	 * Number of targets being tracked
+	 */
+	public int getTargetCount() {
+		return targets.size();
+	}
+
+	/**
+	 * Returns true if the sliding window grid is shared by all the targets
+	 */
+	public boolean isSharedGrid() {
+		return sharedGrid;
+	}
+
+	/**
+	 * Number of region shapes in the shared grid which are used by a target
+	 */
+	public int getSharedShapeCount() {
+		return shapes.size();
+	}
+
+	/**
+	 * TLD tracker for a single target which uses the images computed by its owner instead of its own.
+	 */
+	private class Target extends TldTracker<T,D> {
+		// shapes in the shared grid which this target uses
+		List<Shape> gridShapes = new ArrayList<>();
+
+		Target() {
+			// interpolation has state and each target can be processed in a different thread. Detection is
+			// single threaded since the targets are already processed in parallel
+			super(config, interpolate.copy(), gradient, imageType, derivType);
+		}
+
+		@Override
+		protected void updateImage( T image ) {
+			variance.setImage(integral);
+		}
+
+		@Override
+		protected TldFernClassifier<T> createFernClassifier( Random rand , InterpolatePixelS<T> interpolate ) {
+			if( !sharedGrid )
+				return super.createFernClassifier(rand, interpolate);
+			return new SharedFernClassifier(rand, interpolate);
+		}
+
+		@Override
+		protected void createCascadeRegion( int imageWidth , int imageHeight ) {
+			if( !sharedGrid ) {
+				super.createCascadeRegion(imageWidth, imageHeight);
+				return;
+			}
+
+			selectShapes(getTargetRegion(), gridShapes);
+
+			cascadeRegions.reset();
+			for (int i = 0; i < gridShapes.size(); i++) {
+				Shape shape = gridShapes.get(i);
+				for (int j = 0; j < shape.rows*shape.cols; j++) {
+					shape.region(j, cascadeRegions.grow());
+				}
+			}
+		}
+
+		@Override
+		protected void initializeRegionTracker() {
+			// the previous image is provided by the owner when tracking
+		}
+
+		@Override
+		protected boolean trackRegion( Rectangle2D_F64 region ) {
+			return tracking.process(previousPyramid, previousDerivX, previousDerivY,
+					currentPyramid, currentDerivX, currentDerivY, region);
+		}
+	}
+
+	/**
+	 * Fern classifier which looks up fern values computed in the shared grid instead of computing them
+	 */
+	private class SharedFernClassifier extends TldFernClassifier<T> {
+		// shape of the previous region. Regions are looked up one shape at a time
+		Shape previous;
+
+		SharedFernClassifier( Random rand , InterpolatePixelS<T> interpolate ) {
+			super(rand, config.numFerns, config.fernSize, 20, 0.5f, interpolate);
+		}
+
+		@Override
+		public boolean lookupFernPN( TldRegionFernInfo info ) {
+			ImageRectangle r = info.r;
+			if( previous == null || previous.width != r.getWidth() || previous.height != r.getHeight() ) {
+				previous = shapes.get(shapeKey(r.getWidth(), r.getHeight()));
+			}
+
+			int index = previous == null ? -1 : previous.indexOf(r);
+			if( index < 0 )
+				return super.lookupFernPN(info);
+			return lookupFernPN(info, previous.values, index*ferns.length);
+		}
+	}
+
+	/**
+	 * All the regions in the shared grid with the same width and height, and their fern values
+	 */
+	private class Shape {
+		// size of each region
+		int width, height;
+		// distance between regions
+		int stepX, stepY;
+		// number of regions along each axis
+		int rows, cols;
+		// value of every fern in each region. Regions are in row-major order
+		int[] values;
+		// the frame the fern values were computed in
+		int frameID = -1;
+		// if a target uses this shape
+		boolean used;
+
+		// interpolation used to compute the fern values
+		InterpolatePixelS<T> interpolate = TldMultiTracker.this.interpolate.copy();
+		ImageRectangle work = new ImageRectangle();
+
+		Shape( int width , int height ) {
+			this.width = width;
+			this.height = height;
+
+			// same step size and start location as TldTracker
+			stepX = Math.max(1, (int)(width*0.1));
+			stepY = Math.max(1, (int)(height*0.1));
+
+			int maxX = image.width-width;
+			int maxY = image.height-height;
+			cols = maxX > 1 ? (maxX-2)/stepX + 1 : 0;
+			rows = maxY > 1 ? (maxY-2)/stepY + 1 : 0;
+
+			values = new int[rows*cols*fernValues.getNumFerns()];
+		}
+
+		/**
+		 * Computes the value of every fern in every region
+		 */
+		void computeFernValues( T image ) {
+			interpolate.setImage(image);
+
+			int numFerns = fernValues.getNumFerns();
+			for (int i = 0; i < rows*cols; i++) {
+				region(i, work);
+				fernValues.computeFernValues(work, interpolate, values, i*numFerns);
+			}
+			frameID = TldMultiTracker.this.frameID;
+		}
+
+		/**
+		 * Returns the location of the specified region
+		 */
+		void region( int index , ImageRectangle r ) {
+			r.x0 = 1 + (index%cols)*stepX;
+			r.y0 = 1 + (index/cols)*stepY;
+			r.x1 = r.x0 + width;
+			r.y1 = r.y0 + height;
+		}
+
+		/**
+		 * Index of the region or -1 if it's not in the grid
+		 */
+		int indexOf( ImageRectangle r ) {
+			int col = (r.x0-1)/stepX;
+			int row = (r.y0-1)/stepY;
+			if( r.x0 < 1 || r.y0 < 1 || col >= cols || row >= rows ||
+					(r.x0-1)%stepX != 0 || (r.y0-1)%stepY != 0 )
+				return -1;
+			return row*cols + col;
+		}
+	}
+}
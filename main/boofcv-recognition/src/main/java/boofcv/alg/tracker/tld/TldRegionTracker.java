@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -159,6 +159,13 @@ public class TldRegionTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		previousImage = FactoryPyramid.discreteGaussian(image.getScales(), -1, 1, false, ImageType.single(imageClass));
 		previousImage.initialize(image.getInputWidth(), image.getInputHeight());
 
+		declareTracks();
+	}
+
+	/**
+	 * Declares storage for tracks based on the number of layers in the pyramid
+	 */
+	protected void declareTracks() {
 		for( int i = 0; i < tracks.length; i++ ) {
 			Track t = new Track();
 			t.klt = new PyramidKltFeature(numPyramidLayers,featureRadius);
@@ -191,6 +198,33 @@ public class TldRegionTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		return success;
 	}
 
+	/**
+	 * Same as {@link #process(ImagePyramid, Rectangle2D_F64)} but the previous and current image along with their
+	 * gradients are provided. Used when the images are shared by multiple trackers. The internal copy of the
+	 * previous image is not used or modified.
+	 *
+	 * @param previous Previous image in the sequence
+	 * @param previousDerivX Gradient of each layer in the previous image
+	 * @param previousDerivY Gradient of each layer in the previous image
+	 * @param current Most recent video image.
+	 * @param currentDerivX Gradient of each layer in the current image
+	 * @param currentDerivY Gradient of each layer in the current image
+	 * @param targetRectangle Location of target in previous frame. Not modified.
+	 * @return true if tracking was successful or false if not
+	 */
+	public boolean process( ImagePyramid<I> previous, D[] previousDerivX, D[] previousDerivY,
+							ImagePyramid<I> current, D[] currentDerivX, D[] currentDerivY,
+							Rectangle2D_F64 targetRectangle ) {
+		if( tracks[0] == null || numPyramidLayers != current.getNumLayers() ) {
+			numPyramidLayers = current.getNumLayers();
+			declareTracks();
+		}
+
+		spawnGrid(previous, previousDerivX, previousDerivY, targetRectangle);
+
+		return trackFeature(previous, previousDerivX, previousDerivY, current, currentDerivX, currentDerivY);
+	}
+
 	/**
 	 * Computes the gradient and changes the reference to the current pyramid
 	 */
@@ -218,6 +252,14 @@ public class TldRegionTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 	 * Tracks KLT features in forward/reverse direction and the tracking error metrics
 	 */
 	protected boolean trackFeature() {
+		return trackFeature(previousImage, previousDerivX, previousDerivY, currentImage, currentDerivX, currentDerivY);
+	}
+
+	/**
+	 * Tracks KLT features in forward/reverse direction between the two images and the tracking error metrics
+	 */
+	protected boolean trackFeature( ImagePyramid<I> previousImage, D[] previousDerivX, D[] previousDerivY,
+									ImagePyramid<I> currentImage, D[] currentDerivX, D[] currentDerivY ) {
 
 		pairs.reset();
 		// total number of tracks which contribute to FB error
@@ -288,6 +330,14 @@ public class TldRegionTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 	 * Spawn KLT tracks at evenly spaced points inside a grid
 	 */
 	protected void spawnGrid(Rectangle2D_F64 prevRect ) {
+		spawnGrid(previousImage, previousDerivX, previousDerivY, prevRect);
+	}
+
+	/**
+	 * Spawn KLT tracks at evenly spaced points inside a grid in the specified image
+	 */
+	protected void spawnGrid( ImagePyramid<I> previousImage, D[] previousDerivX, D[] previousDerivY,
+							  Rectangle2D_F64 prevRect ) {
 		// Shrink the rectangle to ensure that all features are entirely contained inside
 		spawnRect.p0.x = prevRect.p0.x + featureRadius;
 		spawnRect.p0.y = prevRect.p0.y + featureRadius;
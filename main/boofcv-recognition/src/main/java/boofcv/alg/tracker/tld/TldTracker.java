@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -76,17 +76,17 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 	private ImageRectangle trackerRegion_I32 = new ImageRectangle();
 
 	// Region used inside detection cascade
-	private FastQueue<ImageRectangle> cascadeRegions = new FastQueue<>(ImageRectangle.class, true);
+	protected FastQueue<ImageRectangle> cascadeRegions = new FastQueue<>(ImageRectangle.class, true);
 
 	// Image pyramid of input image
 	private PyramidDiscrete<T> imagePyramid;
 
 	// Tracks features inside the current region
-	private TldRegionTracker<T,D> tracking;
+	protected TldRegionTracker<T,D> tracking;
 	// Adjusts the region using track information
 	private TldAdjustRegion adjustRegion;
 	// Detects rectangles: Removes candidates which lack texture
-	private TldVarianceFilter<T> variance;
+	protected TldVarianceFilter<T> variance;
 	// Detects rectangles: Removes candidates don't match the fern descriptors
 	private TldFernClassifier<T> fern;
 	// Detects rectangles: Removes candidates don't match NCC descriptors
@@ -118,6 +118,18 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 	public TldTracker( TldParameters config ,
 					   InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
 					   Class<T> imageType , Class<D> derivType) {
+		this(config, interpolate, gradient, imageType, derivType, false);
+	}
+
+	/**
+	 * Configures the TLD tracker
+	 *
+	 * @param config Configuration class which specifies the tracker's behavior
+	 * @param concurrent If true the detection cascade is processed using {@link TldDetection_MT}
+	 */
+	public TldTracker( TldParameters config ,
+					   InterpolatePixelS<T> interpolate , ImageGradient<T,D> gradient ,
+					   Class<T> imageType , Class<D> derivType , boolean concurrent ) {
 		this.config = config;
 
 		Random rand = new Random(config.randomSeed);
@@ -129,13 +141,24 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 		adjustRegion = new TldAdjustRegion(config.motionIterations);
 		variance = new TldVarianceFilter<>(imageType);
 		template = new TldTemplateMatching<>(interpolate);
-		fern = new TldFernClassifier<>(
-				rand, config.numFerns, config.fernSize, 20, 0.5f, interpolate);
+		fern = createFernClassifier(rand, interpolate);
 
-		detection = new TldDetection<>(fern, template, variance, config);
+		if( concurrent )
+			detection = new TldDetection_MT<>(fern, template, variance, interpolate, config);
+		else
+			detection = new TldDetection<>(fern, template, variance, config);
 		learning = new TldLearning<>(rand, config, template, variance, fern, detection);
 	}
 
+	/**
+	 * Creates the fern classifier. Called by the constructor.
+	 *
+	 * @param rand Random number generator. The fern descriptions are its first samples.
+	 */
+	protected TldFernClassifier<T> createFernClassifier( Random rand , InterpolatePixelS<T> interpolate ) {
+		return new TldFernClassifier<>(rand, config.numFerns, config.fernSize, 20, 0.5f, interpolate);
+	}
+
 	/**
 	 * Starts tracking the rectangular region.
 	 *
@@ -147,13 +170,7 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 	 */
 	public void initialize( T image , int x0 , int y0 , int x1 , int y1 ) {
 
-		if( imagePyramid == null ||
-				imagePyramid.getInputWidth() != image.width || imagePyramid.getInputHeight() != image.height ) {
-			int minSize = (config.trackerFeatureRadius*2+1)*5;
-			int scales[] = selectPyramidScale(image.width,image.height,minSize);
-			imagePyramid = FactoryPyramid.discreteGaussian(scales,-1,1,true,image.getImageType());
-		}
-		imagePyramid.process(image);
+		updateImage(image);
 
 		reacquiring = false;
 
@@ -163,8 +180,7 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 		template.reset();
 		fern.reset();
 
-		tracking.initialize(imagePyramid);
-		variance.setImage(image);
+		initializeRegionTracker();
 		template.setImage(image);
 		fern.setImage(image);
 		adjustRegion.init(image.width,image.height);
@@ -174,6 +190,37 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 		previousTrackArea = targetRegion.area();
 	}
 
+	/**
+	 * Computes the image pyramid and integral images for the new image
+	 */
+	protected void updateImage( T image ) {
+		if( imagePyramid == null ||
+				imagePyramid.getInputWidth() != image.width || imagePyramid.getInputHeight() != image.height ) {
+			int minSize = (config.trackerFeatureRadius*2+1)*5;
+			int scales[] = selectPyramidScale(image.width,image.height,minSize);
+			imagePyramid = FactoryPyramid.discreteGaussian(scales,-1,1,true,image.getImageType());
+		}
+		imagePyramid.process(image);
+		variance.setImage(image);
+	}
+
+	/**
+	 * Sets the region tracker's reference image to the current image
+	 */
+	protected void initializeRegionTracker() {
+		tracking.initialize(imagePyramid);
+	}
+
+	/**
+	 * Updates the region from the previous image to the current image using the region tracker
+	 *
+	 * @param region (Input) location in previous image, (Output) location in current image
+	 * @return true if tracking was successful
+	 */
+	protected boolean trackRegion( Rectangle2D_F64 region ) {
+		return tracking.process(imagePyramid, region);
+	}
+
 	/**
 	 * Used to set the location of the track without changing any appearance history.
 	 *
@@ -202,7 +249,7 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 	/**
 	 * Creates a list containing all the regions which need to be tested
 	 */
-	private void createCascadeRegion( int imageWidth , int imageHeight ) {
+	protected void createCascadeRegion( int imageWidth , int imageHeight ) {
 
 		cascadeRegions.reset();
 
@@ -260,9 +307,8 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 		boolean success = true;
 		valid = false;
 
-		imagePyramid.process(image);
+		updateImage(image);
 		template.setImage(image);
-		variance.setImage(image);
 		fern.setImage(image);
 
 		if( reacquiring ) {
@@ -277,7 +323,7 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 				ImageRectangle r = region.rect;
 				targetRegion.set(r.x0, r.y0, r.x1, r.y1);
 				// get tracking running again
-				tracking.initialize(imagePyramid);
+				initializeRegionTracker();
 
 				checkNewTrackStrong(region.confidence);
 
@@ -289,7 +335,7 @@ public class TldTracker<T extends ImageGray<T>, D extends ImageGray<D>> {
 
 			// update the previous track region using the tracker
 			trackerRegion.set(targetRegion);
-			boolean trackingWorked = tracking.process(imagePyramid, trackerRegion);
+			boolean trackingWorked = trackRegion(trackerRegion);
 			trackingWorked &= adjustRegion.process(tracking.getPairs(), trackerRegion);
 			TldHelperFunctions.convertRegion(trackerRegion, trackerRegion_I32);
 
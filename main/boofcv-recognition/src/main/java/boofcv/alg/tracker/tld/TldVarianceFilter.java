@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -77,6 +77,17 @@ public class TldVarianceFilter<T extends ImageGray<T>> {
 			transformSq((GrayF32)gray,(GrayF64)integralSq);
 	}
 
+	/**
+	 * Uses the integral images computed by another filter instead of computing its own. Used when multiple
+	 * filters are applied to the same image.
+	 *
+	 * @param source Filter which has already processed the current image
+	 */
+	public void setImage( TldVarianceFilter<T> source ) {
+		this.integral = source.integral;
+		this.integralSq = source.integralSq;
+	}
+
 	/**
 	 * Selects a threshold based on image statistics.  The paper suggestions 1/2 the variance in the initial patch
 	 */
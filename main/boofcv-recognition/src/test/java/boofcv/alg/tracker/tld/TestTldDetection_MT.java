@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTldDetection_MT {
+
+	Random rand = new Random(234);
+
+	TldParameters config = new TldParameters();
+	InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+	// detector which has learned the target's appearance
+	TldDetection<GrayF32> learned;
+	// image with the target after it has moved
+	GrayF32 moved;
+	FastQueue<ImageRectangle> regions = new FastQueue<>(ImageRectangle.class, true);
+
+	@BeforeEach
+	public void learnTarget() {
+		GrayF32 noise = new GrayF32(320,240);
+		ImageMiscOps.fillUniform(noise,rand,0,255);
+		GrayF32 image = noise.createSameShape();
+		BlurImageOps.gaussian(noise,image,-1,2,null);
+
+		TldTracker<GrayF32,GrayF32> tracker = new TldTracker<>(config, interpolate,
+				FactoryDerivative.sobel(GrayF32.class, GrayF32.class), GrayF32.class, GrayF32.class);
+		tracker.initialize(image,60,50,150,140);
+		learned = tracker.getDetection();
+
+		moved = image.createSameShape();
+		new FDistort(image,moved).affine(1,0,0,1,4,-3).borderExt().apply();
+		setImage(moved);
+
+		regions.reset();
+		for( int y = 1; y < moved.height-90; y += 3 ) {
+			for( int x = 1; x < moved.width-90; x += 3 ) {
+				regions.grow().set(x,y,x+90,y+90);
+			}
+		}
+	}
+
+	/**
+	 * Compare the results against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingleThread() {
+		TldDetection<GrayF32> expected = new TldDetection<>(learned.fern, learned.template, learned.variance, config);
+		TldDetection_MT<GrayF32> alg = createAlg();
+
+		expected.detectionCascade(regions);
+		alg.detectionCascade(regions);
+
+		// sanity check
+		assertTrue(expected.isSuccess());
+		assertTrue(expected.getCandidateDetections().size > 1);
+
+		assertEquals(expected.getFernInfo().size, alg.getFernInfo().size);
+		for( int i = 0; i < expected.getFernInfo().size; i++ ) {
+			TldRegionFernInfo a = expected.getFernInfo().get(i);
+			TldRegionFernInfo b = alg.getFernInfo().get(i);
+			assertSame(a.r, b.r);
+			assertEquals(a.sumP, b.sumP);
+			assertEquals(a.sumN, b.sumN);
+		}
+
+		assertEquals(expected.getCandidateDetections().size, alg.getCandidateDetections().size);
+		for( int i = 0; i < expected.getCandidateDetections().size; i++ ) {
+			TldRegion a = expected.getCandidateDetections().get(i);
+			TldRegion b = alg.getCandidateDetections().get(i);
+			assertEquals(a.confidence, b.confidence);
+			checkSame(a.rect, b.rect);
+		}
+
+		assertEquals(expected.isSuccess(), alg.isSuccess());
+		assertEquals(expected.isAmbiguous(), alg.isAmbiguous());
+		checkSame(expected.getBest().rect, alg.getBest().rect);
+	}
+
+	/**
+	 * Results from the previous image must not be returned when nothing passes a test in the current image
+	 */
+	@Test
+	public void texturedThenFlat() {
+		TldDetection_MT<GrayF32> alg = createAlg();
+
+		alg.detectionCascade(regions);
+		assertTrue(alg.isSuccess());
+		assertTrue(alg.getCandidateDetections().size > 0);
+
+		// no region will pass the variance test
+		setImage(moved.createSameShape());
+		alg.detectionCascade(regions);
+		assertFalse(alg.isSuccess());
+		assertEquals(0, alg.getFernInfo().size);
+		assertEquals(0, alg.getCandidateDetections().size);
+	}
+
+	/**
+	 * Results from the previous image must not be returned when there are no regions
+	 */
+	@Test
+	public void noRegions() {
+		TldDetection_MT<GrayF32> alg = createAlg();
+
+		alg.detectionCascade(regions);
+		assertTrue(alg.getFernInfo().size > 0);
+
+		alg.detectionCascade(new FastQueue<>(ImageRectangle.class, true));
+		assertFalse(alg.isSuccess());
+		assertEquals(0, alg.getFernInfo().size);
+		assertEquals(0, alg.getCandidateDetections().size);
+	}
+
+	private TldDetection_MT<GrayF32> createAlg() {
+		TldDetection_MT<GrayF32> alg = new TldDetection_MT<>(learned.fern, learned.template, learned.variance,
+				interpolate, config);
+		alg.minBlockFern = 50;
+		alg.minBlockTemplate = 2;
+		return alg;
+	}
+
+	private void setImage( GrayF32 image ) {
+		learned.fern.setImage(image);
+		learned.template.setImage(image);
+		learned.variance.setImage(image);
+	}
+
+	private static void checkSame( ImageRectangle a , ImageRectangle b ) {
+		assertEquals(a.x0, b.x0);
+		assertEquals(a.y0, b.y0);
+		assertEquals(a.x1, b.x1);
+		assertEquals(a.y1, b.y1);
+	}
+}
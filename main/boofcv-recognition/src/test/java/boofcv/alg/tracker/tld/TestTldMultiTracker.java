@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.tld;
+
+import boofcv.abst.distort.FDistort;
+import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.shapes.Rectangle2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTldMultiTracker {
+
+	Random rand = new Random(234);
+	int width = 320, height = 240;
+
+	TldParameters config = new TldParameters();
+
+	/**
+	 * Each target should produce the same results as if it was tracked by its own tracker
+	 */
+	@Test
+	public void compareToSingleTargetTrackers() {
+		GrayF32 texture = new GrayF32(width+60,height+60);
+		ImageMiscOps.fillUniform(texture,rand,0,255);
+		GrayF32 blurred = texture.createSameShape();
+		BlurImageOps.gaussian(texture,blurred,-1,2,null);
+
+		int[][] rects = new int[][]{{20,25,110,120},{150,100,260,200},{60,140,140,220}};
+
+		TldMultiTracker<GrayF32,GrayF32> alg = createMulti();
+		TldTracker<GrayF32,GrayF32>[] expected = new TldTracker[rects.length];
+
+		GrayF32 image = new GrayF32(width,height);
+		for (int frame = 0; frame < 8; frame++) {
+			render(blurred, frame*2.0, -frame*1.5, image);
+
+			alg.process(image);
+			if( frame == 0 ) {
+				for (int i = 0; i < rects.length; i++) {
+					int[] r = rects[i];
+					alg.addTarget(r[0],r[1],r[2],r[3]);
+					expected[i] = createSingle();
+					expected[i].initialize(image,r[0],r[1],r[2],r[3]);
+				}
+				continue;
+			}
+
+			assertEquals(rects.length, alg.getTargetCount());
+			for (int i = 0; i < rects.length; i++) {
+				boolean success = expected[i].track(image);
+				assertEquals(success, alg.isSuccess(i));
+				assertTrue(success);
+
+				Rectangle2D_F64 a = expected[i].getTargetRegion();
+				Rectangle2D_F64 b = alg.getTarget(i).getTargetRegion();
+				assertEquals(a.p0.x, b.p0.x, 1e-8);
+				assertEquals(a.p0.y, b.p0.y, 1e-8);
+				assertEquals(a.p1.x, b.p1.x, 1e-8);
+				assertEquals(a.p1.y, b.p1.y, 1e-8);
+			}
+		}
+	}
+
+	/**
+	 * With a shared grid the fern values looked up by each target should be the same as computing them directly
+	 */
+	@Test
+	public void sharedGrid_fernValues() {
+		GrayF32 texture = new GrayF32(width+60,height+60);
+		ImageMiscOps.fillUniform(texture,rand,0,255);
+		GrayF32 blurred = texture.createSameShape();
+		BlurImageOps.gaussian(texture,blurred,-1,2,null);
+
+		TldMultiTracker<GrayF32,GrayF32> alg = createMulti(true);
+		assertTrue(alg.isSharedGrid());
+
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+		GrayF32 image = new GrayF32(width,height);
+		for (int frame = 0; frame < 5; frame++) {
+			render(blurred, frame*2.0, -frame*1.5, image);
+
+			alg.process(image);
+			if( frame == 0 ) {
+				alg.addTarget(20,25,110,120);
+				int count = alg.getSharedShapeCount();
+				assertTrue(count > 0);
+				// same size so all the regions are shared
+				alg.addTarget(150,100,240,195);
+				assertEquals(count, alg.getSharedShapeCount());
+				// learning modifies the fern tables after detection
+				alg.getTarget(0).setPerformLearning(false);
+				alg.getTarget(1).setPerformLearning(false);
+				continue;
+			}
+
+			interpolate.setImage(image);
+			for (int i = 0; i < alg.getTargetCount(); i++) {
+				assertTrue(alg.isSuccess(i));
+
+				TldDetection<GrayF32> detection = alg.getTarget(i).getDetection();
+				assertTrue(detection.getFernInfo().size > 0);
+				for (int j = 0; j < detection.getFernInfo().size; j++) {
+					TldRegionFernInfo found = detection.getFernInfo().get(j);
+					TldRegionFernInfo expected = new TldRegionFernInfo();
+					expected.r = found.r;
+					detection.fern.lookupFernPN(expected, interpolate);
+
+					assertEquals(expected.sumP, found.sumP);
+					assertEquals(expected.sumN, found.sumN);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Shapes in the shared grid are discarded when no target uses them
+	 */
+	@Test
+	public void sharedGrid_removeTarget() {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,255);
+
+		TldMultiTracker<GrayF32,GrayF32> alg = createMulti(true);
+		alg.process(image);
+		alg.addTarget(20,25,60,65);
+		int count = alg.getSharedShapeCount();
+		alg.addTarget(60,140,200,220);
+		assertTrue(alg.getSharedShapeCount() > count);
+
+		alg.removeTarget(1);
+		alg.process(image);
+		assertEquals(count, alg.getSharedShapeCount());
+	}
+
+	@Test
+	public void removeTarget() {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,255);
+
+		TldMultiTracker<GrayF32,GrayF32> alg = createMulti();
+		alg.process(image);
+		TldTracker<GrayF32,GrayF32> a = alg.addTarget(20,25,110,120);
+		TldTracker<GrayF32,GrayF32> b = alg.addTarget(150,100,260,200);
+		TldTracker<GrayF32,GrayF32> c = alg.addTarget(60,140,140,220);
+
+		alg.removeTarget(1);
+		assertEquals(2, alg.getTargetCount());
+		assertSame(a, alg.getTarget(0));
+		assertSame(c, alg.getTarget(1));
+		assertNotSame(b, alg.getTarget(1));
+
+		alg.process(image);
+		assertTrue(alg.isSuccess(0));
+		assertTrue(alg.isSuccess(1));
+	}
+
+	/**
+	 * Targets are discarded if the image changes shape
+	 */
+	@Test
+	public void changeImageShape() {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image,rand,0,255);
+
+		TldMultiTracker<GrayF32,GrayF32> alg = createMulti();
+		alg.process(image);
+		alg.addTarget(20,25,110,120);
+
+		GrayF32 smaller = new GrayF32(width/2,height/2);
+		ImageMiscOps.fillUniform(smaller,rand,0,255);
+		alg.process(smaller);
+		assertEquals(0, alg.getTargetCount());
+
+		alg.addTarget(20,25,80,100);
+		alg.process(smaller);
+		assertTrue(alg.isSuccess(0));
+	}
+
+	private void render( GrayF32 texture , double tranX , double tranY , GrayF32 output ) {
+		new FDistort(texture,output).affine(1,0,0,1,tranX-30,tranY-30).borderExt().apply();
+	}
+
+	private TldMultiTracker<GrayF32,GrayF32> createMulti() {
+		return createMulti(false);
+	}
+
+	private TldMultiTracker<GrayF32,GrayF32> createMulti( boolean sharedGrid ) {
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+		return new TldMultiTracker<>(config, interpolate, gradient, GrayF32.class, GrayF32.class, sharedGrid);
+	}
+
+	private TldTracker<GrayF32,GrayF32> createSingle() {
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+		ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+		return new TldTracker<>(config, interpolate, gradient, GrayF32.class, GrayF32.class);
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.detdesc.DetectDescribeMulti;
+import boofcv.abst.feature.detdesc.DetectDescribeMultiFusion;
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.abst.feature.detect.intensity.GeneralFeatureIntensity;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.detect.interest.DetectorInterestPointMulti;
+import boofcv.abst.feature.detect.interest.GeneralToInterestMulti;
+import boofcv.abst.feature.disparity.StereoDisparitySparse;
+import boofcv.abst.sfm.d3.DepthVisualOdometry;
+import boofcv.abst.sfm.d3.MonocularPlaneVisualOdometry;
+import boofcv.abst.sfm.d3.StereoVisualOdometry;
+import boofcv.abst.tracker.PointTracker;
+import boofcv.abst.tracker.PointTrackerTwoPass;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.sfm.DepthSparse3D;
+import boofcv.alg.tracker.klt.ConfigPKlt;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPoint;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.factory.tracker.FactoryPointTrackerTwoPass;
+import boofcv.struct.distort.DoNothing2Transform2_F32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame processing time of visual odometry algorithms on a synthetic sequence, see
+ * {@link SimulatedVisualOdometrySequence}. Each invocation resets the algorithm and processes the entire
+ * sequence, so the reported time is the average for a frame, including when new tracks are spawned. Run
+ * {@link #main} to also measure the allocation rate with the GC profiler.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+@OperationsPerInvocation(BenchmarkVisualOdometry.NUM_FRAMES)
+public class BenchmarkVisualOdometry {
+	public static final int NUM_FRAMES = 20;
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	SimulatedVisualOdometrySequence sequence;
+
+	StereoVisualOdometry<GrayU8> dualTrackPnP;
+	StereoVisualOdometry<GrayU8> quadPnP;
+	StereoVisualOdometry<GrayU8> stereoDepthPnP;
+	DepthVisualOdometry<GrayU8,GrayU16> depthPnP;
+	MonocularPlaneVisualOdometry<GrayU8> monoPlaneInfinity;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		sequence = new SimulatedVisualOdometrySequence(NUM_FRAMES,0.05,0.005);
+
+		ConfigPKlt configKlt = new ConfigPKlt();
+		configKlt.pyramidScaling = new int[]{1, 2, 4, 8};
+		configKlt.templateRadius = 3;
+		ConfigGeneralDetector configDetector = new ConfigGeneralDetector(600,3,1);
+
+		// VisOdomDualTrackPnP
+		PointTracker<GrayU8> trackerLeft = FactoryPointTracker.klt(configKlt,configDetector,GrayU8.class,GrayS16.class);
+		PointTracker<GrayU8> trackerRight = FactoryPointTracker.klt(configKlt,configDetector,GrayU8.class,GrayS16.class);
+		DescribeRegionPoint describe = FactoryDescribeRegionPoint.surfFast(null,GrayU8.class);
+		dualTrackPnP = FactoryVisualOdometry.stereoDualTrackerPnP(90,2,1.5,1.5,200,50,
+				trackerLeft,trackerRight,describe,11.0,GrayU8.class);
+		dualTrackPnP.setCalibration(sequence.stereo);
+
+		// VisOdomQuadPnP
+		GeneralFeatureIntensity intensity = FactoryIntensityPoint.shiTomasi(1,false,GrayS16.class);
+		NonMaxSuppression nonmax = FactoryFeatureExtractor.nonmax(new ConfigExtract(2,1,0,true,false,true));
+		GeneralFeatureDetector<GrayU8,GrayS16> general = new GeneralFeatureDetector<>(intensity,nonmax);
+		general.setMaxFeatures(600);
+		DetectorInterestPointMulti detector = new GeneralToInterestMulti(general,2,GrayU8.class,GrayS16.class);
+		DetectDescribeMulti detDescMulti = new DetectDescribeMultiFusion(detector,null,
+				FactoryDescribeRegionPoint.surfFast(null,GrayU8.class));
+		quadPnP = FactoryVisualOdometry.stereoQuadPnP(1.5,0.5,200,Double.MAX_VALUE,300,50,detDescMulti,GrayU8.class);
+		quadPnP.setCalibration(sequence.stereo);
+
+		// VisOdomPixelDepthPnP with depth from stereo disparity
+		StereoDisparitySparse<GrayU8> disparity =
+				FactoryStereoDisparity.regionSparseWta(0,150,3,3,30,-1,true,GrayU8.class);
+		PointTrackerTwoPass<GrayU8> trackerStereo =
+				FactoryPointTrackerTwoPass.klt(configKlt,configDetector,GrayU8.class,GrayS16.class);
+		stereoDepthPnP = FactoryVisualOdometry.stereoDepth(1.5,120,2,200,50,true,
+				disparity,trackerStereo,GrayU8.class);
+		stereoDepthPnP.setCalibration(sequence.stereo);
+
+		// VisOdomPixelDepthPnP with depth from a depth sensor
+		PointTrackerTwoPass<GrayU8> trackerDepth =
+				FactoryPointTrackerTwoPass.klt(configKlt,configDetector,GrayU8.class,GrayS16.class);
+		DepthSparse3D<GrayU16> sparseDepth = new DepthSparse3D.I<>(sequence.depthUnits);
+		depthPnP = FactoryVisualOdometry.depthDepthPnP(1.5,120,2,200,50,true,
+				sparseDepth,trackerDepth,GrayU8.class,GrayU16.class);
+		depthPnP.setCalibration(sequence.stereo.left,new DoNothing2Transform2_F32());
+
+		// VisOdomMonoPlaneInfinity
+		PointTracker<GrayU8> trackerMono = FactoryPointTracker.klt(configKlt,configDetector,GrayU8.class,GrayS16.class);
+		monoPlaneInfinity = FactoryVisualOdometry.monoPlaneInfinity(75,2,1.5,200,
+				trackerMono,ImageType.single(GrayU8.class));
+		monoPlaneInfinity.setCalibration(sequence.monoPlane);
+	}
+
+	@Benchmark
+	public void dualTrackPnP() {
+		processStereo(dualTrackPnP);
+	}
+
+	@Benchmark
+	public void quadPnP() {
+		processStereo(quadPnP);
+	}
+
+	@Benchmark
+	public void stereoDepthPnP() {
+		processStereo(stereoDepthPnP);
+	}
+
+	@Benchmark
+	public void depthPnP() {
+		depthPnP.reset();
+		for (int i = 0; i < sequence.size(); i++) {
+			if( !depthPnP.process(sequence.left.get(i),sequence.depth.get(i)) )
+				throw new RuntimeException("VO Failed!");
+		}
+	}
+
+	@Benchmark
+	public void monoPlaneInfinity() {
+		monoPlaneInfinity.reset();
+		for (int i = 0; i < sequence.size(); i++) {
+			if( !monoPlaneInfinity.process(sequence.left.get(i)) )
+				throw new RuntimeException("VO Failed!");
+		}
+	}
+
+	private void processStereo( StereoVisualOdometry<GrayU8> alg ) {
+		alg.reset();
+		for (int i = 0; i < sequence.size(); i++) {
+			if( !alg.process(sequence.left.get(i),sequence.right.get(i)) )
+				throw new RuntimeException("VO Failed!");
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkVisualOdometry.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d3;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.ConvertImage;
+import boofcv.simulation.SimulatePlanarWorld;
+import boofcv.struct.calib.CameraPinholeBrown;
+import boofcv.struct.calib.MonoPlaneParameters;
+import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU16;
+import boofcv.struct.image.GrayU8;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.se.Se3_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Renders a deterministic sequence of images for benchmarking visual odometry. A vehicle drives forward while slowly
+ * turning through a scene composed of a textured ground plane, walls on each side, and a wall far away.
+ * The camera is mounted on the vehicle and tilted towards the ground. The world and ground plane coordinate systems
+ * are the same as the vehicle's at the first frame, with the ground plane being the x-z plane.
+ *
+ * @author Peter Abeles
+ */
+public class SimulatedVisualOdometrySequence {
+	public int width = 640, height = 480;
+
+	// Depth image is in units of millimeters
+	public double depthUnits = 0.001;
+
+	public StereoParameters stereo;
+	public MonoPlaneParameters monoPlane;
+
+	public final List<GrayU8> left = new ArrayList<>();
+	public final List<GrayU8> right = new ArrayList<>();
+	public final List<GrayU16> depth = new ArrayList<>();
+
+	// True location of the left camera in each frame
+	public final List<Se3_F64> leftToWorld = new ArrayList<>();
+
+	/**
+	 * Renders the sequence.
+	 *
+	 * @param numFrames Number of frames in the sequence
+	 * @param forwardRate Distance the vehicle moves forward each frame
+	 * @param turnRate Change in the vehicle's heading each frame in radians
+	 */
+	public SimulatedVisualOdometrySequence( int numFrames , double forwardRate , double turnRate ) {
+		Random rand = new Random(234);
+
+		CameraPinholeBrown intrinsic = new CameraPinholeBrown(400,400,0,width/2,height/2,width,height).fsetRadial(0,0);
+
+		// right camera is 10 cm to the right of the left camera
+		stereo = new StereoParameters();
+		stereo.left = intrinsic;
+		stereo.right = new CameraPinholeBrown(intrinsic);
+		stereo.rightToLeft = new Se3_F64();
+		stereo.rightToLeft.T.set(0.1,0,0);
+		Se3_F64 leftToRight = stereo.rightToLeft.invert(null);
+
+		// Camera is 1.5 meters above the ground and tilted down
+		Se3_F64 cameraToVehicle = new Se3_F64();
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,-0.3,0,0,cameraToVehicle.R);
+		cameraToVehicle.T.set(0,-1.5,0);
+		monoPlane = new MonoPlaneParameters(new CameraPinholeBrown(intrinsic),cameraToVehicle.invert(null));
+
+		SimulatePlanarWorld sim = new SimulatePlanarWorld();
+		sim.setCamera(intrinsic);
+		sim.setBackground(30);
+		// ground plane. Surface normal points up
+		sim.addSurface(surface(Math.PI/2,0,0, 0,0,18), 40, texture(200,200,rand));
+		// walls on the left and right. Surface normals point towards the vehicle
+		sim.addSurface(surface(0, Math.PI/2,0,-4,-2,16), 36, texture(180,20,rand));
+		sim.addSurface(surface(0,-Math.PI/2,0, 4,-2,16), 36, texture(180,20,rand));
+		// distant wall
+		sim.addSurface(surface(0, Math.PI,0, 0,-8,40), 60, texture(240,80,rand));
+
+		Se3_F64 vehicleToWorld = new Se3_F64();
+		Se3_F64 worldToLeft = new Se3_F64();
+		Se3_F64 worldToRight = new Se3_F64();
+
+		for (int frame = 0; frame < numFrames; frame++) {
+			double heading = frame*turnRate;
+			ConvertRotation3D_F64.rotY(heading,vehicleToWorld.R);
+
+			Se3_F64 cameraToWorld = cameraToVehicle.concat(vehicleToWorld,null);
+			cameraToWorld.invert(worldToLeft);
+			worldToLeft.concat(leftToRight,worldToRight);
+			leftToWorld.add(cameraToWorld);
+
+			sim.setWorldToCamera(worldToLeft);
+			left.add(ConvertImage.convert(sim.render(),(GrayU8)null));
+			depth.add(convertDepth(sim.getDepthMap()));
+
+			sim.setWorldToCamera(worldToRight);
+			right.add(ConvertImage.convert(sim.render(),(GrayU8)null));
+
+			vehicleToWorld.T.x += forwardRate*Math.sin(heading);
+			vehicleToWorld.T.z += forwardRate*Math.cos(heading);
+		}
+	}
+
+	/**
+	 * Creates the transform from a surface to the world. Rotation is specified using XYZ euler angles.
+	 */
+	private static Se3_F64 surface( double rotX , double rotY , double rotZ , double x , double y , double z ) {
+		Se3_F64 rectToWorld = new Se3_F64();
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,rotX,rotY,rotZ,rectToWorld.R);
+		rectToWorld.T.set(x,y,z);
+		return rectToWorld;
+	}
+
+	/**
+	 * Low resolution random texture. When rendered it's up sampled, which creates blobs and corners that are
+	 * easy to track
+	 */
+	private static GrayF32 texture( int width , int height , Random rand ) {
+		GrayF32 texture = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(texture,rand,0,255);
+		return texture;
+	}
+
+	private GrayU16 convertDepth( GrayF32 depthMap ) {
+		GrayU16 out = new GrayU16(depthMap.width,depthMap.height);
+		for (int y = 0; y < depthMap.height; y++) {
+			for (int x = 0; x < depthMap.width; x++) {
+				float d = depthMap.get(x,y);
+				// zero indicates that depth is unknown
+				if( Float.isNaN(d) || d == Float.MAX_VALUE )
+					continue;
+				out.set(x,y,(int)Math.min(65535,Math.round(d/depthUnits)));
+			}
+		}
+		return out;
+	}
+
+	public int size() {
+		return left.size();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -399,4 +399,12 @@ public class SimulatePlanarWorld {
 	public GrayF32 getOutput() {
 		return output;
 	}
+
+	/**
+	 * Depth of each pixel along the camera's z-axis in the most recently rendered image. If no surface is visible
+	 * then the value will be Float.MAX_VALUE.
+	 */
+	public GrayF32 getDepthMap() {
+		return depthMap;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -22,6 +22,7 @@ import org.ddogleg.struct.FastQueue;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
 
@@ -30,6 +31,11 @@ import java.util.stream.IntStream;
  *
  * -Djava.util.concurrent.ForkJoinPool.common.parallelism=16
  *
+ * By default all concurrent code runs inside of a single global thread pool. If multiple independent
+ * pipelines are run in the same JVM then each one can be given its own {@link ConcurrencyContext}, which
+ * is bound to the thread calling the algorithm with {@link #bind} or {@link #runWith}. All the loop functions
+ * in this class will then use the bound context instead of the global one.
+ *
  * @author Peter Abeles
  */
 public class BoofConcurrency {
@@ -42,14 +48,18 @@ public class BoofConcurrency {
 	 */
 	public static boolean USE_CONCURRENT = true;
 
-	// Custom thread pool for streams so that the number of threads can be controlled
-	private static ForkJoinPool pool = new ForkJoinPool();
+	// Context used when no other context has been bound to the calling thread
+	private static ConcurrencyContext global = new ConcurrencyContext();
+
+	// Context which has been explicitly bound to a thread
+	private static final ThreadLocal<ConcurrencyContext> bound = new ThreadLocal<>();
 
 	/**
 	 * Sets the maximum number of threads available in the thread pool and adjusts USE_CONCURRENT. If
 	 * the number of threads is less than 2 then USE_CONCURRENT will be set to false and the single thread
 	 * version of code will be called. Otherwise USE_CONCURRENT will be true and the max threads in the pool
-	 * set to the specified number.
+	 * set to the specified number. The thread pool of the previous global context is shut down, so this
+	 * should not be called while concurrent code is running.
 	 * @param maxThreads Maximum number of threads. &le 1 means it will not be threaded.
 	 */
 	public static void setMaxThreads( int maxThreads ) {
@@ -57,19 +67,98 @@ public class BoofConcurrency {
 			USE_CONCURRENT = false;
 		} else {
 			USE_CONCURRENT = true;
-			pool = new ForkJoinPool(maxThreads);
+			ConcurrencyContext previous = global;
+			global = new ConcurrencyContext(maxThreads);
+			previous.shutdown();
 		}
 	}
 
 	/**
-	 * Returns the maximum number of threads which can be run at once in this pool
+	 * Returns the maximum number of threads which can be run at once in the active context
 	 */
 	public static int getMaxThreads() {
-		return pool.getParallelism();
+		return getContext().getMaxThreads();
 	}
 
+	/**
+	 * Returns true if concurrent algorithms should be used. If a context has been bound to this thread then
+	 * that context decides, otherwise {@link #USE_CONCURRENT} does.
+	 */
 	public static boolean isUseConcurrent() {
-		return USE_CONCURRENT;
+		ConcurrencyContext context = lookupLocal();
+		if( context == null )
+			return USE_CONCURRENT;
+		return context.isConcurrent();
+	}
+
+	/**
+	 * Binds the context to the calling thread. All concurrent algorithms invoked from this thread will
+	 * run inside the context until {@link #unbind()} is called.
+	 *
+	 * @param context The context which is to be used by this thread.
+	 */
+	public static void bind( ConcurrencyContext context ) {
+		if( context == null )
+			throw new IllegalArgumentException("Context can't be null. Call unbind() instead");
+		bound.set(context);
+	}
+
+	/**
+	 * Removes any context bound to the calling thread. The global context will be used again.
+	 */
+	public static void unbind() {
+		bound.remove();
+	}
+
+	/**
+	 * Runs the operation with the context bound to the calling thread. Whichever context was bound
+	 * before is restored afterwards.
+	 *
+	 * @param context The context which is to be used
+	 * @param operation The operation
+	 */
+	public static void runWith( ConcurrencyContext context , Runnable operation ) {
+		runWith(context,()->{operation.run();return null;});
+	}
+
+	/**
+	 * Runs the operation with the context bound to the calling thread and returns its result. Whichever context
+	 * was bound before is restored afterwards.
+	 *
+	 * @param context The context which is to be used
+	 * @param operation The operation
+	 * @return Value returned by the operation
+	 */
+	public static <T>T runWith( ConcurrencyContext context , Supplier<T> operation ) {
+		ConcurrencyContext previous = bound.get();
+		bind(context);
+		try {
+			return operation.get();
+		} finally {
+			if( previous == null )
+				bound.remove();
+			else
+				bound.set(previous);
+		}
+	}
+
+	/**
+	 * Returns the context which will be used by the calling thread. If the thread is a worker inside a context
+	 * then that context is returned, next any context bound to the thread, and finally the global context.
+	 */
+	public static ConcurrencyContext getContext() {
+		ConcurrencyContext context = lookupLocal();
+		return context == null ? global : context;
+	}
+
+	/**
+	 * Returns the context which is local to this thread or null if there is none
+	 */
+	private static ConcurrencyContext lookupLocal() {
+		Thread thread = Thread.currentThread();
+		if( thread instanceof ConcurrencyContext.Worker )
+			return ((ConcurrencyContext.Worker)thread).getContext();
+		return bound.get();
 	}
 
 	/**
@@ -80,8 +169,15 @@ public class BoofConcurrency {
 	 * @param consumer The consumer
 	 */
 	public static void loopFor(int start , int endExclusive , IntConsumer consumer ) {
+		final ConcurrencyContext context = getContext();
+		if( !context.concurrent ) {
+			for (int i = start; i < endExclusive; i++) {
+				consumer.accept(i);
+			}
+			return;
+		}
 		try {
-			pool.submit(() ->IntStream.range(start, endExclusive).parallel().forEach(consumer)).get();
+			context.pool.submit(() ->IntStream.range(start, endExclusive).parallel().forEach(consumer)).get();
 		} catch (InterruptedException | ExecutionException e) {
 			e.printStackTrace();
 		}
@@ -95,9 +191,16 @@ public class BoofConcurrency {
 	 * @param consumer The consumer
 	 */
 	public static void loopFor(int start , int endExclusive , int step , IntConsumer consumer ) {
+		final ConcurrencyContext context = getContext();
+		int range = endExclusive-start;
+		if( !context.concurrent ) {
+			for (int i = 0; i < range/step; i++) {
+				consumer.accept(start+i*step);
+			}
+			return;
+		}
 		try {
-			int range = endExclusive-start;
-			pool.submit(() ->IntStream.range(0, range/step).parallel().forEach(i-> consumer.accept(start+i*step))).get();
+			context.pool.submit(() ->IntStream.range(0, range/step).parallel().forEach(i-> consumer.accept(start+i*step))).get();
 		} catch (InterruptedException | ExecutionException e) {
 			e.printStackTrace();
 		}
@@ -122,7 +225,8 @@ public class BoofConcurrency {
 	 */
 	public static void loopBlocks(int start , int endExclusive , int minBlock,
 								  IntRangeConsumer consumer ) {
-		final ForkJoinPool pool = BoofConcurrency.pool;
+		final ConcurrencyContext context = getContext();
+		final ForkJoinPool pool = context.pool;
 		int numThreads = pool.getParallelism();
 
 		int range = endExclusive-start;
@@ -131,6 +235,11 @@ public class BoofConcurrency {
 		if( range < 0 )
 			throw new IllegalArgumentException("end must be more than start. "+start+" -> "+endExclusive);
 
+		if( !context.concurrent ) {
+			consumer.accept(start,endExclusive);
+			return;
+		}
+
 		int block = selectBlockSize(range,minBlock,numThreads);
 
 		try {
@@ -156,7 +265,8 @@ public class BoofConcurrency {
 	 * @param consumer The consumer
 	 */
 	public static void loopBlocks(int start , int endExclusive , IntRangeConsumer consumer ) {
-		final ForkJoinPool pool = BoofConcurrency.pool;
+		final ConcurrencyContext context = getContext();
+		final ForkJoinPool pool = context.pool;
 		int numThreads = pool.getParallelism();
 
 		int range = endExclusive-start;
@@ -165,6 +275,11 @@ public class BoofConcurrency {
 		if( range < 0 )
 			throw new IllegalArgumentException("end must be more than start. "+start+" -> "+endExclusive);
 
+		if( !context.concurrent ) {
+			consumer.accept(start,endExclusive);
+			return;
+		}
+
 		// Did some experimentation here. Gave it more threads than were needed or exactly what was needed
 		// exactly seemed to do better in the test cases
 		int blockSize = Math.max(1,range/numThreads);
@@ -185,7 +300,8 @@ public class BoofConcurrency {
 	 * @param consumer The consumer
 	 */
 	public static <T>void loopBlocks(int start , int endExclusive , FastQueue<T> workspace, IntRangeObjectConsumer<T> consumer ) {
-		final ForkJoinPool pool = BoofConcurrency.pool;
+		final ConcurrencyContext context = getContext();
+		final ForkJoinPool pool = context.pool;
 		int numThreads = pool.getParallelism();
 
 		int range = endExclusive-start;
@@ -194,6 +310,12 @@ public class BoofConcurrency {
 		if( range < 0 )
 			throw new IllegalArgumentException("end must be more than start. "+start+" -> "+endExclusive);
 
+		if( !context.concurrent ) {
+			workspace.resize(1);
+			consumer.accept(workspace.get(0),start,endExclusive);
+			return;
+		}
+
 		// Did some experimentation here. Gave it more threads than were needed or exactly what was needed
 		// exactly seemed to do better in the test cases
 		int blockSize = Math.max(1,range/numThreads);
@@ -216,7 +338,8 @@ public class BoofConcurrency {
 	 */
 	public static <T>void loopBlocks(int start , int endExclusive , int minBlock ,
 									 FastQueue<T> workspace, IntRangeObjectConsumer<T> consumer ) {
-		final ForkJoinPool pool = BoofConcurrency.pool;
+		final ConcurrencyContext context = getContext();
+		final ForkJoinPool pool = context.pool;
 		int numThreads = pool.getParallelism();
 
 		int range = endExclusive-start;
@@ -225,6 +348,12 @@ public class BoofConcurrency {
 		if( range < 0 )
 			throw new IllegalArgumentException("end must be more than start. "+start+" -> "+endExclusive);
 
+		if( !context.concurrent ) {
+			workspace.resize(1);
+			consumer.accept(workspace.get(0),start,endExclusive);
+			return;
+		}
+
 		int blockSize = selectBlockSize(range,minBlock,numThreads);
 
 		try {
@@ -245,7 +374,7 @@ public class BoofConcurrency {
 	 */
 	public static Number sum(int start , int endExclusive , Class type, IntProducerNumber producer ) {
 		try {
-			return pool.submit(new IntOperatorTask.Sum(start,endExclusive,type,producer)).get();
+			return getContext().pool.submit(new IntOperatorTask.Sum(start,endExclusive,type,producer)).get();
 		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
@@ -262,7 +391,7 @@ public class BoofConcurrency {
 	 */
 	public static Number max(int start , int endExclusive , Class type, IntProducerNumber producer ) {
 		try {
-			return pool.submit(new IntOperatorTask.Max(start,endExclusive,type,producer)).get();
+			return getContext().pool.submit(new IntOperatorTask.Max(start,endExclusive,type,producer)).get();
 		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
@@ -279,7 +408,7 @@ public class BoofConcurrency {
 	 */
 	public static Number min(int start , int endExclusive , Class type, IntProducerNumber producer ) {
 		try {
-			return pool.submit(new IntOperatorTask.Min(start,endExclusive,type,producer)).get();
+			return getContext().pool.submit(new IntOperatorTask.Min(start,endExclusive,type,producer)).get();
 		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
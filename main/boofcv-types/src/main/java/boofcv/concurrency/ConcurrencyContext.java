@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Thread budget which concurrent algorithms run inside of. Each context owns its own {@link ForkJoinPool} so
+ * that independent processing pipelines in the same JVM can be isolated from each other and given their own
+ * number of cores. A context is made active for the calling thread with {@link BoofConcurrency#bind} or
+ * {@link BoofConcurrency#runWith}. Worker threads of a context always see their owning context, so nested
+ * concurrent calls made from inside a task stay inside the same budget.
+ *
+ * If the max threads is less than 2 then all loops are run inside the calling thread.
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyContext {
+	// Pool which all tasks in this context are submitted to
+	final ForkJoinPool pool;
+	// If false then loops are processed in the calling thread
+	final boolean concurrent;
+
+	/**
+	 * Creates a context with the specified number of threads.
+	 *
+	 * @param maxThreads Maximum number of threads. &le; 1 means it will not be threaded.
+	 */
+	public ConcurrencyContext( int maxThreads ) {
+		this.concurrent = maxThreads > 1;
+		this.pool = new ForkJoinPool(Math.max(1,maxThreads), Worker::new,null,false);
+	}
+
+	/**
+	 * Creates a context with one thread for each available processor
+	 */
+	public ConcurrencyContext() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Returns the maximum number of threads which can be run at once in this context
+	 */
+	public int getMaxThreads() {
+		return concurrent ? pool.getParallelism() : 1;
+	}
+
+	/**
+	 * True if loops will be split across multiple threads
+	 */
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Stops all threads owned by this context. Tasks which have already been submitted will finish.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Worker thread which remembers which context it belongs to
+	 */
+	class Worker extends ForkJoinWorkerThread {
+		Worker( ForkJoinPool pool ) {
+			super(pool);
+		}
+
+		ConcurrencyContext getContext() {
+			return ConcurrencyContext.this;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct;
+
+/**
+ * Stores a list of objects of the same type and size inside of a single primitive array instead of having
+ * one instance for each object. This reduces memory overhead and elements are stored next to each other,
+ * which speeds up operations which iterate through all the elements.
+ *
+ * @author Peter Abeles
+ */
+public interface PackedArray<T> {
+	/**
+	 * Discards all the elements. Memory is not released.
+	 */
+	void reset();
+
+	/**
+	 * Ensures there is enough memory to store the specified number of elements without declaring more memory
+	 */
+	void reserve( int numElements );
+
+	/**
+	 * Copies the element to the end of the array
+	 */
+	void append( T element );
+
+	/**
+	 * Returns a copy of the element at the specified index. The returned object is owned by the array and
+	 * will be modified by the next call.
+	 */
+	T getTemp( int index );
+
+	/**
+	 * Copies the element at the specified index into the provided storage
+	 */
+	void getCopy( int index , T dst );
+
+	/**
+	 * Number of elements in the array
+	 */
+	int size();
+}